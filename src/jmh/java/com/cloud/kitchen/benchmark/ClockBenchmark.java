@@ -0,0 +1,57 @@
+package com.cloud.kitchen.benchmark;
+
+import com.cloud.kitchen.clock.CachedClock;
+import com.cloud.kitchen.clock.SystemClock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The ClockBenchmark class measures the cost of one clock read: the wall clock the mediator used to read,
+ * the monotonic SystemClock and the CachedClock refreshed by a background thread.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ClockBenchmark {
+
+    private CachedClock cachedClock;
+
+    @Setup
+    public void setUp() {
+        cachedClock = new CachedClock();
+    }
+
+    @TearDown
+    public void tearDown() {
+        cachedClock.close();
+    }
+
+    @Benchmark
+    public long wallClock() {
+        return System.currentTimeMillis();
+    }
+
+    @Benchmark
+    public long systemClock() {
+        return SystemClock.INSTANCE.currentNanoTime();
+    }
+
+    @Benchmark
+    public long cachedClock() {
+        return cachedClock.currentNanoTime();
+    }
+}
@@ -0,0 +1,69 @@
+package com.cloud.kitchen.benchmark;
+
+import com.cloud.kitchen.clock.SystemClock;
+import com.cloud.kitchen.mediator.KitchenCluster;
+import com.cloud.kitchen.mediator.KitchenMediator;
+import com.cloud.kitchen.models.Courier;
+import com.cloud.kitchen.models.Order;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The ClusterScalingBenchmark class measures KitchenCluster.addOrder and addCourier from 8 threads
+ * for 1 to 8 shards. Each order is followed by a courier assigned to it, so both land on the same shard
+ * and the matched pairs are dispatched by that shard's dispatcher thread.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Dorg.slf4j.simpleLogger.defaultLogLevel=warn", "-Xmx2g"})
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ClusterScalingBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    private int shards;
+
+    private final AtomicLong ids = new AtomicLong();
+    private KitchenCluster cluster;
+
+    /**
+     * Creates a fresh cluster per iteration so queues and histograms do not carry over.
+     */
+    @Setup(Level.Iteration)
+    public void createCluster() {
+        cluster = new KitchenCluster(shards, () -> new KitchenMediator(SystemClock.INSTANCE, Runnable::run));
+    }
+
+    /**
+     * Stops the dispatcher threads of the iteration cluster.
+     */
+    @TearDown(Level.Iteration)
+    public void shutdownCluster() {
+        cluster.shutdown();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void addOrderAndCourier() {
+        long id = ids.incrementAndGet();
+        String orderId = Long.toString(id);
+        cluster.addOrder(new Order(orderId, "Burger", 5));
+        cluster.addCourier(new Courier((int) id, 0L, orderId));
+    }
+}
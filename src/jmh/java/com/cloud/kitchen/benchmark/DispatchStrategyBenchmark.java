@@ -0,0 +1,109 @@
+package com.cloud.kitchen.benchmark;
+
+import com.cloud.kitchen.clock.SystemClock;
+import com.cloud.kitchen.mediator.KitchenMediator;
+import com.cloud.kitchen.models.Courier;
+import com.cloud.kitchen.models.Order;
+import com.cloud.kitchen.strategy.AuctionOrderDispatcherStrategy;
+import com.cloud.kitchen.strategy.FifoOrderDispatcherStrategy;
+import com.cloud.kitchen.strategy.MatchedOrderDispatcherStrategy;
+import com.cloud.kitchen.strategy.OrderDispatcherStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The DispatchStrategyBenchmark class measures one dispatch pass of each strategy
+ * over ready and waiting queues filled to a given depth. One operation drains the queues completely,
+ * so the number of pairs per second is the score multiplied by the queue depth.
+ * A batch size of 1 hands every pair to the mediator on its own, as before batch dispatch.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DispatchStrategyBenchmark {
+
+    /**
+     * The strategies under test.
+     */
+    public enum Strategy {
+        FIFO,
+        MATCHED,
+        AUCTION
+    }
+
+    @Param({"FIFO", "MATCHED", "AUCTION"})
+    private Strategy strategy;
+
+    @Param({"16", "1024", "16384"})
+    private int queueDepth;
+
+    @Param({"1", "256"})
+    private int batchSize;
+
+    private Order[] orders;
+    private Courier[] couriers;
+    private KitchenMediator mediator;
+    private OrderDispatcherStrategy dispatcher;
+
+    /**
+     * Creates the orders and couriers once per trial. Couriers are assigned to the orders in shuffled order
+     * so the matched strategy pairs them out of queue order.
+     */
+    @Setup(Level.Trial)
+    public void createWorkload() {
+        orders = new Order[queueDepth];
+        List<String> ids = new ArrayList<>(queueDepth);
+        for (int i = 0; i < queueDepth; i++) {
+            orders[i] = new Order(UUID.randomUUID().toString(), "Burger", 5);
+            ids.add(orders[i].getId());
+        }
+        Collections.shuffle(ids, new Random(42));
+        couriers = new Courier[queueDepth];
+        for (int i = 0; i < queueDepth; i++) {
+            couriers[i] = new Courier(i, 0L, ids.get(i));
+        }
+    }
+
+    /**
+     * Fills the queues of a fresh mediator before every pass.
+     */
+    @Setup(Level.Invocation)
+    public void fillQueues() {
+        mediator = new KitchenMediator(SystemClock.INSTANCE, Runnable::run);
+        dispatcher = switch (strategy) {
+            case FIFO -> new FifoOrderDispatcherStrategy();
+            case MATCHED -> new MatchedOrderDispatcherStrategy();
+            case AUCTION -> new AuctionOrderDispatcherStrategy();
+        };
+        Collections.addAll(mediator.getReadyOrders(), orders);
+        Collections.addAll(mediator.getWaitingCouriers(), couriers);
+    }
+
+    /**
+     * Runs one dispatch pass that pairs every order with a courier.
+     */
+    @Benchmark
+    public void dispatchOrder() {
+        dispatcher.dispatchOrders(mediator, mediator.getReadyOrders(), mediator.getWaitingCouriers(), batchSize);
+    }
+}
@@ -0,0 +1,115 @@
+package com.cloud.kitchen.benchmark;
+
+import com.cloud.kitchen.clock.SystemClock;
+import com.cloud.kitchen.journal.BinaryJournalSink;
+import com.cloud.kitchen.journal.EventJournal;
+import com.cloud.kitchen.journal.LoggingJournalSink;
+import com.cloud.kitchen.mediator.KitchenMediator;
+import com.cloud.kitchen.models.Courier;
+import com.cloud.kitchen.models.Order;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The EventJournalBenchmark class measures KitchenMediator.addOrder and addCourier with INFO logging enabled,
+ * logging each event on the calling thread, through an event journal formatting the same lines
+ * on its background thread, or through an event journal writing binary records to a file.
+ * Log output goes to a file under target so the console does not dominate the score.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Dorg.slf4j.simpleLogger.defaultLogLevel=info",
+        "-Dorg.slf4j.simpleLogger.logFile=target/jmh-event-journal.log", "-Xmx2g"})
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class EventJournalBenchmark {
+
+    /**
+     * The logging paths under test.
+     */
+    public enum LoggingMode {
+        DIRECT_LOGGING,
+        JOURNAL_LOGGING,
+        JOURNAL_BINARY
+    }
+
+    @Param({"DIRECT_LOGGING", "JOURNAL_LOGGING", "JOURNAL_BINARY"})
+    private LoggingMode loggingMode;
+
+    private final AtomicInteger ids = new AtomicInteger();
+    private KitchenMediator mediator;
+    private EventJournal journal;
+    private Path journalFile;
+
+    /**
+     * Creates a fresh mediator per iteration, with a journal unless logging directly.
+     */
+    @Setup(Level.Iteration)
+    public void createMediator() throws IOException {
+        mediator = new KitchenMediator(SystemClock.INSTANCE, Runnable::run);
+        if (loggingMode == LoggingMode.JOURNAL_LOGGING) {
+            journal = new EventJournal(new LoggingJournalSink());
+        } else if (loggingMode == LoggingMode.JOURNAL_BINARY) {
+            journalFile = Files.createTempFile("event-journal", ".bin");
+            journal = new EventJournal(new BinaryJournalSink(journalFile));
+        }
+        mediator.setEventJournal(journal);
+    }
+
+    /**
+     * Closes the journal of the iteration, waiting for its backlog to drain, and deletes the journal file.
+     */
+    @TearDown(Level.Iteration)
+    public void closeJournal() throws IOException {
+        if (journal != null) {
+            journal.close();
+            journal = null;
+        }
+        if (journalFile != null) {
+            Files.deleteIfExists(journalFile);
+            journalFile = null;
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void addOrderAndCourier1() {
+        addOrderAndCourier();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void addOrderAndCourier4() {
+        addOrderAndCourier();
+    }
+
+    /**
+     * Adds one order and a courier assigned to it, which the FIFO strategy pairs immediately.
+     */
+    private void addOrderAndCourier() {
+        int id = ids.incrementAndGet();
+        Order order = new Order(UUID.randomUUID().toString(), "Burger", 5);
+        mediator.addOrder(order);
+        mediator.addCourier(new Courier(id, 0L, order.getId()));
+    }
+}
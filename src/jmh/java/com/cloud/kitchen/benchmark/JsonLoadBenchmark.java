@@ -0,0 +1,43 @@
+package com.cloud.kitchen.benchmark;
+
+import com.cloud.kitchen.models.Order;
+import com.cloud.kitchen.util.JsonUtility;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * The JsonLoadBenchmark class measures the time to load the orders file,
+ * through databind into a list and through the streaming parser.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JsonLoadBenchmark {
+
+    @Benchmark
+    public List<Order> readOrders() {
+        return JsonUtility.readOrders();
+    }
+
+    @Benchmark
+    public void streamOrders(Blackhole blackhole) {
+        try (Stream<Order> orders = JsonUtility.streamOrders()) {
+            orders.forEach(blackhole::consume);
+        }
+    }
+}
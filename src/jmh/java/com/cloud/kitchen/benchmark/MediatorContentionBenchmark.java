@@ -0,0 +1,94 @@
+package com.cloud.kitchen.benchmark;
+
+import com.cloud.kitchen.clock.SystemClock;
+import com.cloud.kitchen.mediator.DispatchMode;
+import com.cloud.kitchen.mediator.KitchenMediator;
+import com.cloud.kitchen.models.Courier;
+import com.cloud.kitchen.models.Order;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The MediatorContentionBenchmark class measures KitchenMediator.addOrder and addCourier
+ * when 1 to 64 threads share one mediator. Preparation runs inline so the score reflects
+ * queueing and dispatch cost rather than thread pool hand-off.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Dorg.slf4j.simpleLogger.defaultLogLevel=warn", "-Xmx2g"})
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MediatorContentionBenchmark {
+
+    @Param({"INLINE", "SINGLE_WRITER"})
+    private DispatchMode dispatchMode;
+
+    private final AtomicLong ids = new AtomicLong();
+    private KitchenMediator mediator;
+
+    /**
+     * Creates a fresh mediator per iteration so queues and histograms do not carry over.
+     */
+    @Setup(Level.Iteration)
+    public void createMediator() {
+        mediator = new KitchenMediator(SystemClock.INSTANCE, Runnable::run);
+        mediator.setDispatchMode(dispatchMode);
+    }
+
+    /**
+     * Stops the dispatcher thread of the iteration mediator.
+     */
+    @TearDown(Level.Iteration)
+    public void shutdownMediator() {
+        mediator.shutdown();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void addOrderAndCourier01() {
+        addOrderAndCourier();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void addOrderAndCourier04() {
+        addOrderAndCourier();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void addOrderAndCourier16() {
+        addOrderAndCourier();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void addOrderAndCourier64() {
+        addOrderAndCourier();
+    }
+
+    /**
+     * Adds one order and one courier, which the FIFO strategy pairs.
+     */
+    private void addOrderAndCourier() {
+        long id = ids.incrementAndGet();
+        mediator.addOrder(new Order(Long.toString(id), "Burger", 5));
+        mediator.addCourier(new Courier((int) id, 0L));
+    }
+}
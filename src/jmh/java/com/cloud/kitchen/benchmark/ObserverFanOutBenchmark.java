@@ -0,0 +1,102 @@
+package com.cloud.kitchen.benchmark;
+
+import com.cloud.kitchen.clock.SystemClock;
+import com.cloud.kitchen.mediator.KitchenMediator;
+import com.cloud.kitchen.models.Courier;
+import com.cloud.kitchen.models.Order;
+import com.cloud.kitchen.observer.AsyncObserverFanOut;
+import com.cloud.kitchen.observer.CourierArrivalObserver;
+import com.cloud.kitchen.observer.MailboxPolicy;
+import com.cloud.kitchen.observer.OrderReadyObserver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The ObserverFanOutBenchmark class measures the cost of a dispatched order and courier pair for the mediator
+ * when its observers burn a given amount of CPU per notification, notified on the dispatching thread
+ * or through mailboxes that block or drop once full.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Dorg.slf4j.simpleLogger.defaultLogLevel=warn", "-Xmx2g"})
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ObserverFanOutBenchmark {
+
+    /**
+     * The notification paths under test.
+     */
+    public enum NotificationMode {
+        SYNC,
+        ASYNC_BLOCK,
+        ASYNC_DROP
+    }
+
+    @Param({"SYNC", "ASYNC_BLOCK", "ASYNC_DROP"})
+    private NotificationMode notificationMode;
+
+    @Param({"0", "2000"})
+    private long observerTokens;
+
+    private long ids;
+    private KitchenMediator mediator;
+    private AsyncObserverFanOut observerFanOut;
+
+    /**
+     * Creates a fresh mediator per iteration with an order ready and a courier arrival observer,
+     * wrapped in mailboxes in the async modes.
+     */
+    @Setup(Level.Iteration)
+    public void createMediator() {
+        mediator = new KitchenMediator(SystemClock.INSTANCE, Runnable::run);
+        OrderReadyObserver orderReadyObserver = order -> Blackhole.consumeCPU(observerTokens);
+        CourierArrivalObserver courierArrivalObserver = courier -> Blackhole.consumeCPU(observerTokens);
+        if (notificationMode != NotificationMode.SYNC) {
+            observerFanOut = new AsyncObserverFanOut(Executors.newSingleThreadExecutor(),
+                    notificationMode == NotificationMode.ASYNC_BLOCK ? MailboxPolicy.BLOCK : MailboxPolicy.DROP);
+            orderReadyObserver = observerFanOut.orderReadyObserver("ready", orderReadyObserver);
+            courierArrivalObserver = observerFanOut.courierArrivalObserver("arrival", courierArrivalObserver);
+        }
+        mediator.registerOrderReadyObserver(orderReadyObserver);
+        mediator.registerCourierArrivalObserver(courierArrivalObserver);
+    }
+
+    /**
+     * Closes the fan-out of the iteration, waiting for its mailboxes to drain.
+     */
+    @TearDown(Level.Iteration)
+    public void closeFanOut() {
+        if (observerFanOut != null) {
+            observerFanOut.close();
+            observerFanOut = null;
+        }
+    }
+
+    /**
+     * Adds one order and a courier assigned to it, which the FIFO strategy pairs immediately:
+     * one ready, one arrival and one pickup notification.
+     */
+    @Benchmark
+    public void addOrderAndCourier() {
+        long id = ids++;
+        Order order = new Order(Long.toString(id), "Burger", 0);
+        mediator.addOrder(order);
+        mediator.addCourier(new Courier((int) id, 0L, order.getId()));
+    }
+}
@@ -0,0 +1,94 @@
+package com.cloud.kitchen.benchmark;
+
+import com.cloud.kitchen.concurrent.TimingWheelScheduler;
+import com.cloud.kitchen.factory.ExecutorFactory;
+import com.cloud.kitchen.mediator.ExecutorMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The PreparationExecutorBenchmark class measures the time to complete a burst of concurrent order preparations
+ * of {@link #PREP_TIME_MILLIS} each, for the executors available to the mediator and the simulation:
+ * blocking sleeps on a cached platform thread pool, blocking sleeps on virtual threads,
+ * delayed tasks on the 5-thread scheduled pool used by Simulation, and timers on the timing wheel.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+public class PreparationExecutorBenchmark {
+
+    private static final long PREP_TIME_MILLIS = 50;
+
+    @Param({"1000", "10000"})
+    private int orders;
+
+    @Benchmark
+    public void cachedThreadPoolSleep() throws InterruptedException {
+        runBlocking(ExecutorFactory.createPreparationExecutor(ExecutorMode.CACHED_THREAD_POOL));
+    }
+
+    @Benchmark
+    public void virtualThreadSleep() throws InterruptedException {
+        runBlocking(ExecutorFactory.createPreparationExecutor(ExecutorMode.VIRTUAL_THREADS));
+    }
+
+    @Benchmark
+    public void scheduledThreadPoolDelay() throws InterruptedException {
+        ScheduledExecutorService executor = ExecutorFactory.createScheduledExecutor(ExecutorMode.CACHED_THREAD_POOL, 5);
+        CountDownLatch prepared = new CountDownLatch(orders);
+        for (int i = 0; i < orders; i++) {
+            executor.schedule(prepared::countDown, PREP_TIME_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        prepared.await();
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public void timingWheelDelay() throws InterruptedException {
+        TimingWheelScheduler timingWheel = ExecutorFactory.createTimingWheel(Runnable::run);
+        CountDownLatch prepared = new CountDownLatch(orders);
+        for (int i = 0; i < orders; i++) {
+            timingWheel.schedule(prepared::countDown, PREP_TIME_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        prepared.await();
+        timingWheel.close();
+    }
+
+    /**
+     * Submits one task per order that blocks for the preparation time, and waits for all of them.
+     *
+     * @param executor The executor under test, shut down afterwards.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    private void runBlocking(ExecutorService executor) throws InterruptedException {
+        CountDownLatch prepared = new CountDownLatch(orders);
+        for (int i = 0; i < orders; i++) {
+            executor.execute(() -> {
+                try {
+                    Thread.sleep(PREP_TIME_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                prepared.countDown();
+            });
+        }
+        prepared.await();
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,108 @@
+package com.cloud.kitchen.benchmark;
+
+import com.cloud.kitchen.clock.VirtualClock;
+import com.cloud.kitchen.mediator.ReadyShelf;
+import com.cloud.kitchen.models.Order;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The ReadyShelfBenchmark class measures taking the order closest to expiry off a shelf of a given depth
+ * and shelving a new one: on the ReadyShelf skip list, on a PriorityBlockingQueue and by scanning a plain ready queue.
+ * Nothing expires, so every operation is a shelf hit.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ReadyShelfBenchmark {
+
+    @Param({"100", "10000"})
+    private int shelfDepth;
+
+    private ReadyShelf readyShelf;
+    private PriorityBlockingQueue<Order> priorityQueue;
+    private Queue<Order> readyQueue;
+    private Order[] orders;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        orders = new Order[1 << 16];
+        for (int i = 0; i < orders.length; i++) {
+            orders[i] = new Order(Integer.toString(i), "Burger", 0);
+            orders[i].setShelfLife(random.nextInt(10, 600));
+        }
+        readyShelf = new ReadyShelf(new VirtualClock(), ReadyShelf.UNBOUNDED, ReadyShelf.NO_EXPIRY, TimeUnit.SECONDS);
+        priorityQueue = new PriorityBlockingQueue<>(shelfDepth, Comparator.comparingInt(Order::getShelfLife));
+        readyQueue = new ConcurrentLinkedQueue<>();
+        for (int i = 0; i < shelfDepth; i++) {
+            readyShelf.add(orders[i]);
+            priorityQueue.add(orders[i]);
+            readyQueue.add(orders[i]);
+        }
+        next = shelfDepth;
+    }
+
+    @Benchmark
+    public Order readyShelf() {
+        readyShelf.add(nextOrder());
+        return readyShelf.poll();
+    }
+
+    @Benchmark
+    public Order priorityBlockingQueue() {
+        priorityQueue.add(nextOrder());
+        return priorityQueue.poll();
+    }
+
+    @Benchmark
+    public Order scanReadyQueue() {
+        readyQueue.add(nextOrder());
+        Order closest = null;
+        for (Order order : readyQueue) {
+            if (closest == null || order.getShelfLife() < closest.getShelfLife()) {
+                closest = order;
+            }
+        }
+        Iterator<Order> iterator = readyQueue.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next() == closest) {
+                iterator.remove();
+                break;
+            }
+        }
+        return closest;
+    }
+
+    /**
+     * Retrieves the next order to shelve, cycling through the generated orders.
+     *
+     * @return The order.
+     */
+    private Order nextOrder() {
+        Order order = orders[next];
+        next = (next + 1) & (orders.length - 1);
+        return order;
+    }
+}
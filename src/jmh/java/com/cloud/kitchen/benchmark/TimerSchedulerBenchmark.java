@@ -0,0 +1,109 @@
+package com.cloud.kitchen.benchmark;
+
+import com.cloud.kitchen.concurrent.TimingWheelScheduler;
+import com.cloud.kitchen.factory.ExecutorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The TimerSchedulerBenchmark class measures the throughput of scheduling and cancelling a timer
+ * while {@link #pendingTimers} other timers are pending, for the ScheduledThreadPoolExecutor used by Simulation
+ * and for the TimingWheelScheduler. Pending timers are due in ten minutes to an hour so none of them fires.
+ * The executor removes cancelled tasks from its delay queue, otherwise the queue would grow for the whole run.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TimerSchedulerBenchmark {
+
+    private static final Runnable NO_OP = () -> { };
+
+    @Param({"SCHEDULED_THREAD_POOL", "TIMING_WHEEL"})
+    private String scheduler;
+
+    @Param({"1000000"})
+    private int pendingTimers;
+
+    private ScheduledThreadPoolExecutor executor;
+    private TimingWheelScheduler timingWheel;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (scheduler.equals("TIMING_WHEEL")) {
+            timingWheel = ExecutorFactory.createTimingWheel(Runnable::run);
+        } else {
+            executor = new ScheduledThreadPoolExecutor(5);
+            executor.setRemoveOnCancelPolicy(true);
+        }
+        for (int i = 0; i < pendingTimers; i++) {
+            schedule(ThreadLocalRandom.current().nextLong(600_000, 3_600_000));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (timingWheel != null) {
+            timingWheel.close();
+        } else {
+            executor.shutdownNow();
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void scheduleAndCancel() {
+        cancel(schedule(ThreadLocalRandom.current().nextLong(600_000, 3_600_000)));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void scheduleAndCancel4Threads() {
+        cancel(schedule(ThreadLocalRandom.current().nextLong(600_000, 3_600_000)));
+    }
+
+    /**
+     * Schedules a no-op timer on the scheduler under test.
+     *
+     * @param delayMillis The delay of the timer in milliseconds.
+     * @return The Timeout or ScheduledFuture handle.
+     */
+    private Object schedule(long delayMillis) {
+        if (timingWheel != null) {
+            return timingWheel.schedule(NO_OP, delayMillis, TimeUnit.MILLISECONDS);
+        }
+        return executor.schedule(NO_OP, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Cancels a timer scheduled by {@link #schedule(long)}.
+     *
+     * @param handle The Timeout or ScheduledFuture handle.
+     */
+    private void cancel(Object handle) {
+        if (handle instanceof TimingWheelScheduler.Timeout timeout) {
+            timeout.cancel();
+        } else {
+            ((ScheduledFuture<?>) handle).cancel(false);
+        }
+    }
+}
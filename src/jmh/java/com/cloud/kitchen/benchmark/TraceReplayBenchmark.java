@@ -0,0 +1,95 @@
+package com.cloud.kitchen.benchmark;
+
+import com.cloud.kitchen.journal.BinaryJournalSink;
+import com.cloud.kitchen.journal.EventJournal;
+import com.cloud.kitchen.mediator.KitchenMediator;
+import com.cloud.kitchen.simulation.DiscreteEventSimulation;
+import com.cloud.kitchen.simulation.TraceReplaySimulation;
+import com.cloud.kitchen.strategy.FifoOrderDispatcherStrategy;
+import com.cloud.kitchen.strategy.MatchedOrderDispatcherStrategy;
+import com.cloud.kitchen.util.JsonUtility;
+import com.cloud.kitchen.workload.ArrivalProcess;
+import com.cloud.kitchen.workload.WorkloadGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The TraceReplayBenchmark class measures the throughput of replaying a recorded trace as fast as possible,
+ * per trace record, for a trace of 100 000 orders placed at a thousand orders per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Dorg.slf4j.simpleLogger.defaultLogLevel=warn", "-Xmx2g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TraceReplayBenchmark {
+
+    private static final int ORDERS = 100_000;
+
+    /**
+     * Records per order: received, ready, courier arrival and pickup.
+     */
+    private static final int RECORDS = ORDERS * 4;
+
+    private Path trace;
+
+    @Setup(Level.Trial)
+    public void record() throws IOException {
+        trace = Files.createTempFile("kitchen", ".trace");
+        DiscreteEventSimulation simulation = new DiscreteEventSimulation(
+                WorkloadGenerator.fromSample(ArrivalProcess.poisson(1000), JsonUtility.readOrders(), 1).stream(ORDERS).toList(),
+                1, Long.MAX_VALUE);
+        KitchenMediator kitchenMediator = simulation.getKitchenMediator();
+        kitchenMediator.setDispatchCommand(new FifoOrderDispatcherStrategy());
+        kitchenMediator.setEventJournal(new EventJournal(new BinaryJournalSink(trace)));
+        simulation.processOrders();
+        kitchenMediator.getEventJournal().close();
+    }
+
+    @TearDown(Level.Trial)
+    public void delete() throws IOException {
+        Files.deleteIfExists(trace);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public long replayFifo() {
+        return replay(new TraceReplaySimulation(trace, TraceReplaySimulation.AS_FAST_AS_POSSIBLE), false);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public long replayMatched() {
+        return replay(new TraceReplaySimulation(trace, TraceReplaySimulation.AS_FAST_AS_POSSIBLE), true);
+    }
+
+    /**
+     * Replays the trace once.
+     *
+     * @param replay  The replay to run.
+     * @param matched Whether to dispatch with the Matched strategy rather than FIFO.
+     * @return The number of fired events.
+     */
+    private static long replay(TraceReplaySimulation replay, boolean matched) {
+        replay.getKitchenMediator().setDispatchCommand(matched ? new MatchedOrderDispatcherStrategy() : new FifoOrderDispatcherStrategy());
+        replay.processOrders();
+        return replay.getProcessedEvents();
+    }
+}
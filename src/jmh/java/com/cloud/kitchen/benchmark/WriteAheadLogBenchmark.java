@@ -0,0 +1,110 @@
+package com.cloud.kitchen.benchmark;
+
+import com.cloud.kitchen.journal.WriteAheadLog;
+import com.cloud.kitchen.models.Courier;
+import com.cloud.kitchen.models.Order;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * The WriteAheadLogBenchmark class measures the cost of logging the four events of an order, received, ready,
+ * courier arrived and picked up, to a write-ahead log. Appends either return once the records are buffered,
+ * leaving them to the next group commit, or wait until they are durable.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class WriteAheadLogBenchmark {
+
+    /**
+     * The durability modes under test.
+     */
+    public enum Durability {
+        GROUP_COMMIT,
+        AWAIT_DURABLE
+    }
+
+    @Param({"GROUP_COMMIT", "AWAIT_DURABLE"})
+    private Durability durability;
+
+    private final AtomicInteger ids = new AtomicInteger();
+    private Path directory;
+    private WriteAheadLog writeAheadLog;
+
+    /**
+     * Opens a write-ahead log in a fresh directory per iteration.
+     */
+    @Setup(Level.Iteration)
+    public void openLog() throws IOException {
+        directory = Files.createTempDirectory("write-ahead-log");
+        writeAheadLog = new WriteAheadLog(directory);
+    }
+
+    /**
+     * Closes the log of the iteration and deletes its directory.
+     */
+    @TearDown(Level.Iteration)
+    public void closeLog() throws IOException {
+        writeAheadLog.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long logOrder1() {
+        return logOrder();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long logOrder4() {
+        return logOrder();
+    }
+
+    /**
+     * Logs the lifecycle of one order, waiting for durability of the pickup in AWAIT_DURABLE mode.
+     *
+     * @return The sequence number of the pickup record.
+     */
+    private long logOrder() {
+        int id = ids.incrementAndGet();
+        Order order = new Order("order-" + id, "Burger", 5);
+        Courier courier = new Courier(id, id, order.getId());
+        writeAheadLog.orderReceived(order, id);
+        order.setReadyTime(id);
+        writeAheadLog.orderReady(order);
+        writeAheadLog.courierArrived(courier);
+        long sequence = writeAheadLog.orderPickedUp(order, courier, id);
+        if (durability == Durability.AWAIT_DURABLE) {
+            writeAheadLog.awaitDurable(sequence);
+        }
+        return sequence;
+    }
+}
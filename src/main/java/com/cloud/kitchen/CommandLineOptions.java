@@ -0,0 +1,699 @@
+package com.cloud.kitchen;
+
+import com.cloud.kitchen.factory.QueueFactory;
+import com.cloud.kitchen.mediator.AdmissionController;
+import com.cloud.kitchen.mediator.ExecutorMode;
+import com.cloud.kitchen.mediator.OverflowPolicy;
+import com.cloud.kitchen.mediator.QueueMode;
+import com.cloud.kitchen.mediator.ReadyShelf;
+import com.cloud.kitchen.observer.MailboxPolicy;
+import com.cloud.kitchen.simulation.CourierArrivalDistribution;
+import com.cloud.kitchen.simulation.TraceReplaySimulation;
+import com.cloud.kitchen.workload.ArrivalProcess;
+import com.cloud.kitchen.workload.WorkloadGenerator;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * The CommandLineOptions class parses the command-line arguments of {@link Main} once into typed values.
+ * Every flag is checked when parsed: numbers must be in range, names must match a policy, flags that select
+ * the same thing must not be combined and unknown flags are refused, all with an IllegalArgumentException
+ * naming the offending flag, so a bad argument stops the run before any simulation starts.
+ */
+public class CommandLineOptions {
+
+    /**
+     * Usage message listing the command-line flags.
+     */
+    public static final String USAGE = """
+            Usage: Main [flags]
+              --virtual-clock                 replay FIFO, Matched and Auction on a virtual clock
+              --experiments                   run the experiment matrix and write experiments.csv and experiments.json
+              --compact-replay=path           replay an orders file on the compact order store
+              --replay-trace=path             replay a recorded trace with every strategy
+              --replay-speed=factor|max       replay the trace factor times faster than recorded, or without waiting
+              --virtual-threads               prepare orders on virtual threads
+              --timing-wheel                  complete preparations and schedule couriers on timing wheels
+              --coarse-clock                  read time from a clock cached every millisecond
+              --off-heap-queues               keep the mediator queues in off-heap ring buffers
+              --queue-capacity=n              records per off-heap queue, a power of two
+              --uniform-couriers              one courier per order, arriving 3 to 15 seconds later
+              --exponential-couriers          one courier per order, arriving 3 seconds minimum, 9 seconds mean later
+              --seed=n                        seed of the courier arrival delays and generated workloads
+              --orders=path                   stream orders from a JSON or binary orders file
+              --workload=process:rate:count   generate orders with a constant, poisson, diurnal or flash-crowd process
+              --event-journal                 format mediator events on a background thread
+              --record-trace=dir              record the events of each run to a trace under dir
+              --wal=dir                       log the mediator queues to a write-ahead log under dir
+              --async-observers=block|drop    notify the logging observers through bounded mailboxes
+              --kitchen-capacity=n            orders prepared at once
+              --backlog-capacity=n            received orders waiting for kitchen capacity
+              --shelf-capacity=n              ready orders on the shelf
+              --overflow=block|reject|shed-oldest   orders received while the backlog is full
+              --shelf-life=s                  discard ready orders left on the shelf for s seconds
+              --metrics-port=n                serve Prometheus metrics over HTTP on port n
+              --metrics-file=path             write Prometheus metrics to path after each run
+              --help                          print this message""";
+
+    /**
+     * Command-line flag that prints the usage message.
+     */
+    private static final String HELP_FLAG = "--help";
+
+    /**
+     * Command-line flag that runs the simulations on a virtual clock instead of wall-clock time.
+     */
+    private static final String VIRTUAL_CLOCK_FLAG = "--virtual-clock";
+
+    /**
+     * Command-line flag that stamps and measures wait times with a clock cached by a background thread every millisecond,
+     * cheaper to read on the dispatch path than the system clock.
+     */
+    private static final String COARSE_CLOCK_FLAG = "--coarse-clock";
+
+    /**
+     * Command-line flag that prepares orders on virtual threads.
+     */
+    private static final String VIRTUAL_THREADS_FLAG = "--virtual-threads";
+
+    /**
+     * Command-line flag that completes preparations and schedules couriers on timing wheels.
+     */
+    private static final String TIMING_WHEEL_FLAG = "--timing-wheel";
+
+    /**
+     * Command-line flag that keeps the mediator queues in off-heap ring buffers.
+     */
+    private static final String OFF_HEAP_QUEUES_FLAG = "--off-heap-queues";
+
+    /**
+     * Command-line flag prefix setting the capacity of each off-heap queue, a power of two, as in --queue-capacity=4096.
+     */
+    private static final String QUEUE_CAPACITY_FLAG_PREFIX = "--queue-capacity=";
+
+    /**
+     * Command-line flag that dispatches one courier per order, arriving uniformly 3 to 15 seconds later.
+     */
+    private static final String UNIFORM_COURIERS_FLAG = "--uniform-couriers";
+
+    /**
+     * Command-line flag that dispatches one courier per order, arriving at least 3 and on average 9 seconds later.
+     */
+    private static final String EXPONENTIAL_COURIERS_FLAG = "--exponential-couriers";
+
+    /**
+     * Command-line flag prefix setting the seed of the courier arrival delays, as in --seed=42.
+     */
+    private static final String SEED_FLAG_PREFIX = "--seed=";
+
+    /**
+     * Command-line flag that writes mediator events to an event journal formatted by a background thread.
+     */
+    private static final String EVENT_JOURNAL_FLAG = "--event-journal";
+
+    /**
+     * Command-line flag prefix logging the mediator queues to a write-ahead log under the given directory
+     * and restoring them from it on startup, as in --wal=kitchen-wal.
+     */
+    private static final String WAL_FLAG_PREFIX = "--wal=";
+
+    /**
+     * Command-line flag prefix notifying the logging observers through bounded mailboxes on a separate executor,
+     * blocking or dropping notifications once a mailbox is full, as in --async-observers=drop.
+     */
+    private static final String ASYNC_OBSERVERS_FLAG_PREFIX = "--async-observers=";
+
+    /**
+     * Command-line flag prefix bounding the number of orders prepared at once, as in --kitchen-capacity=20.
+     */
+    private static final String KITCHEN_CAPACITY_FLAG_PREFIX = "--kitchen-capacity=";
+
+    /**
+     * Command-line flag prefix bounding the number of received orders waiting for kitchen capacity,
+     * as in --backlog-capacity=50.
+     */
+    private static final String BACKLOG_CAPACITY_FLAG_PREFIX = "--backlog-capacity=";
+
+    /**
+     * Command-line flag prefix bounding the number of ready orders on the shelf, as in --shelf-capacity=10.
+     */
+    private static final String SHELF_CAPACITY_FLAG_PREFIX = "--shelf-capacity=";
+
+    /**
+     * Command-line flag prefix putting ready orders on a shelf where they expire after the given number of seconds,
+     * unless they carry their own shelf life, as in --shelf-life=30.
+     */
+    private static final String SHELF_LIFE_FLAG_PREFIX = "--shelf-life=";
+
+    /**
+     * Command-line flag prefix selecting what happens to orders received while the backlog is full,
+     * block, reject or shed-oldest, as in --overflow=reject.
+     */
+    private static final String OVERFLOW_FLAG_PREFIX = "--overflow=";
+
+    /**
+     * Command-line flag prefix serving Prometheus metrics over HTTP on the given port, as in --metrics-port=9400.
+     */
+    private static final String METRICS_PORT_FLAG_PREFIX = "--metrics-port=";
+
+    /**
+     * Command-line flag prefix writing Prometheus metrics to the given file after each run, as in --metrics-file=kitchen.prom.
+     */
+    private static final String METRICS_FILE_FLAG_PREFIX = "--metrics-file=";
+
+    /**
+     * Command-line flag that runs every strategy against every courier arrival model on a virtual clock in parallel
+     * and writes the comparison table to experiments.csv and experiments.json.
+     */
+    private static final String EXPERIMENTS_FLAG = "--experiments";
+
+    /**
+     * Command-line flag prefix replaying the given JSON or binary orders file through the compact order store
+     * with the FIFO and Matched strategies, as in --compact-replay=orders.bin.
+     */
+    private static final String COMPACT_REPLAY_FLAG_PREFIX = "--compact-replay=";
+
+    /**
+     * Command-line flag prefix streaming orders from the given JSON or binary orders file instead of the one
+     * on the classpath, as in --orders=orders.bin.
+     */
+    private static final String ORDERS_FLAG_PREFIX = "--orders=";
+
+    /**
+     * Command-line flag prefix generating a synthetic workload with the menu and preparation times of the orders file
+     * on the classpath, as in --workload=poisson:50:10000 for ten thousand orders at fifty orders per second.
+     */
+    private static final String WORKLOAD_FLAG_PREFIX = "--workload=";
+
+    /**
+     * Command-line flag prefix recording the order and courier events of each run to a trace under the given directory,
+     * as in --record-trace=traces.
+     */
+    private static final String RECORD_TRACE_FLAG_PREFIX = "--record-trace=";
+
+    /**
+     * Command-line flag prefix replaying a recorded trace with every dispatch strategy, as in --replay-trace=traces/fifo.trace.
+     */
+    private static final String REPLAY_TRACE_FLAG_PREFIX = "--replay-trace=";
+
+    /**
+     * Command-line flag prefix setting how many times faster than recorded a trace is replayed, or max to replay it
+     * without waiting, as in --replay-speed=1000.
+     */
+    private static final String REPLAY_SPEED_FLAG_PREFIX = "--replay-speed=";
+
+    /**
+     * Largest TCP port the metrics server can listen on.
+     */
+    private static final int MAX_PORT = 65535;
+
+    private boolean help;
+    private boolean virtualClock;
+    private boolean coarseClock;
+    private boolean experiments;
+    private boolean eventJournal;
+    private ExecutorMode executorMode = ExecutorMode.CACHED_THREAD_POOL;
+    private QueueMode queueMode = QueueMode.HEAP;
+    private int queueCapacity = QueueFactory.DEFAULT_OFF_HEAP_QUEUE_CAPACITY;
+    private CourierArrivalDistribution courierDistribution;
+    private long seed;
+    private Path walDirectory;
+    private MailboxPolicy asyncObservers;
+    private Integer kitchenCapacity;
+    private Integer backlogCapacity;
+    private Integer shelfCapacity;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+    private Long shelfLifeSeconds;
+    private Integer metricsPort;
+    private Path metricsFile;
+    private Path compactReplayFile;
+    private Path ordersFile;
+    private ArrivalProcess workloadProcess;
+    private long workloadCount;
+    private Path recordTraceDirectory;
+    private Path replayTraceFile;
+    private double replaySpeedUp = TraceReplaySimulation.AS_FAST_AS_POSSIBLE;
+
+    /**
+     * Constructs CommandLineOptions holding the defaults, used when no flag is given.
+     */
+    private CommandLineOptions() {
+    }
+
+    /**
+     * Parses and checks the command-line arguments.
+     *
+     * @param args The command-line arguments.
+     * @return The options selected by the arguments, defaults for the flags that are absent.
+     * @throws IllegalArgumentException if a flag is unknown, has a value out of range or contradicts another flag.
+     */
+    public static CommandLineOptions parse(String... args) {
+        CommandLineOptions options = new CommandLineOptions();
+        boolean virtualThreads = false;
+        boolean timingWheel = false;
+        boolean uniformCouriers = false;
+        boolean exponentialCouriers = false;
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            String flag = equals < 0 ? arg : arg.substring(0, equals + 1);
+            String value = equals < 0 ? null : arg.substring(equals + 1);
+            switch (flag) {
+                case HELP_FLAG -> options.help = true;
+                case VIRTUAL_CLOCK_FLAG -> options.virtualClock = true;
+                case COARSE_CLOCK_FLAG -> options.coarseClock = true;
+                case EXPERIMENTS_FLAG -> options.experiments = true;
+                case EVENT_JOURNAL_FLAG -> options.eventJournal = true;
+                case VIRTUAL_THREADS_FLAG -> virtualThreads = true;
+                case TIMING_WHEEL_FLAG -> timingWheel = true;
+                case OFF_HEAP_QUEUES_FLAG -> options.queueMode = QueueMode.OFF_HEAP;
+                case UNIFORM_COURIERS_FLAG -> uniformCouriers = true;
+                case EXPONENTIAL_COURIERS_FLAG -> exponentialCouriers = true;
+                case QUEUE_CAPACITY_FLAG_PREFIX -> options.queueCapacity = parseQueueCapacity(value);
+                case SEED_FLAG_PREFIX -> options.seed = parseLong(flag, value, Long.MIN_VALUE, Long.MAX_VALUE);
+                case WAL_FLAG_PREFIX -> options.walDirectory = parsePath(flag, value);
+                case ASYNC_OBSERVERS_FLAG_PREFIX -> options.asyncObservers = parseEnum(flag, value, MailboxPolicy.class);
+                case KITCHEN_CAPACITY_FLAG_PREFIX -> options.kitchenCapacity = parseInt(flag, value, 1, Integer.MAX_VALUE);
+                case BACKLOG_CAPACITY_FLAG_PREFIX -> options.backlogCapacity = parseInt(flag, value, 0, Integer.MAX_VALUE);
+                case SHELF_CAPACITY_FLAG_PREFIX -> options.shelfCapacity = parseInt(flag, value, 1, Integer.MAX_VALUE);
+                case OVERFLOW_FLAG_PREFIX -> options.overflowPolicy = parseEnum(flag, value, OverflowPolicy.class);
+                case SHELF_LIFE_FLAG_PREFIX -> options.shelfLifeSeconds = parseLong(flag, value, 1, Long.MAX_VALUE);
+                case METRICS_PORT_FLAG_PREFIX -> options.metricsPort = parseInt(flag, value, 1, MAX_PORT);
+                case METRICS_FILE_FLAG_PREFIX -> options.metricsFile = parsePath(flag, value);
+                case COMPACT_REPLAY_FLAG_PREFIX -> options.compactReplayFile = parsePath(flag, value);
+                case ORDERS_FLAG_PREFIX -> options.ordersFile = parsePath(flag, value);
+                case WORKLOAD_FLAG_PREFIX -> options.parseWorkload(value);
+                case RECORD_TRACE_FLAG_PREFIX -> options.recordTraceDirectory = parsePath(flag, value);
+                case REPLAY_TRACE_FLAG_PREFIX -> options.replayTraceFile = parsePath(flag, value);
+                case REPLAY_SPEED_FLAG_PREFIX -> options.replaySpeedUp = parseSpeedUp(value);
+                default -> throw new IllegalArgumentException("Unknown flag: " + arg);
+            }
+        }
+        if (virtualThreads && timingWheel) {
+            throw new IllegalArgumentException(VIRTUAL_THREADS_FLAG + " and " + TIMING_WHEEL_FLAG + " cannot be combined");
+        }
+        if (uniformCouriers && exponentialCouriers) {
+            throw new IllegalArgumentException(UNIFORM_COURIERS_FLAG + " and " + EXPONENTIAL_COURIERS_FLAG + " cannot be combined");
+        }
+        if (options.ordersFile != null && options.workloadProcess != null) {
+            throw new IllegalArgumentException(ORDERS_FLAG_PREFIX + " and " + WORKLOAD_FLAG_PREFIX + " cannot be combined");
+        }
+        if (options.overflowPolicy == OverflowPolicy.SHED_OLDEST
+                && (options.backlogCapacity == null || options.backlogCapacity == 0)) {
+            throw new IllegalArgumentException(OVERFLOW_FLAG_PREFIX + "shed-oldest needs " + BACKLOG_CAPACITY_FLAG_PREFIX + "n above 0");
+        }
+        if (virtualThreads) {
+            options.executorMode = ExecutorMode.VIRTUAL_THREADS;
+        } else if (timingWheel) {
+            options.executorMode = ExecutorMode.TIMING_WHEEL;
+        }
+        if (uniformCouriers) {
+            options.courierDistribution = CourierArrivalDistribution.uniform(3000, 15000);
+        } else if (exponentialCouriers) {
+            options.courierDistribution = CourierArrivalDistribution.exponential(3000, 9000);
+        }
+        return options;
+    }
+
+    /**
+     * Parses an integer flag value within bounds.
+     *
+     * @param flag  The flag, for the error message.
+     * @param value The flag value.
+     * @param min   The smallest accepted value.
+     * @param max   The largest accepted value.
+     * @return The value.
+     * @throws IllegalArgumentException if the value is not an integer between the bounds.
+     */
+    private static int parseInt(String flag, String value, int min, int max) {
+        return (int) parseLong(flag, value, min, max);
+    }
+
+    /**
+     * Parses a long flag value within bounds.
+     *
+     * @param flag  The flag, for the error message.
+     * @param value The flag value.
+     * @param min   The smallest accepted value.
+     * @param max   The largest accepted value.
+     * @return The value.
+     * @throws IllegalArgumentException if the value is not an integer between the bounds.
+     */
+    private static long parseLong(String flag, String value, long min, long max) {
+        long parsed;
+        try {
+            parsed = Long.parseLong(value);
+        } catch (NumberFormatException exception) {
+            throw new IllegalArgumentException(flag + value + " is not an integer");
+        }
+        if (parsed < min || parsed > max) {
+            throw new IllegalArgumentException(flag + value + " is out of range [" + min + ", " + max + "]");
+        }
+        return parsed;
+    }
+
+    /**
+     * Parses the off-heap queue capacity, a positive power of two.
+     *
+     * @param value The flag value.
+     * @return The capacity.
+     * @throws IllegalArgumentException if the value is not a positive power of two.
+     */
+    private static int parseQueueCapacity(String value) {
+        int capacity = parseInt(QUEUE_CAPACITY_FLAG_PREFIX, value, 1, Integer.MAX_VALUE);
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException(QUEUE_CAPACITY_FLAG_PREFIX + value + " is not a power of two");
+        }
+        return capacity;
+    }
+
+    /**
+     * Parses a flag value naming an enum constant, case-insensitively and with dashes for underscores.
+     *
+     * @param flag  The flag, for the error message.
+     * @param value The flag value, as in shed-oldest.
+     * @param type  The enum type.
+     * @param <E>   The enum type.
+     * @return The named constant.
+     * @throws IllegalArgumentException if the value names no constant of the type.
+     */
+    private static <E extends Enum<E>> E parseEnum(String flag, String value, Class<E> type) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException exception) {
+            throw new IllegalArgumentException(flag + value + " is not one of "
+                    + Arrays.stream(type.getEnumConstants())
+                    .map(constant -> constant.name().toLowerCase(Locale.ROOT).replace('_', '-'))
+                    .toList());
+        }
+    }
+
+    /**
+     * Parses a flag value naming a file or directory.
+     *
+     * @param flag  The flag, for the error message.
+     * @param value The flag value.
+     * @return The path.
+     * @throws IllegalArgumentException if the value is empty or not a valid path.
+     */
+    private static Path parsePath(String flag, String value) {
+        if (value.isEmpty()) {
+            throw new IllegalArgumentException(flag + " needs a path");
+        }
+        try {
+            return Path.of(value);
+        } catch (IllegalArgumentException exception) {
+            throw new IllegalArgumentException(flag + value + " is not a valid path");
+        }
+    }
+
+    /**
+     * Parses the trace replay speed-up, a positive number or max.
+     *
+     * @param value The flag value.
+     * @return The speed-up factor.
+     * @throws IllegalArgumentException if the value is neither a positive number nor max.
+     */
+    private static double parseSpeedUp(String value) {
+        double speedUp;
+        try {
+            speedUp = TraceReplaySimulation.parseSpeedUp(value);
+        } catch (NumberFormatException exception) {
+            throw new IllegalArgumentException(REPLAY_SPEED_FLAG_PREFIX + value + " is neither a number nor max");
+        }
+        if (!(speedUp > 0)) {
+            throw new IllegalArgumentException(REPLAY_SPEED_FLAG_PREFIX + value + " is not positive");
+        }
+        return speedUp;
+    }
+
+    /**
+     * Parses a generated workload of the form process:rate:count.
+     *
+     * @param value The flag value, as in poisson:50:10000.
+     * @throws IllegalArgumentException if the value is malformed, names no arrival process or has a rate or count
+     *                                  that is not positive.
+     */
+    private void parseWorkload(String value) {
+        String[] parameters = value.split(":");
+        if (parameters.length != 3) {
+            throw new IllegalArgumentException("Expected " + WORKLOAD_FLAG_PREFIX + "process:rate:count, got " + value);
+        }
+        double rate;
+        try {
+            rate = Double.parseDouble(parameters[1]);
+        } catch (NumberFormatException exception) {
+            throw new IllegalArgumentException(WORKLOAD_FLAG_PREFIX + value + " has a rate that is not a number");
+        }
+        if (!(rate > 0) || Double.isInfinite(rate)) {
+            throw new IllegalArgumentException(WORKLOAD_FLAG_PREFIX + value + " has a rate that is not positive");
+        }
+        workloadProcess = WorkloadGenerator.parseArrivalProcess(parameters[0], rate);
+        workloadCount = parseLong(WORKLOAD_FLAG_PREFIX, parameters[2], 1, Long.MAX_VALUE);
+    }
+
+    /**
+     * Checks whether the usage message was requested.
+     *
+     * @return true if --help is present.
+     */
+    public boolean isHelp() {
+        return help;
+    }
+
+    /**
+     * Checks whether the simulations run on a virtual clock.
+     *
+     * @return true if --virtual-clock is present.
+     */
+    public boolean isVirtualClock() {
+        return virtualClock;
+    }
+
+    /**
+     * Checks whether wait times are measured with a cached clock.
+     *
+     * @return true if --coarse-clock is present.
+     */
+    public boolean isCoarseClock() {
+        return coarseClock;
+    }
+
+    /**
+     * Checks whether the experiment matrix runs.
+     *
+     * @return true if --experiments is present.
+     */
+    public boolean isExperiments() {
+        return experiments;
+    }
+
+    /**
+     * Checks whether mediator events are formatted on a background thread.
+     *
+     * @return true if --event-journal is present.
+     */
+    public boolean isEventJournal() {
+        return eventJournal;
+    }
+
+    /**
+     * Retrieves the executor mode used for order preparation.
+     *
+     * @return VIRTUAL_THREADS or TIMING_WHEEL if the matching flag is present, CACHED_THREAD_POOL otherwise.
+     */
+    public ExecutorMode getExecutorMode() {
+        return executorMode;
+    }
+
+    /**
+     * Retrieves the backing of the mediator queues.
+     *
+     * @return OFF_HEAP if --off-heap-queues is present, HEAP otherwise.
+     */
+    public QueueMode getQueueMode() {
+        return queueMode;
+    }
+
+    /**
+     * Retrieves the capacity of each off-heap queue.
+     *
+     * @return The --queue-capacity value, or the default capacity.
+     */
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * Retrieves the distribution of courier arrival delays after an order is received.
+     *
+     * @return The distribution selected by --uniform-couriers or --exponential-couriers,
+     * or null for couriers arriving at a fixed interval.
+     */
+    public CourierArrivalDistribution getCourierDistribution() {
+        return courierDistribution;
+    }
+
+    /**
+     * Retrieves the seed of the courier arrival delays and generated workloads.
+     *
+     * @return The --seed value, or 0.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Retrieves the directory of the write-ahead logs.
+     *
+     * @return The --wal directory, or null.
+     */
+    public Path getWalDirectory() {
+        return walDirectory;
+    }
+
+    /**
+     * Retrieves the policy of the logging observer mailboxes.
+     *
+     * @return The --async-observers policy, or null to notify the observers on the dispatching thread.
+     */
+    public MailboxPolicy getAsyncObservers() {
+        return asyncObservers;
+    }
+
+    /**
+     * Checks whether any capacity flag turns on admission control.
+     *
+     * @return true if --kitchen-capacity, --backlog-capacity or --shelf-capacity is present.
+     */
+    public boolean hasAdmissionControl() {
+        return kitchenCapacity != null || backlogCapacity != null || shelfCapacity != null;
+    }
+
+    /**
+     * Retrieves the number of orders prepared at once.
+     *
+     * @return The --kitchen-capacity value, or AdmissionController.UNBOUNDED.
+     */
+    public int getKitchenCapacity() {
+        return kitchenCapacity != null ? kitchenCapacity : AdmissionController.UNBOUNDED;
+    }
+
+    /**
+     * Retrieves the number of received orders waiting for kitchen capacity.
+     *
+     * @return The --backlog-capacity value, or 0.
+     */
+    public int getBacklogCapacity() {
+        return backlogCapacity != null ? backlogCapacity : 0;
+    }
+
+    /**
+     * Retrieves the number of ready orders on the shelf.
+     *
+     * @return The --shelf-capacity value, or UNBOUNDED.
+     */
+    public int getShelfCapacity() {
+        return shelfCapacity != null ? shelfCapacity : ReadyShelf.UNBOUNDED;
+    }
+
+    /**
+     * Retrieves what happens to orders received while the backlog is full.
+     *
+     * @return The --overflow policy, or BLOCK.
+     */
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Retrieves how long ready orders stay on the shelf.
+     *
+     * @return The --shelf-life value in seconds, or null for no ready shelf.
+     */
+    public Long getShelfLifeSeconds() {
+        return shelfLifeSeconds;
+    }
+
+    /**
+     * Retrieves the port of the Prometheus metrics server.
+     *
+     * @return The --metrics-port value, or null.
+     */
+    public Integer getMetricsPort() {
+        return metricsPort;
+    }
+
+    /**
+     * Retrieves the file the metrics are written to after each run.
+     *
+     * @return The --metrics-file path, or null.
+     */
+    public Path getMetricsFile() {
+        return metricsFile;
+    }
+
+    /**
+     * Retrieves the orders file replayed on the compact order store.
+     *
+     * @return The --compact-replay path, or null.
+     */
+    public Path getCompactReplayFile() {
+        return compactReplayFile;
+    }
+
+    /**
+     * Retrieves the orders file the simulations stream orders from.
+     *
+     * @return The --orders path, or null for the orders file on the classpath.
+     */
+    public Path getOrdersFile() {
+        return ordersFile;
+    }
+
+    /**
+     * Retrieves the arrival process of a generated workload.
+     *
+     * @return The process of --workload, or null if no workload is generated.
+     */
+    public ArrivalProcess getWorkloadProcess() {
+        return workloadProcess;
+    }
+
+    /**
+     * Retrieves the number of orders of a generated workload.
+     *
+     * @return The count of --workload, or 0 if no workload is generated.
+     */
+    public long getWorkloadCount() {
+        return workloadCount;
+    }
+
+    /**
+     * Retrieves the directory the traces of each run are recorded under.
+     *
+     * @return The --record-trace directory, or null.
+     */
+    public Path getRecordTraceDirectory() {
+        return recordTraceDirectory;
+    }
+
+    /**
+     * Retrieves the trace replayed with every strategy.
+     *
+     * @return The --replay-trace path, or null.
+     */
+    public Path getReplayTraceFile() {
+        return replayTraceFile;
+    }
+
+    /**
+     * Retrieves how many times faster than recorded a trace is replayed.
+     *
+     * @return The --replay-speed factor, or TraceReplaySimulation.AS_FAST_AS_POSSIBLE.
+     */
+    public double getReplaySpeedUp() {
+        return replaySpeedUp;
+    }
+}
@@ -1,15 +1,61 @@
 package com.cloud.kitchen;
 
+import com.cloud.kitchen.clock.CachedClock;
+import com.cloud.kitchen.clock.Clock;
+import com.cloud.kitchen.clock.SystemClock;
+import com.cloud.kitchen.experiment.ArrivalModel;
+import com.cloud.kitchen.experiment.Experiment;
+import com.cloud.kitchen.experiment.ExperimentReport;
+import com.cloud.kitchen.experiment.ExperimentResult;
+import com.cloud.kitchen.experiment.ExperimentRunner;
+import com.cloud.kitchen.factory.ExecutorFactory;
+import com.cloud.kitchen.journal.BinaryJournalSink;
+import com.cloud.kitchen.journal.EventJournal;
+import com.cloud.kitchen.journal.LoggingJournalSink;
+import com.cloud.kitchen.journal.WriteAheadLog;
+import com.cloud.kitchen.mediator.AdmissionController;
+import com.cloud.kitchen.mediator.ExecutorMode;
 import com.cloud.kitchen.mediator.KitchenMediator;
+import com.cloud.kitchen.mediator.QueueMode;
+import com.cloud.kitchen.mediator.ReadyShelf;
+import com.cloud.kitchen.metrics.DefaultMetricsRegistry;
+import com.cloud.kitchen.metrics.JmxMetricsExporter;
+import com.cloud.kitchen.metrics.MetricsRegistry;
+import com.cloud.kitchen.metrics.PrometheusExporter;
+import com.cloud.kitchen.models.Order;
+import com.cloud.kitchen.models.OrderStore;
+import com.cloud.kitchen.observer.AsyncObserverFanOut;
+import com.cloud.kitchen.observer.MailboxPolicy;
 import com.cloud.kitchen.observer.OrderReadyObserver;
 import com.cloud.kitchen.observer.CourierArrivalObserver;
+import com.cloud.kitchen.simulation.CompactReplaySimulation;
+import com.cloud.kitchen.simulation.DiscreteEventSimulation;
 import com.cloud.kitchen.simulation.Simulation;
+import com.cloud.kitchen.simulation.TraceReplaySimulation;
+import com.cloud.kitchen.stats.LatencyStats;
+import com.cloud.kitchen.strategy.AuctionOrderDispatcherStrategy;
+import com.cloud.kitchen.strategy.DispatchStrategyType;
+import com.cloud.kitchen.strategy.OrderDispatcherStrategy;
+import com.cloud.kitchen.strategy.FifoOrderDispatcherStrategy;
 import com.cloud.kitchen.strategy.MatchedOrderDispatcherStrategy;
+import com.cloud.kitchen.util.JsonUtility;
+import com.cloud.kitchen.workload.ArrivalProcess;
+import com.cloud.kitchen.workload.WorkloadGenerator;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
 import static com.cloud.kitchen.util.Utility.convertToMinutes;
-import static com.cloud.kitchen.util.Utility.currentMilliSeconds;
 import static com.cloud.kitchen.util.Utility.decimalPrecision;
 
 /**
@@ -20,27 +66,67 @@ public class Main {
 
     private final static Logger logger = LogManager.getLogger(Main.class);
 
+    /**
+     * Number of seeds, starting at the --seed value, each experiment configuration is run with.
+     */
+    private static final int EXPERIMENT_SEED_COUNT = 4;
+
+    /**
+     * Longest time a wall-clock simulation runs before it is shut down with orders still in flight, in seconds.
+     */
+    private static final long SIMULATION_TIMEOUT_SECONDS = 60;
+
     /**
      * Retrieves an instance of KitchenMediator configured with observers for order readiness and courier arrival.
      *
+     * @param clock          The clock stamping ready and arrival times and measuring wait times.
+     * @param executorMode   The executor mode used for order preparation.
+     * @param queueMode      The backing of the mediator queues.
+     * @param queueCapacity  The capacity of each off-heap queue.
+     * @param observerFanOut The fan-out notifying the observers asynchronously, or null to notify them on the dispatching thread.
      * @return A KitchenMediator instance with registered observers.
      */
-    private static KitchenMediator getKitchenMediator() {
-        KitchenMediator kitchenMediator = new KitchenMediator();
+    private static KitchenMediator getKitchenMediator(Clock clock, ExecutorMode executorMode, QueueMode queueMode,
+                                                      int queueCapacity, AsyncObserverFanOut observerFanOut) {
+        return registerObservers(new KitchenMediator(clock, executorMode, queueMode, queueCapacity), observerFanOut);
+    }
+
+    /**
+     * Registers observers for order readiness and courier arrival on the given mediator.
+     *
+     * @param kitchenMediator The mediator to register the observers on.
+     * @return The same mediator, with registered observers.
+     */
+    private static KitchenMediator registerObservers(KitchenMediator kitchenMediator) {
+        return registerObservers(kitchenMediator, null);
+    }
+
+    /**
+     * Registers observers for order readiness and courier arrival on the given mediator,
+     * each behind its own mailbox if a fan-out is given.
+     *
+     * @param kitchenMediator The mediator to register the observers on.
+     * @param observerFanOut  The fan-out notifying the observers asynchronously, or null to notify them on the dispatching thread.
+     * @return The same mediator, with registered observers.
+     */
+    private static KitchenMediator registerObservers(KitchenMediator kitchenMediator, AsyncObserverFanOut observerFanOut) {
+        Clock clock = kitchenMediator.getClock();
 
         // Register observers for order readiness and driver arrival
         OrderReadyObserver orderReadyObserver = order -> {
-            double foodWaitTime = convertToMinutes(currentMilliSeconds() - order.getReadyTime());
-            kitchenMediator.getFoodWaitTimes().add(foodWaitTime);
+            double foodWaitTime = convertToMinutes(clock.currentMilliSeconds() - order.getReadyTime());
             logger.info("Order {} is ready. Food wait time: {} minutes", order.getId(), decimalPrecision(foodWaitTime));
         };
 
         CourierArrivalObserver courierArrivalObserver = courier -> {
-            double driverWaitTime = convertToMinutes(currentMilliSeconds() - courier.getArrivalTime());
-            kitchenMediator.getCourierWaitTimes().add(driverWaitTime);
+            double driverWaitTime = convertToMinutes(clock.currentMilliSeconds() - courier.getArrivalTime());
             logger.info("Courier {} has arrived. Courier wait time: {} minutes", courier.getCourierId(), decimalPrecision(driverWaitTime));
         };
 
+        if (observerFanOut != null) {
+            orderReadyObserver = observerFanOut.orderReadyObserver("order_ready_log", orderReadyObserver);
+            courierArrivalObserver = observerFanOut.courierArrivalObserver("courier_arrival_log", courierArrivalObserver);
+        }
         kitchenMediator.registerOrderReadyObserver(orderReadyObserver);
         kitchenMediator.registerCourierArrivalObserver(courierArrivalObserver);
 
@@ -51,37 +137,381 @@ public class Main {
      * Entry point of the application. Runs simulations for FIFO and Matched dispatch strategies,
      * processes orders, and prints average statistics for food and courier wait times.
      *
-     * @param args Command-line arguments (not used).
+     * @param args Command-line arguments, pass --virtual-clock to run the FIFO, Matched and Auction simulations
+     *             on a virtual clock and compare Auction with FIFO,
+     *             --virtual-threads to prepare orders on virtual threads,
+     *             or --timing-wheel to complete preparations and schedule couriers on timing wheels.
+     *             --coarse-clock reads time from a clock cached every millisecond.
+     *             --off-heap-queues keeps the mediator queues in off-heap ring buffers of --queue-capacity=n records each.
+     *             --uniform-couriers or --exponential-couriers dispatch one courier per order, seeded by --seed=n,
+     *             --event-journal formats mediator events on a background thread.
+     *             --wal=dir logs the mediator queues to a write-ahead log and restores them after a crash.
+     *             --async-observers=block|drop notifies the logging observers through bounded mailboxes on a separate executor.
+     *             --kitchen-capacity=n, --shelf-capacity=n and --backlog-capacity=n turn on admission control,
+     *             with --overflow=block|reject|shed-oldest handling orders received while the backlog is full.
+     *             --shelf-life=s discards ready orders left on the shelf for s seconds, and orders closest to expiry
+     *             are dispatched first; with --shelf-capacity=n as well, the shelf holds n orders.
+     *             --metrics-port=n serves Prometheus metrics over HTTP and --metrics-file=path writes them after each run,
+     *             metrics are exposed over JMX as well with either flag.
+     *             --experiments runs the experiment matrix in parallel and writes the comparison table.
+     *             --orders=path streams orders from a JSON or binary orders file, and
+     *             --workload=process:rate:count generates them with a constant, poisson, diurnal or flash-crowd arrival process.
+     *             --record-trace=dir records the order and courier events of each run, and --replay-trace=path
+     *             replays such a trace with every strategy, --replay-speed=factor times faster than recorded or as fast as possible.
+     *             --compact-replay=path replays an orders file on the compact order store, for workloads of millions of orders.
+     *             --help logs the usage message, which is also logged before exiting when CommandLineOptions rejects a flag.
      */
     public static void main(String[] args) {
-        // Run simulation with FIFO strategy
-        KitchenMediator kitchenMediator1 = getKitchenMediator();
-        Simulation simulation1 = new Simulation(kitchenMediator1);
-        runSimulation(simulation1, kitchenMediator1);
+        CommandLineOptions options;
+        try {
+            options = CommandLineOptions.parse(args);
+        } catch (IllegalArgumentException exception) {
+            logger.error("{}\n{}", exception.getMessage(), CommandLineOptions.USAGE);
+            System.exit(1);
+            return;
+        }
+        if (options.isHelp()) {
+            logger.info(CommandLineOptions.USAGE);
+            return;
+        }
+        if (options.isExperiments()) {
+            runExperiments(options.getSeed());
+            return;
+        }
+        if (options.getCompactReplayFile() != null) {
+            runCompactReplay(options.getCompactReplayFile());
+            return;
+        }
+        if (options.getReplayTraceFile() != null) {
+            runTraceReplay(options.getReplayTraceFile(), options.getReplaySpeedUp());
+            return;
+        }
+        if (options.isVirtualClock()) {
+            KitchenMediator fifoMediator = runVirtualClockSimulation(new FifoOrderDispatcherStrategy(), options);
+            runVirtualClockSimulation(new MatchedOrderDispatcherStrategy(), options);
+            AuctionOrderDispatcherStrategy auctionStrategy = new AuctionOrderDispatcherStrategy();
+            KitchenMediator auctionMediator = runVirtualClockSimulation(auctionStrategy, options);
+            logAuctionComparison(fifoMediator, auctionMediator, auctionStrategy);
+            return;
+        }
 
-        // Run simulation with Matched strategy
-        KitchenMediator kitchenMediator2 = getKitchenMediator();
-        Simulation simulation2 = new Simulation(kitchenMediator2);
-        kitchenMediator2.setDispatchCommand(new MatchedOrderDispatcherStrategy());
-        runSimulation(simulation2, kitchenMediator2);
+        Clock clock = options.isCoarseClock() ? new CachedClock() : SystemClock.INSTANCE;
+        MetricsRegistry metricsRegistry = new DefaultMetricsRegistry();
+        PrometheusExporter prometheusExporter = new PrometheusExporter(metricsRegistry);
+        JmxMetricsExporter jmxExporter = new JmxMetricsExporter(metricsRegistry);
+        if (options.getMetricsPort() != null || options.getMetricsFile() != null) {
+            jmxExporter.register();
+        }
+        if (options.getMetricsPort() != null) {
+            prometheusExporter.start(options.getMetricsPort());
+        }
+
+        try {
+            for (DispatchStrategyType type : List.of(DispatchStrategyType.FIFO, DispatchStrategyType.MATCHED)) {
+                runStrategy(type, options, clock, metricsRegistry);
+                writeMetrics(prometheusExporter, options.getMetricsFile());
+            }
+        } finally {
+            prometheusExporter.close();
+            jmxExporter.close();
+            if (clock instanceof CachedClock cachedClock) {
+                cachedClock.close();
+            }
+        }
+    }
+
+    /**
+     * Runs every dispatch strategy against every courier arrival model on the orders file of the classpath,
+     * with {@link #EXPERIMENT_SEED_COUNT} seeds, in parallel on virtual clocks.
+     * The comparison table is logged and written to experiments.csv and experiments.json.
+     *
+     * @param firstSeed The first seed.
+     */
+    private static void runExperiments(long firstSeed) {
+        List<Experiment> experiments = ExperimentRunner.matrix(
+                List.of(DispatchStrategyType.values()),
+                List.of(ArrivalModel.FIXED_INTERVAL, ArrivalModel.UNIFORM, ArrivalModel.EXPONENTIAL),
+                Arrays.asList((Path) null),
+                LongStream.range(firstSeed, firstSeed + EXPERIMENT_SEED_COUNT).boxed().toList());
+        List<ExperimentResult> results = new ExperimentRunner().runAll(experiments);
+        ExperimentReport.writeCsv(results, Path.of("experiments.csv"));
+        ExperimentReport.writeJson(results, Path.of("experiments.json"));
+        logger.info("Experiment results:\n{}", ExperimentReport.toCsv(results));
+    }
+
+    /**
+     * Writes the current metrics to a file in the Prometheus text format, if a metrics file was requested.
+     *
+     * @param prometheusExporter The exporter rendering the metrics.
+     * @param metricsFile        The file to write, or null.
+     */
+    private static void writeMetrics(PrometheusExporter prometheusExporter, Path metricsFile) {
+        if (metricsFile != null) {
+            prometheusExporter.writeTo(metricsFile);
+        }
+    }
+
+    /**
+     * Sets an event journal recording a trace in a file of the --record-trace directory if the flag is present,
+     * or formatting log lines on a background thread if the event journal flag is present.
+     *
+     * @param kitchenMediator The mediator to set the journal on.
+     * @param options         The command-line options.
+     * @param name            The trace file name of this mediator, without extension.
+     */
+    private static void setEventJournal(KitchenMediator kitchenMediator, CommandLineOptions options, String name) {
+        Path traceDirectory = options.getRecordTraceDirectory();
+        if (traceDirectory != null) {
+            try {
+                Files.createDirectories(traceDirectory);
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+            kitchenMediator.setEventJournal(new EventJournal(new BinaryJournalSink(traceDirectory.resolve(name + ".trace"))));
+        } else if (options.isEventJournal()) {
+            kitchenMediator.setEventJournal(new EventJournal(new LoggingJournalSink()));
+        }
+    }
+
+    /**
+     * Creates a fan-out for the logging observers if the async observers flag is present,
+     * with its mailbox metrics bound to the registry.
+     *
+     * @param options         The command-line options, selecting platform or virtual threads for the mailboxes.
+     * @param metricsRegistry The registry to bind the mailbox metrics to.
+     * @param labels          Labels telling this run apart from others sharing the registry.
+     * @return The fan-out, or null to notify the observers on the dispatching thread.
+     */
+    private static AsyncObserverFanOut getObserverFanOut(CommandLineOptions options, MetricsRegistry metricsRegistry,
+                                                         String labels) {
+        MailboxPolicy asyncObservers = options.getAsyncObservers();
+        if (asyncObservers == null) {
+            return null;
+        }
+        AsyncObserverFanOut observerFanOut = new AsyncObserverFanOut(
+                ExecutorFactory.createObserverExecutor(options.getExecutorMode()), asyncObservers);
+        observerFanOut.registerMetrics(metricsRegistry, labels);
+        return observerFanOut;
+    }
+
+    /**
+     * Sets an admission controller if any capacity flag is present. Capacities that are not given are unbounded,
+     * except the backlog which defaults to none, and the overflow policy defaults to block.
+     *
+     * @param kitchenMediator The mediator to control.
+     * @param options         The command-line options.
+     */
+    private static void setAdmissionController(KitchenMediator kitchenMediator, CommandLineOptions options) {
+        if (options.hasAdmissionControl()) {
+            kitchenMediator.setAdmissionController(new AdmissionController(options.getKitchenCapacity(),
+                    options.getBacklogCapacity(), options.getShelfCapacity(), options.getOverflowPolicy()));
+        }
     }
 
     /**
-     * Starts the simulation, processes orders, waits for a fixed duration, shuts down the simulation,
+     * Puts ready orders on a ready shelf if the --shelf-life flag is present, holding as many orders
+     * as --shelf-capacity allows.
+     *
+     * @param kitchenMediator The mediator whose ready orders go on the shelf.
+     * @param options         The command-line options.
+     */
+    private static void setReadyShelf(KitchenMediator kitchenMediator, CommandLineOptions options) {
+        Long shelfLife = options.getShelfLifeSeconds();
+        if (shelfLife != null) {
+            kitchenMediator.setReadyShelf(new ReadyShelf(kitchenMediator.getClock(), options.getShelfCapacity(),
+                    shelfLife, TimeUnit.SECONDS));
+        }
+    }
+
+    /**
+     * Opens a write-ahead log in a subdirectory of the --wal directory if the flag is present,
+     * and restores the queues recovered from it.
+     *
+     * @param kitchenMediator The mediator to log.
+     * @param options         The command-line options.
+     * @param name            The subdirectory of this mediator.
+     */
+    private static void setWriteAheadLog(KitchenMediator kitchenMediator, CommandLineOptions options, String name) {
+        Path directory = options.getWalDirectory();
+        if (directory != null) {
+            WriteAheadLog writeAheadLog = new WriteAheadLog(directory.resolve(name));
+            kitchenMediator.setWriteAheadLog(writeAheadLog);
+            kitchenMediator.restore(writeAheadLog.getRecoveredState());
+        }
+    }
+
+    /**
+     * Creates a simulation with the orders and the courier arrival model selected by the command-line options.
+     *
+     * @param kitchenMediator The mediator that manages orders and couriers in the simulation.
+     * @param options         The command-line options.
+     * @return A simulation dispatching one courier per order if a distribution flag is present,
+     * with couriers arriving every four seconds otherwise.
+     */
+    private static Simulation getSimulation(KitchenMediator kitchenMediator, CommandLineOptions options) {
+        return new Simulation(kitchenMediator, getOrderStream(options), options.getCourierDistribution(), options.getSeed());
+    }
+
+    /**
+     * Selects the orders of a simulation from the command-line options.
+     *
+     * @param options The command-line options.
+     * @return The generated workload if the workload flag is present, the orders file if the orders flag is present,
+     * the orders file on the classpath otherwise.
+     */
+    private static Stream<Order> getOrderStream(CommandLineOptions options) {
+        ArrivalProcess arrivalProcess = options.getWorkloadProcess();
+        if (arrivalProcess != null) {
+            logger.info("Generating {} Orders with {}", options.getWorkloadCount(), arrivalProcess);
+            return WorkloadGenerator.fromSample(arrivalProcess, JsonUtility.readOrders(), options.getSeed())
+                    .stream(options.getWorkloadCount());
+        }
+        Path ordersFile = options.getOrdersFile();
+        return ordersFile != null ? Simulation.streamOrders(ordersFile) : JsonUtility.streamOrders();
+    }
+
+    /**
+     * Sets up a mediator with the given strategy and the options selected on the command line,
+     * and runs a wall-clock simulation on it.
+     *
+     * @param type            The dispatch strategy to run.
+     * @param options         The command-line options.
+     * @param clock           The clock stamping ready and arrival times and measuring wait times.
+     * @param metricsRegistry The registry to bind the mediator metrics to.
+     */
+    private static void runStrategy(DispatchStrategyType type, CommandLineOptions options, Clock clock,
+                                    MetricsRegistry metricsRegistry) {
+        String name = type.name().toLowerCase(Locale.ROOT);
+        String labels = "strategy=\"" + name + "\"";
+        AsyncObserverFanOut observerFanOut = getObserverFanOut(options, metricsRegistry, labels);
+        KitchenMediator kitchenMediator = getKitchenMediator(clock, options.getExecutorMode(), options.getQueueMode(),
+                options.getQueueCapacity(), observerFanOut);
+        setAdmissionController(kitchenMediator, options);
+        setReadyShelf(kitchenMediator, options);
+        kitchenMediator.registerMetrics(metricsRegistry, labels);
+        setEventJournal(kitchenMediator, options, name);
+        type.install(kitchenMediator);
+        setWriteAheadLog(kitchenMediator, options, name);
+        runSimulation(getSimulation(kitchenMediator, options), kitchenMediator, observerFanOut);
+    }
+
+    /**
+     * Starts the simulation, processes orders, waits until every order is picked up or rejected,
+     * for at most {@link #SIMULATION_TIMEOUT_SECONDS}, shuts down the simulation,
      * and prints average food and courier wait times.
      *
-     * @param simulation     The Simulation instance to run.
+     * @param simulation      The Simulation instance to run.
      * @param kitchenMediator The KitchenMediator instance managing the simulation.
+     * @param observerFanOut  The fan-out notifying the observers, closed once the mediator has shut down, or null.
      */
-    private static void runSimulation(Simulation simulation, KitchenMediator kitchenMediator) {
+    private static void runSimulation(Simulation simulation, KitchenMediator kitchenMediator, AsyncObserverFanOut observerFanOut) {
         simulation.processOrders();
         try {
-            Thread.sleep(60000); // Simulate a 60-second simulation duration
+            if (!simulation.awaitCompletion(SIMULATION_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                logger.warn("Simulation still had orders in flight after {} seconds", SIMULATION_TIMEOUT_SECONDS);
+            }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
         simulation.shutdown();
+        kitchenMediator.shutdown();
+        if (kitchenMediator.getEventJournal() != null) {
+            kitchenMediator.getEventJournal().close();
+        }
+        if (kitchenMediator.getWriteAheadLog() != null) {
+            kitchenMediator.getWriteAheadLog().close();
+        }
+        if (observerFanOut != null) {
+            observerFanOut.close();
+        }
 
         kitchenMediator.printAverages();
     }
+
+    /**
+     * Replays the orders selected by the command-line options through a discrete-event simulation on a virtual clock
+     * with the given strategy, and prints average food and courier wait times.
+     *
+     * @param dispatchCommand The dispatch strategy to simulate.
+     * @param options         The command-line options.
+     * @return The mediator driven by the simulation.
+     */
+    private static KitchenMediator runVirtualClockSimulation(OrderDispatcherStrategy dispatchCommand, CommandLineOptions options) {
+        List<Order> orders;
+        try (Stream<Order> orderStream = getOrderStream(options)) {
+            orders = orderStream.toList();
+        }
+        DiscreteEventSimulation simulation = new DiscreteEventSimulation(orders);
+        KitchenMediator kitchenMediator = registerObservers(simulation.getKitchenMediator());
+        kitchenMediator.setDispatchCommand(dispatchCommand);
+        simulation.processOrders();
+
+        kitchenMediator.printAverages();
+        return kitchenMediator;
+    }
+
+    /**
+     * Loads an orders file into a compact order store once and replays it to completion with the compact FIFO
+     * and Matched strategies, logging the wait times of each replay.
+     *
+     * @param ordersFile Path of a JSON orders file or a BinaryOrderLog.
+     */
+    private static void runCompactReplay(Path ordersFile) {
+        OrderStore orders = CompactReplaySimulation.loadOrders(ordersFile);
+        logger.info("Loaded {} orders with {} distinct names", orders.size(), orders.getNames().size());
+        for (DispatchStrategyType type : List.of(DispatchStrategyType.FIFO, DispatchStrategyType.MATCHED)) {
+            CompactReplaySimulation replay = new CompactReplaySimulation(orders, type.createCompact(),
+                    DiscreteEventSimulation.DEFAULT_COURIER_INTERVAL_MILLIS, Long.MAX_VALUE);
+            replay.processOrders();
+            LatencyStats foodWaitStats = replay.getFoodWaitStats();
+            LatencyStats courierWaitStats = replay.getCourierWaitStats();
+            logger.info("{} compact replay food wait: mean {} ms, p99 {} ms, max {} ms", type,
+                    decimalPrecision(foodWaitStats.getMean()), foodWaitStats.getP99(), foodWaitStats.getMax());
+            logger.info("{} compact replay courier wait: mean {} ms, p99 {} ms, max {} ms", type,
+                    decimalPrecision(courierWaitStats.getMean()), courierWaitStats.getP99(), courierWaitStats.getMax());
+        }
+    }
+
+    /**
+     * Replays a recorded trace with every dispatch strategy, logging the wait times of each replay.
+     *
+     * @param trace   The trace written by --record-trace.
+     * @param speedUp How many times faster than recorded the trace is replayed.
+     */
+    private static void runTraceReplay(Path trace, double speedUp) {
+        for (DispatchStrategyType type : DispatchStrategyType.values()) {
+            TraceReplaySimulation replay = new TraceReplaySimulation(trace, speedUp);
+            KitchenMediator kitchenMediator = replay.getKitchenMediator();
+            type.install(kitchenMediator);
+            replay.processOrders();
+            LatencyStats foodWaitStats = kitchenMediator.getFoodWaitStats();
+            LatencyStats courierWaitStats = kitchenMediator.getCourierWaitStats();
+            logger.info("{} trace replay food wait: mean {} ms, p99 {} ms, max {} ms", type,
+                    decimalPrecision(foodWaitStats.getMean()), foodWaitStats.getP99(), foodWaitStats.getMax());
+            logger.info("{} trace replay courier wait: mean {} ms, p99 {} ms, max {} ms", type,
+                    decimalPrecision(courierWaitStats.getMean()), courierWaitStats.getP99(), courierWaitStats.getMax());
+        }
+    }
+
+    /**
+     * Logs the wait times of the Auction replay next to those of the FIFO replay,
+     * and the share of couriers that picked up the order they were dispatched for.
+     *
+     * @param fifoMediator    The mediator of the FIFO replay.
+     * @param auctionMediator The mediator of the Auction replay.
+     * @param auctionStrategy The strategy of the Auction replay.
+     */
+    private static void logAuctionComparison(KitchenMediator fifoMediator, KitchenMediator auctionMediator,
+                                             AuctionOrderDispatcherStrategy auctionStrategy) {
+        LatencyStats fifoFood = fifoMediator.getFoodWaitStats();
+        LatencyStats auctionFood = auctionMediator.getFoodWaitStats();
+        LatencyStats fifoCourier = fifoMediator.getCourierWaitStats();
+        LatencyStats auctionCourier = auctionMediator.getCourierWaitStats();
+        logger.info("Auction vs FIFO food wait: mean {} vs {} ms, p99 {} vs {} ms",
+                decimalPrecision(auctionFood.getMean()), decimalPrecision(fifoFood.getMean()), auctionFood.getP99(), fifoFood.getP99());
+        logger.info("Auction vs FIFO courier wait: mean {} vs {} ms, p99 {} vs {} ms",
+                decimalPrecision(auctionCourier.getMean()), decimalPrecision(fifoCourier.getMean()), auctionCourier.getP99(), fifoCourier.getP99());
+        logger.info("Auction couriers picking up their assigned order: {} of {}",
+                auctionStrategy.getAssignedOrderPairCount(), auctionStrategy.getDispatchedPairCount());
+    }
 }
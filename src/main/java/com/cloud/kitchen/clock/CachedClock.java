@@ -0,0 +1,97 @@
+package com.cloud.kitchen.clock;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The CachedClock class is a coarse Clock whose time is read from a source clock by a background thread
+ * at a fixed resolution and cached in a volatile field, so reading it on the hot path is a single memory load.
+ * Timestamps lag the source by up to the resolution and wait times shorter than the resolution may read as zero,
+ * which suits high dispatch rates where the cost of reading the source clock per match shows up in profiles.
+ * The cached time never moves backwards as long as the source does not.
+ */
+public class CachedClock implements Clock, AutoCloseable {
+
+    /**
+     * Default interval between two reads of the source clock.
+     */
+    public static final long DEFAULT_RESOLUTION_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Clock source;
+    private final long resolutionNanos;
+    private final Thread ticker;
+    private volatile long nanoTime;
+    private volatile boolean closed;
+
+    /**
+     * Constructs a CachedClock reading the system clock every millisecond.
+     */
+    public CachedClock() {
+        this(SystemClock.INSTANCE, DEFAULT_RESOLUTION_NANOS, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Constructs a CachedClock and starts its background thread.
+     *
+     * @param source     The clock to read.
+     * @param resolution The interval between two reads of the source clock, positive.
+     * @param unit       The unit of the resolution.
+     */
+    public CachedClock(Clock source, long resolution, TimeUnit unit) {
+        if (resolution <= 0) {
+            throw new IllegalArgumentException("Resolution must be positive: " + resolution);
+        }
+        this.source = source;
+        this.resolutionNanos = unit.toNanos(resolution);
+        this.nanoTime = source.currentNanoTime();
+        this.ticker = Thread.ofPlatform().name("cached-clock").daemon().start(this::tick);
+    }
+
+    /**
+     * Refreshes the cached time at the resolution of the clock until it is closed.
+     */
+    private void tick() {
+        while (!closed) {
+            LockSupport.parkNanos(resolutionNanos);
+            nanoTime = source.currentNanoTime();
+        }
+    }
+
+    /**
+     * Retrieves the cached time in milliseconds.
+     *
+     * @return The time of the source clock at its last read, in milliseconds.
+     */
+    @Override
+    public long currentMilliSeconds() {
+        return TimeUnit.NANOSECONDS.toMillis(nanoTime);
+    }
+
+    /**
+     * Retrieves the cached time in nanoseconds.
+     *
+     * @return The time of the source clock at its last read, in nanoseconds.
+     */
+    @Override
+    public long currentNanoTime() {
+        return nanoTime;
+    }
+
+    /**
+     * Retrieves the interval between two reads of the source clock.
+     *
+     * @return The resolution in nanoseconds.
+     */
+    public long getResolutionNanos() {
+        return resolutionNanos;
+    }
+
+    /**
+     * Stops the background thread. The clock keeps returning the time of its last read.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(ticker);
+    }
+}
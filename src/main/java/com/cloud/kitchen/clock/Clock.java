@@ -0,0 +1,29 @@
+package com.cloud.kitchen.clock;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Clock interface abstracts the time source used by the kitchen system.
+ * Orders, couriers and the mediator read timestamps through a Clock so that a simulation
+ * can run against wall-clock time or against a virtual clock driven by an event loop.
+ */
+public interface Clock {
+
+    /**
+     * Retrieves the current time of this clock in milliseconds.
+     *
+     * @return Current time in milliseconds.
+     */
+    long currentMilliSeconds();
+
+    /**
+     * Retrieves the current time of this clock in nanoseconds, on the same timeline as {@link #currentMilliSeconds()},
+     * so that dividing it by a million gives the time in milliseconds.
+     * Clocks without sub-millisecond resolution return their time in milliseconds, multiplied by a million.
+     *
+     * @return Current time in nanoseconds.
+     */
+    default long currentNanoTime() {
+        return TimeUnit.MILLISECONDS.toNanos(currentMilliSeconds());
+    }
+}
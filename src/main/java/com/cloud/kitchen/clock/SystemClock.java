@@ -0,0 +1,42 @@
+package com.cloud.kitchen.clock;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The SystemClock class is the default Clock implementation. It reads the system wall clock once, when the class
+ * is loaded, and from then on advances with System.nanoTime, so its timestamps stay close to the wall clock
+ * but never jump when the wall clock is adjusted, and wait times have nanosecond resolution and are never negative.
+ */
+public final class SystemClock implements Clock {
+
+    /**
+     * Shared instance, every timestamp is relative to the same origin.
+     */
+    public static final SystemClock INSTANCE = new SystemClock();
+
+    private static final long ORIGIN_NANO_TIME = System.nanoTime();
+    private static final long ORIGIN_EPOCH_NANOS = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+
+    private SystemClock() {
+    }
+
+    /**
+     * Retrieves the current time in milliseconds since the epoch, as measured from the origin of the clock.
+     *
+     * @return Current timestamp in milliseconds.
+     */
+    @Override
+    public long currentMilliSeconds() {
+        return TimeUnit.NANOSECONDS.toMillis(currentNanoTime());
+    }
+
+    /**
+     * Retrieves the current time in nanoseconds since the epoch, as measured from the origin of the clock.
+     *
+     * @return Current timestamp in nanoseconds.
+     */
+    @Override
+    public long currentNanoTime() {
+        return ORIGIN_EPOCH_NANOS + (System.nanoTime() - ORIGIN_NANO_TIME);
+    }
+}
@@ -0,0 +1,50 @@
+package com.cloud.kitchen.clock;
+
+/**
+ * The VirtualClock class is a manually advanced Clock used by discrete-event simulations.
+ * Time only moves when the owner of the clock advances it, so runs are deterministic
+ * and independent of how long the host takes to process each event.
+ */
+public class VirtualClock implements Clock {
+
+    private volatile long currentTime;
+
+    /**
+     * Constructs a VirtualClock starting at time zero.
+     */
+    public VirtualClock() {
+        this(0L);
+    }
+
+    /**
+     * Constructs a VirtualClock starting at the specified time.
+     *
+     * @param startTime The initial time of the clock in milliseconds.
+     */
+    public VirtualClock(long startTime) {
+        this.currentTime = startTime;
+    }
+
+    /**
+     * Retrieves the current virtual time in milliseconds.
+     *
+     * @return Current virtual time in milliseconds.
+     */
+    @Override
+    public long currentMilliSeconds() {
+        return currentTime;
+    }
+
+    /**
+     * Advances the clock to the specified time.
+     *
+     * @param time The new virtual time in milliseconds.
+     * @throws IllegalArgumentException if the time is before the current virtual time.
+     */
+    public void advanceTo(long time) {
+        if (time < currentTime) {
+            throw new IllegalArgumentException("Virtual clock cannot move backwards: " + time + " < " + currentTime);
+        }
+        this.currentTime = time;
+    }
+}
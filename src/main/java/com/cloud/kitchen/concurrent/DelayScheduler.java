@@ -0,0 +1,20 @@
+package com.cloud.kitchen.concurrent;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The DelayScheduler interface runs a task once after a delay.
+ * Both {@code ScheduledExecutorService::schedule} and {@code TimingWheelScheduler::schedule} fit it.
+ */
+@FunctionalInterface
+public interface DelayScheduler {
+
+    /**
+     * Schedules a task to run once after a delay.
+     *
+     * @param task  The task to run.
+     * @param delay The delay before the task runs.
+     * @param unit  The unit of the delay.
+     */
+    void schedule(Runnable task, long delay, TimeUnit unit);
+}
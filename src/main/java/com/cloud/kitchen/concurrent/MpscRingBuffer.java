@@ -0,0 +1,106 @@
+package com.cloud.kitchen.concurrent;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The MpscRingBuffer class is a bounded, lock-free multi-producer single-consumer queue.
+ * Producers claim a slot with a single compare-and-set on the tail sequence and publish the element
+ * by advancing the slot sequence, so offers never block each other on a lock.
+ * Only one thread may call {@link #poll()} and {@link #isEmpty()}.
+ *
+ * @param <E> The type of elements held in the buffer.
+ */
+public class MpscRingBuffer<E> {
+
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail;
+    private final int mask;
+    private long head;
+
+    /**
+     * Constructs an MpscRingBuffer with the given capacity.
+     *
+     * @param capacity The number of slots, must be a power of two.
+     * @throws IllegalArgumentException if the capacity is not a positive power of two.
+     */
+    public MpscRingBuffer(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a positive power of two: " + capacity);
+        }
+        this.elements = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        this.tail = new AtomicLong();
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Retrieves the number of slots in the buffer.
+     *
+     * @return The buffer capacity.
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Inserts an element at the tail of the buffer. Safe to call from any number of threads.
+     *
+     * @param element The element to insert, must not be null.
+     * @return true if the element was inserted, false if the buffer is full.
+     */
+    public boolean offer(E element) {
+        if (element == null) {
+            throw new NullPointerException("element");
+        }
+        long position;
+        int index;
+        while (true) {
+            position = tail.get();
+            index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+            } else if (difference < 0) {
+                return false;
+            }
+        }
+        elements.lazySet(index, element);
+        // Publishing the sequence makes the element visible to the consumer
+        sequences.set(index, position + 1);
+        return true;
+    }
+
+    /**
+     * Removes and returns the element at the head of the buffer. Must only be called by the consumer thread.
+     *
+     * @return The head element, or null if the buffer is empty.
+     */
+    public E poll() {
+        int index = (int) head & mask;
+        if (sequences.get(index) != head + 1) {
+            return null;
+        }
+        E element = elements.get(index);
+        elements.lazySet(index, null);
+        sequences.set(index, head + mask + 1);
+        head++;
+        return element;
+    }
+
+    /**
+     * Checks whether the buffer has no published element. Must only be called by the consumer thread.
+     *
+     * @return true if there is no element to poll.
+     */
+    public boolean isEmpty() {
+        return sequences.get((int) head & mask) != head + 1;
+    }
+}
@@ -0,0 +1,64 @@
+package com.cloud.kitchen.concurrent;
+
+import com.cloud.kitchen.models.Courier;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * The OffHeapCourierQueue class is an OffHeapRingQueue of couriers, each stored as a 32-byte record:
+ * <pre>
+ * long  arrival time in nanoseconds
+ * long  most significant bits of the assigned order UUID
+ * long  least significant bits of the assigned order UUID
+ * int   courier id
+ * int   1 if the courier has an assigned order, 0 otherwise
+ * </pre>
+ * Assigned order ids must be UUIDs.
+ */
+public class OffHeapCourierQueue extends OffHeapRingQueue<Courier> {
+
+    private static final int PAYLOAD_BYTES = Long.BYTES * 3 + Integer.BYTES * 2;
+
+    /**
+     * Constructs an empty OffHeapCourierQueue.
+     *
+     * @param capacity The maximum number of couriers, must be a power of two.
+     */
+    public OffHeapCourierQueue(int capacity) {
+        super(capacity, PAYLOAD_BYTES);
+    }
+
+    /**
+     * Encodes a courier.
+     *
+     * @param buffer  The record buffer.
+     * @param offset  The offset of the payload of the record.
+     * @param courier The courier to encode.
+     * @throws IllegalArgumentException if the assigned order id is not a UUID.
+     */
+    @Override
+    protected void write(ByteBuffer buffer, int offset, Courier courier) {
+        String targetOrderId = courier.getTargetOrderId();
+        UUID target = targetOrderId != null ? UUID.fromString(targetOrderId) : null;
+        buffer.putLong(offset, courier.getArrivalNanoTime())
+                .putLong(offset + 8, target != null ? target.getMostSignificantBits() : 0)
+                .putLong(offset + 16, target != null ? target.getLeastSignificantBits() : 0)
+                .putInt(offset + 24, courier.getCourierId())
+                .putInt(offset + 28, target != null ? 1 : 0);
+    }
+
+    /**
+     * Decodes a courier.
+     *
+     * @param buffer The record buffer.
+     * @param offset The offset of the payload of the record.
+     * @return A new courier equal to the one written.
+     */
+    @Override
+    protected Courier read(ByteBuffer buffer, int offset) {
+        String targetOrderId = buffer.getInt(offset + 28) != 0
+                ? new UUID(buffer.getLong(offset + 8), buffer.getLong(offset + 16)).toString() : null;
+        return Courier.ofNanoTime(buffer.getInt(offset + 24), buffer.getLong(offset), targetOrderId);
+    }
+}
@@ -0,0 +1,86 @@
+package com.cloud.kitchen.concurrent;
+
+import com.cloud.kitchen.models.Order;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The OffHeapOrderQueue class is an OffHeapRingQueue of orders, each stored as a 44-byte record:
+ * <pre>
+ * long  most significant bits of the order UUID
+ * long  least significant bits of the order UUID
+ * long  ready time in nanoseconds
+ * int   preparation time in seconds
+ * int   name id
+ * long  placement time in milliseconds
+ * int   shelf life in seconds
+ * </pre>
+ * Names are interned in a table of the queue, so only the distinct names stay on the heap.
+ * Order ids must be UUIDs.
+ */
+public class OffHeapOrderQueue extends OffHeapRingQueue<Order> {
+
+    private static final int PAYLOAD_BYTES = Long.BYTES * 4 + Integer.BYTES * 3;
+
+    private final Map<String, Integer> nameIds;
+    private final List<String> names;
+
+    /**
+     * Constructs an empty OffHeapOrderQueue.
+     *
+     * @param capacity The maximum number of orders, must be a power of two.
+     */
+    public OffHeapOrderQueue(int capacity) {
+        super(capacity, PAYLOAD_BYTES);
+        this.nameIds = new HashMap<>();
+        this.names = new ArrayList<>();
+    }
+
+    /**
+     * Encodes an order, interning its name. Called under the monitor of the queue.
+     *
+     * @param buffer The record buffer.
+     * @param offset The offset of the payload of the record.
+     * @param order  The order to encode.
+     * @throws IllegalArgumentException if the order id is not a UUID.
+     */
+    @Override
+    protected void write(ByteBuffer buffer, int offset, Order order) {
+        UUID id = UUID.fromString(order.getId());
+        Integer nameId = nameIds.get(order.getName());
+        if (nameId == null) {
+            nameId = names.size();
+            names.add(order.getName());
+            nameIds.put(order.getName(), nameId);
+        }
+        buffer.putLong(offset, id.getMostSignificantBits())
+                .putLong(offset + 8, id.getLeastSignificantBits())
+                .putLong(offset + 16, order.getReadyNanoTime())
+                .putInt(offset + 24, order.getPrepTime())
+                .putInt(offset + 28, nameId)
+                .putLong(offset + 32, order.getPlacedTime())
+                .putInt(offset + 40, order.getShelfLife());
+    }
+
+    /**
+     * Decodes an order. Called under the monitor of the queue.
+     *
+     * @param buffer The record buffer.
+     * @param offset The offset of the payload of the record.
+     * @return A new order equal to the one written.
+     */
+    @Override
+    protected Order read(ByteBuffer buffer, int offset) {
+        UUID id = new UUID(buffer.getLong(offset), buffer.getLong(offset + 8));
+        Order order = new Order(id.toString(), names.get(buffer.getInt(offset + 28)), buffer.getInt(offset + 24),
+                buffer.getLong(offset + 32));
+        order.setReadyNanoTime(buffer.getLong(offset + 16));
+        order.setShelfLife(buffer.getInt(offset + 40));
+        return order;
+    }
+}
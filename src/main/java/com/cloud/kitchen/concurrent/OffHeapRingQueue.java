@@ -0,0 +1,261 @@
+package com.cloud.kitchen.concurrent;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractQueue;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * The OffHeapRingQueue class is a bounded FIFO queue that stores its elements as fixed-size records in a direct
+ * ByteBuffer instead of as object references, so the garbage collector neither traces nor copies them however many
+ * are queued. Elements are encoded on offer and decoded into new objects on poll, peek and iteration,
+ * subclasses define the record layout.
+ * <p>
+ * {@link #remove(Object)} marks the record removed instead of shifting the records behind it, and the head skips
+ * removed records as it reaches them, so removing near the head, as the Auction strategy does, costs no copying.
+ * Every operation takes the monitor of the queue and iterators are weakly consistent.
+ *
+ * @param <E> The type of elements held in the queue.
+ */
+public abstract class OffHeapRingQueue<E> extends AbstractQueue<E> {
+
+    private static final byte REMOVED = 0;
+    private static final byte LIVE = 1;
+    private static final int PAYLOAD_OFFSET = Long.BYTES;
+
+    private final ByteBuffer records;
+    private final int recordBytes;
+    private final int mask;
+    private long head;
+    private long tail;
+    private int removedCount;
+
+    /**
+     * Constructs an OffHeapRingQueue and allocates its records off-heap.
+     *
+     * @param capacity     The maximum number of elements, must be a power of two.
+     * @param payloadBytes The size of the encoded form of an element.
+     * @throws IllegalArgumentException if the capacity is not a positive power of two or the buffer would exceed 2 GB.
+     */
+    protected OffHeapRingQueue(int capacity, int payloadBytes) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        // The status byte is padded to eight bytes to keep the payload longs aligned
+        this.recordBytes = PAYLOAD_OFFSET + ((payloadBytes + Long.BYTES - 1) & -Long.BYTES);
+        if ((long) capacity * recordBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Capacity too large for one buffer: " + capacity);
+        }
+        this.records = ByteBuffer.allocateDirect(capacity * recordBytes);
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Writes the encoded form of an element.
+     *
+     * @param buffer  The record buffer, written with absolute puts only.
+     * @param offset  The offset of the payload of the record.
+     * @param element The element to encode.
+     */
+    protected abstract void write(ByteBuffer buffer, int offset, E element);
+
+    /**
+     * Decodes an element.
+     *
+     * @param buffer The record buffer, read with absolute gets only.
+     * @param offset The offset of the payload of the record.
+     * @return A new element equal to the one written.
+     */
+    protected abstract E read(ByteBuffer buffer, int offset);
+
+    /**
+     * Retrieves the maximum number of elements.
+     *
+     * @return The capacity of the queue.
+     */
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Retrieves the off-heap memory held by the queue.
+     *
+     * @return The size of the record buffer in bytes.
+     */
+    public long getOffHeapBytes() {
+        return records.capacity();
+    }
+
+    /**
+     * Adds an element at the tail of the queue if there is room.
+     *
+     * @param element The element to add.
+     * @return true if the element was added, false if the queue is full.
+     */
+    @Override
+    public synchronized boolean offer(E element) {
+        if (element == null) {
+            throw new NullPointerException();
+        }
+        if (tail - head > mask) {
+            return false;
+        }
+        int offset = offset(tail);
+        write(records, offset + PAYLOAD_OFFSET, element);
+        records.put(offset, LIVE);
+        tail++;
+        return true;
+    }
+
+    /**
+     * Removes the element at the head of the queue.
+     *
+     * @return The head element, or null if the queue is empty.
+     */
+    @Override
+    public synchronized E poll() {
+        if (head == tail) {
+            return null;
+        }
+        E element = read(records, offset(head) + PAYLOAD_OFFSET);
+        head++;
+        skipRemoved();
+        return element;
+    }
+
+    /**
+     * Retrieves the element at the head of the queue without removing it.
+     *
+     * @return The head element, or null if the queue is empty.
+     */
+    @Override
+    public synchronized E peek() {
+        return head == tail ? null : read(records, offset(head) + PAYLOAD_OFFSET);
+    }
+
+    /**
+     * Retrieves the number of elements in the queue.
+     *
+     * @return The number of elements not removed.
+     */
+    @Override
+    public synchronized int size() {
+        return (int) (tail - head) - removedCount;
+    }
+
+    /**
+     * Removes the first element equal to the given object, scanning from the head.
+     *
+     * @param object The element to remove.
+     * @return true if an element was removed.
+     */
+    @Override
+    public synchronized boolean remove(Object object) {
+        for (long position = head; position < tail; position++) {
+            int offset = offset(position);
+            if (records.get(offset) == LIVE && read(records, offset + PAYLOAD_OFFSET).equals(object)) {
+                removeAt(position);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns a weakly consistent iterator over the elements from head to tail.
+     * Elements are decoded one at a time, removed elements are skipped.
+     *
+     * @return An iterator over the elements of the queue.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<>() {
+
+            private long position = Long.MIN_VALUE;
+            private long lastPosition = -1;
+            private E next;
+            private E last;
+
+            @Override
+            public boolean hasNext() {
+                if (next == null) {
+                    advance();
+                }
+                return next != null;
+            }
+
+            @Override
+            public E next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                last = next;
+                lastPosition = position++;
+                next = null;
+                return last;
+            }
+
+            @Override
+            public void remove() {
+                if (last == null) {
+                    throw new IllegalStateException();
+                }
+                synchronized (OffHeapRingQueue.this) {
+                    int offset = offset(lastPosition);
+                    // The record may have been polled and its slot reused since it was returned
+                    if (lastPosition >= head && lastPosition < tail && records.get(offset) == LIVE
+                            && read(records, offset + PAYLOAD_OFFSET).equals(last)) {
+                        removeAt(lastPosition);
+                    }
+                }
+                last = null;
+            }
+
+            /**
+             * Moves to the next live record at or after the current position and decodes it.
+             */
+            private void advance() {
+                synchronized (OffHeapRingQueue.this) {
+                    position = Math.max(position, head);
+                    while (position < tail && records.get(offset(position)) != LIVE) {
+                        position++;
+                    }
+                    if (position < tail) {
+                        next = read(records, offset(position) + PAYLOAD_OFFSET);
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * Marks the record at a position removed, advancing the head if it is the head record.
+     *
+     * @param position The position of a live record.
+     */
+    private void removeAt(long position) {
+        records.put(offset(position), REMOVED);
+        removedCount++;
+        skipRemoved();
+    }
+
+    /**
+     * Advances the head past removed records.
+     */
+    private void skipRemoved() {
+        while (head < tail && records.get(offset(head)) == REMOVED) {
+            head++;
+            removedCount--;
+        }
+    }
+
+    /**
+     * Computes the buffer offset of the record at a position.
+     *
+     * @param position The position, counted from the first element ever added.
+     * @return The offset of the status byte of the record.
+     */
+    private int offset(long position) {
+        return (int) (position & mask) * recordBytes;
+    }
+}
@@ -0,0 +1,316 @@
+package com.cloud.kitchen.concurrent;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The TimingWheelScheduler class is a hashed timing wheel: a ring of buckets, each holding a doubly linked list
+ * of timeouts, advanced by a single worker thread once per tick. A timeout further away than one revolution
+ * stays in its bucket with a count of remaining rounds.
+ * Scheduling pushes the timeout onto a lock-free intrusive stack and cancelling flips a state flag,
+ * both O(1) and free of the single lock a ScheduledThreadPoolExecutor delay queue takes.
+ * The worker moves new timeouts into buckets and unlinks cancelled ones when it sweeps their bucket,
+ * so a cancelled timeout is released within one revolution. Expiry is accurate to one tick.
+ */
+public class TimingWheelScheduler implements AutoCloseable {
+
+    private final static Logger logger = LogManager.getLogger(TimingWheelScheduler.class);
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Executor taskExecutor;
+    private final AtomicReference<Timeout> pendingTimeouts;
+    private final LongAdder pendingCount;
+    private final Thread worker;
+    private final long startTime;
+    private volatile boolean running;
+    private long tick;
+
+    /**
+     * Constructs and starts a TimingWheelScheduler.
+     *
+     * @param tickDuration The duration of one tick.
+     * @param unit         The unit of the tick duration.
+     * @param wheelSize    The number of buckets, rounded up to a power of two.
+     * @param taskExecutor The executor running expired tasks, Runnable::run runs them on the worker thread.
+     */
+    public TimingWheelScheduler(long tickDuration, TimeUnit unit, int wheelSize, Executor taskExecutor) {
+        if (tickDuration <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick duration and wheel size must be positive");
+        }
+        int size = Integer.highestOneBit(wheelSize - 1) << 1;
+        size = Math.max(size, 1);
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+        this.taskExecutor = taskExecutor;
+        this.pendingTimeouts = new AtomicReference<>();
+        this.pendingCount = new LongAdder();
+        this.startTime = System.nanoTime();
+        this.running = true;
+        this.worker = new Thread(this::run, "timing-wheel");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Schedules a task to run once after a delay. Safe to call from any thread.
+     *
+     * @param task  The task to run.
+     * @param delay The delay before the task runs.
+     * @param unit  The unit of the delay.
+     * @return A handle that can cancel the task before it runs.
+     * @throws IllegalStateException if the scheduler is closed.
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        if (!running) {
+            throw new IllegalStateException("Timing wheel is closed");
+        }
+        long deadline = System.nanoTime() - startTime + Math.max(0, unit.toNanos(delay));
+        Timeout timeout = new Timeout(this, task, deadline);
+        pendingCount.increment();
+        Timeout head;
+        do {
+            head = pendingTimeouts.get();
+            timeout.nextPending = head;
+        } while (!pendingTimeouts.compareAndSet(head, timeout));
+        return timeout;
+    }
+
+    /**
+     * Retrieves the number of scheduled timeouts that have neither expired nor been cancelled.
+     *
+     * @return The number of pending timeouts.
+     */
+    public long pendingTimeouts() {
+        return pendingCount.sum();
+    }
+
+    /**
+     * Stops the worker thread. Pending timeouts are discarded.
+     */
+    @Override
+    public void close() {
+        running = false;
+        worker.interrupt();
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Worker loop: waits for the end of each tick, then buckets new timeouts and sweeps the current bucket.
+     */
+    private void run() {
+        while (running) {
+            long deadline = tickNanos * (tick + 1);
+            long sleepNanos = deadline - (System.nanoTime() - startTime);
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    if (!running) {
+                        return;
+                    }
+                }
+                continue;
+            }
+            transferPendingTimeouts();
+            expireTimeouts(wheel[(int) (tick & mask)], deadline);
+            tick++;
+        }
+    }
+
+    /**
+     * Moves the timeouts scheduled since the previous tick into the bucket of their deadline tick.
+     */
+    private void transferPendingTimeouts() {
+        Timeout timeout = pendingTimeouts.getAndSet(null);
+        while (timeout != null) {
+            Timeout nextPending = timeout.nextPending;
+            timeout.nextPending = null;
+            if (timeout.state != Timeout.PENDING) {
+                timeout = nextPending;
+                continue;
+            }
+            long deadlineTick = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (deadlineTick - tick) / wheel.length;
+            // A deadline already in the past expires on the current tick
+            long targetTick = Math.max(deadlineTick, tick);
+            wheel[(int) (targetTick & mask)].add(timeout);
+            timeout = nextPending;
+        }
+    }
+
+    /**
+     * Expires the timeouts of a bucket that are due by the end of the current tick and unlinks cancelled ones.
+     *
+     * @param bucket   The bucket of the current tick.
+     * @param deadline The end of the current tick, relative to the start time.
+     */
+    private void expireTimeouts(Bucket bucket, long deadline) {
+        Timeout timeout = bucket.head;
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            if (timeout.state == Timeout.CANCELLED) {
+                bucket.remove(timeout);
+            } else if (timeout.remainingRounds <= 0 && timeout.deadline <= deadline) {
+                bucket.remove(timeout);
+                timeout.expire();
+            } else {
+                timeout.remainingRounds--;
+            }
+            timeout = next;
+        }
+    }
+
+    /**
+     * The Bucket class is a doubly linked list of timeouts owned by the worker thread.
+     */
+    private static final class Bucket {
+
+        private Timeout head;
+        private Timeout tail;
+
+        /**
+         * Appends a timeout.
+         *
+         * @param timeout The timeout to append.
+         */
+        private void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.previous = tail;
+                tail = timeout;
+            }
+        }
+
+        /**
+         * Unlinks a timeout.
+         *
+         * @param timeout The timeout to unlink.
+         */
+        private void remove(Timeout timeout) {
+            if (timeout.bucket != this) {
+                return;
+            }
+            if (timeout.previous != null) {
+                timeout.previous.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.previous = timeout.previous;
+            } else {
+                tail = timeout.previous;
+            }
+            timeout.previous = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+
+    /**
+     * The Timeout class is the handle of a scheduled task.
+     */
+    public static final class Timeout {
+
+        private static final int PENDING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+        private static final VarHandle STATE;
+
+        static {
+            try {
+                STATE = MethodHandles.lookup().findVarHandle(Timeout.class, "state", int.class);
+            } catch (ReflectiveOperationException exception) {
+                throw new ExceptionInInitializerError(exception);
+            }
+        }
+
+        private final TimingWheelScheduler scheduler;
+        private final Runnable task;
+        private final long deadline;
+        private volatile int state;
+        private Timeout nextPending;
+        private long remainingRounds;
+        private Bucket bucket;
+        private Timeout previous;
+        private Timeout next;
+
+        /**
+         * Constructs a pending Timeout.
+         *
+         * @param scheduler The scheduler owning the timeout.
+         * @param task      The task to run on expiry.
+         * @param deadline  The expiry time relative to the scheduler start time, in nanoseconds.
+         */
+        private Timeout(TimingWheelScheduler scheduler, Runnable task, long deadline) {
+            this.scheduler = scheduler;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancels the task if it has not run yet.
+         *
+         * @return true if the task was cancelled, false if it already expired or was cancelled.
+         */
+        public boolean cancel() {
+            if (!STATE.compareAndSet(this, PENDING, CANCELLED)) {
+                return false;
+            }
+            scheduler.pendingCount.decrement();
+            return true;
+        }
+
+        /**
+         * Checks whether the task was cancelled.
+         *
+         * @return true if the task was cancelled.
+         */
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+
+        /**
+         * Checks whether the task has been handed to the task executor.
+         *
+         * @return true if the timeout expired.
+         */
+        public boolean isExpired() {
+            return state == EXPIRED;
+        }
+
+        /**
+         * Hands the task to the task executor unless the timeout was cancelled.
+         */
+        private void expire() {
+            if (!STATE.compareAndSet(this, PENDING, EXPIRED)) {
+                return;
+            }
+            scheduler.pendingCount.decrement();
+            try {
+                scheduler.taskExecutor.execute(task);
+            } catch (RuntimeException exception) {
+                logger.error("Timer task failed", exception);
+            }
+        }
+    }
+}
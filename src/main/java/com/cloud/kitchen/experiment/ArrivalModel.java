@@ -0,0 +1,28 @@
+package com.cloud.kitchen.experiment;
+
+import com.cloud.kitchen.simulation.CourierArrivalDistribution;
+
+/**
+ * The ArrivalModel record names a courier arrival model of an experiment.
+ *
+ * @param name         The name reported in the comparison table.
+ * @param distribution The distribution of courier arrival delays after an order is received,
+ *                     or null for couriers arriving at the fixed interval of the simulation.
+ */
+public record ArrivalModel(String name, CourierArrivalDistribution distribution) {
+
+    /**
+     * Couriers arriving every four seconds, each assigned the next order.
+     */
+    public static final ArrivalModel FIXED_INTERVAL = new ArrivalModel("fixed-interval", null);
+
+    /**
+     * One courier per order, arriving uniformly 3 to 15 seconds after the order is received.
+     */
+    public static final ArrivalModel UNIFORM = new ArrivalModel("uniform-3-15s", CourierArrivalDistribution.uniform(3000, 15000));
+
+    /**
+     * One courier per order, arriving at least 3 and on average 9 seconds after the order is received.
+     */
+    public static final ArrivalModel EXPONENTIAL = new ArrivalModel("exponential-3-9s", CourierArrivalDistribution.exponential(3000, 9000));
+}
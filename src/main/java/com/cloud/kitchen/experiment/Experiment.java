@@ -0,0 +1,25 @@
+package com.cloud.kitchen.experiment;
+
+import com.cloud.kitchen.strategy.DispatchStrategyType;
+
+import java.nio.file.Path;
+
+/**
+ * The Experiment record is one configuration of the experiment matrix.
+ *
+ * @param strategy     The dispatch strategy.
+ * @param arrivalModel The courier arrival model.
+ * @param ordersFile   A JSON orders file or a BinaryOrderLog, or null for the orders file on the classpath.
+ * @param seed         The seed of the courier arrival delays.
+ */
+public record Experiment(DispatchStrategyType strategy, ArrivalModel arrivalModel, Path ordersFile, long seed) {
+
+    /**
+     * Retrieves the name of the orders file reported in the comparison table.
+     *
+     * @return The file name, or orders.json for the orders file on the classpath.
+     */
+    public String ordersName() {
+        return ordersFile != null ? ordersFile.getFileName().toString() : "orders.json";
+    }
+}
@@ -0,0 +1,151 @@
+package com.cloud.kitchen.experiment;
+
+import com.cloud.kitchen.stats.LatencyStats;
+import com.cloud.kitchen.util.JsonUtility;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The ExperimentReport class formats experiment results as a comparison table, one row per experiment
+ * with the mean and percentiles of the food and courier wait times, written as CSV or as a JSON array of rows.
+ */
+public final class ExperimentReport {
+
+    private ExperimentReport() {
+    }
+
+    /**
+     * Formats results as CSV with a header line.
+     *
+     * @param results The experiment results.
+     * @return The CSV text, empty if there are no results.
+     */
+    public static String toCsv(List<ExperimentResult> results) {
+        List<Map<String, Object>> rows = toRows(results);
+        StringBuilder csv = new StringBuilder();
+        if (!rows.isEmpty()) {
+            csv.append(String.join(",", rows.get(0).keySet())).append('\n');
+        }
+        for (Map<String, Object> row : rows) {
+            csv.append(row.values().stream().map(ExperimentReport::toCsvField).collect(Collectors.joining(","))).append('\n');
+        }
+        return csv.toString();
+    }
+
+    /**
+     * Formats results as a JSON array of rows, with the same fields as the CSV columns.
+     *
+     * @param results The experiment results.
+     * @return The JSON text.
+     */
+    public static String toJson(List<ExperimentResult> results) {
+        try {
+            return JsonUtility.getObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(toRows(results));
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    /**
+     * Writes results as CSV to a file.
+     *
+     * @param results The experiment results.
+     * @param file    The file to write.
+     * @throws UncheckedIOException if the file cannot be written.
+     */
+    public static void writeCsv(List<ExperimentResult> results, Path file) {
+        write(file, toCsv(results));
+    }
+
+    /**
+     * Writes results as JSON to a file.
+     *
+     * @param results The experiment results.
+     * @param file    The file to write.
+     * @throws UncheckedIOException if the file cannot be written.
+     */
+    public static void writeJson(List<ExperimentResult> results, Path file) {
+        write(file, toJson(results));
+    }
+
+    /**
+     * Converts results to table rows.
+     *
+     * @param results The experiment results.
+     * @return One row per result, columns in table order.
+     */
+    private static List<Map<String, Object>> toRows(List<ExperimentResult> results) {
+        return results.stream().map(ExperimentReport::toRow).toList();
+    }
+
+    /**
+     * Converts a result to a table row.
+     *
+     * @param result The experiment result.
+     * @return The row, columns in table order.
+     */
+    private static Map<String, Object> toRow(ExperimentResult result) {
+        Experiment experiment = result.experiment();
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("strategy", experiment.strategy().name());
+        row.put("arrival_model", experiment.arrivalModel().name());
+        row.put("orders", experiment.ordersName());
+        row.put("seed", experiment.seed());
+        putStats(row, "food_wait", result.foodWaitStats());
+        putStats(row, "courier_wait", result.courierWaitStats());
+        row.put("run_ms", result.runMillis());
+        return row;
+    }
+
+    /**
+     * Adds the count, mean, percentile and maximum columns of a wait time to a row.
+     *
+     * @param row    The row.
+     * @param prefix The column name prefix.
+     * @param stats  The wait time statistics in milliseconds.
+     */
+    private static void putStats(Map<String, Object> row, String prefix, LatencyStats stats) {
+        row.put(prefix + "_count", stats.getCount());
+        row.put(prefix + "_mean_ms", Math.round(stats.getMean() * 100) / 100.0);
+        row.put(prefix + "_p50_ms", stats.getP50());
+        row.put(prefix + "_p90_ms", stats.getP90());
+        row.put(prefix + "_p99_ms", stats.getP99());
+        row.put(prefix + "_p999_ms", stats.getP999());
+        row.put(prefix + "_max_ms", stats.getMax());
+    }
+
+    /**
+     * Formats a value as a CSV field, quoting it if it holds a separator, a quote or a line break.
+     *
+     * @param value The value.
+     * @return The CSV field.
+     */
+    private static String toCsvField(Object value) {
+        String text = String.valueOf(value);
+        if (text.contains(",") || text.contains("\"") || text.contains("\n")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+
+    /**
+     * Writes text to a file.
+     *
+     * @param file The file to write.
+     * @param text The text.
+     */
+    private static void write(Path file, String text) {
+        try {
+            Files.writeString(file, text);
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Failed to write " + file, exception);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.cloud.kitchen.experiment;
+
+import com.cloud.kitchen.stats.LatencyStats;
+
+/**
+ * The ExperimentResult record holds the wait time statistics of one experiment run.
+ *
+ * @param experiment       The configuration that was run.
+ * @param foodWaitStats    The food wait times in milliseconds.
+ * @param courierWaitStats The courier wait times in milliseconds.
+ * @param runMillis        The wall-clock time the run took, in milliseconds.
+ */
+public record ExperimentResult(Experiment experiment, LatencyStats foodWaitStats, LatencyStats courierWaitStats, long runMillis) {
+}
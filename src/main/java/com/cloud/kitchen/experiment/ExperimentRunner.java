@@ -0,0 +1,144 @@
+package com.cloud.kitchen.experiment;
+
+import com.cloud.kitchen.mediator.KitchenMediator;
+import com.cloud.kitchen.models.Order;
+import com.cloud.kitchen.simulation.DiscreteEventSimulation;
+import com.cloud.kitchen.simulation.Simulation;
+import com.cloud.kitchen.strategy.DispatchStrategyType;
+import com.cloud.kitchen.util.JsonUtility;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * The ExperimentRunner class runs a matrix of experiments in parallel, each on its own DiscreteEventSimulation
+ * with its own virtual clock, KitchenMediator, strategy instance, courier factory and freshly loaded orders,
+ * so runs share no mutable state and a configuration produces the same result whatever else runs beside it.
+ * A run takes as long as the simulation needs to process its events instead of the simulated duration.
+ */
+public class ExperimentRunner {
+
+    private final static Logger logger = LogManager.getLogger(ExperimentRunner.class);
+
+    private final int parallelism;
+    private final long durationMillis;
+
+    /**
+     * Constructs an ExperimentRunner using every available processor and simulating sixty seconds per run, as Main does.
+     */
+    public ExperimentRunner() {
+        this(Runtime.getRuntime().availableProcessors(), DiscreteEventSimulation.DEFAULT_DURATION_MILLIS);
+    }
+
+    /**
+     * Constructs an ExperimentRunner.
+     *
+     * @param parallelism    The number of experiments run at the same time.
+     * @param durationMillis The simulated duration of each run in milliseconds,
+     *                       or Long.MAX_VALUE to run until every order has been picked up.
+     */
+    public ExperimentRunner(int parallelism, long durationMillis) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        this.parallelism = parallelism;
+        this.durationMillis = durationMillis;
+    }
+
+    /**
+     * Builds every combination of strategy, arrival model, orders file and seed.
+     *
+     * @param strategies    The dispatch strategies.
+     * @param arrivalModels The courier arrival models.
+     * @param ordersFiles   The orders files, a null element stands for the orders file on the classpath.
+     * @param seeds         The seeds of the courier arrival delays.
+     * @return The experiments, varying the seed fastest and the strategy slowest.
+     */
+    public static List<Experiment> matrix(List<DispatchStrategyType> strategies, List<ArrivalModel> arrivalModels,
+                                          List<Path> ordersFiles, List<Long> seeds) {
+        List<Experiment> experiments = new ArrayList<>();
+        for (DispatchStrategyType strategy : strategies) {
+            for (ArrivalModel arrivalModel : arrivalModels) {
+                for (Path ordersFile : ordersFiles) {
+                    for (long seed : seeds) {
+                        experiments.add(new Experiment(strategy, arrivalModel, ordersFile, seed));
+                    }
+                }
+            }
+        }
+        return experiments;
+    }
+
+    /**
+     * Runs experiments in parallel.
+     *
+     * @param experiments The experiments to run.
+     * @return The results, in the order of the experiments.
+     * @throws IllegalStateException if a run fails or the calling thread is interrupted.
+     */
+    public List<ExperimentResult> runAll(List<Experiment> experiments) {
+        try (ExecutorService executorService = Executors.newFixedThreadPool(Math.min(parallelism, Math.max(1, experiments.size())))) {
+            List<Future<ExperimentResult>> futures = experiments.stream()
+                    .map(experiment -> executorService.submit(() -> run(experiment)))
+                    .toList();
+            List<ExperimentResult> results = new ArrayList<>(futures.size());
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    results.add(futures.get(i).get());
+                } catch (ExecutionException exception) {
+                    executorService.shutdownNow();
+                    throw new IllegalStateException("Experiment failed: " + experiments.get(i), exception.getCause());
+                }
+            }
+            return results;
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while running experiments", exception);
+        }
+    }
+
+    /**
+     * Runs a single experiment on the calling thread.
+     *
+     * @param experiment The experiment to run.
+     * @return The wait time statistics of the run.
+     */
+    public ExperimentResult run(Experiment experiment) {
+        long start = System.nanoTime();
+        List<Order> orders = loadOrders(experiment.ordersFile());
+        ArrivalModel arrivalModel = experiment.arrivalModel();
+        DiscreteEventSimulation simulation = arrivalModel.distribution() != null
+                ? new DiscreteEventSimulation(orders, durationMillis, arrivalModel.distribution(), experiment.seed())
+                : new DiscreteEventSimulation(orders, DiscreteEventSimulation.DEFAULT_COURIER_INTERVAL_MILLIS, durationMillis);
+        KitchenMediator kitchenMediator = simulation.getKitchenMediator();
+        experiment.strategy().install(kitchenMediator);
+        simulation.processOrders();
+        long runMillis = (System.nanoTime() - start) / 1_000_000;
+        logger.info("Experiment {} {} {} seed {} finished in {} ms", experiment.strategy(), arrivalModel.name(),
+                experiment.ordersName(), experiment.seed(), runMillis);
+        return new ExperimentResult(experiment, kitchenMediator.getFoodWaitStats(), kitchenMediator.getCourierWaitStats(), runMillis);
+    }
+
+    /**
+     * Loads a fresh copy of the orders, since the simulation stamps ready times on them.
+     *
+     * @param ordersFile A JSON orders file or a BinaryOrderLog, or null for the orders file on the classpath.
+     * @return The orders.
+     */
+    private static List<Order> loadOrders(Path ordersFile) {
+        if (ordersFile == null) {
+            return JsonUtility.readOrders();
+        }
+        try (Stream<Order> orders = Simulation.streamOrders(ordersFile)) {
+            return orders.toList();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.cloud.kitchen.factory;
 
+import com.cloud.kitchen.clock.Clock;
 import com.cloud.kitchen.models.Courier;
 
 import java.util.concurrent.atomic.AtomicInteger;
@@ -7,17 +8,39 @@ import java.util.concurrent.atomic.AtomicInteger;
 /**
  * The CourierFactory class is responsible for creating instances of Courier objects with unique IDs.
  * It utilizes an AtomicInteger to generate sequential IDs for each new Courier created.
+ * Each KitchenMediator owns a factory, so simulations running side by side number their couriers independently.
  */
 public final class CourierFactory {
 
-    private static final AtomicInteger courierId = new AtomicInteger(1);
+    private final AtomicInteger courierId = new AtomicInteger(1);
 
     /**
      * Creates a new Courier instance with a unique ID generated by an AtomicInteger.
      *
      * @return A new Courier object with a unique ID.
      */
-    public static Courier createCourier() {
+    public Courier createCourier() {
         return Courier.createCourier(courierId.getAndIncrement());
     }
+
+    /**
+     * Creates a new Courier instance with a unique ID whose arrival time is read from the given clock.
+     *
+     * @param clock The clock used to stamp the courier arrival time.
+     * @return A new Courier object with a unique ID.
+     */
+    public Courier createCourier(Clock clock) {
+        return Courier.createCourier(courierId.getAndIncrement(), clock);
+    }
+
+    /**
+     * Creates a new Courier instance with a unique ID, dispatched for the given order.
+     *
+     * @param clock   The clock used to stamp the courier arrival time.
+     * @param orderId The id of the order assigned to the courier, or null if the courier can pick up any order.
+     * @return A new Courier object with a unique ID and assigned order.
+     */
+    public Courier createCourier(Clock clock, String orderId) {
+        return Courier.createCourier(courierId.getAndIncrement(), clock, orderId);
+    }
 }
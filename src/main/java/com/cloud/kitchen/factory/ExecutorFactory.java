@@ -0,0 +1,84 @@
+package com.cloud.kitchen.factory;
+
+import com.cloud.kitchen.concurrent.TimingWheelScheduler;
+import com.cloud.kitchen.mediator.ExecutorMode;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The ExecutorFactory class creates the executors used by the mediator and the simulation for a given ExecutorMode.
+ */
+public final class ExecutorFactory {
+
+    /**
+     * Tick duration of the timing wheels, in milliseconds.
+     */
+    public static final long TIMING_WHEEL_TICK_MILLIS = 10;
+
+    /**
+     * Number of buckets of the timing wheels, one revolution covers about five seconds.
+     */
+    public static final int TIMING_WHEEL_SIZE = 512;
+
+    /**
+     * Number of platform threads draining observer mailboxes.
+     */
+    public static final int OBSERVER_THREADS = 2;
+
+    private ExecutorFactory() {
+    }
+
+    /**
+     * Creates the executor that runs order preparation tasks.
+     *
+     * @param executorMode The executor mode.
+     * @return A cached platform thread pool, or an executor starting a virtual thread per task.
+     */
+    public static ExecutorService createPreparationExecutor(ExecutorMode executorMode) {
+        return switch (executorMode) {
+            case CACHED_THREAD_POOL, TIMING_WHEEL -> Executors.newCachedThreadPool();
+            case VIRTUAL_THREADS -> Executors.newVirtualThreadPerTaskExecutor();
+        };
+    }
+
+    /**
+     * Creates a scheduled executor for simulation events.
+     *
+     * @param executorMode    The executor mode.
+     * @param platformThreads The number of platform threads used in CACHED_THREAD_POOL mode.
+     * @return A scheduled executor backed by platform threads, or by a single virtual thread.
+     */
+    public static ScheduledExecutorService createScheduledExecutor(ExecutorMode executorMode, int platformThreads) {
+        return switch (executorMode) {
+            case CACHED_THREAD_POOL, TIMING_WHEEL -> Executors.newScheduledThreadPool(platformThreads);
+            case VIRTUAL_THREADS -> Executors.newScheduledThreadPool(1, Thread.ofVirtual().name("simulation-", 0).factory());
+        };
+    }
+
+    /**
+     * Creates the executor draining asynchronous observer mailboxes.
+     *
+     * @param executorMode The executor mode.
+     * @return A fixed pool of {@link #OBSERVER_THREADS} platform threads, or an executor starting a virtual thread per task.
+     */
+    public static ExecutorService createObserverExecutor(ExecutorMode executorMode) {
+        return switch (executorMode) {
+            case CACHED_THREAD_POOL, TIMING_WHEEL -> Executors.newFixedThreadPool(OBSERVER_THREADS);
+            case VIRTUAL_THREADS -> Executors.newVirtualThreadPerTaskExecutor();
+        };
+    }
+
+    /**
+     * Creates a timing wheel for preparation and courier timers.
+     *
+     * @param taskExecutor The executor running expired timer tasks.
+     * @return A started timing wheel ticking every {@link #TIMING_WHEEL_TICK_MILLIS} milliseconds.
+     */
+    public static TimingWheelScheduler createTimingWheel(Executor taskExecutor) {
+        return new TimingWheelScheduler(TIMING_WHEEL_TICK_MILLIS, TimeUnit.MILLISECONDS, TIMING_WHEEL_SIZE, taskExecutor);
+    }
+}
@@ -0,0 +1,72 @@
+package com.cloud.kitchen.factory;
+
+import com.cloud.kitchen.concurrent.OffHeapCourierQueue;
+import com.cloud.kitchen.concurrent.OffHeapOrderQueue;
+import com.cloud.kitchen.mediator.QueueMode;
+import com.cloud.kitchen.models.Courier;
+import com.cloud.kitchen.models.Order;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * The QueueFactory class creates the order and courier queues of the mediator for a given QueueMode.
+ */
+public final class QueueFactory {
+
+    /**
+     * Default capacity of each off-heap queue, 32 MB of direct memory per queue with 40-byte records.
+     */
+    public static final int DEFAULT_OFF_HEAP_QUEUE_CAPACITY = 1 << 20;
+
+    private QueueFactory() {
+    }
+
+    /**
+     * Creates a queue of orders.
+     *
+     * @param queueMode The queue mode.
+     * @return An unbounded concurrent queue, or an off-heap ring of {@link #DEFAULT_OFF_HEAP_QUEUE_CAPACITY} orders.
+     */
+    public static Queue<Order> createOrderQueue(QueueMode queueMode) {
+        return createOrderQueue(queueMode, DEFAULT_OFF_HEAP_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Creates a queue of orders.
+     *
+     * @param queueMode       The queue mode.
+     * @param offHeapCapacity The capacity of an off-heap queue, a power of two.
+     * @return An unbounded concurrent queue, or an off-heap ring of offHeapCapacity orders.
+     */
+    public static Queue<Order> createOrderQueue(QueueMode queueMode, int offHeapCapacity) {
+        return switch (queueMode) {
+            case HEAP -> new ConcurrentLinkedQueue<>();
+            case OFF_HEAP -> new OffHeapOrderQueue(offHeapCapacity);
+        };
+    }
+
+    /**
+     * Creates a queue of couriers.
+     *
+     * @param queueMode The queue mode.
+     * @return An unbounded concurrent queue, or an off-heap ring of {@link #DEFAULT_OFF_HEAP_QUEUE_CAPACITY} couriers.
+     */
+    public static Queue<Courier> createCourierQueue(QueueMode queueMode) {
+        return createCourierQueue(queueMode, DEFAULT_OFF_HEAP_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Creates a queue of couriers.
+     *
+     * @param queueMode       The queue mode.
+     * @param offHeapCapacity The capacity of an off-heap queue, a power of two.
+     * @return An unbounded concurrent queue, or an off-heap ring of offHeapCapacity couriers.
+     */
+    public static Queue<Courier> createCourierQueue(QueueMode queueMode, int offHeapCapacity) {
+        return switch (queueMode) {
+            case HEAP -> new ConcurrentLinkedQueue<>();
+            case OFF_HEAP -> new OffHeapCourierQueue(offHeapCapacity);
+        };
+    }
+}
@@ -0,0 +1,243 @@
+package com.cloud.kitchen.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * The BinaryJournalSink class writes journal records to a file as fixed-size binary records,
+ * buffered and written once per batch of records or whenever the buffer fills up.
+ * <pre>
+ * int   magic number 0x434B454A ("CKEJ")
+ * int   format version
+ * then per record, {@link #RECORD_BYTES} bytes:
+ * int   event type ordinal, bits 8-15 hold the order id encoding
+ * int   courier id, or -1
+ * long  timestamp in milliseconds
+ * long  long  order id: a UUID as most and least significant bits, or up to 16 bytes of UTF-8, zero padded
+ * long  food wait time in milliseconds
+ * long  courier wait time in milliseconds
+ * </pre>
+ */
+public class BinaryJournalSink implements JournalSink {
+
+    /**
+     * Magic number at the start of every journal file.
+     */
+    public static final int MAGIC = 0x434B454A;
+
+    /**
+     * Current format version.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * Size of one record in bytes.
+     */
+    public static final int RECORD_BYTES = Integer.BYTES * 2 + Long.BYTES * 5;
+
+    private static final int HEADER_BYTES = Integer.BYTES * 2;
+    private static final int BUFFER_RECORDS = 1024;
+    private static final int ID_NONE = 0;
+    private static final int ID_UUID = 1;
+    private static final int ID_TEXT = 2;
+    private static final int ID_TEXT_BYTES = Long.BYTES * 2;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+
+    /**
+     * Constructs a BinaryJournalSink, creating or truncating the journal file.
+     *
+     * @param path The journal file.
+     * @throws UncheckedIOException if the file cannot be created.
+     */
+    public BinaryJournalSink(Path path) {
+        try {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_RECORDS * RECORD_BYTES);
+        buffer.putInt(MAGIC).putInt(VERSION);
+    }
+
+    /**
+     * Appends one record to the buffer, writing the buffer out when it is full.
+     *
+     * @param event The record.
+     */
+    @Override
+    public void onEvent(JournalEvent event) {
+        if (buffer.remaining() < RECORD_BYTES) {
+            writeBuffer();
+        }
+        String orderId = event.getOrderId();
+        int idEncoding = orderId == null ? ID_NONE : (isUuid(orderId) ? ID_UUID : ID_TEXT);
+        buffer.putInt(event.getType().ordinal() | idEncoding << 8);
+        buffer.putInt(event.getCourierId());
+        buffer.putLong(event.getTimestamp());
+        switch (idEncoding) {
+            case ID_UUID -> {
+                UUID uuid = UUID.fromString(orderId);
+                buffer.putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits());
+            }
+            case ID_TEXT -> {
+                byte[] text = Arrays.copyOf(orderId.getBytes(StandardCharsets.UTF_8), ID_TEXT_BYTES);
+                buffer.put(text);
+            }
+            default -> buffer.putLong(0).putLong(0);
+        }
+        buffer.putLong(event.getFoodWaitTime());
+        buffer.putLong(event.getCourierWaitTime());
+    }
+
+    /**
+     * Writes the buffered records.
+     */
+    @Override
+    public void endOfBatch() {
+        writeBuffer();
+    }
+
+    /**
+     * Writes the buffered records and closes the file.
+     */
+    @Override
+    public void close() {
+        writeBuffer();
+        try {
+            channel.close();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    /**
+     * Reads a journal file and hands every record to a sink, then closes the sink.
+     * Text order ids longer than 16 bytes come back truncated.
+     *
+     * @param path The journal file.
+     * @param sink The sink receiving the records.
+     * @return The number of records read.
+     * @throws UncheckedIOException if the file cannot be read or is not a journal.
+     */
+    public static long read(Path path, JournalSink sink) {
+        try (FileChannel input = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer records = ByteBuffer.allocate(BUFFER_RECORDS * RECORD_BYTES);
+            records.limit(HEADER_BYTES);
+            readFully(input, records);
+            records.flip();
+            if (records.getInt() != MAGIC) {
+                throw new IOException("Not an event journal");
+            }
+            int version = records.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported event journal version " + version);
+            }
+            JournalEvent event = new JournalEvent();
+            long count = 0;
+            records.clear();
+            while (input.read(records) >= 0) {
+                records.flip();
+                while (records.remaining() >= RECORD_BYTES) {
+                    decode(records, event);
+                    sink.onEvent(event);
+                    count++;
+                }
+                records.compact();
+            }
+            if (records.position() > 0) {
+                throw new IOException("Truncated event journal");
+            }
+            sink.close();
+            return count;
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    /**
+     * Decodes the record at the buffer position into an event.
+     *
+     * @param records The buffer holding the record.
+     * @param event   The event to fill.
+     */
+    private static void decode(ByteBuffer records, JournalEvent event) {
+        int header = records.getInt();
+        int courierId = records.getInt();
+        long timestamp = records.getLong();
+        long high = records.getLong();
+        long low = records.getLong();
+        String orderId = switch (header >>> 8) {
+            case ID_UUID -> new UUID(high, low).toString();
+            case ID_TEXT -> {
+                byte[] text = ByteBuffer.allocate(ID_TEXT_BYTES).putLong(high).putLong(low).array();
+                int length = 0;
+                while (length < text.length && text[length] != 0) {
+                    length++;
+                }
+                yield new String(text, 0, length, StandardCharsets.UTF_8);
+            }
+            default -> null;
+        };
+        event.set(JournalEventType.of(header & 0xFF), timestamp, orderId, courierId, records.getLong(), records.getLong());
+    }
+
+    /**
+     * Checks whether an id is in the canonical 36 character UUID form, without allocating.
+     *
+     * @param id The order id.
+     * @return true if the id can be stored as a UUID and read back unchanged.
+     */
+    private static boolean isUuid(String id) {
+        if (id.length() != 36) {
+            return false;
+        }
+        for (int i = 0; i < 36; i++) {
+            char c = id.charAt(i);
+            boolean dash = i == 8 || i == 13 || i == 18 || i == 23;
+            if (dash ? c != '-' : Character.digit(c, 16) < 0 || Character.isUpperCase(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes the buffered records to the file.
+     */
+    private void writeBuffer() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Reads until the buffer is full.
+     *
+     * @param input  The channel to read from.
+     * @param buffer The buffer to fill.
+     * @throws IOException if the channel ends before the buffer is full.
+     */
+    private static void readFully(FileChannel input, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (input.read(buffer) < 0) {
+                throw new IOException("Truncated event journal");
+            }
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.cloud.kitchen.journal;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The EventJournal class takes mediator events off the hot path. Producers write fixed-size records
+ * (type, timestamp, courier id, wait times and a reference to the existing order id string) into a ring buffer
+ * preallocated at construction, so publishing an event allocates nothing and formats nothing.
+ * A background thread hands the records to a JournalSink, which formats them or writes them to disk.
+ * Slots are claimed with a single atomic increment and published through a per-slot sequence, as in MpscRingBuffer.
+ * When the ring buffer is full producers spin until the background thread frees a slot, so no event is lost.
+ */
+public final class EventJournal implements AutoCloseable {
+
+    private final static Logger logger = LogManager.getLogger(EventJournal.class);
+
+    /**
+     * Default number of records in the ring buffer.
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private static final int RECORD_LONGS = 4;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final int mask;
+    private final long[] records;
+    private final String[] orderIds;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail;
+    private final JournalSink sink;
+    private final Thread thread;
+    private volatile boolean running;
+
+    /**
+     * Constructs an EventJournal with the default capacity and starts its background thread.
+     *
+     * @param sink The sink consuming the records.
+     */
+    public EventJournal(JournalSink sink) {
+        this(DEFAULT_CAPACITY, sink);
+    }
+
+    /**
+     * Constructs an EventJournal and starts its background thread.
+     *
+     * @param capacity The number of records in the ring buffer, a power of two.
+     * @param sink     The sink consuming the records.
+     */
+    public EventJournal(int capacity, JournalSink sink) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.mask = capacity - 1;
+        this.records = new long[capacity * RECORD_LONGS];
+        this.orderIds = new String[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        this.tail = new AtomicLong();
+        this.sink = sink;
+        this.running = true;
+        this.thread = new Thread(this::run, "event-journal");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Records a received order.
+     *
+     * @param orderId   The order id.
+     * @param timestamp The mediator clock time in milliseconds.
+     */
+    public void orderReceived(String orderId, long timestamp) {
+        publish(JournalEventType.ORDER_RECEIVED, timestamp, orderId, JournalEvent.NO_COURIER, 0, 0);
+    }
+
+    /**
+     * Records an order ready for pickup.
+     *
+     * @param orderId   The order id.
+     * @param timestamp The mediator clock time in milliseconds.
+     */
+    public void orderReady(String orderId, long timestamp) {
+        publish(JournalEventType.ORDER_READY, timestamp, orderId, JournalEvent.NO_COURIER, 0, 0);
+    }
+
+    /**
+     * Records an arrived courier.
+     *
+     * @param courierId     The courier id.
+     * @param targetOrderId The id of the order assigned to the courier, or null.
+     * @param timestamp     The mediator clock time in milliseconds.
+     */
+    public void courierArrived(int courierId, String targetOrderId, long timestamp) {
+        publish(JournalEventType.COURIER_ARRIVED, timestamp, targetOrderId, courierId, 0, 0);
+    }
+
+    /**
+     * Records a courier stolen from another shard.
+     *
+     * @param courierId     The courier id.
+     * @param targetOrderId The id of the order assigned to the courier, or null.
+     * @param timestamp     The mediator clock time in milliseconds.
+     */
+    public void courierAdopted(int courierId, String targetOrderId, long timestamp) {
+        publish(JournalEventType.COURIER_ADOPTED, timestamp, targetOrderId, courierId, 0, 0);
+    }
+
+    /**
+     * Records an order picked up by a courier.
+     *
+     * @param orderId         The order id.
+     * @param courierId       The courier id.
+     * @param timestamp       The mediator clock time in milliseconds.
+     * @param foodWaitTime    The food wait time in milliseconds.
+     * @param courierWaitTime The courier wait time in milliseconds.
+     */
+    public void orderPickedUp(String orderId, int courierId, long timestamp, long foodWaitTime, long courierWaitTime) {
+        publish(JournalEventType.ORDER_PICKED_UP, timestamp, orderId, courierId, foodWaitTime, courierWaitTime);
+    }
+
+    /**
+     * Retrieves the number of records published so far.
+     *
+     * @return The number of published records.
+     */
+    public long getPublishedCount() {
+        return tail.get();
+    }
+
+    /**
+     * Stops the background thread after it has handed every published record to the sink, then closes the sink.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Claims a slot, spinning while the ring buffer is full, writes the record and publishes it.
+     *
+     * @param type            The event type.
+     * @param timestamp       The mediator clock time in milliseconds.
+     * @param orderId         The order id, possibly null.
+     * @param courierId       The courier id, or NO_COURIER.
+     * @param foodWaitTime    The food wait time in milliseconds, 0 unless picked up.
+     * @param courierWaitTime The courier wait time in milliseconds, 0 unless picked up.
+     */
+    private void publish(JournalEventType type, long timestamp, String orderId, int courierId, long foodWaitTime, long courierWaitTime) {
+        long sequence = tail.getAndIncrement();
+        int slot = (int) (sequence & mask);
+        while (sequences.get(slot) != sequence) {
+            Thread.onSpinWait();
+        }
+        int offset = slot * RECORD_LONGS;
+        records[offset] = ((long) courierId << 32) | type.ordinal();
+        records[offset + 1] = timestamp;
+        records[offset + 2] = foodWaitTime;
+        records[offset + 3] = courierWaitTime;
+        orderIds[slot] = orderId;
+        sequences.set(slot, sequence + 1);
+    }
+
+    /**
+     * Background loop: hands published records to the sink in order and frees their slots.
+     */
+    private void run() {
+        JournalEvent event = new JournalEvent();
+        long head = 0;
+        while (true) {
+            int slot = (int) (head & mask);
+            if (sequences.get(slot) != head + 1) {
+                if (!running && head == tail.get()) {
+                    break;
+                }
+                endOfBatch();
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                continue;
+            }
+            int offset = slot * RECORD_LONGS;
+            long header = records[offset];
+            event.set(JournalEventType.of((int) header), records[offset + 1], orderIds[slot], (int) (header >> 32),
+                    records[offset + 2], records[offset + 3]);
+            orderIds[slot] = null;
+            sequences.set(slot, head + mask + 1);
+            head++;
+            try {
+                sink.onEvent(event);
+            } catch (RuntimeException exception) {
+                logger.error("Journal sink failed on {}", event, exception);
+            }
+        }
+        endOfBatch();
+        sink.close();
+    }
+
+    /**
+     * Signals the sink that the background thread is about to wait for more records.
+     */
+    private void endOfBatch() {
+        try {
+            sink.endOfBatch();
+        } catch (RuntimeException exception) {
+            logger.error("Journal sink failed to end a batch", exception);
+        }
+    }
+}
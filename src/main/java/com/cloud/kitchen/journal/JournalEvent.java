@@ -0,0 +1,110 @@
+package com.cloud.kitchen.journal;
+
+/**
+ * The JournalEvent class is a reusable view of one journal record handed to a JournalSink.
+ * The same instance is refilled for every record, a sink must copy the fields it keeps.
+ */
+public class JournalEvent {
+
+    /**
+     * Courier id of events that do not involve a courier.
+     */
+    public static final int NO_COURIER = -1;
+
+    private JournalEventType type;
+    private long timestamp;
+    private String orderId;
+    private int courierId;
+    private long foodWaitTime;
+    private long courierWaitTime;
+
+    /**
+     * Refills the event with the fields of a record.
+     *
+     * @param type            The event type.
+     * @param timestamp       The mediator clock time of the event in milliseconds.
+     * @param orderId         The order id, or the assigned order id of a courier event, possibly null.
+     * @param courierId       The courier id, or NO_COURIER.
+     * @param foodWaitTime    The food wait time in milliseconds of a pickup, 0 otherwise.
+     * @param courierWaitTime The courier wait time in milliseconds of a pickup, 0 otherwise.
+     */
+    void set(JournalEventType type, long timestamp, String orderId, int courierId, long foodWaitTime, long courierWaitTime) {
+        this.type = type;
+        this.timestamp = timestamp;
+        this.orderId = orderId;
+        this.courierId = courierId;
+        this.foodWaitTime = foodWaitTime;
+        this.courierWaitTime = courierWaitTime;
+    }
+
+    /**
+     * Retrieves the event type.
+     *
+     * @return The event type.
+     */
+    public JournalEventType getType() {
+        return type;
+    }
+
+    /**
+     * Retrieves the mediator clock time of the event.
+     *
+     * @return The timestamp in milliseconds.
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Retrieves the order id, or the assigned order id of a courier event.
+     *
+     * @return The order id, possibly null for a courier without an assigned order.
+     */
+    public String getOrderId() {
+        return orderId;
+    }
+
+    /**
+     * Retrieves the courier id.
+     *
+     * @return The courier id, or NO_COURIER for order events.
+     */
+    public int getCourierId() {
+        return courierId;
+    }
+
+    /**
+     * Retrieves the food wait time of a pickup.
+     *
+     * @return The food wait time in milliseconds.
+     */
+    public long getFoodWaitTime() {
+        return foodWaitTime;
+    }
+
+    /**
+     * Retrieves the courier wait time of a pickup.
+     *
+     * @return The courier wait time in milliseconds.
+     */
+    public long getCourierWaitTime() {
+        return courierWaitTime;
+    }
+
+    /**
+     * Returns a string representation of the event.
+     *
+     * @return A string representation of the event.
+     */
+    @Override
+    public String toString() {
+        return "JournalEvent{" +
+                "type=" + type +
+                ", timestamp=" + timestamp +
+                ", orderId='" + orderId + '\'' +
+                ", courierId=" + courierId +
+                ", foodWaitTime=" + foodWaitTime +
+                ", courierWaitTime=" + courierWaitTime +
+                '}';
+    }
+}
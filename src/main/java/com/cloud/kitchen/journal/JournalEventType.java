@@ -0,0 +1,44 @@
+package com.cloud.kitchen.journal;
+
+/**
+ * The JournalEventType enum lists the mediator events recorded by the EventJournal.
+ */
+public enum JournalEventType {
+
+    /**
+     * An order was received by the mediator.
+     */
+    ORDER_RECEIVED,
+
+    /**
+     * An order finished preparation and is ready for pickup.
+     */
+    ORDER_READY,
+
+    /**
+     * A courier arrived at the kitchen.
+     */
+    COURIER_ARRIVED,
+
+    /**
+     * A courier was stolen from another shard of a KitchenCluster.
+     */
+    COURIER_ADOPTED,
+
+    /**
+     * A courier picked up an order.
+     */
+    ORDER_PICKED_UP;
+
+    private static final JournalEventType[] VALUES = values();
+
+    /**
+     * Retrieves an event type by its ordinal, as stored in journal records.
+     *
+     * @param ordinal The ordinal of the event type.
+     * @return The event type.
+     */
+    public static JournalEventType of(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
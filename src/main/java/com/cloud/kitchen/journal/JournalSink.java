@@ -0,0 +1,26 @@
+package com.cloud.kitchen.journal;
+
+/**
+ * The JournalSink interface consumes journal records on the EventJournal background thread.
+ */
+public interface JournalSink {
+
+    /**
+     * Called for each record, in publication order.
+     *
+     * @param event The record, only valid for the duration of the call.
+     */
+    void onEvent(JournalEvent event);
+
+    /**
+     * Called after a run of records has been consumed, before the background thread waits for more.
+     */
+    default void endOfBatch() {
+    }
+
+    /**
+     * Called once after the last record, when the journal is closed.
+     */
+    default void close() {
+    }
+}
@@ -0,0 +1,38 @@
+package com.cloud.kitchen.journal;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import static com.cloud.kitchen.util.Utility.convertToMinutes;
+import static com.cloud.kitchen.util.Utility.decimalPrecision;
+
+/**
+ * The LoggingJournalSink class formats journal records into the log lines the mediator writes
+ * when no journal is set, on the journal background thread instead of the dispatch path.
+ */
+public class LoggingJournalSink implements JournalSink {
+
+    private final static Logger logger = LogManager.getLogger(LoggingJournalSink.class);
+
+    /**
+     * Logs one record at INFO level.
+     *
+     * @param event The record.
+     */
+    @Override
+    public void onEvent(JournalEvent event) {
+        if (!logger.isInfoEnabled()) {
+            return;
+        }
+        switch (event.getType()) {
+            case ORDER_RECEIVED -> logger.info("Order Received {}", event.getOrderId());
+            case ORDER_READY -> logger.info("Order prepared: {}", event.getOrderId());
+            case COURIER_ARRIVED -> logger.info("Courier dispatched: {} for order {}", event.getCourierId(), event.getOrderId());
+            case COURIER_ADOPTED -> logger.info("Courier adopted: {} for order {}", event.getCourierId(), event.getOrderId());
+            case ORDER_PICKED_UP -> {
+                logger.info("Courier {} is picking up order {}. Food wait time: {} minutes", event.getCourierId(), event.getOrderId(), decimalPrecision(convertToMinutes(event.getFoodWaitTime())));
+                logger.info("Courier {} waited for {} minutes.", event.getCourierId(), decimalPrecision(convertToMinutes(event.getCourierWaitTime())));
+            }
+        }
+    }
+}
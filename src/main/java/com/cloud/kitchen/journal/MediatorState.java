@@ -0,0 +1,220 @@
+package com.cloud.kitchen.journal;
+
+import com.cloud.kitchen.models.Courier;
+import com.cloud.kitchen.models.Order;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The MediatorState class holds the in-flight state of a KitchenMediator as rebuilt from its write-ahead log:
+ * orders in preparation, orders ready for pickup and waiting couriers, each in arrival order.
+ * Items are keyed by order id and courier id, so applying an event a second time leaves the state unchanged.
+ */
+public class MediatorState {
+
+    private final Map<String, Order> ordersInPreparation = new LinkedHashMap<>();
+    private final Map<String, Order> readyOrders = new LinkedHashMap<>();
+    private final Map<Integer, Courier> waitingCouriers = new LinkedHashMap<>();
+
+    /**
+     * Retrieves the orders received but not yet prepared.
+     *
+     * @return A copy of the orders in preparation, in the order they were received.
+     */
+    public List<Order> getOrdersInPreparation() {
+        return new ArrayList<>(ordersInPreparation.values());
+    }
+
+    /**
+     * Retrieves the orders ready for pickup.
+     *
+     * @return A copy of the ready orders, in the order they became ready.
+     */
+    public List<Order> getReadyOrders() {
+        return new ArrayList<>(readyOrders.values());
+    }
+
+    /**
+     * Retrieves the couriers waiting for an order.
+     *
+     * @return A copy of the waiting couriers, in the order they arrived.
+     */
+    public List<Courier> getWaitingCouriers() {
+        return new ArrayList<>(waitingCouriers.values());
+    }
+
+    /**
+     * Applies a write-ahead log record.
+     *
+     * @param type      The event type.
+     * @param timestamp The event time in milliseconds, the ready time or the arrival time for those events.
+     * @param courierId The courier id, or JournalEvent.NO_COURIER.
+     * @param prepTime   The preparation time in seconds of a received order.
+     * @param placedTime The placement time in milliseconds of a received order.
+     * @param shelfLife  The shelf life in seconds of a received order.
+     * @param orderId    The order id, or null.
+     * @param text       The name of a received order or the assigned order id of a courier, or null.
+     */
+    void apply(JournalEventType type, long timestamp, int courierId, int prepTime, long placedTime, int shelfLife,
+               String orderId, String text) {
+        switch (type) {
+            case ORDER_RECEIVED -> {
+                Order order = new Order(orderId, text, prepTime, placedTime);
+                order.setShelfLife(shelfLife);
+                ordersInPreparation.put(orderId, order);
+            }
+            case ORDER_READY -> {
+                Order order = ordersInPreparation.remove(orderId);
+                if (order == null) {
+                    // Received before the log was attached to the mediator
+                    order = new Order(orderId, null, 0);
+                }
+                order.setReadyTime(timestamp);
+                readyOrders.put(orderId, order);
+            }
+            case COURIER_ARRIVED, COURIER_ADOPTED -> waitingCouriers.put(courierId, new Courier(courierId, timestamp, text));
+            case ORDER_PICKED_UP -> {
+                if (orderId != null) {
+                    readyOrders.remove(orderId);
+                    ordersInPreparation.remove(orderId);
+                }
+                waitingCouriers.remove(courierId);
+            }
+        }
+    }
+
+    /**
+     * Writes the state to a snapshot.
+     *
+     * @param output The snapshot stream.
+     * @throws IOException if the snapshot cannot be written.
+     */
+    void writeTo(DataOutputStream output) throws IOException {
+        output.writeInt(ordersInPreparation.size());
+        for (Order order : ordersInPreparation.values()) {
+            writeOrder(output, order);
+        }
+        output.writeInt(readyOrders.size());
+        for (Order order : readyOrders.values()) {
+            writeOrder(output, order);
+        }
+        output.writeInt(waitingCouriers.size());
+        for (Courier courier : waitingCouriers.values()) {
+            output.writeInt(courier.getCourierId());
+            output.writeLong(courier.getArrivalTime());
+            writeNullableString(output, courier.getTargetOrderId());
+        }
+    }
+
+    /**
+     * Reads a state from a snapshot.
+     *
+     * @param input The snapshot stream.
+     * @return The state.
+     * @throws IOException if the snapshot cannot be read.
+     */
+    static MediatorState readFrom(DataInputStream input) throws IOException {
+        MediatorState state = new MediatorState();
+        for (int i = input.readInt(); i > 0; i--) {
+            Order order = readOrder(input);
+            state.ordersInPreparation.put(order.getId(), order);
+        }
+        for (int i = input.readInt(); i > 0; i--) {
+            Order order = readOrder(input);
+            state.readyOrders.put(order.getId(), order);
+        }
+        for (int i = input.readInt(); i > 0; i--) {
+            Courier courier = new Courier(input.readInt(), input.readLong(), readNullableString(input));
+            state.waitingCouriers.put(courier.getCourierId(), courier);
+        }
+        return state;
+    }
+
+    /**
+     * Creates a deep copy of the state.
+     *
+     * @return A copy sharing no order with this state.
+     */
+    MediatorState copy() {
+        MediatorState copy = new MediatorState();
+        ordersInPreparation.values().forEach(order -> copy.ordersInPreparation.put(order.getId(), copyOrder(order)));
+        readyOrders.values().forEach(order -> copy.readyOrders.put(order.getId(), copyOrder(order)));
+        copy.waitingCouriers.putAll(waitingCouriers);
+        return copy;
+    }
+
+    /**
+     * Copies an order with its ready time, placement time and shelf life.
+     *
+     * @param order The order to copy.
+     * @return The copy.
+     */
+    private static Order copyOrder(Order order) {
+        Order copy = new Order(order.getId(), order.getName(), order.getPrepTime(), order.getPlacedTime());
+        copy.setReadyTime(order.getReadyTime());
+        copy.setShelfLife(order.getShelfLife());
+        return copy;
+    }
+
+    /**
+     * Writes an order to a snapshot.
+     *
+     * @param output The snapshot stream.
+     * @param order  The order.
+     * @throws IOException if the snapshot cannot be written.
+     */
+    private static void writeOrder(DataOutputStream output, Order order) throws IOException {
+        output.writeUTF(order.getId());
+        writeNullableString(output, order.getName());
+        output.writeInt(order.getPrepTime());
+        output.writeLong(order.getReadyTime());
+        output.writeLong(order.getPlacedTime());
+        output.writeInt(order.getShelfLife());
+    }
+
+    /**
+     * Reads an order from a snapshot.
+     *
+     * @param input The snapshot stream.
+     * @return The order.
+     * @throws IOException if the snapshot cannot be read.
+     */
+    private static Order readOrder(DataInputStream input) throws IOException {
+        Order order = new Order(input.readUTF(), readNullableString(input), input.readInt());
+        order.setReadyTime(input.readLong());
+        order.setPlacedTime(input.readLong());
+        order.setShelfLife(input.readInt());
+        return order;
+    }
+
+    /**
+     * Writes a string that may be null to a snapshot.
+     *
+     * @param output The snapshot stream.
+     * @param value  The string, or null.
+     * @throws IOException if the snapshot cannot be written.
+     */
+    private static void writeNullableString(DataOutputStream output, String value) throws IOException {
+        output.writeBoolean(value != null);
+        if (value != null) {
+            output.writeUTF(value);
+        }
+    }
+
+    /**
+     * Reads a string that may be null from a snapshot.
+     *
+     * @param input The snapshot stream.
+     * @return The string, or null.
+     * @throws IOException if the snapshot cannot be read.
+     */
+    private static String readNullableString(DataInputStream input) throws IOException {
+        return input.readBoolean() ? input.readUTF() : null;
+    }
+}
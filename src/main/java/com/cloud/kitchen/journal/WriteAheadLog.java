@@ -0,0 +1,687 @@
+package com.cloud.kitchen.journal;
+
+import com.cloud.kitchen.models.Courier;
+import com.cloud.kitchen.models.Order;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * The WriteAheadLog class is an append-only, group-committed log of mediator events from which the queues
+ * of a KitchenMediator are rebuilt after a crash.
+ * <p>
+ * Callers encode their record into an in-memory buffer under a short lock and return. A flusher thread swaps
+ * the buffer for an empty one, writes it with a single FileChannel write and makes it durable with a single
+ * {@code force}, so every record appended while the previous batch was being forced shares one sync.
+ * {@link #awaitDurable(long)} blocks until a record is durable, for callers that cannot lose it.
+ * <p>
+ * Records go to segment files of a fixed size that are zero-filled when created, so appends never grow a file
+ * and {@code force} does not have to write file metadata. Each record is framed by its length and a CRC32C,
+ * replay stops at the first zero length or checksum mismatch, which is where a torn write at a crash ends the log.
+ * <pre>
+ * int   payload length
+ * int   CRC32C of the payload
+ * byte  event type ordinal
+ * long  timestamp in milliseconds
+ * int   courier id, or -1
+ * int   preparation time in seconds
+ * long  placement time in milliseconds
+ * int   shelf life in seconds
+ * short order id length in bytes, or -1, then the UTF-8 order id
+ * short text length in bytes, or -1, then the UTF-8 order name or assigned order id of a courier
+ * </pre>
+ * The flusher applies every batch it writes to a copy of the mediator state. When a segment fills up it writes
+ * that state to a snapshot before starting the next segment and deletes the older segments and snapshots,
+ * so recovery reads the latest snapshot and replays at most one segment. Every segment follows a snapshot,
+ * whose version is also the version of the record layout of the segments after it.
+ */
+public class WriteAheadLog implements AutoCloseable {
+
+    private final static Logger logger = LogManager.getLogger(WriteAheadLog.class);
+
+    /**
+     * Default size of a segment file in bytes.
+     */
+    public static final int DEFAULT_SEGMENT_BYTES = 64 << 20;
+
+    /**
+     * Magic number at the start of every snapshot file.
+     */
+    public static final int SNAPSHOT_MAGIC = 0x434B5353;
+
+    /**
+     * Current snapshot format version, also the version of the record layout.
+     * Version 2 added the placement time and shelf life of orders.
+     */
+    public static final int SNAPSHOT_VERSION = 2;
+
+    private static final int FRAME_HEADER_BYTES = Integer.BYTES * 2;
+    private static final int FIXED_PAYLOAD_BYTES = 1 + Long.BYTES * 2 + Integer.BYTES * 3 + Short.BYTES * 2;
+    private static final int MAX_BUFFER_BYTES = 1 << 20;
+    private static final int ZERO_FILL_BYTES = 64 << 10;
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final MediatorState state;
+    private final MediatorState recoveredState;
+    private final ReentrantLock lock;
+    private final Condition dataAvailable;
+    private final Condition bufferAvailable;
+    private final Condition durable;
+    private final CRC32C appendChecksum;
+    private final Thread flusher;
+    private ByteBuffer activeBuffer;
+    private ByteBuffer flushBuffer;
+    private long appendedCount;
+    private boolean snapshotRequested;
+    private volatile long durableCount;
+    private volatile boolean closed;
+    private volatile IOException failure;
+    private FileChannel segment;
+    private long segmentIndex;
+    private long segmentPosition;
+
+    /**
+     * Opens a write-ahead log with segments of {@link #DEFAULT_SEGMENT_BYTES}.
+     *
+     * @param directory The directory of the log, created if needed.
+     * @throws UncheckedIOException if the log cannot be recovered or opened.
+     */
+    public WriteAheadLog(Path directory) {
+        this(directory, DEFAULT_SEGMENT_BYTES);
+    }
+
+    /**
+     * Opens a write-ahead log, recovering the state recorded in the directory by a previous run.
+     * The recovered state is written to a snapshot and new records go to a new segment.
+     *
+     * @param directory    The directory of the log, created if needed.
+     * @param segmentBytes The size of a segment file in bytes, also bounding the append buffer.
+     * @throws UncheckedIOException if the log cannot be recovered or opened.
+     */
+    public WriteAheadLog(Path directory, int segmentBytes) {
+        if (segmentBytes < FRAME_HEADER_BYTES + FIXED_PAYLOAD_BYTES) {
+            throw new IllegalArgumentException("Segment size too small: " + segmentBytes);
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.lock = new ReentrantLock();
+        this.dataAvailable = lock.newCondition();
+        this.bufferAvailable = lock.newCondition();
+        this.durable = lock.newCondition();
+        this.appendChecksum = new CRC32C();
+        int bufferBytes = Math.min(MAX_BUFFER_BYTES, segmentBytes);
+        this.activeBuffer = ByteBuffer.allocate(bufferBytes);
+        this.flushBuffer = ByteBuffer.allocate(bufferBytes);
+        try {
+            Files.createDirectories(directory);
+            long start = System.nanoTime();
+            this.state = recover();
+            this.recoveredState = state.copy();
+            openSegment(segmentIndex + 1);
+            writeSnapshot();
+            logger.info("Recovered {} orders in preparation, {} ready orders and {} waiting couriers from {} in {} ms",
+                    recoveredState.getOrdersInPreparation().size(), recoveredState.getReadyOrders().size(),
+                    recoveredState.getWaitingCouriers().size(), directory, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Failed to open write-ahead log in " + directory, exception);
+        }
+        this.flusher = new Thread(this::flush, "write-ahead-log");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Retrieves the state recovered when the log was opened, to restore a mediator from.
+     *
+     * @return The recovered state.
+     */
+    public MediatorState getRecoveredState() {
+        return recoveredState;
+    }
+
+    /**
+     * Records that an order was received.
+     *
+     * @param order     The received order.
+     * @param timestamp The time the order was received in milliseconds.
+     * @return The sequence number of the record.
+     */
+    public long orderReceived(Order order, long timestamp) {
+        return append(JournalEventType.ORDER_RECEIVED, timestamp, JournalEvent.NO_COURIER, order.getPrepTime(),
+                order.getPlacedTime(), order.getShelfLife(), order.getId(), order.getName());
+    }
+
+    /**
+     * Records that an order is ready for pickup.
+     *
+     * @param order The prepared order, with its ready time.
+     * @return The sequence number of the record.
+     */
+    public long orderReady(Order order) {
+        return append(JournalEventType.ORDER_READY, order.getReadyTime(), JournalEvent.NO_COURIER, 0, 0, 0, order.getId(), null);
+    }
+
+    /**
+     * Records that a courier arrived.
+     *
+     * @param courier The arrived courier.
+     * @return The sequence number of the record.
+     */
+    public long courierArrived(Courier courier) {
+        return append(JournalEventType.COURIER_ARRIVED, courier.getArrivalTime(), courier.getCourierId(), 0, 0, 0, null, courier.getTargetOrderId());
+    }
+
+    /**
+     * Records that a courier was stolen from another mediator.
+     *
+     * @param courier The adopted courier.
+     * @return The sequence number of the record.
+     */
+    public long courierAdopted(Courier courier) {
+        return append(JournalEventType.COURIER_ADOPTED, courier.getArrivalTime(), courier.getCourierId(), 0, 0, 0, null, courier.getTargetOrderId());
+    }
+
+    /**
+     * Records that a waiting courier was stolen by another mediator, as a pickup without an order.
+     *
+     * @param courier   The courier that left.
+     * @param timestamp The time the courier left in milliseconds.
+     * @return The sequence number of the record.
+     */
+    public long courierLeft(Courier courier, long timestamp) {
+        return append(JournalEventType.ORDER_PICKED_UP, timestamp, courier.getCourierId(), 0, 0, 0, null, null);
+    }
+
+    /**
+     * Records that admission control dropped a received order before its preparation started,
+     * or that the ready shelf discarded a ready order, as a pickup without a courier.
+     *
+     * @param order     The dropped order.
+     * @param timestamp The time the order was dropped in milliseconds.
+     * @return The sequence number of the record.
+     */
+    public long orderDropped(Order order, long timestamp) {
+        return append(JournalEventType.ORDER_PICKED_UP, timestamp, JournalEvent.NO_COURIER, 0, 0, 0, order.getId(), null);
+    }
+
+    /**
+     * Records that a courier picked up an order.
+     *
+     * @param order     The picked up order.
+     * @param courier   The courier picking it up.
+     * @param timestamp The pickup time in milliseconds.
+     * @return The sequence number of the record.
+     */
+    public long orderPickedUp(Order order, Courier courier, long timestamp) {
+        return append(JournalEventType.ORDER_PICKED_UP, timestamp, courier.getCourierId(), 0, 0, 0, order.getId(), null);
+    }
+
+    /**
+     * Retrieves the number of records appended.
+     *
+     * @return The sequence number of the last appended record.
+     */
+    public long getAppendedCount() {
+        lock.lock();
+        try {
+            return appendedCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves the number of records made durable.
+     *
+     * @return The sequence number of the last durable record.
+     */
+    public long getDurableCount() {
+        return durableCount;
+    }
+
+    /**
+     * Blocks until a record and every record before it are durable.
+     *
+     * @param sequence The sequence number returned when the record was appended.
+     * @throws UncheckedIOException  if the log failed to write.
+     * @throws IllegalStateException if the log was closed before the record was durable.
+     */
+    public void awaitDurable(long sequence) {
+        lock.lock();
+        try {
+            while (durableCount < sequence) {
+                checkOpen();
+                dataAvailable.signal();
+                durable.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Requests a snapshot after the next batch, so the next recovery replays fewer records.
+     */
+    public void snapshot() {
+        lock.lock();
+        try {
+            snapshotRequested = true;
+            dataAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Makes every appended record durable, writes a final snapshot and closes the log.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            dataAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Encodes a record into the append buffer, waiting for the flusher if the buffer is full.
+     *
+     * @param type      The event type.
+     * @param timestamp The event time in milliseconds.
+     * @param courierId The courier id, or JournalEvent.NO_COURIER.
+     * @param prepTime   The preparation time in seconds.
+     * @param placedTime The placement time in milliseconds.
+     * @param shelfLife  The shelf life in seconds.
+     * @param orderId    The order id, or null.
+     * @param text       The order name or the assigned order id of a courier, or null.
+     * @return The sequence number of the record.
+     */
+    private long append(JournalEventType type, long timestamp, int courierId, int prepTime, long placedTime, int shelfLife,
+                        String orderId, String text) {
+        byte[] orderIdBytes = encode(orderId);
+        byte[] textBytes = encode(text);
+        int payloadBytes = FIXED_PAYLOAD_BYTES + length(orderIdBytes) + length(textBytes);
+        int frameBytes = FRAME_HEADER_BYTES + payloadBytes;
+        if (frameBytes > activeBuffer.capacity()) {
+            throw new IllegalArgumentException("Record of " + frameBytes + " bytes exceeds the log buffer");
+        }
+        lock.lock();
+        try {
+            while (activeBuffer.remaining() < frameBytes) {
+                checkOpen();
+                dataAvailable.signal();
+                bufferAvailable.awaitUninterruptibly();
+            }
+            checkOpen();
+            int start = activeBuffer.position();
+            activeBuffer.position(start + FRAME_HEADER_BYTES);
+            activeBuffer.put((byte) type.ordinal()).putLong(timestamp).putInt(courierId).putInt(prepTime)
+                    .putLong(placedTime).putInt(shelfLife);
+            putString(activeBuffer, orderIdBytes);
+            putString(activeBuffer, textBytes);
+            appendChecksum.reset();
+            appendChecksum.update(activeBuffer.array(), start + FRAME_HEADER_BYTES, payloadBytes);
+            activeBuffer.putInt(start, payloadBytes).putInt(start + Integer.BYTES, (int) appendChecksum.getValue());
+            if (start == 0) {
+                // First record of a batch, wake the flusher, later records join the batch while it syncs the previous one
+                dataAvailable.signal();
+            }
+            return ++appendedCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Runs the flusher thread: swaps out the append buffer, writes and forces it, applies it to the state
+     * and writes requested snapshots, until the log is closed and every record is durable.
+     */
+    private void flush() {
+        try {
+            while (true) {
+                long batchEnd;
+                boolean takeSnapshot;
+                lock.lock();
+                try {
+                    while (activeBuffer.position() == 0 && !snapshotRequested && !closed) {
+                        dataAvailable.awaitUninterruptibly();
+                    }
+                    if (activeBuffer.position() == 0 && !snapshotRequested) {
+                        break;
+                    }
+                    ByteBuffer batch = activeBuffer;
+                    activeBuffer = flushBuffer;
+                    flushBuffer = batch;
+                    batchEnd = appendedCount;
+                    takeSnapshot = snapshotRequested;
+                    snapshotRequested = false;
+                    bufferAvailable.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                flushBuffer.flip();
+                writeBatch(flushBuffer);
+                replay(flushBuffer, state);
+                flushBuffer.clear();
+                markDurable(batchEnd);
+                if (takeSnapshot) {
+                    writeSnapshot();
+                }
+            }
+            writeSnapshot();
+            segment.close();
+        } catch (IOException exception) {
+            logger.error("Write-ahead log in {} failed", directory, exception);
+            failure = exception;
+            closed = true;
+            markDurable(durableCount);
+        }
+    }
+
+    /**
+     * Publishes the durable sequence number and wakes callers waiting for durability or buffer space.
+     *
+     * @param sequence The sequence number of the last durable record.
+     */
+    private void markDurable(long sequence) {
+        lock.lock();
+        try {
+            durableCount = sequence;
+            durable.signalAll();
+            bufferAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes a batch to the current segment and forces it, starting a new segment first if the batch does not fit.
+     *
+     * @param batch The batch of framed records.
+     * @throws IOException if the batch cannot be written.
+     */
+    private void writeBatch(ByteBuffer batch) throws IOException {
+        if (segmentPosition + batch.remaining() > segmentBytes) {
+            segment.close();
+            openSegment(segmentIndex + 1);
+            writeSnapshot();
+        }
+        while (batch.hasRemaining()) {
+            segmentPosition += segment.write(batch, segmentPosition);
+        }
+        segment.force(false);
+        batch.rewind();
+    }
+
+    /**
+     * Creates and zero-fills a segment file and makes it the current segment.
+     *
+     * @param index The index of the segment.
+     * @throws IOException if the segment cannot be created.
+     */
+    private void openSegment(long index) throws IOException {
+        Path path = directory.resolve(String.format("%s%016d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ByteBuffer zeros = ByteBuffer.allocateDirect(ZERO_FILL_BYTES);
+        for (long position = 0; position < segmentBytes; position += ZERO_FILL_BYTES) {
+            zeros.clear().limit((int) Math.min(ZERO_FILL_BYTES, segmentBytes - position));
+            while (zeros.hasRemaining()) {
+                channel.write(zeros, position + zeros.position());
+            }
+        }
+        channel.force(true);
+        segment = channel;
+        segmentIndex = index;
+        segmentPosition = 0;
+    }
+
+    /**
+     * Writes the state to a snapshot at the current segment position, then deletes the segments
+     * and snapshots it supersedes.
+     *
+     * @throws IOException if the snapshot cannot be written.
+     */
+    private void writeSnapshot() throws IOException {
+        Path path = directory.resolve(String.format("%s%016d-%012d%s", SNAPSHOT_PREFIX, segmentIndex, segmentPosition, SNAPSHOT_SUFFIX));
+        Path temporary = directory.resolve(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)))) {
+            output.writeInt(SNAPSHOT_MAGIC);
+            output.writeInt(SNAPSHOT_VERSION);
+            output.writeLong(segmentIndex);
+            output.writeLong(segmentPosition);
+            state.writeTo(output);
+            output.flush();
+            channel.force(true);
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        for (Path file : listFiles()) {
+            String name = file.getFileName().toString();
+            if ((name.startsWith(SNAPSHOT_PREFIX) && !file.equals(path))
+                    || (name.startsWith(SEGMENT_PREFIX) && fileIndex(name, SEGMENT_PREFIX) < segmentIndex)) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the state from the latest snapshot and the segments written after it,
+     * and sets the segment index to the last segment found.
+     *
+     * @return The recovered state.
+     * @throws IOException if the directory cannot be read.
+     */
+    private MediatorState recover() throws IOException {
+        MediatorState recovered = new MediatorState();
+        long fromSegment = 0;
+        long fromPosition = 0;
+        List<Path> files = listFiles();
+        Path snapshot = files.stream()
+                .filter(file -> file.getFileName().toString().startsWith(SNAPSHOT_PREFIX)
+                        && file.getFileName().toString().endsWith(SNAPSHOT_SUFFIX))
+                .max(Path::compareTo)
+                .orElse(null);
+        if (snapshot != null) {
+            try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshot)))) {
+                if (input.readInt() != SNAPSHOT_MAGIC) {
+                    throw new IOException("Not a snapshot: " + snapshot);
+                }
+                int version = input.readInt();
+                if (version != SNAPSHOT_VERSION) {
+                    throw new IOException("Unsupported snapshot version " + version + ": " + snapshot);
+                }
+                fromSegment = input.readLong();
+                fromPosition = input.readLong();
+                recovered = MediatorState.readFrom(input);
+            }
+        }
+        segmentIndex = fromSegment;
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX)) {
+                continue;
+            }
+            long index = fileIndex(name, SEGMENT_PREFIX);
+            segmentIndex = Math.max(segmentIndex, index);
+            if (index < fromSegment) {
+                continue;
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                MappedByteBuffer records = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                records.position((int) (index == fromSegment ? fromPosition : 0));
+                if (!replay(records, recovered)) {
+                    logger.warn("Write-ahead log segment {} ends with a torn record", file);
+                }
+            }
+        }
+        return recovered;
+    }
+
+    /**
+     * Applies the framed records of a buffer to a state, from its position to its limit.
+     *
+     * @param records The framed records.
+     * @param target  The state to apply them to.
+     * @return true if the records ended cleanly, at the limit or at a zero length, false at a torn record.
+     */
+    private static boolean replay(ByteBuffer records, MediatorState target) {
+        CRC32C checksum = new CRC32C();
+        while (records.remaining() >= FRAME_HEADER_BYTES) {
+            int start = records.position();
+            int payloadBytes = records.getInt(start);
+            if (payloadBytes == 0) {
+                return true;
+            }
+            if (payloadBytes < FIXED_PAYLOAD_BYTES || payloadBytes > records.limit() - start - FRAME_HEADER_BYTES) {
+                return false;
+            }
+            checksum.reset();
+            checksum.update(records.slice(start + FRAME_HEADER_BYTES, payloadBytes));
+            if ((int) checksum.getValue() != records.getInt(start + Integer.BYTES)) {
+                return false;
+            }
+            records.position(start + FRAME_HEADER_BYTES);
+            JournalEventType type = JournalEventType.of(records.get());
+            long timestamp = records.getLong();
+            int courierId = records.getInt();
+            int prepTime = records.getInt();
+            long placedTime = records.getLong();
+            int shelfLife = records.getInt();
+            String orderId = getString(records);
+            String text = getString(records);
+            target.apply(type, timestamp, courierId, prepTime, placedTime, shelfLife, orderId, text);
+            records.position(start + FRAME_HEADER_BYTES + payloadBytes);
+        }
+        return true;
+    }
+
+    /**
+     * Lists the files of the log directory in name order, which is segment and snapshot order.
+     *
+     * @return The files of the directory.
+     * @throws IOException if the directory cannot be listed.
+     */
+    private List<Path> listFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    /**
+     * Throws if the log failed or was closed.
+     */
+    private void checkOpen() {
+        if (failure != null) {
+            throw new UncheckedIOException("Write-ahead log in " + directory + " failed", failure);
+        }
+        if (closed) {
+            throw new IllegalStateException("Write-ahead log in " + directory + " is closed");
+        }
+    }
+
+    /**
+     * Parses the index of a segment or snapshot from its file name.
+     *
+     * @param name   The file name.
+     * @param prefix The file name prefix.
+     * @return The index.
+     */
+    private static long fileIndex(String name, String prefix) {
+        return Long.parseLong(name.substring(prefix.length(), prefix.length() + 16));
+    }
+
+    /**
+     * Encodes a string as UTF-8.
+     *
+     * @param value The string, or null.
+     * @return The bytes, or null.
+     */
+    private static byte[] encode(String value) {
+        if (value == null) {
+            return null;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("String of " + bytes.length + " bytes is too long for the log");
+        }
+        return bytes;
+    }
+
+    /**
+     * Retrieves the length of an encoded string.
+     *
+     * @param bytes The bytes, or null.
+     * @return The number of bytes, 0 for null.
+     */
+    private static int length(byte[] bytes) {
+        return bytes == null ? 0 : bytes.length;
+    }
+
+    /**
+     * Writes an encoded string with its length.
+     *
+     * @param buffer The buffer to write to.
+     * @param bytes  The bytes, or null.
+     */
+    private static void putString(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putShort((short) -1);
+            return;
+        }
+        buffer.putShort((short) bytes.length).put(bytes);
+    }
+
+    /**
+     * Reads a string written by {@link #putString}.
+     *
+     * @param buffer The buffer to read from.
+     * @return The string, or null.
+     */
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,330 @@
+package com.cloud.kitchen.mediator;
+
+import com.cloud.kitchen.metrics.Counter;
+import com.cloud.kitchen.metrics.MetricsRegistry;
+import com.cloud.kitchen.models.Order;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The AdmissionController class bounds the work a KitchenMediator accepts: the number of orders the kitchen
+ * prepares at once, the backlog of received orders waiting for the kitchen, and the ready shelf.
+ * <p>
+ * An order received while the kitchen is at capacity joins the backlog, and the OverflowPolicy decides
+ * what happens once the backlog is full as well. A prepared order that finds the shelf full waits at the pass
+ * and keeps its place in the kitchen until a pickup frees a shelf slot, so a shelf that couriers do not empty
+ * fills the kitchen, then the backlog, and finally reaches the producer of orders through the policy.
+ * <p>
+ * The controller only counts and queues, the mediator starts preparations and shelves orders outside its lock.
+ */
+public class AdmissionController {
+
+    /**
+     * Capacity meaning no bound.
+     */
+    public static final int UNBOUNDED = Integer.MAX_VALUE;
+
+    /**
+     * The outcomes of admitting an order.
+     */
+    enum Admission {
+        PREPARE,
+        QUEUED,
+        REJECTED
+    }
+
+    private final int maxPreparations;
+    private final int maxBacklog;
+    private final int maxReadyOrders;
+    private final OverflowPolicy overflowPolicy;
+    private final ReentrantLock lock;
+    private final Condition backlogNotFull;
+    private final ArrayDeque<Order> backlog;
+    private final ArrayDeque<Order> heldOrders;
+    private int kitchenOrders;
+    private int shelfOrders;
+    private volatile Counter ordersRejected;
+    private volatile Counter ordersShed;
+    private volatile Counter ordersDelayed;
+    private volatile Counter ordersHeld;
+
+    /**
+     * Constructs an AdmissionController.
+     *
+     * @param maxPreparations The number of orders prepared at once, or UNBOUNDED.
+     * @param maxBacklog      The number of received orders waiting for the kitchen, or UNBOUNDED.
+     * @param maxReadyOrders  The number of ready orders on the shelf, or UNBOUNDED.
+     * @param overflowPolicy  What to do with an order received while the backlog is full.
+     * @throws IllegalArgumentException if a capacity is out of range, or SHED_OLDEST is used without a backlog.
+     */
+    public AdmissionController(int maxPreparations, int maxBacklog, int maxReadyOrders, OverflowPolicy overflowPolicy) {
+        if (maxPreparations < 1 || maxBacklog < 0 || maxReadyOrders < 1) {
+            throw new IllegalArgumentException("Invalid capacities: " + maxPreparations + " preparations, "
+                    + maxBacklog + " backlog, " + maxReadyOrders + " ready orders");
+        }
+        if (overflowPolicy == OverflowPolicy.SHED_OLDEST && maxBacklog == 0) {
+            throw new IllegalArgumentException("SHED_OLDEST needs a backlog to shed from");
+        }
+        this.maxPreparations = maxPreparations;
+        this.maxBacklog = maxBacklog;
+        this.maxReadyOrders = maxReadyOrders;
+        this.overflowPolicy = overflowPolicy;
+        this.lock = new ReentrantLock();
+        this.backlogNotFull = lock.newCondition();
+        this.backlog = new ArrayDeque<>();
+        this.heldOrders = new ArrayDeque<>();
+        this.ordersRejected = new Counter();
+        this.ordersShed = new Counter();
+        this.ordersDelayed = new Counter();
+        this.ordersHeld = new Counter();
+    }
+
+    /**
+     * Binds the admission metrics to a registry: counters of rejected, shed, delayed and held orders,
+     * and gauges for the orders in the kitchen, the backlog, the shelf and the pass.
+     *
+     * @param registry The registry to bind the metrics to.
+     * @param labels   Labels telling this mediator apart from others sharing the registry, or an empty string.
+     */
+    public void registerMetrics(MetricsRegistry registry, String labels) {
+        ordersRejected = registry.counter(MetricsRegistry.labeled("kitchen_orders_rejected_total", labels), "Orders rejected by admission control.");
+        ordersShed = registry.counter(MetricsRegistry.labeled("kitchen_orders_shed_total", labels), "Backlog orders dropped for newer ones.");
+        ordersDelayed = registry.counter(MetricsRegistry.labeled("kitchen_orders_delayed_total", labels), "Orders that waited for kitchen capacity.");
+        ordersHeld = registry.counter(MetricsRegistry.labeled("kitchen_orders_held_total", labels), "Prepared orders that waited for shelf space.");
+        registry.gauge(MetricsRegistry.labeled("kitchen_orders_in_kitchen", labels), "Orders in preparation or held at the pass.", this::getKitchenOrderCount);
+        registry.gauge(MetricsRegistry.labeled("kitchen_backlog_orders", labels), "Orders waiting for kitchen capacity.", this::getBacklogSize);
+        registry.gauge(MetricsRegistry.labeled("kitchen_shelf_orders", labels), "Ready orders on the shelf.", this::getShelfOrderCount);
+        registry.gauge(MetricsRegistry.labeled("kitchen_held_orders", labels), "Prepared orders waiting for shelf space.", this::getHeldOrderCount);
+    }
+
+    /**
+     * Admits a received order: takes a kitchen slot for it, queues it in the backlog, or applies the overflow policy.
+     * With BLOCK, waits until the order can be prepared or queued.
+     *
+     * @param order      The received order.
+     * @param shedOrders Receives the backlog orders dropped to make room, with SHED_OLDEST.
+     * @return PREPARE if the order holds a kitchen slot, QUEUED if it joined the backlog, REJECTED otherwise.
+     */
+    Admission admit(Order order, List<Order> shedOrders) {
+        lock.lock();
+        try {
+            boolean waited = false;
+            while (true) {
+                if (kitchenOrders < maxPreparations && backlog.isEmpty()) {
+                    kitchenOrders++;
+                    if (waited) {
+                        ordersDelayed.increment();
+                    }
+                    return Admission.PREPARE;
+                }
+                if (backlog.size() < maxBacklog) {
+                    backlog.add(order);
+                    ordersDelayed.increment();
+                    return Admission.QUEUED;
+                }
+                switch (overflowPolicy) {
+                    case REJECT -> {
+                        ordersRejected.increment();
+                        return Admission.REJECTED;
+                    }
+                    case SHED_OLDEST -> {
+                        shedOrders.add(backlog.poll());
+                        ordersShed.increment();
+                    }
+                    case BLOCK -> {
+                        waited = true;
+                        backlogNotFull.awaitUninterruptibly();
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Puts a prepared order on the shelf if there is room and no order waits at the pass before it,
+     * releasing its kitchen slot to the next backlog orders. Otherwise holds the order at the pass.
+     *
+     * @param order          The prepared order.
+     * @param ordersToPrepare Receives the backlog orders that took a kitchen slot.
+     * @return true if the order is on the shelf, false if it is held.
+     */
+    boolean shelve(Order order, List<Order> ordersToPrepare) {
+        lock.lock();
+        try {
+            if (shelfOrders < maxReadyOrders && heldOrders.isEmpty()) {
+                shelfOrders++;
+                kitchenOrders--;
+                startBacklogOrders(ordersToPrepare);
+                return true;
+            }
+            heldOrders.add(order);
+            ordersHeld.increment();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Moves held orders onto the shelf slots freed by pickups, releasing their kitchen slots to the backlog.
+     *
+     * @param ordersToShelve  Receives the held orders now on the shelf, in the order they were prepared.
+     * @param ordersToPrepare Receives the backlog orders that took a kitchen slot.
+     */
+    void shelveHeldOrders(List<Order> ordersToShelve, List<Order> ordersToPrepare) {
+        lock.lock();
+        try {
+            while (shelfOrders < maxReadyOrders && !heldOrders.isEmpty()) {
+                ordersToShelve.add(heldOrders.poll());
+                shelfOrders++;
+                kitchenOrders--;
+            }
+            startBacklogOrders(ordersToPrepare);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Frees the shelf slots of picked up orders.
+     *
+     * @param count The number of orders picked up.
+     */
+    void pickedUp(int count) {
+        lock.lock();
+        try {
+            shelfOrders -= count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Counts orders restored from a write-ahead log, which bypass admission.
+     *
+     * @param preparing The number of orders restarted in the kitchen.
+     * @param ready     The number of orders put back on the shelf.
+     */
+    void restored(int preparing, int ready) {
+        lock.lock();
+        try {
+            kitchenOrders += preparing;
+            shelfOrders += ready;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves the number of orders in the kitchen, in preparation or held at the pass.
+     *
+     * @return The number of kitchen slots taken.
+     */
+    public int getKitchenOrderCount() {
+        lock.lock();
+        try {
+            return kitchenOrders;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves the number of orders waiting for kitchen capacity.
+     *
+     * @return The backlog size.
+     */
+    public int getBacklogSize() {
+        lock.lock();
+        try {
+            return backlog.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves the number of ready orders on the shelf.
+     *
+     * @return The number of shelf slots taken.
+     */
+    public int getShelfOrderCount() {
+        lock.lock();
+        try {
+            return shelfOrders;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves the number of prepared orders waiting for shelf space.
+     *
+     * @return The number of held orders.
+     */
+    public int getHeldOrderCount() {
+        lock.lock();
+        try {
+            return heldOrders.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves the number of orders rejected on arrival.
+     *
+     * @return The rejected order count.
+     */
+    public long getRejectedCount() {
+        return ordersRejected.get();
+    }
+
+    /**
+     * Retrieves the number of backlog orders dropped for newer ones.
+     *
+     * @return The shed order count.
+     */
+    public long getShedCount() {
+        return ordersShed.get();
+    }
+
+    /**
+     * Retrieves the number of orders that waited for kitchen capacity, in the backlog or in a blocked addOrder.
+     *
+     * @return The delayed order count.
+     */
+    public long getDelayedCount() {
+        return ordersDelayed.get();
+    }
+
+    /**
+     * Retrieves the number of prepared orders that waited at the pass for shelf space.
+     *
+     * @return The held order count.
+     */
+    public long getHeldCount() {
+        return ordersHeld.get();
+    }
+
+    /**
+     * Gives free kitchen slots to the oldest backlog orders and wakes callers blocked on a full backlog.
+     * Called with the lock held.
+     *
+     * @param ordersToPrepare Receives the backlog orders that took a kitchen slot.
+     */
+    private void startBacklogOrders(List<Order> ordersToPrepare) {
+        while (kitchenOrders < maxPreparations && !backlog.isEmpty()) {
+            ordersToPrepare.add(backlog.poll());
+            kitchenOrders++;
+        }
+        if (kitchenOrders < maxPreparations || backlog.size() < maxBacklog) {
+            backlogNotFull.signalAll();
+        }
+    }
+}
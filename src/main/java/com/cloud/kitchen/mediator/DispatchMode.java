@@ -0,0 +1,18 @@
+package com.cloud.kitchen.mediator;
+
+/**
+ * The DispatchMode enum selects which threads run the dispatch strategy in a KitchenMediator.
+ */
+public enum DispatchMode {
+
+    /**
+     * The thread that readies an order or adds a courier runs the strategy itself.
+     */
+    INLINE,
+
+    /**
+     * Order-ready and courier-arrival events are published to a ring buffer
+     * and a single dispatcher thread owns the queues and runs the strategy.
+     */
+    SINGLE_WRITER
+}
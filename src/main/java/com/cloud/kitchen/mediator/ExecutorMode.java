@@ -0,0 +1,35 @@
+package com.cloud.kitchen.mediator;
+
+/**
+ * The ExecutorMode enum selects the threads that prepare orders and schedule simulation events.
+ */
+public enum ExecutorMode {
+
+    /**
+     * Orders are prepared on a cached pool of platform threads and preparation completes immediately.
+     * Simulation delays each order submission by its preparation time on scheduled thread pools.
+     */
+    CACHED_THREAD_POOL,
+
+    /**
+     * Each order is prepared on its own virtual thread, which blocks for the preparation time of the order.
+     * Simulation submits orders immediately and schedules couriers on a virtual thread.
+     */
+    VIRTUAL_THREADS,
+
+    /**
+     * Preparation completes on a hashed timing-wheel timer that fires after the preparation time of the order
+     * and hands the order to a cached pool of platform threads.
+     * Simulation submits orders immediately and schedules couriers on a timing wheel.
+     */
+    TIMING_WHEEL;
+
+    /**
+     * Checks whether the mediator waits for the preparation time itself, so orders are submitted when placed.
+     *
+     * @return true for VIRTUAL_THREADS and TIMING_WHEEL.
+     */
+    public boolean delaysPreparation() {
+        return this != CACHED_THREAD_POOL;
+    }
+}
@@ -0,0 +1,301 @@
+package com.cloud.kitchen.mediator;
+
+import com.cloud.kitchen.metrics.Counter;
+import com.cloud.kitchen.metrics.MetricsRegistry;
+import com.cloud.kitchen.models.Courier;
+import com.cloud.kitchen.models.Order;
+import com.cloud.kitchen.observer.CourierArrivalObserver;
+import com.cloud.kitchen.observer.OrderReadyObserver;
+import com.cloud.kitchen.observer.OrderReceivedObserver;
+import com.cloud.kitchen.stats.LatencyHistogram;
+import com.cloud.kitchen.stats.LatencyStats;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static com.cloud.kitchen.util.Utility.convertToMinutes;
+import static com.cloud.kitchen.util.Utility.decimalPrecision;
+
+/**
+ * The KitchenCluster class partitions orders and couriers across several KitchenMediator shards,
+ * each running its own SINGLE_WRITER dispatcher thread, so threads only contend on the queues of one shard.
+ * Orders are routed by kitchen id or by order id, couriers assigned to an order follow it to its shard,
+ * and unassigned couriers are spread round-robin.
+ * A shard whose dispatcher is idle while orders are ready and no courier is waiting steals surplus couriers
+ * from the other shards, one victim at a time in ring order. The steal request travels through the event ring
+ * of the victim, whose dispatcher thread alone decides which couriers are surplus and takes them off its queue,
+ * and the couriers travel back through the ring of the thief, so each queue keeps a single writer.
+ * A thief sends its next request only once the last one was answered. Wait time statistics are merged across shards.
+ */
+public class KitchenCluster {
+
+    private final static Logger logger = LogManager.getLogger(KitchenCluster.class);
+
+    /**
+     * Maximum number of couriers a shard steals in one pass.
+     */
+    static final int STEAL_BATCH_SIZE = 32;
+
+    private final List<KitchenMediator> shards;
+    private final AtomicInteger nextShard;
+    private final int[] nextVictimOffsets;
+    private final AtomicIntegerArray pendingSteals;
+    private volatile Counter stolenCouriers;
+
+    /**
+     * Constructs a KitchenCluster of shards created with the default KitchenMediator constructor.
+     *
+     * @param shardCount The number of shards.
+     */
+    public KitchenCluster(int shardCount) {
+        this(shardCount, KitchenMediator::new);
+    }
+
+    /**
+     * Constructs a KitchenCluster and starts the dispatcher thread of every shard.
+     *
+     * @param shardCount   The number of shards.
+     * @param shardFactory Creates each shard, with its own clock, executor and dispatch strategy.
+     */
+    public KitchenCluster(int shardCount, Supplier<KitchenMediator> shardFactory) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive: " + shardCount);
+        }
+        this.shards = IntStream.range(0, shardCount).mapToObj(i -> shardFactory.get()).toList();
+        this.nextShard = new AtomicInteger();
+        this.nextVictimOffsets = new int[shardCount];
+        Arrays.fill(nextVictimOffsets, 1);
+        this.pendingSteals = new AtomicIntegerArray(shardCount);
+        this.stolenCouriers = new Counter();
+        for (int i = 0; i < shardCount; i++) {
+            int thief = i;
+            shards.get(i).setCourierStealer(() -> stealCouriers(thief));
+            shards.get(i).setDispatchMode(DispatchMode.SINGLE_WRITER);
+        }
+    }
+
+    /**
+     * Retrieves the number of shards.
+     *
+     * @return The number of shards.
+     */
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    /**
+     * Retrieves a shard.
+     *
+     * @param index The shard index.
+     * @return The mediator of the shard.
+     */
+    public KitchenMediator getShard(int index) {
+        return shards.get(index);
+    }
+
+    /**
+     * Retrieves the shard owning a routing key.
+     *
+     * @param key A kitchen id or an order id.
+     * @return The mediator of the shard.
+     */
+    public KitchenMediator shardFor(String key) {
+        int hash = key.hashCode();
+        return shards.get(Math.floorMod(hash ^ (hash >>> 16), shards.size()));
+    }
+
+    /**
+     * Adds an order to the shard owning its order id.
+     *
+     * @param order The order object containing order details.
+     * @return false if the admission control of the shard rejected the order, true otherwise.
+     */
+    public boolean addOrder(Order order) {
+        return shardFor(order.getId()).addOrder(order);
+    }
+
+    /**
+     * Adds an order to the shard owning a kitchen.
+     *
+     * @param kitchenId The kitchen the order was placed at.
+     * @param order     The order object containing order details.
+     * @return false if the admission control of the shard rejected the order, true otherwise.
+     */
+    public boolean addOrder(String kitchenId, Order order) {
+        return shardFor(kitchenId).addOrder(order);
+    }
+
+    /**
+     * Adds a courier to the shard of its assigned order, or to the next shard round-robin if it has none.
+     * Only valid when orders are routed by order id.
+     *
+     * @param courier The courier object containing courier details.
+     */
+    public void addCourier(Courier courier) {
+        if (courier.getTargetOrderId() != null) {
+            shardFor(courier.getTargetOrderId()).addCourier(courier);
+        } else {
+            shards.get(Math.floorMod(nextShard.getAndIncrement(), shards.size())).addCourier(courier);
+        }
+    }
+
+    /**
+     * Adds a courier to the shard owning a kitchen.
+     *
+     * @param kitchenId The kitchen the courier arrived at.
+     * @param courier   The courier object containing courier details.
+     */
+    public void addCourier(String kitchenId, Courier courier) {
+        shardFor(kitchenId).addCourier(courier);
+    }
+
+    /**
+     * Registers an observer for received order notifications on every shard.
+     *
+     * @param observer The observer object to be registered.
+     */
+    public void registerOrderReceivedObserver(OrderReceivedObserver observer) {
+        shards.forEach(shard -> shard.registerOrderReceivedObserver(observer));
+    }
+
+    /**
+     * Registers an observer for order readiness notifications on every shard.
+     *
+     * @param observer The observer object to be registered.
+     */
+    public void registerOrderReadyObserver(OrderReadyObserver observer) {
+        shards.forEach(shard -> shard.registerOrderReadyObserver(observer));
+    }
+
+    /**
+     * Registers an observer for courier arrival notifications on every shard.
+     *
+     * @param observer The observer object to be registered.
+     */
+    public void registerCourierArrivalObserver(CourierArrivalObserver observer) {
+        shards.forEach(shard -> shard.registerCourierArrivalObserver(observer));
+    }
+
+    /**
+     * Asks the next other shard in ring order for surplus couriers on behalf of a shard with ready orders
+     * and no waiting courier, unless the last request of that shard is not answered yet.
+     * Orders a strategy holds for their own courier, as Matched does, want no stolen courier, so a shard
+     * holding only those sends no request. Runs on the dispatcher thread of the thief.
+     *
+     * @param thief The index of the stealing shard.
+     */
+    private void stealCouriers(int thief) {
+        if (shards.size() < 2) {
+            return;
+        }
+        int wanted = (int) shards.get(thief).getReadyOrders().stream().limit(STEAL_BATCH_SIZE).count();
+        if (wanted == 0 || !pendingSteals.compareAndSet(thief, 0, 1)) {
+            return;
+        }
+        int offset = nextVictimOffsets[thief];
+        nextVictimOffsets[thief] = offset % (shards.size() - 1) + 1;
+        KitchenMediator victim = shards.get((thief + offset) % shards.size());
+        victim.requestSurplusCouriers(wanted, couriers -> handOver(thief, couriers));
+    }
+
+    /**
+     * Hands the couriers a victim took off its waiting queue to the thief, which adopts and dispatches them,
+     * then lets the thief steal again. Runs on the dispatcher thread of the victim.
+     *
+     * @param thief    The index of the stealing shard.
+     * @param couriers The stolen couriers, possibly none.
+     */
+    private void handOver(int thief, List<Courier> couriers) {
+        try {
+            if (!couriers.isEmpty()) {
+                stolenCouriers.add(couriers.size());
+                logger.debug("Shard {} stole {} couriers", thief, couriers.size());
+                shards.get(thief).adoptCouriers(couriers);
+            }
+        } finally {
+            pendingSteals.set(thief, 0);
+        }
+    }
+
+    /**
+     * Retrieves the number of couriers moved between shards by stealing.
+     *
+     * @return The number of stolen couriers.
+     */
+    public long getStolenCourierCount() {
+        return stolenCouriers.get();
+    }
+
+    /**
+     * Binds the metrics of every shard to a registry, labelled with the shard index,
+     * along with the counter of stolen couriers.
+     *
+     * @param registry The registry to bind the metrics to.
+     */
+    public void registerMetrics(MetricsRegistry registry) {
+        for (int i = 0; i < shards.size(); i++) {
+            shards.get(i).registerMetrics(registry, "shard=\"" + i + "\"");
+        }
+        stolenCouriers = registry.counter("kitchen_stolen_couriers_total", "Couriers moved between shards by stealing.");
+    }
+
+    /**
+     * Takes a snapshot of the food wait times recorded by every shard.
+     *
+     * @return Count, mean, percentiles and maximum of the food wait times in milliseconds.
+     */
+    public LatencyStats getFoodWaitStats() {
+        return merge(KitchenMediator::getFoodWaitHistogram);
+    }
+
+    /**
+     * Takes a snapshot of the courier wait times recorded by every shard.
+     *
+     * @return Count, mean, percentiles and maximum of the courier wait times in milliseconds.
+     */
+    public LatencyStats getCourierWaitStats() {
+        return merge(KitchenMediator::getCourierWaitHistogram);
+    }
+
+    /**
+     * Merges a histogram of every shard into a new histogram.
+     *
+     * @param histogram Selects the histogram of a shard.
+     * @return The merged statistics snapshot.
+     */
+    private LatencyStats merge(Function<KitchenMediator, LatencyHistogram> histogram) {
+        LatencyHistogram merged = new LatencyHistogram();
+        shards.forEach(shard -> merged.add(histogram.apply(shard)));
+        return merged.snapshot().convert(TimeUnit.NANOSECONDS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Prints average and percentile wait times merged across shards.
+     */
+    public void printAverages() {
+        LatencyStats foodWaitStats = getFoodWaitStats();
+        LatencyStats courierWaitStats = getCourierWaitStats();
+        logger.info("Average statistics across {} shards:", shards.size());
+        logger.info("Average food wait time: {} minutes", decimalPrecision(convertToMinutes(foodWaitStats.getMean())));
+        logger.info("Average courier wait time: {} minutes", decimalPrecision(convertToMinutes(courierWaitStats.getMean())));
+        logger.info("Food wait time percentiles: p50={} ms, p90={} ms, p99={} ms, p99.9={} ms, max={} ms",
+                foodWaitStats.getP50(), foodWaitStats.getP90(), foodWaitStats.getP99(), foodWaitStats.getP999(), foodWaitStats.getMax());
+        logger.info("Courier wait time percentiles: p50={} ms, p90={} ms, p99={} ms, p99.9={} ms, max={} ms",
+                courierWaitStats.getP50(), courierWaitStats.getP90(), courierWaitStats.getP99(), courierWaitStats.getP999(), courierWaitStats.getMax());
+    }
+
+    /**
+     * Stops the dispatcher thread of every shard after its pending events are dispatched.
+     */
+    public void shutdown() {
+        shards.forEach(KitchenMediator::shutdown);
+    }
+}
@@ -1,25 +1,40 @@
 package com.cloud.kitchen.mediator;
 
+import com.cloud.kitchen.clock.Clock;
+import com.cloud.kitchen.clock.SystemClock;
+import com.cloud.kitchen.concurrent.TimingWheelScheduler;
+import com.cloud.kitchen.factory.CourierFactory;
+import com.cloud.kitchen.factory.ExecutorFactory;
+import com.cloud.kitchen.factory.QueueFactory;
+import com.cloud.kitchen.journal.EventJournal;
+import com.cloud.kitchen.journal.MediatorState;
+import com.cloud.kitchen.journal.WriteAheadLog;
+import com.cloud.kitchen.metrics.Counter;
+import com.cloud.kitchen.metrics.MetricsRegistry;
 import com.cloud.kitchen.models.Courier;
 import com.cloud.kitchen.models.Order;
 import com.cloud.kitchen.observer.CourierArrivalObserver;
 import com.cloud.kitchen.observer.MediatorSubject;
 import com.cloud.kitchen.observer.OrderReadyObserver;
+import com.cloud.kitchen.observer.OrderReceivedObserver;
+import com.cloud.kitchen.observer.OrderRejectedObserver;
+import com.cloud.kitchen.stats.LatencyHistogram;
+import com.cloud.kitchen.stats.LatencyStats;
 import com.cloud.kitchen.strategy.FifoOrderDispatcherStrategy;
 import com.cloud.kitchen.strategy.OrderDispatcherStrategy;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
-import static com.cloud.kitchen.util.Utility.average;
 import static com.cloud.kitchen.util.Utility.convertToMinutes;
-import static com.cloud.kitchen.util.Utility.currentMilliSeconds;
 import static com.cloud.kitchen.util.Utility.decimalPrecision;
 
 /**
@@ -27,37 +42,220 @@ import static com.cloud.kitchen.util.Utility.decimalPrecision;
  * and dispatch strategies in a kitchen delivery system.
  * It facilitates order preparation, courier dispatch, and order pickup,
  * while also recording and reporting wait times.
+ * Throughput counters and dispatch pass latencies are always recorded, into standalone metrics
+ * until {@link #registerMetrics(MetricsRegistry, String)} binds them to a registry.
  */
 public class KitchenMediator implements MediatorSubject {
 
     private final static Logger logger = LogManager.getLogger(KitchenMediator.class);
 
+    /**
+     * Maximum number of order and courier pairs a dispatch pass hands over together.
+     */
+    public static final int DISPATCH_BATCH_SIZE = 256;
+
     private final Queue<Order> orders;
-    private final Queue<Order> readyOrders;
+    private volatile Queue<Order> readyOrders;
     private final Queue<Courier> waitingCouriers;
-    private final List<Double> foodWaitTimes;
-    private final List<Double> courierWaitTimes;
+    private final LatencyHistogram foodWaitTimes;
+    private final LatencyHistogram courierWaitTimes;
+    private final List<OrderReceivedObserver> orderReceivedObservers;
     private final List<OrderReadyObserver> orderReadyObservers;
     private final List<CourierArrivalObserver> courierArrivalObservers;
+    private final List<OrderRejectedObserver> orderRejectedObservers;
 
-    private final ExecutorService executorService;
+    private final Clock clock;
+    private final Executor executorService;
+    private final ExecutorMode executorMode;
+    private final QueueMode queueMode;
+    private final TimingWheelScheduler preparationTimer;
+    private final CourierFactory courierFactory;
     private OrderDispatcherStrategy dispatchCommand;
+    private volatile SingleWriterDispatcher dispatcher;
+    private volatile Runnable courierStealer;
+    private volatile EventJournal eventJournal;
+    private volatile WriteAheadLog writeAheadLog;
+    private volatile AdmissionController admissionController;
+    private volatile ReadyShelf readyShelf;
+    private volatile Counter ordersReceived;
+    private volatile Counter ordersPrepared;
+    private volatile Counter ordersDispatched;
+    private volatile Counter couriersArrived;
+    private volatile Counter ordersExpired;
+    private volatile Counter ordersEvicted;
+    private volatile Counter ordersDropped;
+    private volatile Counter couriersDropped;
+    private volatile LatencyHistogram dispatchPassNanos;
 
     /**
      * Constructs a KitchenMediator instance with queues for orders, ready orders,
-     * waiting couriers, and lists for food wait times, courier wait times,
+     * waiting couriers, histograms for food wait times and courier wait times,
      * and observer registrations.
      */
     public KitchenMediator() {
-        this.orders = new ConcurrentLinkedQueue<>();
-        this.readyOrders = new ConcurrentLinkedQueue<>();
-        this.waitingCouriers = new ConcurrentLinkedQueue<>();
-        this.foodWaitTimes = new CopyOnWriteArrayList<>();
-        this.courierWaitTimes = new CopyOnWriteArrayList<>();
+        this(ExecutorMode.CACHED_THREAD_POOL);
+    }
+
+    /**
+     * Constructs a KitchenMediator instance that prepares orders with the given executor mode.
+     * In VIRTUAL_THREADS mode each order is prepared on its own virtual thread that blocks for the
+     * preparation time of the order, in TIMING_WHEEL mode a timing-wheel timer completes the preparation,
+     * so in both modes callers submit orders as soon as they are placed.
+     *
+     * @param executorMode The executor mode used for order preparation.
+     */
+    public KitchenMediator(ExecutorMode executorMode) {
+        this(executorMode, QueueMode.HEAP);
+    }
+
+    /**
+     * Constructs a KitchenMediator instance that prepares orders with the given executor mode
+     * and keeps its queues in the given queue mode.
+     *
+     * @param executorMode The executor mode used for order preparation.
+     * @param queueMode    The backing of the order and courier queues.
+     */
+    public KitchenMediator(ExecutorMode executorMode, QueueMode queueMode) {
+        this(SystemClock.INSTANCE, executorMode, queueMode);
+    }
+
+    /**
+     * Constructs a KitchenMediator instance that reads time from the given clock, prepares orders with the given
+     * executor mode and keeps its queues in the given queue mode, such as a CachedClock for cheap timestamps.
+     *
+     * @param clock        The clock used to stamp ready times and measure wait times.
+     * @param executorMode The executor mode used for order preparation.
+     * @param queueMode    The backing of the order and courier queues.
+     */
+    public KitchenMediator(Clock clock, ExecutorMode executorMode, QueueMode queueMode) {
+        this(clock, executorMode, queueMode, QueueFactory.DEFAULT_OFF_HEAP_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Constructs a KitchenMediator instance that reads time from the given clock, prepares orders with the given
+     * executor mode and keeps its queues in the given queue mode, off-heap queues holding queueCapacity items.
+     *
+     * @param clock         The clock used to stamp ready times and measure wait times.
+     * @param executorMode  The executor mode used for order preparation.
+     * @param queueMode     The backing of the order and courier queues.
+     * @param queueCapacity The capacity of each off-heap queue, a power of two.
+     */
+    public KitchenMediator(Clock clock, ExecutorMode executorMode, QueueMode queueMode, int queueCapacity) {
+        this(clock, ExecutorFactory.createPreparationExecutor(executorMode), executorMode, queueMode, queueCapacity);
+    }
+
+    /**
+     * Constructs a KitchenMediator instance that reads time from the given clock
+     * and runs order preparation on the given executor.
+     *
+     * @param clock           The clock used to stamp ready times and measure wait times.
+     * @param executorService The executor that runs order preparation tasks.
+     */
+    public KitchenMediator(Clock clock, Executor executorService) {
+        this(clock, executorService, QueueMode.HEAP);
+    }
+
+    /**
+     * Constructs a KitchenMediator instance that reads time from the given clock, runs order preparation
+     * on the given executor and keeps its queues in the given queue mode.
+     *
+     * @param clock           The clock used to stamp ready times and measure wait times.
+     * @param executorService The executor that runs order preparation tasks.
+     * @param queueMode       The backing of the order and courier queues.
+     */
+    public KitchenMediator(Clock clock, Executor executorService, QueueMode queueMode) {
+        this(clock, executorService, queueMode, QueueFactory.DEFAULT_OFF_HEAP_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Constructs a KitchenMediator instance that reads time from the given clock, runs order preparation
+     * on the given executor and keeps its queues in the given queue mode, off-heap queues holding queueCapacity items.
+     *
+     * @param clock           The clock used to stamp ready times and measure wait times.
+     * @param executorService The executor that runs order preparation tasks.
+     * @param queueMode       The backing of the order and courier queues.
+     * @param queueCapacity   The capacity of each off-heap queue, a power of two.
+     */
+    public KitchenMediator(Clock clock, Executor executorService, QueueMode queueMode, int queueCapacity) {
+        this(clock, executorService, ExecutorMode.CACHED_THREAD_POOL, queueMode, queueCapacity);
+    }
+
+    /**
+     * Constructs a KitchenMediator instance.
+     *
+     * @param clock           The clock used to stamp ready times and measure wait times.
+     * @param executorService The executor that runs order preparation tasks.
+     * @param executorMode    The executor mode, VIRTUAL_THREADS makes preparation tasks block for the preparation time
+     *                        and TIMING_WHEEL schedules them on a timing wheel after the preparation time.
+     * @param queueMode       The backing of the order and courier queues.
+     * @param queueCapacity   The capacity of each off-heap queue, a power of two.
+     */
+    private KitchenMediator(Clock clock, Executor executorService, ExecutorMode executorMode, QueueMode queueMode, int queueCapacity) {
+        this.clock = clock;
+        this.executorMode = executorMode;
+        this.queueMode = queueMode;
+        this.orders = QueueFactory.createOrderQueue(queueMode, queueCapacity);
+        this.readyOrders = QueueFactory.createOrderQueue(queueMode, queueCapacity);
+        this.waitingCouriers = QueueFactory.createCourierQueue(queueMode, queueCapacity);
+        this.foodWaitTimes = new LatencyHistogram();
+        this.courierWaitTimes = new LatencyHistogram();
+        this.orderReceivedObservers = new CopyOnWriteArrayList<>();
         this.orderReadyObservers = new CopyOnWriteArrayList<>();
         this.courierArrivalObservers = new CopyOnWriteArrayList<>();
-        this.executorService = Executors.newCachedThreadPool();
+        this.orderRejectedObservers = new CopyOnWriteArrayList<>();
+        this.executorService = executorService;
+        this.preparationTimer = executorMode == ExecutorMode.TIMING_WHEEL ? ExecutorFactory.createTimingWheel(executorService) : null;
         this.dispatchCommand = new FifoOrderDispatcherStrategy();
+        this.courierFactory = new CourierFactory();
+        this.ordersReceived = new Counter();
+        this.ordersPrepared = new Counter();
+        this.ordersDispatched = new Counter();
+        this.couriersArrived = new Counter();
+        this.ordersExpired = new Counter();
+        this.ordersEvicted = new Counter();
+        this.ordersDropped = new Counter();
+        this.couriersDropped = new Counter();
+        this.dispatchPassNanos = new LatencyHistogram();
+    }
+
+    /**
+     * Binds the metrics of this mediator to a registry: counters of received, prepared, dispatched, expired, evicted
+     * and dropped orders and of arrived and dropped couriers, the latency of dispatch passes in nanoseconds, gauges for the depth of the ready
+     * and waiting queues and, depending on the executor mode, for the preparation executor queue and active threads
+     * or the pending preparation timers, and the metrics of the admission controller if one is set.
+     * Counts recorded before binding are not carried over.
+     * Queue depth gauges walk the queues, so they cost O(n) per read but nothing on the hot path.
+     *
+     * @param registry The registry to bind the metrics to.
+     * @param labels   Labels telling this mediator apart from others sharing the registry, such as {@code shard="1"},
+     *                 or an empty string.
+     */
+    public void registerMetrics(MetricsRegistry registry, String labels) {
+        ordersReceived = registry.counter(MetricsRegistry.labeled("kitchen_orders_received_total", labels), "Orders received by the kitchen.");
+        ordersPrepared = registry.counter(MetricsRegistry.labeled("kitchen_orders_prepared_total", labels), "Orders whose preparation completed.");
+        ordersDispatched = registry.counter(MetricsRegistry.labeled("kitchen_orders_dispatched_total", labels), "Orders picked up by a courier.");
+        couriersArrived = registry.counter(MetricsRegistry.labeled("kitchen_couriers_arrived_total", labels), "Couriers arrived at the kitchen.");
+        ordersExpired = registry.counter(MetricsRegistry.labeled("kitchen_orders_expired_total", labels), "Ready orders discarded past their shelf life.");
+        ordersEvicted = registry.counter(MetricsRegistry.labeled("kitchen_orders_evicted_total", labels), "Ready orders discarded from a full shelf.");
+        ordersDropped = registry.counter(MetricsRegistry.labeled("kitchen_orders_dropped_total", labels), "Ready orders dropped from a full ready queue.");
+        couriersDropped = registry.counter(MetricsRegistry.labeled("kitchen_couriers_dropped_total", labels), "Couriers turned away from a full waiting queue.");
+        dispatchPassNanos = registry.histogram(MetricsRegistry.labeled("kitchen_dispatch_pass_nanoseconds", labels), "Duration of a dispatch pass.");
+        registry.gauge(MetricsRegistry.labeled("kitchen_ready_orders", labels), "Orders ready and waiting for a courier.", this::getReadyOrderCount);
+        registry.gauge(MetricsRegistry.labeled("kitchen_waiting_couriers", labels), "Couriers waiting for an order.", this::getWaitingCourierCount);
+        if (executorService instanceof ThreadPoolExecutor threadPoolExecutor) {
+            registry.gauge(MetricsRegistry.labeled("kitchen_preparation_executor_queue_size", labels), "Preparation tasks queued on the executor.",
+                    () -> threadPoolExecutor.getQueue().size());
+            registry.gauge(MetricsRegistry.labeled("kitchen_preparation_executor_active_threads", labels), "Threads running preparation tasks.",
+                    threadPoolExecutor::getActiveCount);
+        }
+        if (preparationTimer != null) {
+            registry.gauge(MetricsRegistry.labeled("kitchen_preparation_timers_pending", labels), "Preparation timers not yet expired.",
+                    preparationTimer::pendingTimeouts);
+        }
+        AdmissionController admission = admissionController;
+        if (admission != null) {
+            admission.registerMetrics(registry, labels);
+        }
     }
 
     /**
@@ -69,8 +267,201 @@ public class KitchenMediator implements MediatorSubject {
         this.dispatchCommand = dispatchCommand;
     }
 
+    /**
+     * Sets the dispatch mode. Switching to SINGLE_WRITER starts a dedicated dispatcher thread,
+     * switching back to INLINE stops it after the pending events are dispatched.
+     * Events published while the dispatcher stops are dispatched inline by their producer.
+     *
+     * @param dispatchMode The dispatch mode to use.
+     */
+    public synchronized void setDispatchMode(DispatchMode dispatchMode) {
+        if (dispatchMode == DispatchMode.SINGLE_WRITER && dispatcher == null) {
+            SingleWriterDispatcher singleWriterDispatcher = new SingleWriterDispatcher(this);
+            singleWriterDispatcher.start();
+            dispatcher = singleWriterDispatcher;
+        } else if (dispatchMode == DispatchMode.INLINE && dispatcher != null) {
+            SingleWriterDispatcher singleWriterDispatcher = dispatcher;
+            dispatcher = null;
+            singleWriterDispatcher.stop();
+        }
+    }
+
+    /**
+     * Retrieves the current dispatch mode.
+     *
+     * @return SINGLE_WRITER if a dispatcher thread is running, INLINE otherwise.
+     */
+    public DispatchMode getDispatchMode() {
+        return dispatcher != null ? DispatchMode.SINGLE_WRITER : DispatchMode.INLINE;
+    }
+
+    /**
+     * Stops the dispatcher thread, if any, after the pending events are dispatched,
+     * and the preparation timer in TIMING_WHEEL mode, discarding orders still in preparation.
+     */
+    public void shutdown() {
+        setDispatchMode(DispatchMode.INLINE);
+        if (preparationTimer != null) {
+            preparationTimer.close();
+        }
+    }
+
+    /**
+     * Sets the event journal. With a journal, order and courier events are written to it as binary records
+     * instead of being formatted and logged on the calling thread.
+     *
+     * @param eventJournal The event journal, or null to log events directly.
+     */
+    public void setEventJournal(EventJournal eventJournal) {
+        this.eventJournal = eventJournal;
+    }
+
+    /**
+     * Retrieves the event journal.
+     *
+     * @return The event journal, or null if events are logged directly.
+     */
+    public EventJournal getEventJournal() {
+        return eventJournal;
+    }
+
+    /**
+     * Sets the write-ahead log. With a log, every change to the order and courier queues is appended to it,
+     * so the queues can be rebuilt with {@link #restore(MediatorState)} after a crash.
+     *
+     * @param writeAheadLog The write-ahead log, or null to keep the queues in memory only.
+     */
+    public void setWriteAheadLog(WriteAheadLog writeAheadLog) {
+        this.writeAheadLog = writeAheadLog;
+    }
+
+    /**
+     * Retrieves the write-ahead log.
+     *
+     * @return The write-ahead log, or null if the queues are kept in memory only.
+     */
+    public WriteAheadLog getWriteAheadLog() {
+        return writeAheadLog;
+    }
+
+    /**
+     * Sets the admission controller bounding the orders in preparation, the backlog of received orders
+     * and the ready shelf. Set it before orders arrive and before {@link #registerMetrics(MetricsRegistry, String)}.
+     * With OverflowPolicy.BLOCK, preparations must complete on other threads than the callers of addOrder.
+     *
+     * @param admissionController The admission controller, or null to accept every order.
+     */
+    public void setAdmissionController(AdmissionController admissionController) {
+        this.admissionController = admissionController;
+    }
+
+    /**
+     * Retrieves the admission controller.
+     *
+     * @return The admission controller, or null if every order is accepted.
+     */
+    public AdmissionController getAdmissionController() {
+        return admissionController;
+    }
+
+    /**
+     * Replaces the ready queue with a ready shelf, which hands orders to the strategy closest to expiry first
+     * and discards them once expired or when it overflows. Discarded orders are dropped from the write-ahead log,
+     * free their admission shelf slot and are reported to the order rejected observers.
+     * Expired orders are discarded at the start of every dispatch pass and whenever the strategy polls the shelf.
+     * Call it before any order is ready and before binding metrics.
+     *
+     * @param readyShelf The ready shelf.
+     * @throws IllegalStateException if orders are already ready.
+     */
+    public void setReadyShelf(ReadyShelf readyShelf) {
+        if (!readyOrders.isEmpty()) {
+            throw new IllegalStateException("Orders are already ready, set the ready shelf before running");
+        }
+        readyShelf.setDiscardListener(this::discardOrder);
+        this.readyShelf = readyShelf;
+        this.readyOrders = readyShelf;
+    }
+
+    /**
+     * Retrieves the ready shelf.
+     *
+     * @return The ready shelf, or null if ready orders queue up without expiry.
+     */
+    public ReadyShelf getReadyShelf() {
+        return readyShelf;
+    }
+
+    /**
+     * Rebuilds the queues from the state recovered by a write-ahead log. Ready orders and waiting couriers
+     * are queued with their original ready and arrival times, orders that were in preparation are prepared again
+     * from the start, then a dispatch pass pairs whatever can be paired.
+     * Nothing is appended to the log, which opened with a snapshot of the same state,
+     * and observers are not notified, they were notified before the crash.
+     * Restored orders bypass admission control, orders that were in the backlog are prepared right away.
+     * Call it before switching to SINGLE_WRITER mode.
+     *
+     * @param state The recovered state.
+     */
+    public void restore(MediatorState state) {
+        List<Order> ordersInPreparation = state.getOrdersInPreparation();
+        List<Order> restoredReadyOrders = state.getReadyOrders();
+        List<Courier> restoredCouriers = state.getWaitingCouriers();
+        restoredReadyOrders.forEach(this::recordReceivedOrder);
+        readyOrders.addAll(restoredReadyOrders);
+        waitingCouriers.addAll(restoredCouriers);
+        for (Order order : ordersInPreparation) {
+            recordReceivedOrder(order);
+            prepareOrder(order);
+        }
+        AdmissionController admission = admissionController;
+        if (admission != null) {
+            admission.restored(ordersInPreparation.size(), restoredReadyOrders.size());
+        }
+        logger.info("Restored {} ready orders, {} waiting couriers and {} orders in preparation",
+                restoredReadyOrders.size(), restoredCouriers.size(), ordersInPreparation.size());
+        dispatchOrder();
+    }
+
+    /**
+     * Retrieves the backing of the order and courier queues.
+     *
+     * @return The queue mode.
+     */
+    public QueueMode getQueueMode() {
+        return queueMode;
+    }
+
+    /**
+     * Retrieves the executor mode used for order preparation.
+     *
+     * @return The executor mode.
+     */
+    public ExecutorMode getExecutorMode() {
+        return executorMode;
+    }
+
+    /**
+     * Retrieves the clock used by this mediator for timestamps and wait time measurement.
+     *
+     * @return The mediator clock.
+     */
+    public Clock getClock() {
+        return clock;
+    }
+
+    /**
+     * Retrieves the factory numbering the couriers sent to this mediator by simulations.
+     *
+     * @return The courier factory of this mediator.
+     */
+    public CourierFactory getCourierFactory() {
+        return courierFactory;
+    }
+
     /**
      * Retrieves the queue of orders waiting to be processed.
+     * In OFF_HEAP queue mode it holds the most recently received orders up to its capacity.
      *
      * @return The queue of orders.
      */
@@ -79,7 +470,8 @@ public class KitchenMediator implements MediatorSubject {
     }
 
     /**
-     * Retrieves the queue of orders that are ready for pickup.
+     * Retrieves the queue of orders that are ready for pickup. Strategies indexing orders, as Matched does,
+     * take them off this queue, {@link #getReadyOrderCount()} counts them as well.
      *
      * @return The queue of ready orders.
      */
@@ -88,7 +480,8 @@ public class KitchenMediator implements MediatorSubject {
     }
 
     /**
-     * Retrieves the queue of couriers waiting for orders to be ready for pickup.
+     * Retrieves the queue of couriers waiting for orders to be ready for pickup. Strategies indexing couriers,
+     * as Matched does, take them off this queue, {@link #getWaitingCourierCount()} counts them as well.
      *
      * @return The queue of waiting couriers.
      */
@@ -97,61 +490,450 @@ public class KitchenMediator implements MediatorSubject {
     }
 
     /**
-     * Retrieves the list of recorded food wait times.
+     * Retrieves the number of orders ready for pickup, on the ready queue or held by the dispatch strategy.
+     *
+     * @return The number of ready orders.
+     */
+    public int getReadyOrderCount() {
+        return readyOrders.size() + dispatchCommand.getHeldOrderCount();
+    }
+
+    /**
+     * Retrieves the number of couriers waiting for an order, on the waiting queue or held by the dispatch strategy.
+     *
+     * @return The number of waiting couriers.
+     */
+    public int getWaitingCourierCount() {
+        return waitingCouriers.size() + dispatchCommand.getHeldCourierCount();
+    }
+
+    /**
+     * Checks whether any order is ready for pickup, on the ready queue or held by the dispatch strategy,
+     * without walking the queue.
      *
-     * @return The list of food wait times in minutes.
+     * @return true if an order is ready.
      */
-    public List<Double> getFoodWaitTimes() {
+    private boolean hasReadyOrders() {
+        return !readyOrders.isEmpty() || dispatchCommand.getHeldOrderCount() > 0;
+    }
+
+    /**
+     * Retrieves the histogram of food wait times, merged across shards by KitchenCluster.
+     *
+     * @return The food wait time histogram in nanoseconds.
+     */
+    LatencyHistogram getFoodWaitHistogram() {
         return foodWaitTimes;
     }
 
     /**
-     * Retrieves the list of recorded courier wait times.
+     * Retrieves the histogram of courier wait times, merged across shards by KitchenCluster.
      *
-     * @return The list of courier wait times in minutes.
+     * @return The courier wait time histogram in nanoseconds.
      */
-    public List<Double> getCourierWaitTimes() {
+    LatencyHistogram getCourierWaitHistogram() {
         return courierWaitTimes;
     }
 
+    /**
+     * Sets the task that moves surplus couriers of other mediators to this one.
+     * The dispatcher thread runs it whenever orders are ready and no courier is waiting.
+     *
+     * @param courierStealer The stealing task, or null to disable stealing.
+     */
+    void setCourierStealer(Runnable courierStealer) {
+        this.courierStealer = courierStealer;
+    }
+
+    /**
+     * Runs the courier stealer if orders are ready and no courier is waiting.
+     * Called by the dispatcher thread in SINGLE_WRITER mode.
+     */
+    void stealCouriers() {
+        Runnable stealer = courierStealer;
+        if (stealer != null && hasReadyOrders() && waitingCouriers.isEmpty()) {
+            stealer.run();
+        }
+    }
+
+    /**
+     * Asks this mediator for surplus couriers on behalf of another mediator. In SINGLE_WRITER mode the request goes
+     * through the event ring, so the dispatcher thread owning the waiting queue decides which couriers are surplus
+     * and takes them off the queue, otherwise the calling thread does.
+     *
+     * @param wanted   The maximum number of couriers to hand over.
+     * @param handOver Receives the couriers taken off the waiting queue, possibly none, on the thread that took them.
+     */
+    void requestSurplusCouriers(int wanted, Consumer<List<Courier>> handOver) {
+        SingleWriterDispatcher singleWriterDispatcher = dispatcher;
+        if (singleWriterDispatcher != null && singleWriterDispatcher.publishStealRequest(wanted, handOver)) {
+            return;
+        }
+        handOver.accept(pollSurplusCouriers(wanted));
+    }
+
+    /**
+     * Takes waiting couriers that have no ready order to pick up, for another mediator to steal.
+     * Only couriers still in the waiting queue can be stolen, a strategy indexing couriers by order keeps them.
+     * Called by the dispatcher thread in SINGLE_WRITER mode.
+     *
+     * @param wanted The maximum number of couriers to take.
+     * @return The surplus couriers, empty if every waiting courier may still get an order here.
+     */
+    List<Courier> pollSurplusCouriers(int wanted) {
+        List<Courier> couriers = new ArrayList<>(0);
+        Courier courier;
+        while (couriers.size() < wanted && !hasReadyOrders() && (courier = waitingCouriers.poll()) != null) {
+            WriteAheadLog log = writeAheadLog;
+            if (log != null) {
+                log.courierLeft(courier, clock.currentMilliSeconds());
+            }
+            couriers.add(courier);
+        }
+        return couriers;
+    }
+
+    /**
+     * Adds couriers stolen from another mediator to the waiting queue and dispatches them.
+     * In SINGLE_WRITER mode they go through the event ring and the dispatcher thread adopts them,
+     * otherwise the calling thread does.
+     *
+     * @param couriers The stolen couriers.
+     */
+    void adoptCouriers(List<Courier> couriers) {
+        SingleWriterDispatcher singleWriterDispatcher = dispatcher;
+        if (singleWriterDispatcher != null && singleWriterDispatcher.publishAdoption(couriers)) {
+            return;
+        }
+        couriers.forEach(this::adoptCourier);
+        dispatchOrder();
+    }
+
+    /**
+     * Adds a courier stolen from another mediator to the waiting queue. Observers are not notified,
+     * the mediator the courier arrived at already did. Called by the dispatcher thread in SINGLE_WRITER mode.
+     *
+     * @param courier The stolen courier.
+     */
+    void adoptCourier(Courier courier) {
+        WriteAheadLog log = writeAheadLog;
+        if (log != null) {
+            log.courierAdopted(courier);
+        }
+        EventJournal journal = eventJournal;
+        if (journal != null) {
+            journal.courierAdopted(courier.getCourierId(), courier.getTargetOrderId(), clock.currentMilliSeconds());
+        } else {
+            logger.info("Courier adopted: {}", courier);
+        }
+        if (!waitingCouriers.offer(courier)) {
+            dropWaitingCourier(courier);
+        }
+    }
+
+    /**
+     * Puts back an order a dispatch strategy took off a ready queue but could not pair.
+     * If concurrent producers filled a bounded queue in the meantime, the order is dropped as from a full ready queue.
+     *
+     * @param queue The ready queue the order was taken from.
+     * @param order The order.
+     */
+    public void requeueOrder(Queue<Order> queue, Order order) {
+        if (!queue.offer(order)) {
+            dropReadyOrder(order);
+        }
+    }
+
+    /**
+     * Puts back a courier a dispatch strategy took off a waiting queue but could not pair.
+     * If concurrent producers filled a bounded queue in the meantime, the courier is turned away as from a full waiting queue.
+     *
+     * @param queue   The waiting queue the courier was taken from.
+     * @param courier The courier.
+     */
+    public void requeueCourier(Queue<Courier> queue, Courier courier) {
+        if (!queue.offer(courier)) {
+            dropWaitingCourier(courier);
+        }
+    }
+
+    /**
+     * Takes a snapshot of the recorded food wait times.
+     * Wait times are recorded in nanoseconds, so the mean of sub-millisecond waits is not rounded to zero.
+     *
+     * @return Count, mean, percentiles and maximum of the food wait times in milliseconds.
+     */
+    public LatencyStats getFoodWaitStats() {
+        return foodWaitTimes.snapshot().convert(TimeUnit.NANOSECONDS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Takes a snapshot of the recorded courier wait times.
+     * Wait times are recorded in nanoseconds, so the mean of sub-millisecond waits is not rounded to zero.
+     *
+     * @return Count, mean, percentiles and maximum of the courier wait times in milliseconds.
+     */
+    public LatencyStats getCourierWaitStats() {
+        return courierWaitTimes.snapshot().convert(TimeUnit.NANOSECONDS, TimeUnit.MILLISECONDS);
+    }
+
     /**
      * Adds an order to the kitchen system for processing.
+     * With an admission controller, the order may wait in the backlog for kitchen capacity,
+     * and once the backlog is full the overflow policy blocks the caller, rejects the order
+     * or sheds the oldest backlog order to make room.
      *
      * @param order The order object containing order details.
+     * @return false if admission control rejected the order, true otherwise.
+     */
+    public boolean addOrder(Order order) {
+        AdmissionController admission = admissionController;
+        AdmissionController.Admission admitted = AdmissionController.Admission.PREPARE;
+        if (admission != null) {
+            List<Order> shedOrders = new ArrayList<>(0);
+            admitted = admission.admit(order, shedOrders);
+            shedOrders.forEach(this::dropOrder);
+            if (admitted == AdmissionController.Admission.REJECTED) {
+                logger.info("Order rejected: {}", order);
+                notifyOrderRejectedObservers(order);
+                return false;
+            }
+        }
+        recordReceivedOrder(order);
+        ordersReceived.increment();
+        WriteAheadLog log = writeAheadLog;
+        if (log != null) {
+            log.orderReceived(order, clock.currentMilliSeconds());
+        }
+        EventJournal journal = eventJournal;
+        if (journal != null) {
+            journal.orderReceived(order.getId(), clock.currentMilliSeconds());
+        } else {
+            logger.info("Order Received {}", order);
+        }
+        notifyOrderReceivedObservers(order);
+        if (admitted == AdmissionController.Admission.PREPARE) {
+            prepareOrder(order);
+        }
+        return true;
+    }
+
+    /**
+     * Drops a backlog order shed by admission control before its preparation started.
+     *
+     * @param order The shed order.
      */
-    public void addOrder(Order order) {
-        orders.add(order);
-        logger.info("Order Received {}", order);
-        prepareOrder(order);
+    private void dropOrder(Order order) {
+        WriteAheadLog log = writeAheadLog;
+        if (log != null) {
+            log.orderDropped(order, clock.currentMilliSeconds());
+        }
+        logger.info("Order shed: {}", order);
+        notifyOrderRejectedObservers(order);
+    }
+
+    /**
+     * Drops a ready order discarded by the ready shelf and frees its admission shelf slot.
+     *
+     * @param order  The discarded order.
+     * @param reason Why the shelf discarded the order.
+     */
+    private void discardOrder(Order order, ReadyShelf.DiscardReason reason) {
+        (reason == ReadyShelf.DiscardReason.EXPIRED ? ordersExpired : ordersEvicted).increment();
+        logger.info("Order {}: {}", reason == ReadyShelf.DiscardReason.EXPIRED ? "expired" : "evicted", order);
+        releaseReadyOrder(order);
+    }
+
+    /**
+     * Drops a ready order that did not fit in a full bounded ready queue and frees its admission shelf slot.
+     *
+     * @param order The dropped order.
+     */
+    private void dropReadyOrder(Order order) {
+        ordersDropped.increment();
+        logger.warn("Ready queue full, order dropped: {}", order);
+        releaseReadyOrder(order);
+    }
+
+    /**
+     * Logs a ready order leaving without a courier, frees its admission shelf slot and notifies observers of the rejection.
+     *
+     * @param order The order leaving the shelf.
+     */
+    private void releaseReadyOrder(Order order) {
+        WriteAheadLog log = writeAheadLog;
+        if (log != null) {
+            log.orderDropped(order, clock.currentMilliSeconds());
+        }
+        AdmissionController admission = admissionController;
+        if (admission != null) {
+            admission.pickedUp(1);
+        }
+        notifyOrderRejectedObservers(order);
+    }
+
+    /**
+     * Turns away a courier that did not fit in a full bounded waiting queue.
+     *
+     * @param courier The courier turned away.
+     */
+    private void dropWaitingCourier(Courier courier) {
+        couriersDropped.increment();
+        WriteAheadLog log = writeAheadLog;
+        if (log != null) {
+            log.courierLeft(courier, clock.currentMilliSeconds());
+        }
+        logger.warn("Waiting queue full, courier turned away: {}", courier);
+    }
+
+    /**
+     * Adds an order to the queue of received orders, dropping the oldest ones if a bounded queue is full.
+     *
+     * @param order The received order.
+     */
+    private void recordReceivedOrder(Order order) {
+        while (!orders.offer(order)) {
+            orders.poll();
+        }
     }
 
     /**
      * Prepares an order for dispatching after its preparation time has elapsed.
+     * In VIRTUAL_THREADS mode the preparation task sleeps for the preparation time on its virtual thread,
+     * in TIMING_WHEEL mode a timer hands the preparation task to the executor once the preparation time has elapsed.
      *
      * @param order The order object that has been prepared.
      */
     private void prepareOrder(Order order) {
-        executorService.submit(() -> {
-            order.setReadyTime(currentMilliSeconds());
-            readyOrders.add(order);
-            logger.info("Order prepared: {}", order);
-            notifyOrderReadyObservers(order);
-            dispatchOrder();
+        if (preparationTimer != null) {
+            preparationTimer.schedule(() -> completePreparation(order), order.getPrepTime(), TimeUnit.SECONDS);
+            return;
+        }
+        executorService.execute(() -> {
+            if (executorMode == ExecutorMode.VIRTUAL_THREADS) {
+                try {
+                    TimeUnit.SECONDS.sleep(order.getPrepTime());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            completePreparation(order);
         });
     }
 
+    /**
+     * Stamps the ready time of a prepared order and hands it to the dispatcher.
+     *
+     * @param order The order that has been prepared.
+     */
+    private void completePreparation(Order order) {
+        order.setReadyNanoTime(clock.currentNanoTime());
+        ordersPrepared.increment();
+        SingleWriterDispatcher singleWriterDispatcher = dispatcher;
+        if (singleWriterDispatcher != null && singleWriterDispatcher.publish(order)) {
+            return;
+        }
+        enqueueReadyOrder(order);
+        dispatchOrder();
+    }
+
+    /**
+     * Adds a prepared order to the ready queue and notifies observers.
+     * With an admission controller and a full shelf, the order is held at the pass instead
+     * and queued once a pickup frees a shelf slot.
+     * Called by the dispatcher thread in SINGLE_WRITER mode.
+     *
+     * @param order The order that is ready for pickup.
+     */
+    void enqueueReadyOrder(Order order) {
+        AdmissionController admission = admissionController;
+        if (admission != null) {
+            List<Order> ordersToPrepare = new ArrayList<>(0);
+            boolean shelved = admission.shelve(order, ordersToPrepare);
+            ordersToPrepare.forEach(this::prepareOrder);
+            if (!shelved) {
+                logger.info("Order held for shelf space: {}", order);
+                return;
+            }
+        }
+        shelveOrder(order);
+    }
+
+    /**
+     * Adds an order that has a shelf slot to the ready queue and notifies observers.
+     * The order is logged before it is queued, so a pickup by a concurrent dispatch pass is always logged after it.
+     *
+     * @param order The order that is ready for pickup.
+     */
+    private void shelveOrder(Order order) {
+        WriteAheadLog log = writeAheadLog;
+        if (log != null) {
+            log.orderReady(order);
+        }
+        EventJournal journal = eventJournal;
+        if (journal != null) {
+            journal.orderReady(order.getId(), order.getReadyTime());
+        } else {
+            logger.info("Order prepared: {}", order);
+        }
+        if (!readyOrders.offer(order)) {
+            dropReadyOrder(order);
+            return;
+        }
+        notifyOrderReadyObservers(order);
+    }
+
     /**
      * Adds a courier to the waiting list for order pickup.
      *
      * @param courier The courier object containing courier details.
      */
     public void addCourier(Courier courier) {
-        waitingCouriers.add(courier);
-        logger.info("Courier dispatched: {}", courier);
-        notifyCourierArrivalObservers(courier);
+        couriersArrived.increment();
+        SingleWriterDispatcher singleWriterDispatcher = dispatcher;
+        if (singleWriterDispatcher != null && singleWriterDispatcher.publish(courier)) {
+            return;
+        }
+        enqueueWaitingCourier(courier);
         dispatchOrder();
     }
 
+    /**
+     * Adds an arrived courier to the waiting queue and notifies observers.
+     * The courier is logged before it is queued, so a pickup by a concurrent dispatch pass is always logged after it.
+     * Called by the dispatcher thread in SINGLE_WRITER mode.
+     *
+     * @param courier The courier that has arrived.
+     */
+    void enqueueWaitingCourier(Courier courier) {
+        WriteAheadLog log = writeAheadLog;
+        if (log != null) {
+            log.courierArrived(courier);
+        }
+        EventJournal journal = eventJournal;
+        if (journal != null) {
+            journal.courierArrived(courier.getCourierId(), courier.getTargetOrderId(), courier.getArrivalTime());
+        } else {
+            logger.info("Courier dispatched: {}", courier);
+        }
+        if (!waitingCouriers.offer(courier)) {
+            dropWaitingCourier(courier);
+            return;
+        }
+        notifyCourierArrivalObservers(courier);
+    }
+
+    /**
+     * Registers an observer for received order notifications.
+     *
+     * @param observer The observer object to be registered.
+     */
+    @Override
+    public void registerOrderReceivedObserver(OrderReceivedObserver observer) {
+        orderReceivedObservers.add(observer);
+    }
+
     /**
      * Registers an observer for order readiness notifications.
      *
@@ -172,6 +954,16 @@ public class KitchenMediator implements MediatorSubject {
         courierArrivalObservers.add(observer);
     }
 
+    /**
+     * Notifies all registered observers about a received order.
+     *
+     * @param order The order object that was received.
+     */
+    @Override
+    public void notifyOrderReceivedObservers(Order order) {
+        orderReceivedObservers.forEach(observer -> observer.onOrderReceived(order));
+    }
+
     /**
      * Notifies all registered observers about the readiness of an order.
      *
@@ -182,6 +974,16 @@ public class KitchenMediator implements MediatorSubject {
         orderReadyObservers.forEach(observer -> observer.onOrderReady(order));
     }
 
+    /**
+     * Notifies all registered observers about a batch of orders picked up together.
+     *
+     * @param orders The order objects of the batch.
+     */
+    @Override
+    public void notifyOrderReadyObservers(List<Order> orders) {
+        orderReadyObservers.forEach(observer -> observer.onOrdersReady(orders));
+    }
+
     /**
      * Notifies all registered observers about the arrival of a courier.
      *
@@ -193,43 +995,134 @@ public class KitchenMediator implements MediatorSubject {
     }
 
     /**
-     * Dispatches orders according to the configured dispatch strategy.
+     * Registers an observer for rejected order notifications.
+     *
+     * @param observer The observer object to be registered.
+     */
+    @Override
+    public void registerOrderRejectedObserver(OrderRejectedObserver observer) {
+        orderRejectedObservers.add(observer);
+    }
+
+    /**
+     * Notifies all registered observers about an order rejected on arrival or shed from the backlog.
+     *
+     * @param order The order object that will not be prepared.
+     */
+    @Override
+    public void notifyOrderRejectedObservers(Order order) {
+        orderRejectedObservers.forEach(observer -> observer.onOrderRejected(order));
+    }
+
+    /**
+     * Dispatches orders according to the configured dispatch strategy,
+     * in batches of up to {@link #DISPATCH_BATCH_SIZE} pairs.
+     * With a ready shelf, expired orders are discarded before each pass.
+     * With an admission controller, orders held at the pass move onto the shelf slots freed by the pass
+     * and another pass runs for them.
+     * In SINGLE_WRITER mode this is called by the dispatcher thread only.
      */
     public void dispatchOrder() {
-        dispatchCommand.dispatchOrder(this, readyOrders, waitingCouriers);
+        AdmissionController admission = admissionController;
+        ReadyShelf shelf = readyShelf;
+        while (true) {
+            long start = System.nanoTime();
+            if (shelf != null) {
+                shelf.discardExpired();
+            }
+            dispatchCommand.dispatchOrders(this, readyOrders, waitingCouriers, DISPATCH_BATCH_SIZE);
+            dispatchPassNanos.record(System.nanoTime() - start);
+            if (admission == null) {
+                return;
+            }
+            List<Order> ordersToShelve = new ArrayList<>(0);
+            List<Order> ordersToPrepare = new ArrayList<>(0);
+            admission.shelveHeldOrders(ordersToShelve, ordersToPrepare);
+            ordersToPrepare.forEach(this::prepareOrder);
+            if (ordersToShelve.isEmpty()) {
+                return;
+            }
+            ordersToShelve.forEach(this::shelveOrder);
+        }
     }
 
     /**
      * Dispatches a specific order to a courier for pickup.
+     * The strategy is expected to have taken the order and the courier off the ready and waiting queues.
      *
      * @param order   The order object to be picked up.
      * @param courier The courier object assigned to pick up the order.
      */
     public void dispatchOrder(Order order, Courier courier) {
-        double foodWaitTime = convertToMinutes(currentMilliSeconds() - order.getReadyTime());
-        double courierWaitTime = convertToMinutes(currentMilliSeconds() - courier.getArrivalTime());
-
-        foodWaitTimes.add(foodWaitTime);
-        courierWaitTimes.add(courierWaitTime);
+        dispatchOrders(List.of(order), List.of(courier));
+    }
 
-        logger.info("Courier {} is picking up order {}. Food wait time: {} minutes", courier.getCourierId(), order.getId(), decimalPrecision(foodWaitTime));
-        logger.info("Courier {} waited for {} minutes.", courier.getCourierId(), decimalPrecision(courierWaitTime));
+    /**
+     * Dispatches a batch of orders to their couriers for pickup. The clock is read once for the batch,
+     * in nanoseconds, wait times are recorded in bulk and observers are notified once with the whole batch.
+     * The strategy is expected to have taken the orders and couriers off the ready and waiting queues.
+     *
+     * @param orders   The orders to be picked up.
+     * @param couriers The couriers picking them up, the courier at each index picks up the order at the same index.
+     */
+    public void dispatchOrders(List<Order> orders, List<Courier> couriers) {
+        int size = orders.size();
+        if (size != couriers.size()) {
+            throw new IllegalArgumentException("Batch of " + size + " orders with " + couriers.size() + " couriers");
+        }
+        if (size == 0) {
+            return;
+        }
+        long nowNanos = clock.currentNanoTime();
+        long now = TimeUnit.NANOSECONDS.toMillis(nowNanos);
+        EventJournal journal = eventJournal;
+        WriteAheadLog log = writeAheadLog;
+        long[] foodWaitTimeBatch = new long[size];
+        long[] courierWaitTimeBatch = new long[size];
+        for (int i = 0; i < size; i++) {
+            Order order = orders.get(i);
+            Courier courier = couriers.get(i);
+            foodWaitTimeBatch[i] = nowNanos - order.getReadyNanoTime();
+            courierWaitTimeBatch[i] = nowNanos - courier.getArrivalNanoTime();
+            if (log != null) {
+                log.orderPickedUp(order, courier, now);
+            }
+            if (journal != null) {
+                journal.orderPickedUp(order.getId(), courier.getCourierId(), now,
+                        TimeUnit.NANOSECONDS.toMillis(foodWaitTimeBatch[i]), TimeUnit.NANOSECONDS.toMillis(courierWaitTimeBatch[i]));
+            } else if (logger.isInfoEnabled()) {
+                logger.info("Courier {} is picking up order {}. Food wait time: {} minutes", courier.getCourierId(), order.getId(),
+                        decimalPrecision(convertToMinutes(foodWaitTimeBatch[i] / 1e6)));
+                logger.info("Courier {} waited for {} minutes.", courier.getCourierId(),
+                        decimalPrecision(convertToMinutes(courierWaitTimeBatch[i] / 1e6)));
+                logger.info("Order picked up: {}", order);
+            }
+        }
 
-        // Remove order from ready list and courier from waiting list
-        readyOrders.remove(order);
-        waitingCouriers.remove(courier);
+        ordersDispatched.add(size);
+        AdmissionController admission = admissionController;
+        if (admission != null) {
+            admission.pickedUp(size);
+        }
+        foodWaitTimes.recordAll(foodWaitTimeBatch, size);
+        courierWaitTimes.recordAll(courierWaitTimeBatch, size);
 
         // Notify observers of order completion
-        notifyOrderReadyObservers(order);
-        logger.info("Order picked up: {}", order);
+        notifyOrderReadyObservers(orders);
     }
 
     /**
-     * Prints average wait times for food preparation and courier pickup.
+     * Prints average and percentile wait times for food preparation and courier pickup.
      */
     public void printAverages() {
+        LatencyStats foodWaitStats = getFoodWaitStats();
+        LatencyStats courierWaitStats = getCourierWaitStats();
         logger.info("Average statistics:");
-        logger.info("Average food wait time: {} minutes", average(foodWaitTimes));
-        logger.info("Average courier wait time: {} minutes", average(courierWaitTimes));
+        logger.info("Average food wait time: {} minutes", decimalPrecision(convertToMinutes(foodWaitStats.getMean())));
+        logger.info("Average courier wait time: {} minutes", decimalPrecision(convertToMinutes(courierWaitStats.getMean())));
+        logger.info("Food wait time percentiles: p50={} ms, p90={} ms, p99={} ms, p99.9={} ms, max={} ms",
+                foodWaitStats.getP50(), foodWaitStats.getP90(), foodWaitStats.getP99(), foodWaitStats.getP999(), foodWaitStats.getMax());
+        logger.info("Courier wait time percentiles: p50={} ms, p90={} ms, p99={} ms, p99.9={} ms, max={} ms",
+                courierWaitStats.getP50(), courierWaitStats.getP90(), courierWaitStats.getP99(), courierWaitStats.getP999(), courierWaitStats.getMax());
     }
 }
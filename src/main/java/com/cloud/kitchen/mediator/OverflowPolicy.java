@@ -0,0 +1,24 @@
+package com.cloud.kitchen.mediator;
+
+/**
+ * The OverflowPolicy enum selects what the AdmissionController does with an order received
+ * while the kitchen is at capacity and its backlog is full.
+ */
+public enum OverflowPolicy {
+
+    /**
+     * The caller of addOrder blocks until the backlog has room, which slows the producer of orders down.
+     * Requires preparations to complete on other threads than the caller.
+     */
+    BLOCK,
+
+    /**
+     * The new order is rejected and addOrder returns false.
+     */
+    REJECT,
+
+    /**
+     * The oldest order of the backlog is dropped to make room for the new one.
+     */
+    SHED_OLDEST
+}
@@ -0,0 +1,21 @@
+package com.cloud.kitchen.mediator;
+
+/**
+ * The QueueMode enum selects the backing of the order, ready order and waiting courier queues of the mediator.
+ */
+public enum QueueMode {
+
+    /**
+     * Unbounded concurrent linked queues of Order and Courier objects.
+     */
+    HEAP,
+
+    /**
+     * Bounded ring buffers of fixed-size records in direct memory, out of reach of the garbage collector.
+     * Order ids and assigned order ids must be UUIDs. The mediator drops an order or turns a courier away
+     * when the ready order or waiting courier queue is full, counting and logging it,
+     * the queue of received orders keeps the most recent ones instead.
+     * Strategies that index orders and couriers on the heap, like Matched, move them out of the queues.
+     */
+    OFF_HEAP
+}
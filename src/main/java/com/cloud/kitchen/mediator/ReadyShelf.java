@@ -0,0 +1,341 @@
+package com.cloud.kitchen.mediator;
+
+import com.cloud.kitchen.clock.Clock;
+import com.cloud.kitchen.models.Order;
+
+import java.util.AbstractQueue;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * The ReadyShelf class is the pickup shelf of a KitchenMediator: a bounded queue of ready orders that go stale.
+ * <p>
+ * Each order expires a shelf life after its ready time, its own shelf life if it has one and the default shelf life
+ * of the shelf otherwise. Orders are indexed by expiry deadline in a concurrent skip list, so the head of the queue
+ * is always the order closest to expiry: polling it, discarding the expired orders at the head and evicting it
+ * when the shelf overflows all cost O(log n) and never scan the shelf. Orders expiring together keep the order
+ * they were shelved in. Removing an arbitrary order, as the Auction strategy does, looks up its deadline in the index,
+ * so it costs O(log n) plus a walk over the orders expiring at the same instant. Orders that never expire all share
+ * one deadline, removing one of them walks them all.
+ * <p>
+ * Discarded orders, expired or evicted for room, are reported to the discard listener of the mediator.
+ * With an admission controller bounding the shelf to the same capacity, a prepared order waits at the pass
+ * instead and the shelf never overflows. Strategies that take orders off the shelf into their own indexes,
+ * as Matched does, take them out of reach of expiry as well.
+ */
+public class ReadyShelf extends AbstractQueue<Order> {
+
+    /**
+     * Capacity meaning no bound.
+     */
+    public static final int UNBOUNDED = Integer.MAX_VALUE;
+
+    /**
+     * Shelf life meaning orders never expire.
+     */
+    public static final long NO_EXPIRY = Long.MAX_VALUE;
+
+    /**
+     * The reasons an order is discarded from the shelf.
+     */
+    public enum DiscardReason {
+        /**
+         * The order stayed on the shelf past its shelf life.
+         */
+        EXPIRED,
+
+        /**
+         * The order was the closest to expiry when the shelf overflowed.
+         */
+        EVICTED
+    }
+
+    private final Clock clock;
+    private final int capacity;
+    private final long defaultShelfLifeNanos;
+    private final ConcurrentSkipListMap<ShelfKey, Order> orders;
+    private final AtomicInteger size;
+    private final AtomicLong sequence;
+    private volatile BiConsumer<Order, DiscardReason> discardListener;
+
+    /**
+     * Constructs a ReadyShelf.
+     *
+     * @param clock            The clock that stamped the ready times of the orders, read to tell expired orders.
+     * @param capacity         The number of orders the shelf holds, or UNBOUNDED.
+     * @param defaultShelfLife The shelf life of orders that do not have their own, or NO_EXPIRY.
+     * @param unit             The unit of the default shelf life.
+     * @throws IllegalArgumentException if the capacity or the shelf life is not positive.
+     */
+    public ReadyShelf(Clock clock, int capacity, long defaultShelfLife, TimeUnit unit) {
+        if (capacity < 1 || defaultShelfLife <= 0) {
+            throw new IllegalArgumentException("Invalid capacity " + capacity + " or shelf life " + defaultShelfLife);
+        }
+        this.clock = clock;
+        this.capacity = capacity;
+        this.defaultShelfLifeNanos = defaultShelfLife == NO_EXPIRY ? NO_EXPIRY : unit.toNanos(defaultShelfLife);
+        this.orders = new ConcurrentSkipListMap<>();
+        this.size = new AtomicInteger();
+        this.sequence = new AtomicLong();
+        this.discardListener = (order, reason) -> {
+        };
+    }
+
+    /**
+     * Sets the listener told about every discarded order, on the thread that discarded it.
+     *
+     * @param discardListener The listener.
+     */
+    void setDiscardListener(BiConsumer<Order, DiscardReason> discardListener) {
+        this.discardListener = discardListener;
+    }
+
+    /**
+     * Retrieves the number of orders the shelf holds.
+     *
+     * @return The capacity, or UNBOUNDED.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Retrieves the time at which an order expires on this shelf.
+     *
+     * @param order The ready order.
+     * @return The expiry deadline in nanoseconds on the timeline of the clock, Long.MAX_VALUE if the order never expires.
+     */
+    public long getExpiryNanoTime(Order order) {
+        long shelfLifeNanos = order.getShelfLife() > 0 ? TimeUnit.SECONDS.toNanos(order.getShelfLife()) : defaultShelfLifeNanos;
+        long readyNanoTime = order.getReadyNanoTime();
+        if (shelfLifeNanos == NO_EXPIRY || readyNanoTime > Long.MAX_VALUE - shelfLifeNanos) {
+            return Long.MAX_VALUE;
+        }
+        return readyNanoTime + shelfLifeNanos;
+    }
+
+    /**
+     * Puts a ready order on the shelf. If the shelf overflows, the order closest to expiry is discarded,
+     * which may be the order just shelved.
+     *
+     * @param order The ready order.
+     * @return true, the order is always accepted.
+     */
+    @Override
+    public boolean offer(Order order) {
+        orders.put(new ShelfKey(getExpiryNanoTime(order), sequence.getAndIncrement()), order);
+        if (size.incrementAndGet() > capacity) {
+            Map.Entry<ShelfKey, Order> head = orders.pollFirstEntry();
+            if (head != null) {
+                size.decrementAndGet();
+                discard(head.getValue(), head.getKey().deadline() <= clock.currentNanoTime()
+                        ? DiscardReason.EXPIRED : DiscardReason.EVICTED);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Takes the order closest to expiry off the shelf, discarding the expired orders ahead of it.
+     *
+     * @return The order closest to expiry that is still fresh, or null if there is none.
+     */
+    @Override
+    public Order poll() {
+        long now = clock.currentNanoTime();
+        Map.Entry<ShelfKey, Order> head;
+        while ((head = orders.pollFirstEntry()) != null) {
+            size.decrementAndGet();
+            if (head.getKey().deadline() > now) {
+                return head.getValue();
+            }
+            discard(head.getValue(), DiscardReason.EXPIRED);
+        }
+        return null;
+    }
+
+    /**
+     * Retrieves the order closest to expiry without taking it off the shelf, discarding the expired orders ahead of it.
+     *
+     * @return The order closest to expiry that is still fresh, or null if there is none.
+     */
+    @Override
+    public Order peek() {
+        discardExpired();
+        Map.Entry<ShelfKey, Order> head = orders.firstEntry();
+        return head != null ? head.getValue() : null;
+    }
+
+    /**
+     * Discards every expired order. The deadline index is walked from its head and stops at the first fresh order,
+     * so the cost is O(log n) per expired order and O(1) when nothing expired.
+     *
+     * @return The number of orders discarded.
+     */
+    public int discardExpired() {
+        long now = clock.currentNanoTime();
+        int discarded = 0;
+        Map.Entry<ShelfKey, Order> head;
+        while ((head = orders.firstEntry()) != null && head.getKey().deadline() <= now) {
+            if (orders.remove(head.getKey(), head.getValue())) {
+                size.decrementAndGet();
+                discard(head.getValue(), DiscardReason.EXPIRED);
+                discarded++;
+            }
+        }
+        return discarded;
+    }
+
+    /**
+     * Takes an order off the shelf wherever it sits, found by its expiry deadline.
+     *
+     * @param object The order to remove.
+     * @return true if the order was on the shelf and this call took it off.
+     */
+    @Override
+    public boolean remove(Object object) {
+        if (!(object instanceof Order order)) {
+            return false;
+        }
+        for (Map.Entry<ShelfKey, Order> entry : ordersExpiringWith(order).entrySet()) {
+            if (entry.getValue().equals(order) && orders.remove(entry.getKey(), entry.getValue())) {
+                size.decrementAndGet();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether an order is on the shelf, expired or not, looking it up by its expiry deadline.
+     *
+     * @param object The order to look for.
+     * @return true if the order is on the shelf.
+     */
+    @Override
+    public boolean contains(Object object) {
+        return object instanceof Order order && ordersExpiringWith(order).containsValue(order);
+    }
+
+    /**
+     * Checks whether the shelf holds no order, expired or not, without walking it.
+     *
+     * @return true if the shelf is empty.
+     */
+    @Override
+    public boolean isEmpty() {
+        return orders.isEmpty();
+    }
+
+    /**
+     * Retrieves the number of orders on the shelf, expired or not, without walking it.
+     *
+     * @return The number of orders on the shelf.
+     */
+    @Override
+    public int size() {
+        return Math.max(0, size.get());
+    }
+
+    /**
+     * Iterates over the orders on the shelf from the closest to expiry, expired or not.
+     *
+     * @return A weakly consistent iterator supporting removal.
+     */
+    @Override
+    public Iterator<Order> iterator() {
+        return new ShelfIterator();
+    }
+
+    /**
+     * Retrieves a view of the orders on the shelf expiring at the same instant as an order.
+     *
+     * @param order The order.
+     * @return The part of the deadline index holding the deadline of the order.
+     */
+    private ConcurrentNavigableMap<ShelfKey, Order> ordersExpiringWith(Order order) {
+        long deadline = getExpiryNanoTime(order);
+        return orders.subMap(new ShelfKey(deadline, Long.MIN_VALUE), true, new ShelfKey(deadline, Long.MAX_VALUE), true);
+    }
+
+    /**
+     * Tells the discard listener about a discarded order.
+     *
+     * @param order  The discarded order.
+     * @param reason Why the order was discarded.
+     */
+    private void discard(Order order, DiscardReason reason) {
+        discardListener.accept(order, reason);
+    }
+
+    /**
+     * The ShelfKey record orders the shelf by expiry deadline, then by the order orders were shelved in.
+     *
+     * @param deadline The expiry deadline in nanoseconds.
+     * @param sequence The shelving sequence number, unique on the shelf.
+     */
+    private record ShelfKey(long deadline, long sequence) implements Comparable<ShelfKey> {
+
+        /**
+         * Compares two keys by deadline, then by sequence number.
+         *
+         * @param other The key to compare with.
+         * @return A negative number, zero or a positive number as this key sorts before, with or after the other.
+         */
+        @Override
+        public int compareTo(ShelfKey other) {
+            int byDeadline = Long.compare(deadline, other.deadline);
+            return byDeadline != 0 ? byDeadline : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /**
+     * The ShelfIterator class walks the deadline index and removes orders through it, keeping the size in step.
+     */
+    private final class ShelfIterator implements Iterator<Order> {
+
+        private final Iterator<Map.Entry<ShelfKey, Order>> entries = orders.entrySet().iterator();
+        private Map.Entry<ShelfKey, Order> last;
+
+        /**
+         * Checks whether another order is on the shelf.
+         *
+         * @return true if there is a next order.
+         */
+        @Override
+        public boolean hasNext() {
+            return entries.hasNext();
+        }
+
+        /**
+         * Retrieves the next order, by expiry deadline.
+         *
+         * @return The next order.
+         */
+        @Override
+        public Order next() {
+            last = entries.next();
+            return last.getValue();
+        }
+
+        /**
+         * Takes the last returned order off the shelf, unless another thread already took it.
+         */
+        @Override
+        public void remove() {
+            if (last == null) {
+                throw new IllegalStateException();
+            }
+            if (orders.remove(last.getKey(), last.getValue())) {
+                size.decrementAndGet();
+            }
+            last = null;
+        }
+    }
+}
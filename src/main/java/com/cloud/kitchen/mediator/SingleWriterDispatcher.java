@@ -0,0 +1,219 @@
+package com.cloud.kitchen.mediator;
+
+import com.cloud.kitchen.concurrent.MpscRingBuffer;
+import com.cloud.kitchen.models.Courier;
+import com.cloud.kitchen.models.Order;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * The SingleWriterDispatcher class funnels order-ready and courier-arrival events from any number of
+ * producer threads into one MPSC ring buffer, and drains it on a dedicated dispatcher thread.
+ * The dispatcher thread is the only writer of the mediator's ready and waiting queues, so the strategy
+ * never races with another dispatch pass and a courier can never be re-queued behind an order that arrived meanwhile.
+ * Courier stealing between mediators goes through the rings as well: a steal request makes the dispatcher thread
+ * of the victim take its surplus couriers, and the stolen couriers are adopted by the dispatcher thread of the thief.
+ * <p>
+ * Once stopped, the dispatcher refuses new events and the producer dispatches inline instead. Producers register
+ * before checking whether the dispatcher is stopped, and stopping waits until no producer is mid-publish,
+ * so every event accepted into the ring is published before the dispatcher thread drains it for the last time.
+ */
+class SingleWriterDispatcher implements Runnable {
+
+    private final static Logger logger = LogManager.getLogger(SingleWriterDispatcher.class);
+
+    /**
+     * Number of slots in the event ring buffer.
+     */
+    static final int RING_BUFFER_CAPACITY = 1 << 16;
+
+    /**
+     * Maximum number of events applied before running a dispatch pass.
+     */
+    static final int DRAIN_BATCH_SIZE = 256;
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final KitchenMediator mediator;
+    private final MpscRingBuffer<Object> events;
+    private final Thread thread;
+    private final AtomicInteger publishers;
+    private volatile boolean running;
+    private volatile boolean stopped;
+
+    /**
+     * Constructs a SingleWriterDispatcher for the given mediator. The dispatcher thread is not started.
+     *
+     * @param mediator The mediator whose queues are owned by the dispatcher thread.
+     */
+    SingleWriterDispatcher(KitchenMediator mediator) {
+        this.mediator = mediator;
+        this.events = new MpscRingBuffer<>(RING_BUFFER_CAPACITY);
+        this.publishers = new AtomicInteger();
+        this.thread = new Thread(this, "kitchen-dispatcher");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Starts the dispatcher thread.
+     */
+    void start() {
+        running = true;
+        thread.start();
+    }
+
+    /**
+     * Stops the dispatcher thread after it has drained every published event.
+     * Events published concurrently are either drained or refused, never left in the ring.
+     */
+    void stop() {
+        stopped = true;
+        // A producer that registered before the stop flag was set finishes its offer, the thread still drains the ring
+        while (publishers.get() > 0) {
+            Thread.onSpinWait();
+        }
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Publishes a ready order to the dispatcher thread.
+     *
+     * @param order The order that is ready for pickup.
+     * @return false if the dispatcher is stopped and the caller must dispatch the order itself.
+     */
+    boolean publish(Order order) {
+        return offer(order);
+    }
+
+    /**
+     * Publishes an arrived courier to the dispatcher thread.
+     *
+     * @param courier The courier that has arrived.
+     * @return false if the dispatcher is stopped and the caller must dispatch the courier itself.
+     */
+    boolean publish(Courier courier) {
+        return offer(courier);
+    }
+
+    /**
+     * Publishes a request for surplus couriers from another mediator to the dispatcher thread.
+     *
+     * @param wanted   The maximum number of couriers to hand over.
+     * @param handOver Receives the couriers taken off the waiting queue, on the dispatcher thread.
+     * @return false if the dispatcher is stopped and the caller must take the couriers itself.
+     */
+    boolean publishStealRequest(int wanted, Consumer<List<Courier>> handOver) {
+        return offer(new StealRequest(wanted, handOver));
+    }
+
+    /**
+     * Publishes couriers stolen from another mediator to the dispatcher thread.
+     *
+     * @param couriers The stolen couriers.
+     * @return false if the dispatcher is stopped and the caller must adopt the couriers itself.
+     */
+    boolean publishAdoption(List<Courier> couriers) {
+        return offer(new Adoption(couriers));
+    }
+
+    /**
+     * Inserts an event into the ring buffer, spinning while the buffer is full, and wakes the dispatcher thread.
+     *
+     * @param event The order or courier event.
+     * @return false if the dispatcher is stopped and the event was not inserted.
+     */
+    private boolean offer(Object event) {
+        publishers.incrementAndGet();
+        try {
+            if (stopped) {
+                return false;
+            }
+            while (!events.offer(event)) {
+                Thread.onSpinWait();
+            }
+        } finally {
+            publishers.decrementAndGet();
+        }
+        LockSupport.unpark(thread);
+        return true;
+    }
+
+    /**
+     * Dispatcher loop: applies published events in batches and runs one dispatch pass per batch.
+     * When no event is pending, ready orders without a courier may steal couriers from other mediators.
+     */
+    @Override
+    public void run() {
+        while (running || !events.isEmpty()) {
+            Object event = events.poll();
+            if (event == null) {
+                try {
+                    mediator.stealCouriers();
+                } catch (RuntimeException exception) {
+                    logger.error("Courier stealing failed", exception);
+                }
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                continue;
+            }
+            int drained = 0;
+            do {
+                apply(event);
+            } while (++drained < DRAIN_BATCH_SIZE && (event = events.poll()) != null);
+            try {
+                mediator.dispatchOrder();
+            } catch (RuntimeException exception) {
+                logger.error("Dispatch pass failed", exception);
+            }
+        }
+    }
+
+    /**
+     * Applies a single event to the mediator queues.
+     *
+     * @param event The order, courier, steal request or adoption event.
+     */
+    private void apply(Object event) {
+        if (event instanceof Order order) {
+            mediator.enqueueReadyOrder(order);
+        } else if (event instanceof Courier courier) {
+            mediator.enqueueWaitingCourier(courier);
+        } else if (event instanceof StealRequest request) {
+            try {
+                request.handOver().accept(mediator.pollSurplusCouriers(request.wanted()));
+            } catch (RuntimeException exception) {
+                logger.error("Courier hand-over failed", exception);
+            }
+        } else {
+            ((Adoption) event).couriers().forEach(mediator::adoptCourier);
+        }
+    }
+
+    /**
+     * The StealRequest record asks the dispatcher thread for surplus couriers on behalf of another mediator.
+     *
+     * @param wanted   The maximum number of couriers to hand over.
+     * @param handOver Receives the couriers taken off the waiting queue.
+     */
+    private record StealRequest(int wanted, Consumer<List<Courier>> handOver) {
+    }
+
+    /**
+     * The Adoption record carries couriers stolen from another mediator to the dispatcher thread of the thief.
+     *
+     * @param couriers The stolen couriers.
+     */
+    private record Adoption(List<Courier> couriers) {
+    }
+}
@@ -0,0 +1,37 @@
+package com.cloud.kitchen.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The Counter class is a monotonically increasing count backed by a LongAdder,
+ * so concurrent increments land in striped cells instead of contending on a single value.
+ */
+public class Counter {
+
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * Increments the count by one.
+     */
+    public void increment() {
+        count.increment();
+    }
+
+    /**
+     * Increments the count.
+     *
+     * @param amount The amount to add, not negative.
+     */
+    public void add(long amount) {
+        count.add(amount);
+    }
+
+    /**
+     * Retrieves the current count.
+     *
+     * @return The sum of every increment so far.
+     */
+    public long get() {
+        return count.sum();
+    }
+}
@@ -0,0 +1,98 @@
+package com.cloud.kitchen.metrics;
+
+import com.cloud.kitchen.stats.LatencyHistogram;
+
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.LongSupplier;
+
+/**
+ * The DefaultMetricsRegistry class keeps metrics in a sorted concurrent map.
+ * Registration goes through the map, recording only touches the LongAdder of a counter
+ * or the atomic buckets of a histogram, so the registry adds nothing to the recording path.
+ */
+public class DefaultMetricsRegistry implements MetricsRegistry {
+
+    /**
+     * The Metric record pairs a metric with its description.
+     *
+     * @param help  The metric description.
+     * @param value A Counter, a LongSupplier gauge or a LatencyHistogram.
+     */
+    private record Metric(String help, Object value) {
+    }
+
+    private final ConcurrentSkipListMap<String, Metric> metrics = new ConcurrentSkipListMap<>();
+
+    /**
+     * Retrieves the counter with the given name, creating it if needed.
+     *
+     * @param name The metric name.
+     * @param help The metric description.
+     * @return The counter.
+     * @throws IllegalArgumentException if the name is registered with another metric type.
+     */
+    @Override
+    public Counter counter(String name, String help) {
+        return getOrCreate(name, help, Counter.class, new Counter());
+    }
+
+    /**
+     * Registers a gauge, replacing any gauge with the same name.
+     *
+     * @param name  The metric name.
+     * @param help  The metric description.
+     * @param value Supplies the current value whenever the metrics are read.
+     */
+    @Override
+    public void gauge(String name, String help, LongSupplier value) {
+        metrics.put(name, new Metric(help, value));
+    }
+
+    /**
+     * Retrieves the histogram with the given name, creating it if needed.
+     *
+     * @param name The metric name.
+     * @param help The metric description.
+     * @return The histogram.
+     * @throws IllegalArgumentException if the name is registered with another metric type.
+     */
+    @Override
+    public LatencyHistogram histogram(String name, String help) {
+        return getOrCreate(name, help, LatencyHistogram.class, new LatencyHistogram());
+    }
+
+    /**
+     * Hands the current value of every metric to a visitor, in name order.
+     *
+     * @param visitor The visitor receiving the metrics.
+     */
+    @Override
+    public void forEach(MetricVisitor visitor) {
+        metrics.forEach((name, metric) -> {
+            if (metric.value() instanceof Counter counter) {
+                visitor.counter(name, metric.help(), counter.get());
+            } else if (metric.value() instanceof LongSupplier gauge) {
+                visitor.gauge(name, metric.help(), gauge.getAsLong());
+            } else {
+                visitor.histogram(name, metric.help(), ((LatencyHistogram) metric.value()).snapshot());
+            }
+        });
+    }
+
+    /**
+     * Retrieves a metric of the expected type, registering the candidate if the name is free.
+     *
+     * @param name      The metric name.
+     * @param help      The metric description.
+     * @param type      The expected metric type.
+     * @param candidate The metric registered if the name is free.
+     * @return The registered metric.
+     */
+    private <T> T getOrCreate(String name, String help, Class<T> type, T candidate) {
+        Metric metric = metrics.computeIfAbsent(name, key -> new Metric(help, candidate));
+        if (!type.isInstance(metric.value())) {
+            throw new IllegalArgumentException("Metric " + name + " is not a " + type.getSimpleName());
+        }
+        return type.cast(metric.value());
+    }
+}
@@ -0,0 +1,249 @@
+package com.cloud.kitchen.metrics;
+
+import com.cloud.kitchen.stats.LatencyStats;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The JmxMetricsExporter class exposes a MetricsRegistry as a dynamic MBean, one read-only attribute per value,
+ * so the metrics can be watched live in JConsole or VisualVM. Every counter also gets a {@code _per_second}
+ * attribute with its rate over the last second or more, and every histogram gets count, mean,
+ * percentile and maximum attributes. Metrics registered after the MBean are picked up on the next read.
+ */
+public class JmxMetricsExporter implements DynamicMBean, AutoCloseable {
+
+    /**
+     * Object name the exporter registers under by default.
+     */
+    public static final String DEFAULT_OBJECT_NAME = "com.cloud.kitchen:type=Metrics";
+
+    private static final long RATE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * The RateSample record is the value of a counter at the start of its current rate interval.
+     *
+     * @param value The counter value.
+     * @param nanos The nanoTime the value was read at.
+     */
+    private record RateSample(long value, long nanos) {
+    }
+
+    private final MetricsRegistry registry;
+    private final Map<String, RateSample> rateSamples;
+    private final long startNanos;
+    private MBeanServer server;
+    private ObjectName objectName;
+
+    /**
+     * Constructs a JmxMetricsExporter for the given registry, not yet registered with an MBean server.
+     *
+     * @param registry The registry to expose.
+     */
+    public JmxMetricsExporter(MetricsRegistry registry) {
+        this.registry = registry;
+        this.rateSamples = new ConcurrentHashMap<>();
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Registers the exporter with the platform MBean server under {@link #DEFAULT_OBJECT_NAME}.
+     *
+     * @throws IllegalStateException if an MBean is already registered under that name.
+     */
+    public void register() {
+        try {
+            register(ManagementFactory.getPlatformMBeanServer(), new ObjectName(DEFAULT_OBJECT_NAME));
+        } catch (MalformedObjectNameException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    /**
+     * Registers the exporter with an MBean server.
+     *
+     * @param server     The MBean server.
+     * @param objectName The object name to register under.
+     * @throws IllegalStateException if the exporter cannot be registered.
+     */
+    public synchronized void register(MBeanServer server, ObjectName objectName) {
+        try {
+            server.registerMBean(this, objectName);
+        } catch (JMException exception) {
+            throw new IllegalStateException("Failed to register " + objectName, exception);
+        }
+        this.server = server;
+        this.objectName = objectName;
+    }
+
+    /**
+     * Unregisters the exporter from its MBean server, if registered.
+     */
+    @Override
+    public synchronized void close() {
+        if (server == null) {
+            return;
+        }
+        try {
+            server.unregisterMBean(objectName);
+        } catch (JMException exception) {
+            throw new IllegalStateException("Failed to unregister " + objectName, exception);
+        } finally {
+            server = null;
+            objectName = null;
+        }
+    }
+
+    /**
+     * Retrieves the value of an attribute.
+     *
+     * @param attribute The attribute name.
+     * @return The attribute value, a Long or a Double.
+     * @throws AttributeNotFoundException if no metric provides the attribute.
+     */
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        Object value = readAttributes().get(attribute);
+        if (value == null) {
+            throw new AttributeNotFoundException(attribute);
+        }
+        return value;
+    }
+
+    /**
+     * Retrieves the values of several attributes from a single read of the registry.
+     *
+     * @param attributes The attribute names.
+     * @return The values of the attributes that exist.
+     */
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+        Map<String, Object> values = readAttributes();
+        AttributeList list = new AttributeList();
+        for (String attribute : attributes) {
+            Object value = values.get(attribute);
+            if (value != null) {
+                list.add(new Attribute(attribute, value));
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Rejects attribute updates, every metric attribute is read-only.
+     *
+     * @param attribute The attribute to set.
+     * @throws AttributeNotFoundException always.
+     */
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException("Metric attributes are read-only: " + attribute.getName());
+    }
+
+    /**
+     * Rejects attribute updates, every metric attribute is read-only.
+     *
+     * @param attributes The attributes to set.
+     * @return An empty list.
+     */
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    /**
+     * Rejects operations, the MBean has none.
+     *
+     * @param actionName The operation name.
+     * @param params     The operation arguments.
+     * @param signature  The operation signature.
+     * @return Never returns.
+     * @throws UnsupportedOperationException always.
+     */
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) {
+        throw new UnsupportedOperationException("No operation " + actionName);
+    }
+
+    /**
+     * Describes the attributes currently provided by the registry.
+     *
+     * @return The MBean description.
+     */
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        Map<String, Object> values = readAttributes();
+        MBeanAttributeInfo[] attributes = values.entrySet().stream()
+                .map(entry -> new MBeanAttributeInfo(entry.getKey(), entry.getValue().getClass().getName(),
+                        entry.getKey(), true, false, false))
+                .toArray(MBeanAttributeInfo[]::new);
+        return new MBeanInfo(getClass().getName(), "Kitchen metrics", attributes, null, null, null);
+    }
+
+    /**
+     * Reads every metric of the registry into attribute values.
+     *
+     * @return The attribute values by name, in registry order.
+     */
+    private Map<String, Object> readAttributes() {
+        Map<String, Object> values = new LinkedHashMap<>();
+        long now = System.nanoTime();
+        registry.forEach(new MetricVisitor() {
+            @Override
+            public void counter(String name, String help, long value) {
+                values.put(name, value);
+                values.put(name + "_per_second", rate(name, value, now));
+            }
+
+            @Override
+            public void gauge(String name, String help, long value) {
+                values.put(name, value);
+            }
+
+            @Override
+            public void histogram(String name, String help, LatencyStats stats) {
+                values.put(name + "_count", stats.getCount());
+                values.put(name + "_mean", stats.getMean());
+                values.put(name + "_p50", stats.getP50());
+                values.put(name + "_p99", stats.getP99());
+                values.put(name + "_max", stats.getMax());
+            }
+        });
+        return values;
+    }
+
+    /**
+     * Computes the rate of a counter since the start of its rate interval, starting a new interval
+     * once the current one lasted {@link #RATE_INTERVAL_NANOS}.
+     *
+     * @param name  The counter name.
+     * @param value The current counter value.
+     * @param now   The current nanoTime.
+     * @return The counter increments per second.
+     */
+    private double rate(String name, long value, long now) {
+        RateSample sample = rateSamples.computeIfAbsent(name, key -> new RateSample(0, startNanos));
+        long elapsed = now - sample.nanos();
+        if (elapsed <= 0) {
+            return 0.0;
+        }
+        double rate = (value - sample.value()) * (double) RATE_INTERVAL_NANOS / elapsed;
+        if (elapsed >= RATE_INTERVAL_NANOS) {
+            rateSamples.put(name, new RateSample(value, now));
+        }
+        return rate;
+    }
+}
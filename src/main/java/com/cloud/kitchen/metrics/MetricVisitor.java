@@ -0,0 +1,38 @@
+package com.cloud.kitchen.metrics;
+
+import com.cloud.kitchen.stats.LatencyStats;
+
+/**
+ * The MetricVisitor interface receives the current value of every metric of a MetricsRegistry,
+ * used by the exporters to read the registry without depending on its implementation.
+ * Metric names may carry Prometheus labels, as in {@code kitchen_ready_orders{shard="1"}}.
+ */
+public interface MetricVisitor {
+
+    /**
+     * Receives a counter.
+     *
+     * @param name  The metric name.
+     * @param help  The metric description.
+     * @param value The current count.
+     */
+    void counter(String name, String help, long value);
+
+    /**
+     * Receives a gauge.
+     *
+     * @param name  The metric name.
+     * @param help  The metric description.
+     * @param value The current value.
+     */
+    void gauge(String name, String help, long value);
+
+    /**
+     * Receives a histogram.
+     *
+     * @param name  The metric name.
+     * @param help  The metric description.
+     * @param stats A snapshot of the histogram.
+     */
+    void histogram(String name, String help, LatencyStats stats);
+}
@@ -0,0 +1,59 @@
+package com.cloud.kitchen.metrics;
+
+import com.cloud.kitchen.stats.LatencyHistogram;
+
+import java.util.function.LongSupplier;
+
+/**
+ * The MetricsRegistry interface is the instrumentation surface of the kitchen: components create their
+ * counters and histograms through it and register gauges that are evaluated when the metrics are read.
+ * Creating a counter or a histogram under a name that already exists returns the existing one,
+ * so several components can share a series.
+ */
+public interface MetricsRegistry {
+
+    /**
+     * Retrieves the counter with the given name, creating it if needed.
+     *
+     * @param name The metric name.
+     * @param help The metric description.
+     * @return The counter.
+     */
+    Counter counter(String name, String help);
+
+    /**
+     * Registers a gauge, replacing any gauge with the same name.
+     *
+     * @param name  The metric name.
+     * @param help  The metric description.
+     * @param value Supplies the current value whenever the metrics are read.
+     */
+    void gauge(String name, String help, LongSupplier value);
+
+    /**
+     * Retrieves the histogram with the given name, creating it if needed.
+     *
+     * @param name The metric name.
+     * @param help The metric description.
+     * @return The histogram.
+     */
+    LatencyHistogram histogram(String name, String help);
+
+    /**
+     * Hands the current value of every metric to a visitor, in name order.
+     *
+     * @param visitor The visitor receiving the metrics.
+     */
+    void forEach(MetricVisitor visitor);
+
+    /**
+     * Appends Prometheus labels to a metric name.
+     *
+     * @param name   The metric name.
+     * @param labels Comma-separated labels such as {@code shard="1"}, or an empty string.
+     * @return The name followed by the labels in braces, or the name alone if there are no labels.
+     */
+    static String labeled(String name, String labels) {
+        return labels.isEmpty() ? name : name + "{" + labels + "}";
+    }
+}
@@ -0,0 +1,194 @@
+package com.cloud.kitchen.metrics;
+
+import com.cloud.kitchen.stats.LatencyStats;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The PrometheusExporter class renders a MetricsRegistry in the Prometheus text exposition format.
+ * The text can be written to a file, for the node exporter textfile collector, or served over HTTP
+ * on {@code /metrics} by the HTTP server of the JDK. Histograms are exported as summaries.
+ */
+public class PrometheusExporter implements AutoCloseable {
+
+    private final static Logger logger = LogManager.getLogger(PrometheusExporter.class);
+
+    /**
+     * Content type of the Prometheus text exposition format.
+     */
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final MetricsRegistry registry;
+    private HttpServer server;
+
+    /**
+     * Constructs a PrometheusExporter for the given registry.
+     *
+     * @param registry The registry to export.
+     */
+    public PrometheusExporter(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Renders the current value of every metric. Series sharing a metric name but not labels
+     * are grouped under a single HELP and TYPE line.
+     *
+     * @return The metrics in the Prometheus text exposition format.
+     */
+    public String scrape() {
+        Map<String, StringBuilder> families = new LinkedHashMap<>();
+        registry.forEach(new MetricVisitor() {
+            @Override
+            public void counter(String name, String help, long value) {
+                family(name, help, "counter").append(name).append(' ').append(value).append('\n');
+            }
+
+            @Override
+            public void gauge(String name, String help, long value) {
+                family(name, help, "gauge").append(name).append(' ').append(value).append('\n');
+            }
+
+            @Override
+            public void histogram(String name, String help, LatencyStats stats) {
+                StringBuilder family = family(name, help, "summary");
+                appendQuantile(family, name, "0.5", stats.getP50());
+                appendQuantile(family, name, "0.9", stats.getP90());
+                appendQuantile(family, name, "0.99", stats.getP99());
+                appendQuantile(family, name, "0.999", stats.getP999());
+                family.append(withSuffix(name, "_sum")).append(' ').append(Math.round(stats.getMean() * stats.getCount())).append('\n');
+                family.append(withSuffix(name, "_count")).append(' ').append(stats.getCount()).append('\n');
+            }
+
+            private StringBuilder family(String name, String help, String type) {
+                String baseName = baseName(name);
+                return families.computeIfAbsent(baseName, key -> new StringBuilder()
+                        .append("# HELP ").append(baseName).append(' ').append(help).append('\n')
+                        .append("# TYPE ").append(baseName).append(' ').append(type).append('\n'));
+            }
+        });
+        StringBuilder text = new StringBuilder();
+        families.values().forEach(text::append);
+        return text.toString();
+    }
+
+    /**
+     * Writes the current metrics to a file. The text is written to a temporary file that is then moved
+     * over the target, so a concurrent reader never sees a partial scrape.
+     *
+     * @param file The file to write.
+     * @throws UncheckedIOException if the file cannot be written.
+     */
+    public void writeTo(Path file) {
+        Path directory = file.toAbsolutePath().getParent();
+        try {
+            Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            Files.writeString(temporary, scrape());
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Failed to write metrics to " + file, exception);
+        }
+    }
+
+    /**
+     * Starts serving the metrics over HTTP on {@code /metrics}.
+     *
+     * @param port The port to listen on, or 0 for an ephemeral port.
+     * @throws UncheckedIOException  if the server cannot bind the port.
+     * @throws IllegalStateException if the server is already started.
+     */
+    public synchronized void start(int port) {
+        if (server != null) {
+            throw new IllegalStateException("Prometheus exporter already started on port " + getPort());
+        }
+        try {
+            server = HttpServer.create(new InetSocketAddress(port), 0);
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Failed to bind metrics port " + port, exception);
+        }
+        server.createContext("/metrics", exchange -> {
+            byte[] body = scrape().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream responseBody = exchange.getResponseBody()) {
+                responseBody.write(body);
+            }
+        });
+        server.start();
+        logger.info("Serving metrics on http://localhost:{}/metrics", getPort());
+    }
+
+    /**
+     * Retrieves the port the HTTP server listens on.
+     *
+     * @return The bound port, or -1 if the server is not started.
+     */
+    public synchronized int getPort() {
+        return server != null ? server.getAddress().getPort() : -1;
+    }
+
+    /**
+     * Stops the HTTP server, if started.
+     */
+    @Override
+    public synchronized void close() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+    }
+
+    /**
+     * Appends a quantile line of a summary, adding the quantile label to the labels of the series.
+     *
+     * @param family   The text of the metric family.
+     * @param name     The series name, with its labels if any.
+     * @param quantile The quantile label value.
+     * @param value    The value at the quantile.
+     */
+    private static void appendQuantile(StringBuilder family, String name, String quantile, long value) {
+        String label = "quantile=\"" + quantile + "\"";
+        int labelStart = name.indexOf('{');
+        if (labelStart < 0) {
+            family.append(name).append('{').append(label).append('}');
+        } else {
+            family.append(name, 0, name.length() - 1).append(',').append(label).append('}');
+        }
+        family.append(' ').append(value).append('\n');
+    }
+
+    /**
+     * Appends a suffix to the metric name of a series, before its labels.
+     *
+     * @param name   The series name, with its labels if any.
+     * @param suffix The suffix, as in {@code _count}.
+     * @return The suffixed series name.
+     */
+    private static String withSuffix(String name, String suffix) {
+        int labelStart = name.indexOf('{');
+        return labelStart < 0 ? name + suffix : name.substring(0, labelStart) + suffix + name.substring(labelStart);
+    }
+
+    /**
+     * Strips the labels from a series name.
+     *
+     * @param name The series name, with its labels if any.
+     * @return The metric name.
+     */
+    private static String baseName(String name) {
+        int labelStart = name.indexOf('{');
+        return labelStart < 0 ? name : name.substring(0, labelStart);
+    }
+}
@@ -1,16 +1,22 @@
 package com.cloud.kitchen.models;
 
+import com.cloud.kitchen.clock.Clock;
+
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 import static com.cloud.kitchen.util.Utility.currentMilliSeconds;
 
 /**
  * The Courier class represents a delivery courier in the kitchen system.
- * Each courier has an identifier and arrival time.
+ * Each courier has an identifier, arrival time and, optionally, the id of the order it was dispatched for.
+ * The arrival time is kept in nanoseconds as well, so wait times shorter than a millisecond are measured.
  */
 public class Courier {
     private final int courierId;
     private final long arrivalTime;
+    private final long arrivalNanoTime;
+    private final String targetOrderId;
 
     /**
      * Constructs a Courier object with a specified courier ID.
@@ -18,8 +24,55 @@ public class Courier {
      * @param courierId The unique identifier of the courier.
      */
     public Courier(int courierId) {
+        this(courierId, currentMilliSeconds());
+    }
+
+    /**
+     * Constructs a Courier object with a specified courier ID and arrival time.
+     *
+     * @param courierId   The unique identifier of the courier.
+     * @param arrivalTime The timestamp when the courier arrived, in milliseconds.
+     */
+    public Courier(int courierId, long arrivalTime) {
+        this(courierId, arrivalTime, null);
+    }
+
+    /**
+     * Constructs a Courier object dispatched for a specific order.
+     *
+     * @param courierId     The unique identifier of the courier.
+     * @param arrivalTime   The timestamp when the courier arrived, in milliseconds.
+     * @param targetOrderId The id of the order assigned to the courier, or null if the courier can pick up any order.
+     */
+    public Courier(int courierId, long arrivalTime, String targetOrderId) {
+        this(courierId, arrivalTime, TimeUnit.MILLISECONDS.toNanos(arrivalTime), targetOrderId);
+    }
+
+    /**
+     * Constructs a Courier object.
+     *
+     * @param courierId       The unique identifier of the courier.
+     * @param arrivalTime     The timestamp when the courier arrived, in milliseconds.
+     * @param arrivalNanoTime The same timestamp in nanoseconds.
+     * @param targetOrderId   The id of the order assigned to the courier, or null if the courier can pick up any order.
+     */
+    private Courier(int courierId, long arrivalTime, long arrivalNanoTime, String targetOrderId) {
         this.courierId = courierId;
-        this.arrivalTime = currentMilliSeconds();
+        this.arrivalTime = arrivalTime;
+        this.arrivalNanoTime = arrivalNanoTime;
+        this.targetOrderId = targetOrderId;
+    }
+
+    /**
+     * Creates a Courier object arriving at a time given in nanoseconds.
+     *
+     * @param courierId       The unique identifier of the courier.
+     * @param arrivalNanoTime The timestamp when the courier arrived, in nanoseconds.
+     * @param targetOrderId   The id of the order assigned to the courier, or null if the courier can pick up any order.
+     * @return A new Courier object arriving at the given time.
+     */
+    public static Courier ofNanoTime(int courierId, long arrivalNanoTime, String targetOrderId) {
+        return new Courier(courierId, TimeUnit.NANOSECONDS.toMillis(arrivalNanoTime), arrivalNanoTime, targetOrderId);
     }
 
     /**
@@ -32,6 +85,29 @@ public class Courier {
         return new Courier(courierId);
     }
 
+    /**
+     * Creates a new Courier object with the specified courier ID, arriving at the current time of the given clock.
+     *
+     * @param courierId The unique identifier of the courier.
+     * @param clock     The clock used to stamp the arrival time.
+     * @return A new Courier object with the specified ID.
+     */
+    public static Courier createCourier(int courierId, Clock clock) {
+        return ofNanoTime(courierId, clock.currentNanoTime(), null);
+    }
+
+    /**
+     * Creates a new Courier object dispatched for a specific order, arriving at the current time of the given clock.
+     *
+     * @param courierId     The unique identifier of the courier.
+     * @param clock         The clock used to stamp the arrival time.
+     * @param targetOrderId The id of the order assigned to the courier, or null if the courier can pick up any order.
+     * @return A new Courier object with the specified ID and assigned order.
+     */
+    public static Courier createCourier(int courierId, Clock clock, String targetOrderId) {
+        return ofNanoTime(courierId, clock.currentNanoTime(), targetOrderId);
+    }
+
     /**
      * Retrieves the unique identifier of the courier.
      *
@@ -50,16 +126,33 @@ public class Courier {
         return arrivalTime;
     }
 
+    /**
+     * Retrieves the time when the courier arrived at the kitchen, in nanoseconds.
+     *
+     * @return The timestamp when the courier arrived, in nanoseconds on the timeline of the clock that stamped it.
+     */
+    public long getArrivalNanoTime() {
+        return arrivalNanoTime;
+    }
+
+    /**
+     * Retrieves the id of the order this courier was dispatched for.
+     *
+     * @return The assigned order id, or null if the courier can pick up any order.
+     */
+    public String getTargetOrderId() {
+        return targetOrderId;
+    }
+
     /**
      * Checks if this Courier object matches a specific order.
-     * Currently, this method returns true for all orders.
+     * A courier without an assigned order matches every order.
      *
      * @param order The order object to check against.
-     * @return Always returns true.
+     * @return true if the courier has no assigned order or was assigned this order.
      */
     public boolean matchesOrder(Order order) {
-        // This method can be expanded to implement actual matching logic based on the order
-        return true;
+        return targetOrderId == null || targetOrderId.equals(order.getId());
     }
 
     /**
@@ -89,13 +182,14 @@ public class Courier {
     /**
      * Returns a string representation of the Courier object.
      *
-     * @return A string representation containing courierId and arrivalTime.
+     * @return A string representation containing courierId, arrivalTime and targetOrderId.
      */
     @Override
     public String toString() {
         return "Courier{" +
                 "courierId=" + courierId +
                 ", arrivalTime=" + arrivalTime +
+                ", targetOrderId='" + targetOrderId + '\'' +
                 '}';
     }
 }
@@ -0,0 +1,149 @@
+package com.cloud.kitchen.models;
+
+import java.util.Arrays;
+
+/**
+ * The CourierStore class keeps couriers as columns of primitive arrays addressed by an int handle,
+ * instead of one Courier object per courier. The assigned order of a courier is the handle of the order
+ * in an OrderStore, so a strategy can index couriers by order with a plain array.
+ * Handles of couriers that picked up their order are released and reused, so the columns only grow
+ * with the number of couriers waiting at the same time. The store is not thread-safe.
+ */
+public final class CourierStore {
+
+    private static final int DEFAULT_CAPACITY = 256;
+
+    private int[] courierIds;
+    private long[] arrivalTimes;
+    private int[] targetOrders;
+    private int[] freeHandles;
+    private int freeCount;
+    private int handleCount;
+
+    /**
+     * Constructs an empty CourierStore with a default initial capacity.
+     */
+    public CourierStore() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty CourierStore.
+     *
+     * @param initialCapacity The number of couriers the columns hold before growing.
+     */
+    public CourierStore(int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        this.courierIds = new int[capacity];
+        this.arrivalTimes = new long[capacity];
+        this.targetOrders = new int[capacity];
+        this.freeHandles = new int[capacity];
+    }
+
+    /**
+     * Adds a courier.
+     *
+     * @param courierId   The courier id.
+     * @param arrivalTime The arrival time in milliseconds.
+     * @param targetOrder The handle of the assigned order, or OrderStore.NO_HANDLE.
+     * @return The handle of the courier.
+     */
+    public int add(int courierId, long arrivalTime, int targetOrder) {
+        int handle = allocate();
+        courierIds[handle] = courierId;
+        arrivalTimes[handle] = arrivalTime;
+        targetOrders[handle] = targetOrder;
+        return handle;
+    }
+
+    /**
+     * Releases a handle for reuse by a later courier. The caller must not use the handle afterwards.
+     *
+     * @param handle The handle of a courier in the store.
+     */
+    public void release(int handle) {
+        if (freeCount == freeHandles.length) {
+            freeHandles = Arrays.copyOf(freeHandles, freeCount * 2);
+        }
+        freeHandles[freeCount++] = handle;
+    }
+
+    /**
+     * Retrieves the number of couriers in the store.
+     *
+     * @return The number of handles in use.
+     */
+    public int size() {
+        return handleCount - freeCount;
+    }
+
+    /**
+     * Retrieves the number of handles assigned so far, every handle in use is below it.
+     *
+     * @return The highest handle plus one.
+     */
+    public int getHandleCount() {
+        return handleCount;
+    }
+
+    /**
+     * Retrieves the id of a courier.
+     *
+     * @param handle The handle of the courier.
+     * @return The courier id.
+     */
+    public int getCourierId(int handle) {
+        return courierIds[handle];
+    }
+
+    /**
+     * Retrieves the arrival time of a courier.
+     *
+     * @param handle The handle of the courier.
+     * @return The arrival time in milliseconds.
+     */
+    public long getArrivalTime(int handle) {
+        return arrivalTimes[handle];
+    }
+
+    /**
+     * Retrieves the order assigned to a courier.
+     *
+     * @param handle The handle of the courier.
+     * @return The handle of the assigned order, or OrderStore.NO_HANDLE if the courier picks up any order.
+     */
+    public int getTargetOrder(int handle) {
+        return targetOrders[handle];
+    }
+
+    /**
+     * Materializes a courier as a Courier object, for logging or for code working on objects.
+     *
+     * @param handle The handle of the courier.
+     * @param orders The store of the assigned order.
+     * @return A new Courier with the fields of the courier.
+     */
+    public Courier toCourier(int handle, OrderStore orders) {
+        int targetOrder = targetOrders[handle];
+        return new Courier(courierIds[handle], arrivalTimes[handle],
+                targetOrder == OrderStore.NO_HANDLE ? null : orders.getId(targetOrder));
+    }
+
+    /**
+     * Takes a released handle, or the next new handle, growing the columns if needed.
+     *
+     * @return A free handle.
+     */
+    private int allocate() {
+        if (freeCount > 0) {
+            return freeHandles[--freeCount];
+        }
+        if (handleCount == courierIds.length) {
+            int capacity = courierIds.length * 2;
+            courierIds = Arrays.copyOf(courierIds, capacity);
+            arrivalTimes = Arrays.copyOf(arrivalTimes, capacity);
+            targetOrders = Arrays.copyOf(targetOrders, capacity);
+        }
+        return handleCount++;
+    }
+}
@@ -1,16 +1,25 @@
 package com.cloud.kitchen.models;
 
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The Order class represents a food order in the kitchen system.
  * Each order has an identifier, name, preparation time, and ready time.
+ * The ready time is kept in nanoseconds as well, so wait times shorter than a millisecond are measured;
+ * it is not part of the order identity beyond its milliseconds.
+ * Generated workloads also give each order a placement time, an offset from the start of the workload
+ * that simulations wait for before submitting the order. It is not part of the order identity.
+ * An order may carry a shelf life, how long it stays fresh once ready; a ready shelf discards it after that.
  */
 public class Order {
     private String id;
     private String name;
     private int prepTime;
     private long readyTime;
+    private long readyNanoTime;
+    private long placedTime;
+    private int shelfLife;
 
     /**
      * Constructs an empty Order object.
@@ -31,6 +40,19 @@ public class Order {
         this.prepTime = prepTime;
     }
 
+    /**
+     * Constructs an Order object placed at an offset from the start of its workload.
+     *
+     * @param id         The unique identifier of the order.
+     * @param name       The name of the food item in the order.
+     * @param prepTime   The preparation time required for the food item.
+     * @param placedTime The placement time, in milliseconds from the start of the workload.
+     */
+    public Order(String id, String name, int prepTime, long placedTime) {
+        this(id, name, prepTime);
+        this.placedTime = placedTime;
+    }
+
     /**
      * Retrieves the unique identifier of the order.
      *
@@ -101,6 +123,62 @@ public class Order {
      */
     public void setReadyTime(long readyTime) {
         this.readyTime = readyTime;
+        this.readyNanoTime = TimeUnit.MILLISECONDS.toNanos(readyTime);
+    }
+
+    /**
+     * Retrieves the time when the order was marked as ready for pickup, in nanoseconds.
+     *
+     * @return The timestamp when the order was ready, in nanoseconds on the timeline of the clock that stamped it.
+     */
+    public long getReadyNanoTime() {
+        return readyNanoTime;
+    }
+
+    /**
+     * Sets the time when the order is marked as ready for pickup, in nanoseconds, and the ready time in milliseconds with it.
+     *
+     * @param readyNanoTime The timestamp when the order is ready, in nanoseconds.
+     */
+    public void setReadyNanoTime(long readyNanoTime) {
+        this.readyNanoTime = readyNanoTime;
+        this.readyTime = TimeUnit.NANOSECONDS.toMillis(readyNanoTime);
+    }
+
+    /**
+     * Retrieves the time the order is placed, relative to the start of its workload.
+     *
+     * @return The placement time in milliseconds from the start of the workload, 0 if placed at the start.
+     */
+    public long getPlacedTime() {
+        return placedTime;
+    }
+
+    /**
+     * Sets the time the order is placed, relative to the start of its workload.
+     *
+     * @param placedTime The placement time in milliseconds from the start of the workload.
+     */
+    public void setPlacedTime(long placedTime) {
+        this.placedTime = placedTime;
+    }
+
+    /**
+     * Retrieves how long the order stays fresh once ready.
+     *
+     * @return The shelf life in seconds, 0 if the order takes the default shelf life of the shelf it is put on.
+     */
+    public int getShelfLife() {
+        return shelfLife;
+    }
+
+    /**
+     * Sets how long the order stays fresh once ready.
+     *
+     * @param shelfLife The shelf life in seconds, or 0 for the default shelf life of the shelf.
+     */
+    public void setShelfLife(int shelfLife) {
+        this.shelfLife = shelfLife;
     }
 
     /**
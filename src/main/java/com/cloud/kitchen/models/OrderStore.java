@@ -0,0 +1,261 @@
+package com.cloud.kitchen.models;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The OrderStore class keeps orders as columns of primitive arrays addressed by an int handle,
+ * instead of one Order object per order. Ids are stored as the two halves of a UUID, names as indexes into
+ * a table of distinct names, preparation times as ints and ready times as longs, about 28 bytes per order
+ * against a few hundred for an Order with its strings.
+ * Handles are assigned in insertion order and released handles are reused. The store is not thread-safe.
+ */
+public final class OrderStore {
+
+    /**
+     * Handle value meaning no order.
+     */
+    public static final int NO_HANDLE = -1;
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private final Map<String, Integer> nameIds;
+    private final List<String> names;
+    private long[] idMostSignificantBits;
+    private long[] idLeastSignificantBits;
+    private int[] nameIdColumn;
+    private int[] prepTimes;
+    private long[] readyTimes;
+    private int[] freeHandles;
+    private int freeCount;
+    private int handleCount;
+
+    /**
+     * Constructs an empty OrderStore with a default initial capacity.
+     */
+    public OrderStore() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty OrderStore.
+     *
+     * @param initialCapacity The number of orders the columns hold before growing.
+     */
+    public OrderStore(int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        this.nameIds = new HashMap<>();
+        this.names = new ArrayList<>();
+        this.idMostSignificantBits = new long[capacity];
+        this.idLeastSignificantBits = new long[capacity];
+        this.nameIdColumn = new int[capacity];
+        this.prepTimes = new int[capacity];
+        this.readyTimes = new long[capacity];
+        this.freeHandles = new int[0];
+    }
+
+    /**
+     * Adds an order, copying its fields into the columns.
+     *
+     * @param order The order to add, its id must be a UUID.
+     * @return The handle of the order.
+     * @throws IllegalArgumentException if the order id is not a UUID.
+     */
+    public int add(Order order) {
+        UUID id = UUID.fromString(order.getId());
+        int handle = add(id.getMostSignificantBits(), id.getLeastSignificantBits(), order.getName(), order.getPrepTime());
+        readyTimes[handle] = order.getReadyTime();
+        return handle;
+    }
+
+    /**
+     * Adds an order.
+     *
+     * @param idMostSignificantBits  The most significant bits of the order UUID.
+     * @param idLeastSignificantBits The least significant bits of the order UUID.
+     * @param name                   The order name, interned in the name table.
+     * @param prepTime               The preparation time in seconds.
+     * @return The handle of the order.
+     */
+    public int add(long idMostSignificantBits, long idLeastSignificantBits, String name, int prepTime) {
+        int handle = allocate();
+        this.idMostSignificantBits[handle] = idMostSignificantBits;
+        this.idLeastSignificantBits[handle] = idLeastSignificantBits;
+        this.nameIdColumn[handle] = internName(name);
+        this.prepTimes[handle] = prepTime;
+        this.readyTimes[handle] = 0;
+        return handle;
+    }
+
+    /**
+     * Releases a handle for reuse by a later order. The caller must not use the handle afterwards.
+     *
+     * @param handle The handle of an order in the store.
+     */
+    public void release(int handle) {
+        if (freeCount == freeHandles.length) {
+            freeHandles = Arrays.copyOf(freeHandles, Math.max(16, freeCount * 2));
+        }
+        freeHandles[freeCount++] = handle;
+    }
+
+    /**
+     * Retrieves the number of orders in the store.
+     *
+     * @return The number of handles in use.
+     */
+    public int size() {
+        return handleCount - freeCount;
+    }
+
+    /**
+     * Retrieves the number of handles assigned so far, every handle in use is below it.
+     *
+     * @return The highest handle plus one.
+     */
+    public int getHandleCount() {
+        return handleCount;
+    }
+
+    /**
+     * Retrieves the id of an order, formatted as a UUID string.
+     *
+     * @param handle The handle of the order.
+     * @return The order id.
+     */
+    public String getId(int handle) {
+        return new UUID(idMostSignificantBits[handle], idLeastSignificantBits[handle]).toString();
+    }
+
+    /**
+     * Retrieves the most significant bits of the id of an order.
+     *
+     * @param handle The handle of the order.
+     * @return The most significant bits of the order UUID.
+     */
+    public long getIdMostSignificantBits(int handle) {
+        return idMostSignificantBits[handle];
+    }
+
+    /**
+     * Retrieves the least significant bits of the id of an order.
+     *
+     * @param handle The handle of the order.
+     * @return The least significant bits of the order UUID.
+     */
+    public long getIdLeastSignificantBits(int handle) {
+        return idLeastSignificantBits[handle];
+    }
+
+    /**
+     * Retrieves the name of an order.
+     *
+     * @param handle The handle of the order.
+     * @return The order name.
+     */
+    public String getName(int handle) {
+        return names.get(nameIdColumn[handle]);
+    }
+
+    /**
+     * Retrieves the index of the name of an order in the name table.
+     *
+     * @param handle The handle of the order.
+     * @return The name id.
+     */
+    public int getNameId(int handle) {
+        return nameIdColumn[handle];
+    }
+
+    /**
+     * Retrieves the preparation time of an order.
+     *
+     * @param handle The handle of the order.
+     * @return The preparation time in seconds.
+     */
+    public int getPrepTime(int handle) {
+        return prepTimes[handle];
+    }
+
+    /**
+     * Retrieves the ready time of an order.
+     *
+     * @param handle The handle of the order.
+     * @return The ready time in milliseconds, 0 while in preparation.
+     */
+    public long getReadyTime(int handle) {
+        return readyTimes[handle];
+    }
+
+    /**
+     * Sets the ready time of an order.
+     *
+     * @param handle    The handle of the order.
+     * @param readyTime The ready time in milliseconds.
+     */
+    public void setReadyTime(int handle, long readyTime) {
+        readyTimes[handle] = readyTime;
+    }
+
+    /**
+     * Retrieves the distinct order names, indexed by name id.
+     *
+     * @return An unmodifiable view of the name table.
+     */
+    public List<String> getNames() {
+        return Collections.unmodifiableList(names);
+    }
+
+    /**
+     * Materializes an order as an Order object, for logging or for code working on objects.
+     *
+     * @param handle The handle of the order.
+     * @return A new Order with the fields of the order.
+     */
+    public Order toOrder(int handle) {
+        Order order = new Order(getId(handle), getName(handle), prepTimes[handle]);
+        order.setReadyTime(readyTimes[handle]);
+        return order;
+    }
+
+    /**
+     * Takes a released handle, or the next new handle, growing the columns if needed.
+     *
+     * @return A free handle.
+     */
+    private int allocate() {
+        if (freeCount > 0) {
+            return freeHandles[--freeCount];
+        }
+        if (handleCount == prepTimes.length) {
+            int capacity = prepTimes.length + (prepTimes.length >> 1) + 1;
+            idMostSignificantBits = Arrays.copyOf(idMostSignificantBits, capacity);
+            idLeastSignificantBits = Arrays.copyOf(idLeastSignificantBits, capacity);
+            nameIdColumn = Arrays.copyOf(nameIdColumn, capacity);
+            prepTimes = Arrays.copyOf(prepTimes, capacity);
+            readyTimes = Arrays.copyOf(readyTimes, capacity);
+        }
+        return handleCount++;
+    }
+
+    /**
+     * Looks up the id of a name, adding it to the name table if it is new.
+     *
+     * @param name The order name.
+     * @return The name id.
+     */
+    private int internName(String name) {
+        Integer nameId = nameIds.get(name);
+        if (nameId == null) {
+            nameId = names.size();
+            names.add(name);
+            nameIds.put(name, nameId);
+        }
+        return nameId;
+    }
+}
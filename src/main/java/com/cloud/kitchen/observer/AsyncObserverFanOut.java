@@ -0,0 +1,192 @@
+package com.cloud.kitchen.observer;
+
+import com.cloud.kitchen.metrics.MetricsRegistry;
+import com.cloud.kitchen.models.Courier;
+import com.cloud.kitchen.models.Order;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * The AsyncObserverFanOut class moves observers off the dispatching thread. Each observer it wraps gets its own
+ * ObserverMailbox drained on a shared executor, so notifying it costs the mediator one bounded queue insertion
+ * and a slow observer only delays its own notifications.
+ * <p>
+ * Wrapped order ready observers receive single ready orders and pickup batches in the order they were posted,
+ * as the same onOrderReady and onOrdersReady calls the mediator made. Notifications are delivered after the fact,
+ * so an observer reading the clock sees a later time than the mediator did.
+ */
+public class AsyncObserverFanOut implements AutoCloseable {
+
+    private final static Logger logger = LogManager.getLogger(AsyncObserverFanOut.class);
+
+    /**
+     * Default number of notifications each mailbox holds.
+     */
+    public static final int DEFAULT_MAILBOX_CAPACITY = 4096;
+
+    /**
+     * Default number of notifications a drain task delivers before yielding the executor thread.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    /**
+     * Time close waits for each mailbox to drain, in seconds.
+     */
+    private static final long CLOSE_TIMEOUT_SECONDS = 5;
+
+    private final ExecutorService executor;
+    private final int mailboxCapacity;
+    private final int batchSize;
+    private final MailboxPolicy policy;
+    private final List<ObserverMailbox<?>> mailboxes;
+    private MetricsRegistry registry;
+    private String labels;
+
+    /**
+     * Constructs an AsyncObserverFanOut with default mailbox capacity and batch size.
+     *
+     * @param executor The executor draining the mailboxes, shut down by {@link #close()}.
+     * @param policy   What to do with notifications posted to a full mailbox.
+     */
+    public AsyncObserverFanOut(ExecutorService executor, MailboxPolicy policy) {
+        this(executor, DEFAULT_MAILBOX_CAPACITY, DEFAULT_BATCH_SIZE, policy);
+    }
+
+    /**
+     * Constructs an AsyncObserverFanOut.
+     *
+     * @param executor        The executor draining the mailboxes, shut down by {@link #close()}.
+     * @param mailboxCapacity The number of notifications each mailbox holds.
+     * @param batchSize       The number of notifications a drain task delivers before yielding the executor thread.
+     * @param policy          What to do with notifications posted to a full mailbox.
+     */
+    public AsyncObserverFanOut(ExecutorService executor, int mailboxCapacity, int batchSize, MailboxPolicy policy) {
+        this.executor = executor;
+        this.mailboxCapacity = mailboxCapacity;
+        this.batchSize = batchSize;
+        this.policy = policy;
+        this.mailboxes = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Wraps an order ready observer in a mailbox.
+     *
+     * @param name     The observer name, used in metric labels as {@code observer="name"}.
+     * @param observer The observer to notify asynchronously.
+     * @return An observer to register on the mediator in place of the given one.
+     */
+    public OrderReadyObserver orderReadyObserver(String name, OrderReadyObserver observer) {
+        ObserverMailbox<Object> mailbox = createMailbox(name, message -> deliverOrderReady(observer, message));
+        return new OrderReadyObserver() {
+            @Override
+            public void onOrderReady(Order order) {
+                mailbox.post(order);
+            }
+
+            @Override
+            public void onOrdersReady(List<Order> orders) {
+                mailbox.post(orders);
+            }
+        };
+    }
+
+    /**
+     * Wraps a courier arrival observer in a mailbox.
+     *
+     * @param name     The observer name, used in metric labels as {@code observer="name"}.
+     * @param observer The observer to notify asynchronously.
+     * @return An observer to register on the mediator in place of the given one.
+     */
+    public CourierArrivalObserver courierArrivalObserver(String name, CourierArrivalObserver observer) {
+        ObserverMailbox<Courier> mailbox = createMailbox(name, observer::updateCourierArrival);
+        return mailbox::post;
+    }
+
+    /**
+     * Binds the metrics of every mailbox, and of mailboxes created later, to a registry.
+     *
+     * @param registry The registry to bind the metrics to.
+     * @param labels   Labels telling this fan-out apart from others sharing the registry, or an empty string.
+     */
+    public synchronized void registerMetrics(MetricsRegistry registry, String labels) {
+        this.registry = registry;
+        this.labels = labels;
+        mailboxes.forEach(mailbox -> mailbox.registerMetrics(registry, observerLabels(mailbox.getName())));
+    }
+
+    /**
+     * Retrieves the mailboxes of the wrapped observers, in wrapping order.
+     *
+     * @return The mailboxes.
+     */
+    public List<ObserverMailbox<?>> getMailboxes() {
+        return mailboxes;
+    }
+
+    /**
+     * Waits up to five seconds per mailbox for pending notifications to be delivered, then shuts the executor down.
+     * Notifications posted afterwards are dropped.
+     */
+    @Override
+    public void close() {
+        try {
+            for (ObserverMailbox<?> mailbox : mailboxes) {
+                if (!mailbox.awaitDrained(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    logger.warn("Observer {} still had {} notifications pending", mailbox.getName(), mailbox.size());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        executor.shutdownNow();
+    }
+
+    /**
+     * Creates a mailbox and binds its metrics if a registry was given.
+     *
+     * @param name    The observer name.
+     * @param handler Delivers one notification to the observer.
+     * @param <E>     The notification type.
+     * @return The mailbox.
+     */
+    private synchronized <E> ObserverMailbox<E> createMailbox(String name, Consumer<E> handler) {
+        ObserverMailbox<E> mailbox = new ObserverMailbox<>(name, handler, executor, mailboxCapacity, batchSize, policy);
+        if (registry != null) {
+            mailbox.registerMetrics(registry, observerLabels(name));
+        }
+        mailboxes.add(mailbox);
+        return mailbox;
+    }
+
+    /**
+     * Appends the observer label to the labels of this fan-out.
+     *
+     * @param name The observer name.
+     * @return The labels of the observer metrics.
+     */
+    private String observerLabels(String name) {
+        String observer = "observer=\"" + name + "\"";
+        return labels.isEmpty() ? observer : labels + "," + observer;
+    }
+
+    /**
+     * Delivers a single ready order or a pickup batch to an order ready observer.
+     *
+     * @param observer The observer.
+     * @param message  An Order, or the List of orders of a pickup batch.
+     */
+    @SuppressWarnings("unchecked")
+    private static void deliverOrderReady(OrderReadyObserver observer, Object message) {
+        if (message instanceof Order order) {
+            observer.onOrderReady(order);
+        } else {
+            observer.onOrdersReady((List<Order>) message);
+        }
+    }
+}
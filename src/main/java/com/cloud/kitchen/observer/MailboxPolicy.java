@@ -0,0 +1,18 @@
+package com.cloud.kitchen.observer;
+
+/**
+ * The MailboxPolicy enum selects what an ObserverMailbox does with a notification posted while it is full.
+ */
+public enum MailboxPolicy {
+
+    /**
+     * The posting thread blocks until the observer catches up, so a slow observer still slows dispatch down,
+     * but only once its mailbox is full.
+     */
+    BLOCK,
+
+    /**
+     * The notification is dropped and counted, so dispatch never waits for the observer.
+     */
+    DROP
+}
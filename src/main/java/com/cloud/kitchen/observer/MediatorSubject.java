@@ -3,12 +3,21 @@ package com.cloud.kitchen.observer;
 import com.cloud.kitchen.models.Order;
 import com.cloud.kitchen.models.Courier;
 
+import java.util.List;
+
 /**
  * The MediatorSubject interface defines methods for registering observers
  * and notifying them about order and courier events in a kitchen delivery system.
  */
 public interface MediatorSubject {
 
+    /**
+     * Registers an observer to receive notifications when orders are received.
+     *
+     * @param observer The observer object implementing OrderReceivedObserver.
+     */
+    void registerOrderReceivedObserver(OrderReceivedObserver observer);
+
     /**
      * Registers an observer to receive notifications when orders are ready for pickup.
      *
@@ -23,6 +32,20 @@ public interface MediatorSubject {
      */
     void registerCourierArrivalObserver(CourierArrivalObserver observer);
 
+    /**
+     * Registers an observer to receive notifications when admission control turns orders away.
+     *
+     * @param observer The observer object implementing OrderRejectedObserver.
+     */
+    void registerOrderRejectedObserver(OrderRejectedObserver observer);
+
+    /**
+     * Notifies all registered observers about a received order.
+     *
+     * @param order The Order object that was received.
+     */
+    void notifyOrderReceivedObservers(Order order);
+
     /**
      * Notifies all registered observers about the readiness of an order for pickup.
      *
@@ -30,10 +53,24 @@ public interface MediatorSubject {
      */
     void notifyOrderReadyObservers(Order order);
 
+    /**
+     * Notifies all registered observers about a batch of orders picked up together.
+     *
+     * @param orders The Order objects of the batch.
+     */
+    void notifyOrderReadyObservers(List<Order> orders);
+
     /**
      * Notifies all registered observers about the arrival of a courier for order pickup.
      *
      * @param courier The Courier object that has arrived for order pickup.
      */
     void notifyCourierArrivalObservers(Courier courier);
+
+    /**
+     * Notifies all registered observers about an order rejected on arrival or shed from the backlog.
+     *
+     * @param order The Order object that will not be prepared.
+     */
+    void notifyOrderRejectedObservers(Order order);
 }
@@ -0,0 +1,280 @@
+package com.cloud.kitchen.observer;
+
+import com.cloud.kitchen.metrics.Counter;
+import com.cloud.kitchen.metrics.MetricsRegistry;
+import com.cloud.kitchen.stats.LatencyHistogram;
+import com.cloud.kitchen.stats.LatencyStats;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * The ObserverMailbox class is a bounded queue of notifications for one observer, delivered on an executor.
+ * At most one drain task per mailbox runs at a time, so the observer sees its notifications in posting order
+ * and never concurrently. A drain task delivers up to a batch of notifications and reschedules itself
+ * if more are pending, so mailboxes sharing an executor take turns.
+ * <p>
+ * Notifications are kept in a ring of slots with their posting time, the time they waited in the mailbox
+ * is recorded as the lag of the observer.
+ *
+ * @param <E> The notification type.
+ */
+public class ObserverMailbox<E> {
+
+    private final static Logger logger = LogManager.getLogger(ObserverMailbox.class);
+
+    private final String name;
+    private final Consumer<E> handler;
+    private final Executor executor;
+    private final MailboxPolicy policy;
+    private final ReentrantLock lock;
+    private final Condition notFull;
+    private final Condition drained;
+    private final Object[] messages;
+    private final long[] postedNanos;
+    private final Object[] batch;
+    private final long[] batchLagNanos;
+    private final Runnable drainTask;
+    private int head;
+    private int size;
+    private boolean scheduled;
+    private volatile Counter delivered;
+    private volatile Counter dropped;
+    private volatile LatencyHistogram lagNanos;
+
+    /**
+     * Constructs an ObserverMailbox.
+     *
+     * @param name      The observer name, used in log messages and metric labels.
+     * @param handler   Delivers one notification to the observer.
+     * @param executor  The executor running the drain tasks.
+     * @param capacity  The number of notifications the mailbox holds.
+     * @param batchSize The number of notifications a drain task delivers before yielding the executor thread.
+     * @param policy    What to do with a notification posted while the mailbox is full.
+     * @throws IllegalArgumentException if the capacity or the batch size is not positive.
+     */
+    public ObserverMailbox(String name, Consumer<E> handler, Executor executor, int capacity, int batchSize, MailboxPolicy policy) {
+        if (capacity <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("Mailbox capacity and batch size must be positive: " + capacity + ", " + batchSize);
+        }
+        this.name = name;
+        this.handler = handler;
+        this.executor = executor;
+        this.policy = policy;
+        this.lock = new ReentrantLock();
+        this.notFull = lock.newCondition();
+        this.drained = lock.newCondition();
+        this.messages = new Object[capacity];
+        this.postedNanos = new long[capacity];
+        this.batch = new Object[Math.min(batchSize, capacity)];
+        this.batchLagNanos = new long[batch.length];
+        this.drainTask = this::drain;
+        this.delivered = new Counter();
+        this.dropped = new Counter();
+        this.lagNanos = new LatencyHistogram();
+    }
+
+    /**
+     * Binds the metrics of this mailbox to a registry: counters of delivered and dropped notifications,
+     * the lag of delivered notifications in nanoseconds and a gauge for the mailbox depth.
+     * Counts recorded before binding are not carried over.
+     *
+     * @param registry The registry to bind the metrics to.
+     * @param labels   Labels telling this observer apart from others sharing the registry, such as {@code observer="ready"}.
+     */
+    public void registerMetrics(MetricsRegistry registry, String labels) {
+        delivered = registry.counter(MetricsRegistry.labeled("kitchen_observer_delivered_total", labels), "Notifications delivered to the observer.");
+        dropped = registry.counter(MetricsRegistry.labeled("kitchen_observer_dropped_total", labels), "Notifications dropped by a full mailbox.");
+        lagNanos = registry.histogram(MetricsRegistry.labeled("kitchen_observer_lag_nanoseconds", labels), "Time notifications waited in the mailbox.");
+        registry.gauge(MetricsRegistry.labeled("kitchen_observer_mailbox_depth", labels), "Notifications waiting in the mailbox.", this::size);
+    }
+
+    /**
+     * Posts a notification, scheduling a drain task if none is pending.
+     * With BLOCK, waits while the mailbox is full.
+     *
+     * @param message The notification.
+     * @return true if the notification was queued, false if it was dropped.
+     */
+    public boolean post(E message) {
+        long now = System.nanoTime();
+        boolean schedule;
+        lock.lock();
+        try {
+            while (size == messages.length) {
+                if (policy == MailboxPolicy.DROP) {
+                    dropped.increment();
+                    return false;
+                }
+                notFull.awaitUninterruptibly();
+            }
+            int tail = (head + size) % messages.length;
+            messages[tail] = message;
+            postedNanos[tail] = now;
+            size++;
+            schedule = !scheduled;
+            scheduled = true;
+        } finally {
+            lock.unlock();
+        }
+        if (schedule) {
+            schedule();
+        }
+        return true;
+    }
+
+    /**
+     * Waits until every posted notification has been delivered.
+     *
+     * @param timeout The maximum time to wait.
+     * @param unit    The unit of the timeout.
+     * @return true if the mailbox drained, false if the timeout elapsed first.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public boolean awaitDrained(long timeout, TimeUnit unit) throws InterruptedException {
+        long remaining = unit.toNanos(timeout);
+        lock.lock();
+        try {
+            while (size > 0 || scheduled) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = drained.awaitNanos(remaining);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves the observer name.
+     *
+     * @return The name given at construction.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Retrieves the number of notifications waiting in the mailbox.
+     *
+     * @return The mailbox depth.
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves the number of notifications delivered to the observer.
+     *
+     * @return The delivered count.
+     */
+    public long getDeliveredCount() {
+        return delivered.get();
+    }
+
+    /**
+     * Retrieves the number of notifications dropped by a full mailbox.
+     *
+     * @return The dropped count.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Takes a snapshot of the time delivered notifications waited in the mailbox.
+     *
+     * @return Count, mean, percentiles and maximum of the lag in nanoseconds.
+     */
+    public LatencyStats getLagStats() {
+        return lagNanos.snapshot();
+    }
+
+    /**
+     * Hands the drain task to the executor. If the executor refuses it, the pending notifications are dropped
+     * so later posts can schedule again.
+     */
+    private void schedule() {
+        try {
+            executor.execute(drainTask);
+        } catch (RejectedExecutionException exception) {
+            lock.lock();
+            try {
+                logger.warn("Observer {} dropped {} notifications, its executor refused the drain task", name, size);
+                dropped.add(size);
+                while (size > 0) {
+                    messages[head] = null;
+                    head = (head + 1) % messages.length;
+                    size--;
+                }
+                scheduled = false;
+                notFull.signalAll();
+                drained.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Delivers up to a batch of notifications, then reschedules itself if more are pending.
+     * Exceptions thrown by the observer are logged and do not stop delivery.
+     */
+    @SuppressWarnings("unchecked")
+    private void drain() {
+        int count;
+        lock.lock();
+        try {
+            count = Math.min(size, batch.length);
+            long now = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                batch[i] = messages[head];
+                batchLagNanos[i] = now - postedNanos[head];
+                messages[head] = null;
+                head = (head + 1) % messages.length;
+            }
+            size -= count;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        lagNanos.recordAll(batchLagNanos, count);
+        for (int i = 0; i < count; i++) {
+            try {
+                handler.accept((E) batch[i]);
+            } catch (RuntimeException exception) {
+                logger.error("Observer {} failed", name, exception);
+            }
+            batch[i] = null;
+        }
+        delivered.add(count);
+
+        boolean reschedule;
+        lock.lock();
+        try {
+            reschedule = size > 0;
+            if (!reschedule) {
+                scheduled = false;
+                drained.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (reschedule) {
+            schedule();
+        }
+    }
+}
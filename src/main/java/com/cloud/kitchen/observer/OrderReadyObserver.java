@@ -2,6 +2,8 @@ package com.cloud.kitchen.observer;
 
 import com.cloud.kitchen.models.Order;
 
+import java.util.List;
+
 /**
  * The OrderReadyObserver interface represents an observer that
  * receives notifications when an order is ready for pickup.
@@ -14,4 +16,14 @@ public interface OrderReadyObserver {
      * @param order The order that is ready.
      */
     void onOrderReady(Order order);
+
+    /**
+     * Called once for a batch of orders picked up together.
+     * The default implementation calls {@link #onOrderReady(Order)} for each order.
+     *
+     * @param orders The orders of the batch, not to be modified.
+     */
+    default void onOrdersReady(List<Order> orders) {
+        orders.forEach(this::onOrderReady);
+    }
 }
\ No newline at end of file
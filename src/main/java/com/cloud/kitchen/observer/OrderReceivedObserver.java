@@ -0,0 +1,17 @@
+package com.cloud.kitchen.observer;
+
+import com.cloud.kitchen.models.Order;
+
+/**
+ * The OrderReceivedObserver interface represents an observer that
+ * receives notifications when the kitchen receives an order.
+ */
+public interface OrderReceivedObserver {
+
+    /**
+     * Called when an order is received, before its preparation starts.
+     *
+     * @param order The order that was received.
+     */
+    void onOrderReceived(Order order);
+}
@@ -0,0 +1,17 @@
+package com.cloud.kitchen.observer;
+
+import com.cloud.kitchen.models.Order;
+
+/**
+ * The OrderRejectedObserver interface represents an observer that receives notifications
+ * when admission control turns an order away, so producers can release what they hold for it.
+ */
+public interface OrderRejectedObserver {
+
+    /**
+     * Called when an order is rejected on arrival or shed from the backlog before its preparation started.
+     *
+     * @param order The order that will not be prepared.
+     */
+    void onOrderRejected(Order order);
+}
@@ -0,0 +1,190 @@
+package com.cloud.kitchen.simulation;
+
+import com.cloud.kitchen.models.CourierStore;
+import com.cloud.kitchen.models.Order;
+import com.cloud.kitchen.models.OrderStore;
+import com.cloud.kitchen.stats.LatencyHistogram;
+import com.cloud.kitchen.stats.LatencyStats;
+import com.cloud.kitchen.strategy.CompactOrderDispatcherStrategy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * CompactReplaySimulation replays an order workload with the same timeline as DiscreteEventSimulation
+ * with fixed-interval couriers, but on an OrderStore and a CourierStore with a CompactOrderDispatcherStrategy,
+ * so no object is allocated per order or event and a replay of millions of orders fits in a small heap.
+ * <p>
+ * Each order is placed and ready at its preparation time and the courier arriving k intervals after the start
+ * is assigned the k-th order of the workload. Both streams of events are therefore known in advance:
+ * orders are sorted once by ready time in a primitive array and merged with the courier arrivals,
+ * with the courier first on equal times as in the discrete-event simulation.
+ * Couriers are released from their store once they picked up their order, orders stay in theirs.
+ */
+public class CompactReplaySimulation {
+
+    private final static Logger logger = LogManager.getLogger(CompactReplaySimulation.class);
+
+    private final OrderStore orders;
+    private final CourierStore couriers;
+    private final CompactOrderDispatcherStrategy strategy;
+    private final long courierIntervalMillis;
+    private final long durationMillis;
+    private final LatencyHistogram foodWaitTimes;
+    private final LatencyHistogram courierWaitTimes;
+    private final CompactOrderDispatcherStrategy.PairConsumer dispatch;
+    private long now;
+    private long processedEvents;
+
+    /**
+     * Constructs a CompactReplaySimulation with the default courier interval and duration of DiscreteEventSimulation.
+     *
+     * @param orders   The orders to replay, every handle below the handle count of the store is an order.
+     * @param strategy The compact dispatch strategy.
+     */
+    public CompactReplaySimulation(OrderStore orders, CompactOrderDispatcherStrategy strategy) {
+        this(orders, strategy, DiscreteEventSimulation.DEFAULT_COURIER_INTERVAL_MILLIS, DiscreteEventSimulation.DEFAULT_DURATION_MILLIS);
+    }
+
+    /**
+     * Constructs a CompactReplaySimulation.
+     *
+     * @param orders                The orders to replay, every handle below the handle count of the store is an order.
+     * @param strategy              The compact dispatch strategy.
+     * @param courierIntervalMillis The virtual time between courier arrivals, in milliseconds.
+     * @param durationMillis        The simulated duration in milliseconds, events after it are discarded.
+     *                              Use Long.MAX_VALUE to run until every order has been picked up.
+     */
+    public CompactReplaySimulation(OrderStore orders, CompactOrderDispatcherStrategy strategy,
+                                   long courierIntervalMillis, long durationMillis) {
+        if (courierIntervalMillis <= 0) {
+            throw new IllegalArgumentException("Courier interval must be positive: " + courierIntervalMillis);
+        }
+        this.orders = orders;
+        this.couriers = new CourierStore();
+        this.strategy = strategy;
+        this.courierIntervalMillis = courierIntervalMillis;
+        this.durationMillis = durationMillis;
+        this.foodWaitTimes = new LatencyHistogram();
+        this.courierWaitTimes = new LatencyHistogram();
+        this.dispatch = this::pickUp;
+    }
+
+    /**
+     * Loads orders from a file in either the JSON or the binary order log format into a new OrderStore.
+     * Orders are streamed, so only the store grows with the size of the file.
+     *
+     * @param ordersFile Path of a JSON orders file or a BinaryOrderLog.
+     * @return The store holding the orders in file order.
+     */
+    public static OrderStore loadOrders(Path ordersFile) {
+        try (Stream<Order> orderStream = Simulation.streamOrders(ordersFile)) {
+            return loadOrders(orderStream);
+        }
+    }
+
+    /**
+     * Loads orders into a new OrderStore.
+     *
+     * @param orderStream The orders, each id must be a UUID.
+     * @return The store holding the orders in stream order.
+     */
+    public static OrderStore loadOrders(Stream<Order> orderStream) {
+        OrderStore store = new OrderStore();
+        Iterator<Order> iterator = orderStream.iterator();
+        while (iterator.hasNext()) {
+            store.add(iterator.next());
+        }
+        return store;
+    }
+
+    /**
+     * Runs the replay until every order is picked up or the simulated duration is reached.
+     */
+    public void processOrders() {
+        int orderCount = orders.getHandleCount();
+        long[] readyOrder = new long[orderCount];
+        for (int handle = 0; handle < orderCount; handle++) {
+            readyOrder[handle] = ((long) orders.getPrepTime(handle) << 32) | handle;
+        }
+        Arrays.sort(readyOrder);
+
+        int nextOrder = 0;
+        int nextCourier = 0;
+        while (nextOrder < orderCount || nextCourier < orderCount) {
+            long orderTime = nextOrder < orderCount ? (readyOrder[nextOrder] >>> 32) * 1000L : Long.MAX_VALUE;
+            long courierTime = nextCourier < orderCount ? nextCourier * courierIntervalMillis : Long.MAX_VALUE;
+            long time = Math.min(orderTime, courierTime);
+            if (time > durationMillis) {
+                break;
+            }
+            now = time;
+            if (courierTime <= orderTime) {
+                int courier = couriers.add(nextCourier + 1, now, nextCourier);
+                nextCourier++;
+                strategy.courierArrived(orders, couriers, courier, dispatch);
+            } else {
+                int order = (int) readyOrder[nextOrder++];
+                orders.setReadyTime(order, now);
+                strategy.orderReady(orders, couriers, order, dispatch);
+            }
+            processedEvents++;
+        }
+        logger.info("Replayed {} events of {} orders in {} ms of virtual time, {} couriers still waiting",
+                processedEvents, orderCount, now, couriers.size());
+    }
+
+    /**
+     * Retrieves the number of order ready and courier arrival events processed.
+     *
+     * @return The number of processed events.
+     */
+    public long getProcessedEvents() {
+        return processedEvents;
+    }
+
+    /**
+     * Retrieves the store of the couriers, which holds the couriers still waiting after a run.
+     *
+     * @return The courier store.
+     */
+    public CourierStore getCouriers() {
+        return couriers;
+    }
+
+    /**
+     * Takes a snapshot of the recorded food wait times.
+     *
+     * @return Count, mean, percentiles and maximum of the food wait times in milliseconds.
+     */
+    public LatencyStats getFoodWaitStats() {
+        return foodWaitTimes.snapshot().convert(TimeUnit.NANOSECONDS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Takes a snapshot of the recorded courier wait times.
+     *
+     * @return Count, mean, percentiles and maximum of the courier wait times in milliseconds.
+     */
+    public LatencyStats getCourierWaitStats() {
+        return courierWaitTimes.snapshot().convert(TimeUnit.NANOSECONDS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Records the wait times of a dispatched pair and releases the courier.
+     * Wait times are recorded in nanoseconds, like KitchenMediator does, so both report the same percentiles.
+     *
+     * @param order   The handle of the picked up order.
+     * @param courier The handle of the courier picking it up.
+     */
+    private void pickUp(int order, int courier) {
+        foodWaitTimes.record(TimeUnit.MILLISECONDS.toNanos(now - orders.getReadyTime(order)));
+        courierWaitTimes.record(TimeUnit.MILLISECONDS.toNanos(now - couriers.getArrivalTime(courier)));
+        couriers.release(courier);
+    }
+}
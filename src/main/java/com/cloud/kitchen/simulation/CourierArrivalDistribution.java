@@ -0,0 +1,40 @@
+package com.cloud.kitchen.simulation;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * The CourierArrivalDistribution interface draws the delay between an order being received
+ * and the arrival of the courier dispatched for it.
+ */
+public interface CourierArrivalDistribution {
+
+    /**
+     * Draws a courier arrival delay.
+     *
+     * @param random The random generator to draw from.
+     * @return The arrival delay in milliseconds, never negative.
+     */
+    long nextDelayMillis(RandomGenerator random);
+
+    /**
+     * Creates a distribution drawing delays uniformly between two bounds.
+     *
+     * @param minMillis The smallest delay in milliseconds.
+     * @param maxMillis The largest delay in milliseconds.
+     * @return A uniform arrival distribution.
+     */
+    static CourierArrivalDistribution uniform(long minMillis, long maxMillis) {
+        return new UniformArrivalDistribution(minMillis, maxMillis);
+    }
+
+    /**
+     * Creates a distribution drawing delays from an exponential distribution shifted by a minimum delay.
+     *
+     * @param minMillis  The smallest delay in milliseconds.
+     * @param meanMillis The mean delay in milliseconds, at least the minimum delay.
+     * @return An exponential arrival distribution.
+     */
+    static CourierArrivalDistribution exponential(long minMillis, long meanMillis) {
+        return new ExponentialArrivalDistribution(minMillis, meanMillis);
+    }
+}
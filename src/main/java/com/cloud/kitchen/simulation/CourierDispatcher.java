@@ -0,0 +1,122 @@
+package com.cloud.kitchen.simulation;
+
+import com.cloud.kitchen.clock.Clock;
+import com.cloud.kitchen.concurrent.DelayScheduler;
+import com.cloud.kitchen.factory.CourierFactory;
+import com.cloud.kitchen.mediator.KitchenMediator;
+import com.cloud.kitchen.models.Order;
+import com.cloud.kitchen.observer.OrderReceivedObserver;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The CourierDispatcher class dispatches one courier per received order, assigned to that order,
+ * arriving after a delay drawn from a CourierArrivalDistribution.
+ * Each delay is drawn from a generator seeded with the dispatcher seed and the order id, so a run is
+ * reproducible whatever the interleaving of the threads receiving orders.
+ * Arrivals are grouped into windows of {@link #BATCH_WINDOW_MILLIS}: the first courier of a window schedules
+ * one timer for the end of the window and that timer adds every courier of the window, so the number of
+ * pending timers is bounded by the spread of the distribution and not by the order rate.
+ */
+public class CourierDispatcher implements OrderReceivedObserver {
+
+    private final static Logger logger = LogManager.getLogger(CourierDispatcher.class);
+
+    /**
+     * Width of an arrival window in milliseconds, couriers arrive at most this late.
+     */
+    public static final long BATCH_WINDOW_MILLIS = 100;
+
+    private final KitchenMediator kitchenMediator;
+    private final CourierArrivalDistribution distribution;
+    private final long seed;
+    private final DelayScheduler scheduler;
+    private final ConcurrentHashMap<Long, Queue<String>> arrivalWindows;
+
+    /**
+     * Constructs a CourierDispatcher. Register it with
+     * {@link KitchenMediator#registerOrderReceivedObserver} to dispatch couriers for the orders of the mediator.
+     *
+     * @param kitchenMediator The mediator the couriers are added to.
+     * @param distribution    The distribution of courier arrival delays.
+     * @param seed            The seed of the arrival delays.
+     * @param scheduler       The scheduler running the arrival window timers.
+     */
+    public CourierDispatcher(KitchenMediator kitchenMediator, CourierArrivalDistribution distribution,
+                             long seed, DelayScheduler scheduler) {
+        this.kitchenMediator = kitchenMediator;
+        this.distribution = distribution;
+        this.seed = seed;
+        this.scheduler = scheduler;
+        this.arrivalWindows = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Dispatches a courier for a received order.
+     *
+     * @param order The order that was received.
+     */
+    @Override
+    public void onOrderReceived(Order order) {
+        long now = kitchenMediator.getClock().currentMilliSeconds();
+        long arrival = now + getArrivalDelay(order);
+        long window = Math.ceilDiv(arrival, BATCH_WINDOW_MILLIS);
+        boolean[] opened = new boolean[1];
+        arrivalWindows.compute(window, (key, orderIds) -> {
+            if (orderIds == null) {
+                orderIds = new ConcurrentLinkedQueue<>();
+                opened[0] = true;
+            }
+            orderIds.add(order.getId());
+            return orderIds;
+        });
+        if (opened[0]) {
+            scheduler.schedule(() -> dispatchWindow(window), window * BATCH_WINDOW_MILLIS - now, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Draws the courier arrival delay of an order, always the same for a given seed and order id.
+     *
+     * @param order The order a courier is dispatched for.
+     * @return The arrival delay in milliseconds.
+     */
+    public long getArrivalDelay(Order order) {
+        return distribution.nextDelayMillis(new SplittableRandom(seed * 0x9E3779B97F4A7C15L + order.getId().hashCode()));
+    }
+
+    /**
+     * Retrieves the number of arrival windows with a pending timer.
+     *
+     * @return The number of pending arrival windows.
+     */
+    public int getPendingWindowCount() {
+        return arrivalWindows.size();
+    }
+
+    /**
+     * Adds the couriers of an arrival window to the mediator.
+     * Removing the window is atomic with respect to onOrderReceived, a courier drawn into the window
+     * afterwards opens a new window with its own timer.
+     *
+     * @param window The arrival window index.
+     */
+    private void dispatchWindow(long window) {
+        Queue<String> orderIds = arrivalWindows.remove(window);
+        if (orderIds == null) {
+            return;
+        }
+        Clock clock = kitchenMediator.getClock();
+        CourierFactory courierFactory = kitchenMediator.getCourierFactory();
+        logger.debug("Dispatching {} couriers", orderIds.size());
+        for (String orderId : orderIds) {
+            kitchenMediator.addCourier(courierFactory.createCourier(clock, orderId));
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.cloud.kitchen.simulation;
+
+import com.cloud.kitchen.clock.VirtualClock;
+import com.cloud.kitchen.mediator.KitchenMediator;
+import com.cloud.kitchen.models.Order;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.PriorityQueue;
+import java.util.Queue;
+
+/**
+ * DiscreteEventSimulation replays an order workload against a KitchenMediator on a virtual clock.
+ * Instead of sleeping on scheduled executors, order placement, order readiness and courier arrivals
+ * are kept in a priority queue of timestamped events that is drained in time order on the calling thread.
+ * A run therefore takes only as long as the mediator needs to process the events, and produces the same
+ * output every time for the same workload.
+ * Couriers arrive at a fixed interval unless a CourierArrivalDistribution is given, in which case a
+ * CourierDispatcher sends one courier per received order and its timers become courier arrival events.
+ */
+public class DiscreteEventSimulation {
+
+    private final static Logger logger = LogManager.getLogger(DiscreteEventSimulation.class);
+
+    /**
+     * Default interval between courier arrivals, matching Simulation.
+     */
+    public static final long DEFAULT_COURIER_INTERVAL_MILLIS = 4000;
+
+    /**
+     * Default simulated duration, matching the 60-second run in Main.
+     */
+    public static final long DEFAULT_DURATION_MILLIS = 60000;
+
+    private final Iterable<Order> orders;
+    private final VirtualClock clock;
+    private final PriorityQueue<SimulationEvent> events;
+    private final KitchenMediator kitchenMediator;
+    private final long courierIntervalMillis;
+    private final long durationMillis;
+    private final Queue<String> courierAssignments;
+    private final CourierDispatcher courierDispatcher;
+    private long sequence;
+    private long processedEvents;
+
+    /**
+     * Constructs a DiscreteEventSimulation with the default courier interval and duration.
+     *
+     * @param orders The orders to replay.
+     */
+    public DiscreteEventSimulation(Iterable<Order> orders) {
+        this(orders, DEFAULT_COURIER_INTERVAL_MILLIS, DEFAULT_DURATION_MILLIS);
+    }
+
+    /**
+     * Constructs a DiscreteEventSimulation.
+     *
+     * @param orders                The orders to replay.
+     * @param courierIntervalMillis The virtual time between courier arrivals, in milliseconds.
+     * @param durationMillis        The simulated duration in milliseconds, events after it are discarded.
+     *                              Use Long.MAX_VALUE to run until every order has been picked up.
+     */
+    public DiscreteEventSimulation(Iterable<Order> orders, long courierIntervalMillis, long durationMillis) {
+        this(orders, courierIntervalMillis, durationMillis, null, 0);
+    }
+
+    /**
+     * Constructs a DiscreteEventSimulation dispatching one courier per order.
+     *
+     * @param orders              The orders to replay.
+     * @param durationMillis      The simulated duration in milliseconds, events after it are discarded.
+     * @param courierDistribution The distribution of courier arrival delays after an order is received.
+     * @param seed                The seed of the courier arrival delays.
+     */
+    public DiscreteEventSimulation(Iterable<Order> orders, long durationMillis,
+                                   CourierArrivalDistribution courierDistribution, long seed) {
+        this(orders, DEFAULT_COURIER_INTERVAL_MILLIS, durationMillis, courierDistribution, seed);
+    }
+
+    /**
+     * Constructs a DiscreteEventSimulation.
+     *
+     * @param orders                The orders to replay.
+     * @param courierIntervalMillis The virtual time between courier arrivals, in milliseconds, without a distribution.
+     * @param durationMillis        The simulated duration in milliseconds, events after it are discarded.
+     * @param courierDistribution   The distribution of courier arrival delays after an order is received,
+     *                              or null for couriers arriving at the fixed interval.
+     * @param seed                  The seed of the courier arrival delays.
+     */
+    private DiscreteEventSimulation(Iterable<Order> orders, long courierIntervalMillis, long durationMillis,
+                                    CourierArrivalDistribution courierDistribution, long seed) {
+        if (courierIntervalMillis <= 0) {
+            throw new IllegalArgumentException("Courier interval must be positive: " + courierIntervalMillis);
+        }
+        this.orders = orders;
+        this.clock = new VirtualClock();
+        this.events = new PriorityQueue<>();
+        this.courierAssignments = new ArrayDeque<>();
+        this.courierIntervalMillis = courierIntervalMillis;
+        this.durationMillis = durationMillis;
+        // Preparation tasks become ORDER_READY events at the current virtual time instead of running on a thread pool
+        this.kitchenMediator = new KitchenMediator(clock, task -> schedule(clock.currentMilliSeconds(), SimulationEvent.Type.ORDER_READY, task));
+        this.courierDispatcher = courierDistribution != null ? new CourierDispatcher(kitchenMediator, courierDistribution, seed,
+                (task, delay, unit) -> schedule(clock.currentMilliSeconds() + unit.toMillis(delay), SimulationEvent.Type.COURIER_ARRIVAL, task))
+                : null;
+        if (courierDispatcher != null) {
+            kitchenMediator.registerOrderReceivedObserver(courierDispatcher);
+        }
+    }
+
+    /**
+     * Retrieves the mediator driven by this simulation, so callers can set a strategy and register observers.
+     *
+     * @return The kitchen mediator running on the virtual clock.
+     */
+    public KitchenMediator getKitchenMediator() {
+        return kitchenMediator;
+    }
+
+    /**
+     * Retrieves the virtual clock of this simulation.
+     *
+     * @return The virtual clock.
+     */
+    public VirtualClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Retrieves the number of events processed by the last run.
+     *
+     * @return The number of processed events.
+     */
+    public long getProcessedEvents() {
+        return processedEvents;
+    }
+
+    /**
+     * Runs the simulation until the event queue is drained or the simulated duration is reached.
+     */
+    public void processOrders() {
+        simulateOrdersSubmission();
+        if (courierDispatcher == null) {
+            schedule(0, SimulationEvent.Type.COURIER_ARRIVAL, this::courierArrival);
+        }
+
+        while (!events.isEmpty()) {
+            SimulationEvent event = events.poll();
+            if (event.getTime() > durationMillis) {
+                break;
+            }
+            clock.advanceTo(event.getTime());
+            event.fire();
+            processedEvents++;
+        }
+        events.clear();
+        logger.info("Processed {} events in {} ms of virtual time", processedEvents, clock.currentMilliSeconds());
+    }
+
+    /**
+     * Schedules every order for submission at its placement time plus its preparation time, as Simulation does.
+     */
+    private void simulateOrdersSubmission() {
+        for (Order order : orders) {
+            if (courierDispatcher == null) {
+                courierAssignments.add(order.getId());
+            }
+            schedule(order.getPlacedTime() + order.getPrepTime() * 1000L, SimulationEvent.Type.ORDER_PLACED, () -> {
+                order.setReadyNanoTime(clock.currentNanoTime());
+                kitchenMediator.addOrder(order);
+            });
+        }
+    }
+
+    /**
+     * Adds a courier assigned to the next order and schedules the next arrival until every order has a courier.
+     */
+    private void courierArrival() {
+        kitchenMediator.addCourier(kitchenMediator.getCourierFactory().createCourier(clock, courierAssignments.poll()));
+        if (!courierAssignments.isEmpty()) {
+            schedule(clock.currentMilliSeconds() + courierIntervalMillis, SimulationEvent.Type.COURIER_ARRIVAL, this::courierArrival);
+        }
+    }
+
+    /**
+     * Adds an event to the queue.
+     *
+     * @param time   The virtual time at which the event fires, in milliseconds.
+     * @param type   The kind of event.
+     * @param action The action executed when the event fires.
+     */
+    private void schedule(long time, SimulationEvent.Type type, Runnable action) {
+        events.add(new SimulationEvent(time, sequence++, type, action));
+    }
+}
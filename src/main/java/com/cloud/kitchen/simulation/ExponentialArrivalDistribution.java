@@ -0,0 +1,48 @@
+package com.cloud.kitchen.simulation;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * The ExponentialArrivalDistribution class draws courier arrival delays from an exponential distribution
+ * shifted by a minimum delay, so most couriers arrive early and a long tail arrives late.
+ */
+public class ExponentialArrivalDistribution implements CourierArrivalDistribution {
+
+    private final long minMillis;
+    private final long meanMillis;
+
+    /**
+     * Constructs an ExponentialArrivalDistribution.
+     *
+     * @param minMillis  The smallest delay in milliseconds.
+     * @param meanMillis The mean delay in milliseconds, at least the minimum delay.
+     */
+    public ExponentialArrivalDistribution(long minMillis, long meanMillis) {
+        if (minMillis < 0 || meanMillis < minMillis) {
+            throw new IllegalArgumentException("Invalid delay minimum " + minMillis + " and mean " + meanMillis);
+        }
+        this.minMillis = minMillis;
+        this.meanMillis = meanMillis;
+    }
+
+    /**
+     * Draws a delay of the minimum plus an exponentially distributed excess.
+     *
+     * @param random The random generator to draw from.
+     * @return The arrival delay in milliseconds.
+     */
+    @Override
+    public long nextDelayMillis(RandomGenerator random) {
+        return minMillis + Math.round(random.nextExponential() * (meanMillis - minMillis));
+    }
+
+    /**
+     * Returns a string representation of the distribution.
+     *
+     * @return A string representation of the distribution.
+     */
+    @Override
+    public String toString() {
+        return "Exponential[min=" + minMillis + "ms, mean=" + meanMillis + "ms]";
+    }
+}
@@ -1,99 +1,352 @@
 package com.cloud.kitchen.simulation;
 
-import com.cloud.kitchen.factory.CourierFactory;
+import com.cloud.kitchen.concurrent.DelayScheduler;
+import com.cloud.kitchen.concurrent.TimingWheelScheduler;
+import com.cloud.kitchen.factory.ExecutorFactory;
+import com.cloud.kitchen.mediator.ExecutorMode;
 import com.cloud.kitchen.mediator.KitchenMediator;
 import com.cloud.kitchen.models.Order;
+import com.cloud.kitchen.util.BinaryOrderLog;
 import com.cloud.kitchen.util.JsonUtility;
-import org.apache.commons.collections4.CollectionUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.List;
-import java.util.concurrent.Executors;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
-
-import static com.cloud.kitchen.util.Utility.currentMilliSeconds;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
 
 /**
  * Simulation class manages the simulation of order processing and courier arrivals in a kitchen delivery system.
+ * Orders are pulled lazily from a stream and at most {@link #MAX_SCHEDULED_ORDERS} of them are scheduled at a time,
+ * so heap use does not grow with the size of the orders file.
+ * Orders with a placement time are read no earlier than that offset from the start of the run,
+ * so a generated workload is replayed at its own rate.
+ * When the mediator waits for preparation times itself, on virtual threads or on a timing wheel, orders are submitted
+ * as soon as they are read and the bound applies to orders in preparation instead.
+ * In TIMING_WHEEL mode courier arrivals are timing-wheel timers as well.
+ * A permit is only released once the mediator accepted the order, so a mediator whose admission control blocks
+ * addOrder stalls the feeder, and an order rejected by admission control releases its permit and its courier assignment.
+ * Couriers arrive at a fixed interval unless a CourierArrivalDistribution is given, in which case a
+ * CourierDispatcher sends one courier per received order.
+ * The run is complete once every order read from the stream has been picked up or rejected,
+ * see {@link #awaitCompletion(long, TimeUnit)}.
  */
 public class Simulation {
 
     private final static Logger logger = LogManager.getLogger(Simulation.class);
 
-    private final List<Order> orders;
+    /**
+     * Maximum number of orders scheduled but not yet submitted to the mediator.
+     */
+    public static final int MAX_SCHEDULED_ORDERS = 10_000;
+
+    /**
+     * Interval between courier arrivals, in milliseconds.
+     */
+    private static final long COURIER_INTERVAL_MILLIS = 4000;
+
+    /**
+     * Interval between checks of the pickup count while awaiting completion, in milliseconds.
+     */
+    private static final long COMPLETION_POLL_MILLIS = 100;
+
+    private final Stream<Order> orderStream;
+    private final Iterator<Order> orders;
+    private final Semaphore scheduledOrders;
+    private final Queue<String> courierAssignments;
+    private final Set<String> ordersInPreparation;
     private final KitchenMediator kitchenMediator;
     private final ScheduledExecutorService orderExecutorService;
     private final ScheduledExecutorService courierExecutorService;
+    private final TimingWheelScheduler courierTimer;
+    private final CourierDispatcher courierDispatcher;
+    private final CountDownLatch submissionDone;
+    private final LongAdder rejectedOrders;
+    private volatile long submittedOrders;
 
     /**
-     * Constructor for Simulation class.
+     * Constructor for Simulation class, streaming orders from the orders file on the classpath.
      *
      * @param kitchenMediator The mediator that manages orders and couriers in the simulation.
      */
     public Simulation(KitchenMediator kitchenMediator) {
-        this.orders = getOrders();
+        this(kitchenMediator, JsonUtility.streamOrders());
+    }
+
+    /**
+     * Constructor for Simulation class, loading orders from a file in either the JSON or the binary order log format.
+     *
+     * @param kitchenMediator The mediator that manages orders and couriers in the simulation.
+     * @param ordersFile      Path of a JSON orders file or a BinaryOrderLog.
+     */
+    public Simulation(KitchenMediator kitchenMediator, Path ordersFile) {
+        this(kitchenMediator, streamOrders(ordersFile));
+    }
+
+    /**
+     * Constructor for Simulation class, streaming orders from the orders file on the classpath
+     * and dispatching one courier per order.
+     *
+     * @param kitchenMediator     The mediator that manages orders and couriers in the simulation.
+     * @param courierDistribution The distribution of courier arrival delays after an order is received.
+     * @param seed                The seed of the courier arrival delays.
+     */
+    public Simulation(KitchenMediator kitchenMediator, CourierArrivalDistribution courierDistribution, long seed) {
+        this(kitchenMediator, JsonUtility.streamOrders(), courierDistribution, seed);
+    }
+
+    /**
+     * Constructor for Simulation class, with couriers arriving at a fixed interval.
+     *
+     * @param kitchenMediator The mediator that manages orders and couriers in the simulation.
+     * @param orderStream     The orders to submit, consumed lazily and closed once exhausted or on shutdown.
+     */
+    public Simulation(KitchenMediator kitchenMediator, Stream<Order> orderStream) {
+        this(kitchenMediator, orderStream, null, 0);
+    }
+
+    /**
+     * Constructor for Simulation class.
+     *
+     * @param kitchenMediator     The mediator that manages orders and couriers in the simulation.
+     * @param orderStream         The orders to submit, consumed lazily and closed once exhausted or on shutdown.
+     * @param courierDistribution The distribution of courier arrival delays after an order is received,
+     *                            or null for couriers arriving every four seconds.
+     * @param seed                The seed of the courier arrival delays.
+     */
+    public Simulation(KitchenMediator kitchenMediator, Stream<Order> orderStream,
+                      CourierArrivalDistribution courierDistribution, long seed) {
+        this.orderStream = orderStream;
+        this.orders = getOrders(orderStream);
+        this.scheduledOrders = new Semaphore(MAX_SCHEDULED_ORDERS);
+        this.courierAssignments = new ConcurrentLinkedQueue<>();
+        this.ordersInPreparation = ConcurrentHashMap.newKeySet();
         this.kitchenMediator = kitchenMediator;
+        this.submissionDone = new CountDownLatch(1);
+        this.rejectedOrders = new LongAdder();
         orderExecutorService = getScheduledExecutorService();
         courierExecutorService = getScheduledExecutorService();
+        courierTimer = kitchenMediator.getExecutorMode() == ExecutorMode.TIMING_WHEEL
+                ? ExecutorFactory.createTimingWheel(courierExecutorService) : null;
+        courierDispatcher = courierDistribution != null
+                ? new CourierDispatcher(kitchenMediator, courierDistribution, seed, getCourierScheduler()) : null;
+        if (courierDispatcher != null) {
+            kitchenMediator.registerOrderReceivedObserver(courierDispatcher);
+        }
+        if (kitchenMediator.getExecutorMode().delaysPreparation()) {
+            // The order ready notification releases the permit of an order in preparation, pickup notifications are ignored
+            kitchenMediator.registerOrderReadyObserver(order -> {
+                if (ordersInPreparation.remove(order.getId())) {
+                    scheduledOrders.release();
+                }
+            });
+        }
+        kitchenMediator.registerOrderRejectedObserver(order -> {
+            rejectedOrders.increment();
+            if (ordersInPreparation.remove(order.getId())) {
+                scheduledOrders.release();
+            }
+            courierAssignments.remove(order.getId());
+        });
     }
 
     /**
-     * Retrieves the list of orders from JSON using a utility method.
+     * Streams orders from a file, detecting the binary order log format by its magic number.
      *
-     * @return The list of orders read from JSON.
+     * @param ordersFile Path of a JSON orders file or a BinaryOrderLog.
+     * @return A lazy stream of orders that closes the file when closed.
      */
-    private List<Order> getOrders() {
-        List<Order> orders = JsonUtility.readOrders();
-        if(CollectionUtils.isEmpty(orders)) {
+    public static Stream<Order> streamOrders(Path ordersFile) {
+        if (BinaryOrderLog.isOrderLog(ordersFile)) {
+            BinaryOrderLog orderLog = BinaryOrderLog.open(ordersFile);
+            return orderLog.stream().onClose(() -> {
+                try {
+                    orderLog.close();
+                } catch (IOException exception) {
+                    logger.error("Failed to close {}", ordersFile, exception);
+                }
+            });
+        }
+        return JsonUtility.streamOrders(ordersFile);
+    }
+
+    /**
+     * Retrieves an iterator over the order stream, exiting if the stream holds no order.
+     *
+     * @param orderStream The orders to submit.
+     * @return An iterator over the orders.
+     */
+    private Iterator<Order> getOrders(Stream<Order> orderStream) {
+        Iterator<Order> orders = orderStream.iterator();
+        if(!orders.hasNext()) {
             logger.error("Empty Orders");
             System.exit(1);
         }
-        logger.info("Processing {} Orders", orders.size());
         return orders;
     }
 
+    /**
+     * Retrieves the scheduler for courier timers: the courier timing wheel in TIMING_WHEEL mode,
+     * the courier executor service otherwise.
+     *
+     * @return The courier timer scheduler.
+     */
+    private DelayScheduler getCourierScheduler() {
+        if (courierTimer != null) {
+            return courierTimer::schedule;
+        }
+        return courierExecutorService::schedule;
+    }
+
     /**
      * Initiates the simulation by scheduling orders and courier arrivals.
+     * With a courier dispatcher, couriers are dispatched as orders are received instead.
      */
     public void processOrders() {
         simulateOrdersSubmission();
-        simulateCourierArrivals();
+        if (courierDispatcher == null) {
+            simulateCourierArrivals();
+        }
     }
 
     /**
      * Schedules periodic courier arrivals based on a fixed interval.
+     * Each courier is assigned the next order in submission order, once every scheduled order has a courier
+     * the remaining couriers can pick up any order.
      */
     private void simulateCourierArrivals() {
-        courierExecutorService.scheduleAtFixedRate(() -> kitchenMediator.addCourier(CourierFactory.createCourier()), 0, 4, TimeUnit.SECONDS); // Add a new driver every 4 seconds
+        if (courierTimer != null) {
+            scheduleCourierArrival(System.nanoTime(), 0);
+            return;
+        }
+        courierExecutorService.scheduleAtFixedRate(this::addCourier, 0, COURIER_INTERVAL_MILLIS, TimeUnit.MILLISECONDS); // Add a new driver every 4 seconds
+    }
+
+    /**
+     * Schedules a courier arrival on the courier timer. Each arrival schedules the next one,
+     * with delays measured from the first arrival so the interval does not drift.
+     *
+     * @param startTime The nanoTime of the first arrival.
+     * @param arrival   The number of couriers that arrived before this one.
+     */
+    private void scheduleCourierArrival(long startTime, long arrival) {
+        long delay = startTime + TimeUnit.MILLISECONDS.toNanos(arrival * COURIER_INTERVAL_MILLIS) - System.nanoTime();
+        courierTimer.schedule(() -> {
+            addCourier();
+            scheduleCourierArrival(startTime, arrival + 1);
+        }, delay, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Adds a courier assigned to the next order that has no courier yet.
+     */
+    private void addCourier() {
+        kitchenMediator.addCourier(kitchenMediator.getCourierFactory().createCourier(kitchenMediator.getClock(), courierAssignments.poll()));
     }
 
     /**
      * Schedules orders for submission to the kitchen mediator based on their preparation times.
+     * A feeder task pulls orders from the stream and blocks once {@link #MAX_SCHEDULED_ORDERS} are pending.
      */
     private void simulateOrdersSubmission() {
-        for (Order order : orders) {
-            orderExecutorService.schedule(() -> {
-                order.setReadyTime(currentMilliSeconds());
-                kitchenMediator.addOrder(order);
-            }, order.getPrepTime(), TimeUnit.SECONDS);
+        orderExecutorService.execute(() -> {
+            long scheduled = 0;
+            long startNanos = System.nanoTime();
+            try {
+                while (orders.hasNext()) {
+                    scheduledOrders.acquire();
+                    Order order = orders.next();
+                    awaitPlacement(startNanos, order);
+                    if (courierDispatcher == null) {
+                        courierAssignments.add(order.getId());
+                    }
+                    scheduled++;
+                    if (kitchenMediator.getExecutorMode().delaysPreparation()) {
+                        ordersInPreparation.add(order.getId());
+                        kitchenMediator.addOrder(order);
+                        continue;
+                    }
+                    orderExecutorService.schedule(() -> {
+                        order.setReadyNanoTime(kitchenMediator.getClock().currentNanoTime());
+                        kitchenMediator.addOrder(order);
+                        scheduledOrders.release();
+                    }, order.getPrepTime(), TimeUnit.SECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                orderStream.close();
+                submittedOrders = scheduled;
+                submissionDone.countDown();
+                logger.info("Processing {} Orders", scheduled);
+            }
+        });
+    }
+
+    /**
+     * Waits until every order read from the stream has been picked up by a courier or rejected by the mediator.
+     * Pickups are read from the food wait count of the mediator, which is polled, rejections are observed.
+     *
+     * @param timeout The maximum time to wait.
+     * @param unit    The unit of the timeout.
+     * @return true if the simulation completed, false if the timeout elapsed first.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public boolean awaitCompletion(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        if (!submissionDone.await(timeout, unit)) {
+            return false;
+        }
+        while (kitchenMediator.getFoodWaitStats().getCount() + rejectedOrders.sum() < submittedOrders) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.sleep(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(COMPLETION_POLL_MILLIS)));
         }
+        return true;
     }
 
     /**
-     * Creates a new scheduled executor service with a fixed thread pool size.
+     * Waits until the placement time of an order has elapsed since the start of the run.
+     *
+     * @param startNanos The nanoTime at which the run started.
+     * @param order      The order to place.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    private static void awaitPlacement(long startNanos, Order order) throws InterruptedException {
+        long delayMillis = order.getPlacedTime() - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        if (delayMillis > 0) {
+            TimeUnit.MILLISECONDS.sleep(delayMillis);
+        }
+    }
+
+    /**
+     * Creates a new scheduled executor service matching the executor mode of the mediator.
      *
      * @return A new scheduled executor service.
      */
     private ScheduledExecutorService getScheduledExecutorService() {
-        return Executors.newScheduledThreadPool(5);
+        return ExecutorFactory.createScheduledExecutor(kitchenMediator.getExecutorMode(), 5);
     }
 
     /**
-     * Shuts down the order and courier executor services to end the simulation.
+     * Shuts down the order and courier executor services and the courier timer to end the simulation.
      */
     public void shutdown(){
+        if (courierTimer != null) {
+            courierTimer.close();
+        }
         orderExecutorService.shutdownNow();
         courierExecutorService.shutdownNow();
     }
@@ -0,0 +1,75 @@
+package com.cloud.kitchen.simulation;
+
+/**
+ * The SimulationEvent class is a timestamped entry in the discrete-event simulation queue.
+ * Events are ordered by virtual time and, for equal times, by the order in which they were scheduled,
+ * which keeps every run of the same workload deterministic.
+ */
+final class SimulationEvent implements Comparable<SimulationEvent> {
+
+    /**
+     * The kinds of events processed by the discrete-event simulation.
+     */
+    enum Type {
+        ORDER_PLACED,
+        ORDER_READY,
+        COURIER_ARRIVAL
+    }
+
+    private final long time;
+    private final long sequence;
+    private final Type type;
+    private final Runnable action;
+
+    /**
+     * Constructs a SimulationEvent.
+     *
+     * @param time     The virtual time at which the event fires, in milliseconds.
+     * @param sequence The scheduling sequence number used to break ties between equal times.
+     * @param type     The kind of event.
+     * @param action   The action executed when the event fires.
+     */
+    SimulationEvent(long time, long sequence, Type type, Runnable action) {
+        this.time = time;
+        this.sequence = sequence;
+        this.type = type;
+        this.action = action;
+    }
+
+    /**
+     * Retrieves the virtual time at which the event fires.
+     *
+     * @return The event time in milliseconds.
+     */
+    long getTime() {
+        return time;
+    }
+
+    /**
+     * Retrieves the kind of event.
+     *
+     * @return The event type.
+     */
+    Type getType() {
+        return type;
+    }
+
+    /**
+     * Executes the event action.
+     */
+    void fire() {
+        action.run();
+    }
+
+    /**
+     * Orders events by time, then by scheduling sequence.
+     *
+     * @param other The event to compare with.
+     * @return A negative integer, zero, or a positive integer as this event fires before, with, or after the other.
+     */
+    @Override
+    public int compareTo(SimulationEvent other) {
+        int byTime = Long.compare(time, other.time);
+        return byTime != 0 ? byTime : Long.compare(sequence, other.sequence);
+    }
+}
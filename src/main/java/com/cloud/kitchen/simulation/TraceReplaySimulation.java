@@ -0,0 +1,265 @@
+package com.cloud.kitchen.simulation;
+
+import com.cloud.kitchen.clock.VirtualClock;
+import com.cloud.kitchen.journal.BinaryJournalSink;
+import com.cloud.kitchen.journal.JournalEvent;
+import com.cloud.kitchen.journal.JournalSink;
+import com.cloud.kitchen.mediator.KitchenMediator;
+import com.cloud.kitchen.models.Courier;
+import com.cloud.kitchen.models.Order;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TraceReplaySimulation replays a trace recorded by a BinaryJournalSink, the order ready and courier arrival times
+ * of a past run, against a fresh mediator, so an incident can be reproduced with another dispatch strategy.
+ * <p>
+ * The trace is streamed from disk in blocks of records and each event fires at its recorded time, compressed by a
+ * speed-up factor: 1 replays in real time, 1000 replays an hour in under four seconds and
+ * {@link #AS_FAST_AS_POSSIBLE} does not wait at all. The mediator runs on a virtual clock set to the recorded time
+ * of each event, so wait times are those of the trace whatever the speed-up and the host.
+ * Events recorded on different threads may be journaled slightly out of order; they are held in a heap for
+ * {@link #REORDER_WINDOW_MILLIS} of trace time and fired in time order. The replay thread only waits when the next
+ * event is due at least {@link #MIN_WAIT_NANOS} ahead, so events due close together fire as one batch.
+ * <p>
+ * Orders are handed to the mediator prepared at their recorded ready time, with their preparation time and
+ * placement time derived from their received event. Names are not recorded and come back as null.
+ * Couriers keep their recorded target order, and pickups of the recorded run are ignored.
+ */
+public class TraceReplaySimulation {
+
+    private final static Logger logger = LogManager.getLogger(TraceReplaySimulation.class);
+
+    /**
+     * Speed-up factor replaying every event without waiting.
+     */
+    public static final double AS_FAST_AS_POSSIBLE = Double.POSITIVE_INFINITY;
+
+    /**
+     * Trace time an event is held before it fires, so events journaled late are still fired in time order.
+     */
+    public static final long REORDER_WINDOW_MILLIS = 1000;
+
+    /**
+     * Shortest wait of the replay thread; events due sooner fire immediately with the current batch.
+     */
+    private static final long MIN_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Path trace;
+    private final double speedUp;
+    private final VirtualClock clock;
+    private final KitchenMediator kitchenMediator;
+    private final PriorityQueue<SimulationEvent> events;
+    private final Map<String, Long> receivedTimes;
+    private long sequence;
+    private long processedEvents;
+    private boolean started;
+    private long traceStart;
+    private long wallStart;
+    private long latestTimestamp;
+
+    /**
+     * Constructs a TraceReplaySimulation.
+     *
+     * @param trace   The trace, a file written by a BinaryJournalSink.
+     * @param speedUp How many times faster than recorded the trace is replayed, or {@link #AS_FAST_AS_POSSIBLE}.
+     */
+    public TraceReplaySimulation(Path trace, double speedUp) {
+        if (!(speedUp > 0)) {
+            throw new IllegalArgumentException("Speed-up must be positive: " + speedUp);
+        }
+        this.trace = trace;
+        this.speedUp = speedUp;
+        this.clock = new VirtualClock(Long.MIN_VALUE);
+        // Orders are replayed once ready, so their preparation completes on the replay thread
+        this.kitchenMediator = new KitchenMediator(clock, Runnable::run);
+        this.events = new PriorityQueue<>();
+        this.receivedTimes = new HashMap<>();
+    }
+
+    /**
+     * Parses a speed-up factor, either a positive number or max for {@link #AS_FAST_AS_POSSIBLE}.
+     *
+     * @param speedUp The speed-up factor, as in 1, 10, 1000 or max.
+     * @return The speed-up factor.
+     */
+    public static double parseSpeedUp(String speedUp) {
+        return speedUp.equalsIgnoreCase("max") ? AS_FAST_AS_POSSIBLE : Double.parseDouble(speedUp);
+    }
+
+    /**
+     * Retrieves the mediator driven by this replay, so callers can set a strategy and register observers.
+     *
+     * @return The kitchen mediator running on the replay clock.
+     */
+    public KitchenMediator getKitchenMediator() {
+        return kitchenMediator;
+    }
+
+    /**
+     * Retrieves the clock of this replay, at the recorded time of the last fired event.
+     *
+     * @return The virtual clock.
+     */
+    public VirtualClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Retrieves the number of events fired by the last run.
+     *
+     * @return The number of fired events.
+     */
+    public long getProcessedEvents() {
+        return processedEvents;
+    }
+
+    /**
+     * Replays the trace on the calling thread until every event has fired or the thread is interrupted.
+     */
+    public void processOrders() {
+        long startNanos = System.nanoTime();
+        try {
+            long records = BinaryJournalSink.read(trace, new ReplaySink());
+            double seconds = (System.nanoTime() - startNanos) / 1e9;
+            logger.info("Replayed {} events of {} trace records in {} s, {} events per second", processedEvents, records,
+                    String.format("%.3f", seconds), Math.round(processedEvents / seconds));
+        } catch (CancellationException exception) {
+            Thread.currentThread().interrupt();
+            logger.warn("Trace replay interrupted after {} events", processedEvents);
+        } finally {
+            started = false;
+            events.clear();
+            receivedTimes.clear();
+        }
+    }
+
+    /**
+     * Turns a trace record into an event, fires the events that are due and waits as the speed-up requires.
+     *
+     * @param record The trace record, reused by the reader.
+     */
+    private void onRecord(JournalEvent record) {
+        long timestamp = record.getTimestamp();
+        if (!started) {
+            started = true;
+            traceStart = timestamp;
+            wallStart = System.nanoTime();
+            latestTimestamp = timestamp;
+        }
+        String orderId = record.getOrderId();
+        int courierId = record.getCourierId();
+        switch (record.getType()) {
+            case ORDER_RECEIVED -> receivedTimes.put(orderId, timestamp);
+            case ORDER_READY -> schedule(timestamp, SimulationEvent.Type.ORDER_READY, () -> orderReady(orderId));
+            case COURIER_ARRIVED -> schedule(timestamp, SimulationEvent.Type.COURIER_ARRIVAL,
+                    () -> kitchenMediator.addCourier(new Courier(courierId, clock.currentMilliSeconds(), orderId)));
+            default -> {
+                // Pickups and adoptions are outcomes of the recorded run, the replayed strategy decides its own
+            }
+        }
+        latestTimestamp = Math.max(latestTimestamp, timestamp);
+        fireEvents(latestTimestamp - REORDER_WINDOW_MILLIS);
+    }
+
+    /**
+     * Hands an order to the mediator at its recorded ready time.
+     *
+     * @param orderId The id of the order.
+     */
+    private void orderReady(String orderId) {
+        long readyTime = clock.currentMilliSeconds();
+        Long receivedTime = receivedTimes.remove(orderId);
+        long received = receivedTime != null ? receivedTime : readyTime;
+        Order order = new Order(orderId, null, (int) Math.round((readyTime - received) / 1000.0), received - traceStart);
+        order.setReadyTime(readyTime);
+        kitchenMediator.addOrder(order);
+    }
+
+    /**
+     * Fires the held events up to a trace time, in time order, waiting for each as the speed-up requires.
+     *
+     * @param until The latest trace time to fire, in milliseconds.
+     */
+    private void fireEvents(long until) {
+        while (!events.isEmpty() && events.peek().getTime() <= until) {
+            SimulationEvent event = events.poll();
+            awaitTraceTime(event.getTime());
+            // An event journaled after the reorder window fires late rather than moving the clock backwards
+            clock.advanceTo(Math.max(clock.currentMilliSeconds(), event.getTime()));
+            event.fire();
+            processedEvents++;
+        }
+    }
+
+    /**
+     * Waits until the wall-clock time of a trace time, compressed by the speed-up, has come.
+     *
+     * @param time The trace time in milliseconds.
+     * @throws CancellationException if the replay thread is interrupted.
+     */
+    private void awaitTraceTime(long time) {
+        if (speedUp == AS_FAST_AS_POSSIBLE) {
+            return;
+        }
+        long dueNanos = wallStart + (long) (TimeUnit.MILLISECONDS.toNanos(time - traceStart) / speedUp);
+        long delayNanos = dueNanos - System.nanoTime();
+        if (delayNanos < MIN_WAIT_NANOS) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(delayNanos);
+        } catch (InterruptedException exception) {
+            throw new CancellationException("Trace replay interrupted");
+        }
+    }
+
+    /**
+     * Adds an event to the heap.
+     *
+     * @param time   The trace time at which the event fires, in milliseconds.
+     * @param type   The kind of event.
+     * @param action The action executed when the event fires.
+     */
+    private void schedule(long time, SimulationEvent.Type type, Runnable action) {
+        events.add(new SimulationEvent(time, sequence++, type, action));
+    }
+
+    /**
+     * The ReplaySink class feeds the records read from the trace to the replay and fires the remaining events at the end.
+     */
+    private class ReplaySink implements JournalSink {
+
+        /**
+         * Replays one record.
+         *
+         * @param event The record.
+         */
+        @Override
+        public void onEvent(JournalEvent event) {
+            onRecord(event);
+        }
+
+        /**
+         * Does nothing, events are fired as records are read.
+         */
+        @Override
+        public void endOfBatch() {
+        }
+
+        /**
+         * Fires every held event once the trace is exhausted.
+         */
+        @Override
+        public void close() {
+            fireEvents(Long.MAX_VALUE);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.cloud.kitchen.simulation;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * The UniformArrivalDistribution class draws courier arrival delays uniformly between two bounds, inclusive.
+ */
+public class UniformArrivalDistribution implements CourierArrivalDistribution {
+
+    private final long minMillis;
+    private final long maxMillis;
+
+    /**
+     * Constructs a UniformArrivalDistribution.
+     *
+     * @param minMillis The smallest delay in milliseconds.
+     * @param maxMillis The largest delay in milliseconds.
+     */
+    public UniformArrivalDistribution(long minMillis, long maxMillis) {
+        if (minMillis < 0 || maxMillis < minMillis) {
+            throw new IllegalArgumentException("Invalid delay bounds " + minMillis + ".." + maxMillis);
+        }
+        this.minMillis = minMillis;
+        this.maxMillis = maxMillis;
+    }
+
+    /**
+     * Draws a delay between the bounds.
+     *
+     * @param random The random generator to draw from.
+     * @return The arrival delay in milliseconds.
+     */
+    @Override
+    public long nextDelayMillis(RandomGenerator random) {
+        return random.nextLong(minMillis, maxMillis + 1);
+    }
+
+    /**
+     * Returns a string representation of the distribution.
+     *
+     * @return A string representation of the distribution.
+     */
+    @Override
+    public String toString() {
+        return "Uniform[" + minMillis + "ms.." + maxMillis + "ms]";
+    }
+}
@@ -0,0 +1,182 @@
+package com.cloud.kitchen.stats;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The LatencyHistogram class records non-negative long values into a fixed set of log-linear buckets,
+ * in the style of HdrHistogram. Values below 256 are counted exactly, larger values are counted in buckets
+ * whose width is under 0.8% of the value, so any percentile is reported within that relative error.
+ * Recording is lock-free and never allocates, and memory use is fixed whatever the number of samples.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 8;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT >> 1;
+    private static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (Long.SIZE - 1 - SUB_BUCKET_BITS) * SUB_BUCKET_HALF_COUNT;
+
+    private final AtomicLongArray counts;
+    private final LongAdder totalCount;
+    private final LongAdder totalSum;
+    private final AtomicLong maxValue;
+
+    /**
+     * Constructs an empty LatencyHistogram.
+     */
+    public LatencyHistogram() {
+        this.counts = new AtomicLongArray(BUCKET_COUNT);
+        this.totalCount = new LongAdder();
+        this.totalSum = new LongAdder();
+        this.maxValue = new AtomicLong();
+    }
+
+    /**
+     * Records a value. Negative values are recorded as zero.
+     *
+     * @param value The value to record.
+     */
+    public void record(long value) {
+        long sample = Math.max(0, value);
+        counts.incrementAndGet(bucketIndex(sample));
+        totalCount.increment();
+        totalSum.add(sample);
+        if (sample > maxValue.get()) {
+            maxValue.accumulateAndGet(sample, Math::max);
+        }
+    }
+
+    /**
+     * Records a batch of values, updating the count, sum and maximum once for the whole batch.
+     * Negative values are recorded as zero.
+     *
+     * @param values The values to record.
+     * @param length The number of values to record from the start of the array.
+     */
+    public void recordAll(long[] values, int length) {
+        if (length == 0) {
+            return;
+        }
+        long sum = 0;
+        long max = 0;
+        for (int i = 0; i < length; i++) {
+            long sample = Math.max(0, values[i]);
+            counts.incrementAndGet(bucketIndex(sample));
+            sum += sample;
+            max = Math.max(max, sample);
+        }
+        totalCount.add(length);
+        totalSum.add(sum);
+        if (max > maxValue.get()) {
+            maxValue.accumulateAndGet(max, Math::max);
+        }
+    }
+
+    /**
+     * Retrieves the number of recorded values.
+     *
+     * @return The number of recorded values.
+     */
+    public long getCount() {
+        return totalCount.sum();
+    }
+
+    /**
+     * Adds every value recorded by another histogram to this one, used to merge per-shard histograms.
+     * Values recorded by the other histogram meanwhile may or may not be included.
+     *
+     * @param other The histogram to add.
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long count = other.counts.get(i);
+            if (count != 0) {
+                counts.addAndGet(i, count);
+            }
+        }
+        totalCount.add(other.totalCount.sum());
+        totalSum.add(other.totalSum.sum());
+        maxValue.accumulateAndGet(other.maxValue.get(), Math::max);
+    }
+
+    /**
+     * Takes a snapshot of the recorded values with the mean, common percentiles and the maximum.
+     * Values recorded while the snapshot is taken may or may not be included.
+     *
+     * @return The statistics snapshot.
+     */
+    public LatencyStats snapshot() {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+        long max = maxValue.get();
+        if (count == 0) {
+            return LatencyStats.EMPTY;
+        }
+        double mean = (double) totalSum.sum() / totalCount.sum();
+        return new LatencyStats(count, mean,
+                percentile(snapshot, count, 50.0, max),
+                percentile(snapshot, count, 90.0, max),
+                percentile(snapshot, count, 99.0, max),
+                percentile(snapshot, count, 99.9, max),
+                max);
+    }
+
+    /**
+     * Finds the value at a percentile of a bucket snapshot.
+     *
+     * @param snapshot   Bucket counts.
+     * @param count      Total of the bucket counts.
+     * @param percentile The percentile, between 0 and 100.
+     * @param max        The maximum recorded value, used to cap the bucket upper bound.
+     * @return The highest value equivalent to the bucket holding the percentile.
+     */
+    private static long percentile(long[] snapshot, long count, double percentile, long max) {
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(highestEquivalentValue(i), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Computes the bucket index of a value.
+     *
+     * @param value A non-negative value.
+     * @return The index of the bucket counting the value.
+     */
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS + 1;
+        int mantissa = (int) (value >>> shift);
+        return SUB_BUCKET_COUNT + (exponent - SUB_BUCKET_BITS) * SUB_BUCKET_HALF_COUNT + (mantissa - SUB_BUCKET_HALF_COUNT);
+    }
+
+    /**
+     * Computes the largest value counted by a bucket.
+     *
+     * @param index The bucket index.
+     * @return The largest value mapped to the bucket.
+     */
+    static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int offset = index - SUB_BUCKET_COUNT;
+        int exponent = SUB_BUCKET_BITS + offset / SUB_BUCKET_HALF_COUNT;
+        long mantissa = SUB_BUCKET_HALF_COUNT + offset % SUB_BUCKET_HALF_COUNT;
+        int shift = exponent - SUB_BUCKET_BITS + 1;
+        return (mantissa << shift) + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,168 @@
+package com.cloud.kitchen.stats;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The LatencyStats class is an immutable snapshot of a LatencyHistogram:
+ * sample count, mean, p50, p90, p99, p99.9 and maximum.
+ */
+public final class LatencyStats {
+
+    /**
+     * Snapshot of a histogram without samples.
+     */
+    public static final LatencyStats EMPTY = new LatencyStats(0, 0.0, 0, 0, 0, 0, 0);
+
+    private final long count;
+    private final double mean;
+    private final long p50;
+    private final long p90;
+    private final long p99;
+    private final long p999;
+    private final long max;
+
+    /**
+     * Constructs a LatencyStats snapshot.
+     *
+     * @param count The number of samples.
+     * @param mean  The mean of the samples.
+     * @param p50   The 50th percentile.
+     * @param p90   The 90th percentile.
+     * @param p99   The 99th percentile.
+     * @param p999  The 99.9th percentile.
+     * @param max   The maximum sample.
+     */
+    public LatencyStats(long count, double mean, long p50, long p90, long p99, long p999, long max) {
+        this.count = count;
+        this.mean = mean;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.p999 = p999;
+        this.max = max;
+    }
+
+    /**
+     * Retrieves the number of samples.
+     *
+     * @return The sample count.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Retrieves the mean of the samples.
+     *
+     * @return The mean.
+     */
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * Retrieves the 50th percentile.
+     *
+     * @return The median.
+     */
+    public long getP50() {
+        return p50;
+    }
+
+    /**
+     * Retrieves the 90th percentile.
+     *
+     * @return The 90th percentile.
+     */
+    public long getP90() {
+        return p90;
+    }
+
+    /**
+     * Retrieves the 99th percentile.
+     *
+     * @return The 99th percentile.
+     */
+    public long getP99() {
+        return p99;
+    }
+
+    /**
+     * Retrieves the 99.9th percentile.
+     *
+     * @return The 99.9th percentile.
+     */
+    public long getP999() {
+        return p999;
+    }
+
+    /**
+     * Retrieves the maximum sample.
+     *
+     * @return The maximum.
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Converts a snapshot of values recorded in one time unit to another, such as nanosecond wait times to milliseconds.
+     * The mean keeps its fraction, percentiles and the maximum are truncated as by {@link TimeUnit#convert(long, TimeUnit)}.
+     *
+     * @param sourceUnit The unit the values were recorded in.
+     * @param targetUnit The unit to convert to.
+     * @return The converted snapshot.
+     */
+    public LatencyStats convert(TimeUnit sourceUnit, TimeUnit targetUnit) {
+        if (count == 0) {
+            return this;
+        }
+        double convertedMean = mean * sourceUnit.toNanos(1) / targetUnit.toNanos(1);
+        return new LatencyStats(count, convertedMean, targetUnit.convert(p50, sourceUnit), targetUnit.convert(p90, sourceUnit),
+                targetUnit.convert(p99, sourceUnit), targetUnit.convert(p999, sourceUnit), targetUnit.convert(max, sourceUnit));
+    }
+
+    /**
+     * Compares this snapshot to another object for equality.
+     *
+     * @param o The object to compare with.
+     * @return true if the objects are equal (same class and same values), false otherwise.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        LatencyStats that = (LatencyStats) o;
+        return count == that.count && Double.compare(mean, that.mean) == 0 && p50 == that.p50 && p90 == that.p90
+                && p99 == that.p99 && p999 == that.p999 && max == that.max;
+    }
+
+    /**
+     * Generates a hash code for this snapshot.
+     *
+     * @return The hash code based on every field.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(count, mean, p50, p90, p99, p999, max);
+    }
+
+    /**
+     * Returns a string representation of the snapshot.
+     *
+     * @return A string representation containing every field.
+     */
+    @Override
+    public String toString() {
+        return "LatencyStats{" +
+                "count=" + count +
+                ", mean=" + mean +
+                ", p50=" + p50 +
+                ", p90=" + p90 +
+                ", p99=" + p99 +
+                ", p99.9=" + p999 +
+                ", max=" + max +
+                '}';
+    }
+}
@@ -0,0 +1,151 @@
+package com.cloud.kitchen.strategy;
+
+import java.util.Arrays;
+
+/**
+ * The AuctionAssignment class solves the assignment problem with the auction algorithm of Bertsekas:
+ * every row bids for the column with the best benefit net of its price, raising that price by its margin
+ * over the second best column plus epsilon, and outbid rows bid again until every row holds a column.
+ * Benefits are scaled by the number of rows plus one, so an auction with an epsilon of 1 ends with an assignment
+ * that maximizes the total benefit exactly.
+ * Square problems are solved in phases that scale epsilon down to 1 and keep the prices of the previous phase,
+ * which avoids long price wars between rows with close benefits. Problems with more columns than rows are solved
+ * in a single phase from zero prices, which keeps unassigned columns at the lowest price as optimality requires.
+ * Working arrays are allocated once for the capacity, an instance is not thread-safe.
+ */
+public class AuctionAssignment {
+
+    /**
+     * Factor epsilon is divided by between phases.
+     */
+    private static final int EPSILON_SCALING_FACTOR = 5;
+
+    private final int capacity;
+    private final long[] prices;
+    private final int[] columnOwners;
+    private final int[] rowColumns;
+    private final int[] unassignedRows;
+
+    /**
+     * Constructs an AuctionAssignment for problems of up to capacity columns.
+     *
+     * @param capacity The maximum number of columns.
+     */
+    public AuctionAssignment(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.prices = new long[capacity];
+        this.columnOwners = new int[capacity];
+        this.rowColumns = new int[capacity];
+        this.unassignedRows = new int[capacity];
+    }
+
+    /**
+     * Assigns a distinct column to every row, maximizing the total benefit.
+     *
+     * @param benefits   The benefit of each row and column pair, row-major with columns entries per row.
+     *                   Each row is shifted by its minimum and scaled in place, which leaves the best assignment
+     *                   unchanged since each row takes exactly one column. Benefits of a row must differ
+     *                   by less than 2^40 so scaled benefits and prices do not overflow.
+     * @param rows       The number of rows.
+     * @param columns    The number of columns, at least rows and at most the capacity.
+     * @param assignment Receives the column assigned to each row.
+     */
+    public void assign(long[] benefits, int rows, int columns, int[] assignment) {
+        if (rows > columns || columns > capacity) {
+            throw new IllegalArgumentException("Cannot assign " + rows + " rows to " + columns + " columns with capacity " + capacity);
+        }
+        if (rows == 0) {
+            return;
+        }
+        if (rows == 1) {
+            // A single row takes its best column, no bidding needed
+            int best = 0;
+            for (int column = 1; column < columns; column++) {
+                if (benefits[column] > benefits[best]) {
+                    best = column;
+                }
+            }
+            assignment[0] = best;
+            return;
+        }
+        long maxBenefit = normalize(benefits, rows, columns, rows + 1);
+        Arrays.fill(prices, 0, columns, 0);
+        long epsilon = rows == columns ? Math.max(1, maxBenefit / EPSILON_SCALING_FACTOR) : 1;
+        while (true) {
+            runPhase(benefits, rows, columns, epsilon);
+            if (epsilon == 1) {
+                break;
+            }
+            epsilon = Math.max(1, epsilon / EPSILON_SCALING_FACTOR);
+        }
+        System.arraycopy(rowColumns, 0, assignment, 0, rows);
+    }
+
+    /**
+     * Shifts every row by its minimum benefit and scales it.
+     *
+     * @param benefits The benefit matrix.
+     * @param rows     The number of rows.
+     * @param columns  The number of columns.
+     * @param scale    The factor benefits are scaled by.
+     * @return The largest scaled benefit.
+     */
+    private static long normalize(long[] benefits, int rows, int columns, long scale) {
+        long maxBenefit = 0;
+        for (int row = 0; row < rows; row++) {
+            int offset = row * columns;
+            long rowMin = Long.MAX_VALUE;
+            for (int column = 0; column < columns; column++) {
+                rowMin = Math.min(rowMin, benefits[offset + column]);
+            }
+            for (int column = 0; column < columns; column++) {
+                benefits[offset + column] = (benefits[offset + column] - rowMin) * scale;
+                maxBenefit = Math.max(maxBenefit, benefits[offset + column]);
+            }
+        }
+        return maxBenefit;
+    }
+
+    /**
+     * Runs one auction phase from empty assignments, until every row holds a column.
+     *
+     * @param benefits The scaled benefit matrix.
+     * @param rows     The number of rows.
+     * @param columns  The number of columns.
+     * @param epsilon  The minimum price increment of a bid.
+     */
+    private void runPhase(long[] benefits, int rows, int columns, long epsilon) {
+        Arrays.fill(columnOwners, 0, columns, -1);
+        int unassigned = rows;
+        for (int row = 0; row < rows; row++) {
+            unassignedRows[row] = rows - 1 - row;
+        }
+        while (unassigned > 0) {
+            int row = unassignedRows[--unassigned];
+            int bestColumn = -1;
+            long bestValue = Long.MIN_VALUE;
+            long secondValue = Long.MIN_VALUE;
+            int offset = row * columns;
+            for (int column = 0; column < columns; column++) {
+                long value = benefits[offset + column] - prices[column];
+                if (value > bestValue) {
+                    secondValue = bestValue;
+                    bestValue = value;
+                    bestColumn = column;
+                } else if (value > secondValue) {
+                    secondValue = value;
+                }
+            }
+            prices[bestColumn] += bestValue - secondValue + epsilon;
+            int outbid = columnOwners[bestColumn];
+            if (outbid >= 0) {
+                unassignedRows[unassigned++] = outbid;
+            }
+            columnOwners[bestColumn] = row;
+            rowColumns[row] = bestColumn;
+        }
+    }
+}
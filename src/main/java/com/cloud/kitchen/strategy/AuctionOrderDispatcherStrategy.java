@@ -0,0 +1,257 @@
+package com.cloud.kitchen.strategy;
+
+import com.cloud.kitchen.mediator.KitchenMediator;
+import com.cloud.kitchen.models.Courier;
+import com.cloud.kitchen.models.Order;
+
+import java.util.Iterator;
+import java.util.Queue;
+
+/**
+ * Implements the Auction dispatch strategy, which pairs the oldest ready orders with the oldest waiting couriers
+ * by solving a maximum benefit assignment over a bounded window of each queue with an {@link AuctionAssignment}.
+ * The benefit of a pair is the urgency of its order and of its courier, plus a bonus when the courier picks up
+ * the order it was dispatched for, so couriers take their own order when it is ready unless another order has waited
+ * longer by more than the bonus.
+ * <p>
+ * Like FIFO, every pass dispatches as many pairs as it can, so no courier waits while an order is ready. The number
+ * of items waiting at any instant then depends only on the arrivals, and so does the mean wait: no pairing can lower it.
+ * What the pairing decides is which items leave, and so the shape of the wait distribution. Without a wait target
+ * the urgency of an item is its wait, the oldest items leave first as with FIFO and the assignment only trades wait
+ * order against the share of couriers picking up their own order. With a wait target, items still within the target
+ * outrank items already past it, oldest first within each group, so the assignment maximizes the pickups within
+ * the target and lowers the wait percentiles below it. The price is paid by the items past the target, which wait
+ * for a pass where no item within the target is left: pair a target with a ready shelf whose shelf life discards
+ * orders that are too stale to deliver.
+ * Passes are serialized on the strategy, which holds the working arrays of the solver.
+ */
+public class AuctionOrderDispatcherStrategy implements OrderDispatcherStrategy {
+
+    /**
+     * Default maximum number of orders and of couriers considered by one assignment.
+     */
+    public static final int DEFAULT_WINDOW_SIZE = 64;
+
+    /**
+     * Default bonus, in milliseconds of wait, for pairing a courier with the order it was dispatched for.
+     */
+    public static final long DEFAULT_ASSIGNED_ORDER_BONUS_MILLIS = 2000;
+
+    /**
+     * Wait target meaning items are ranked by wait alone.
+     */
+    public static final long NO_WAIT_TARGET = Long.MAX_VALUE;
+
+    /**
+     * Urgency added to items within the wait target, above the wait of any item past it.
+     */
+    private static final long WITHIN_TARGET_URGENCY = 1L << 36;
+
+    private final int windowSize;
+    private final long assignedOrderBonusMillis;
+    private final long waitTargetMillis;
+    private final AuctionAssignment auction;
+    private final Order[] windowOrders;
+    private final Courier[] windowCouriers;
+    private final long[] benefits;
+    private final int[] assignment;
+    private long dispatchedPairs;
+    private long assignedOrderPairs;
+
+    /**
+     * Constructs an AuctionOrderDispatcherStrategy with the default window size and assigned order bonus,
+     * and no wait target.
+     */
+    public AuctionOrderDispatcherStrategy() {
+        this(DEFAULT_WINDOW_SIZE, DEFAULT_ASSIGNED_ORDER_BONUS_MILLIS);
+    }
+
+    /**
+     * Constructs an AuctionOrderDispatcherStrategy without a wait target.
+     *
+     * @param windowSize               The maximum number of orders and of couriers considered by one assignment,
+     *                                 an assignment of a full window costs up to the cube of its size.
+     * @param assignedOrderBonusMillis The bonus, in milliseconds of wait, for pairing a courier with the order
+     *                                 it was dispatched for. Zero dispatches the oldest items first, like FIFO.
+     */
+    public AuctionOrderDispatcherStrategy(int windowSize, long assignedOrderBonusMillis) {
+        this(windowSize, assignedOrderBonusMillis, NO_WAIT_TARGET);
+    }
+
+    /**
+     * Constructs an AuctionOrderDispatcherStrategy.
+     *
+     * @param windowSize               The maximum number of orders and of couriers considered by one assignment,
+     *                                 an assignment of a full window costs up to the cube of its size.
+     * @param assignedOrderBonusMillis The bonus, in milliseconds of wait, for pairing a courier with the order
+     *                                 it was dispatched for. Zero dispatches the oldest items first, like FIFO.
+     * @param waitTargetMillis         The wait in milliseconds within which items are picked up first,
+     *                                 or NO_WAIT_TARGET.
+     */
+    public AuctionOrderDispatcherStrategy(int windowSize, long assignedOrderBonusMillis, long waitTargetMillis) {
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("Window size must be positive: " + windowSize);
+        }
+        if (waitTargetMillis <= 0) {
+            throw new IllegalArgumentException("Wait target must be positive: " + waitTargetMillis);
+        }
+        this.windowSize = windowSize;
+        this.assignedOrderBonusMillis = assignedOrderBonusMillis;
+        this.waitTargetMillis = waitTargetMillis;
+        this.auction = new AuctionAssignment(windowSize);
+        this.windowOrders = new Order[windowSize];
+        this.windowCouriers = new Courier[windowSize];
+        this.benefits = new long[windowSize * windowSize];
+        this.assignment = new int[windowSize];
+    }
+
+    /**
+     * Dispatches ready orders to waiting couriers by assignment.
+     *
+     * @param mediator The kitchen mediator managing orders and couriers.
+     * @param readyOrders The queue of orders ready for pickup.
+     * @param waitingCouriers The queue of couriers waiting to pick up orders.
+     */
+    @Override
+    public void dispatchOrder(KitchenMediator mediator, Queue<Order> readyOrders, Queue<Courier> waitingCouriers) {
+        dispatchOrders(mediator, readyOrders, waitingCouriers, 1);
+    }
+
+    /**
+     * Dispatches ready orders to waiting couriers by assignment, in batches of up to maxBatchSize pairs.
+     * Each round assigns the smaller of the order and courier windows in full, and rounds repeat until one queue is empty.
+     * Items are removed from the queues only once assigned, so the unassigned ones keep their place.
+     * An assigned item sits in the window at the head of its queue, so removing it scans at most a window of items.
+     * A pair is dispatched only if both its items are still queued: when another thread took the order, the courier
+     * stays where it is, and when another thread took the courier, the order goes back on the ready queue.
+     *
+     * @param mediator The kitchen mediator managing orders and couriers.
+     * @param readyOrders The queue of orders ready for pickup.
+     * @param waitingCouriers The queue of couriers waiting to pick up orders.
+     * @param maxBatchSize The maximum number of pairs dispatched together.
+     */
+    @Override
+    public synchronized void dispatchOrders(KitchenMediator mediator, Queue<Order> readyOrders, Queue<Courier> waitingCouriers, int maxBatchSize) {
+        DispatchBatch batch = new DispatchBatch(mediator, maxBatchSize);
+        while (!readyOrders.isEmpty() && !waitingCouriers.isEmpty()) {
+            int orderCount = fillWindow(readyOrders, windowOrders);
+            int courierCount = fillWindow(waitingCouriers, windowCouriers);
+            if (orderCount == 0 || courierCount == 0) {
+                break;
+            }
+            assignWindow(mediator.getClock().currentMilliSeconds(), orderCount, courierCount);
+            for (int i = 0; i < Math.min(orderCount, courierCount); i++) {
+                Order order = courierCount <= orderCount ? windowOrders[assignment[i]] : windowOrders[i];
+                Courier courier = courierCount <= orderCount ? windowCouriers[i] : windowCouriers[assignment[i]];
+                if (!readyOrders.remove(order)) {
+                    continue; // Another thread took the order, the courier keeps its place
+                }
+                if (!waitingCouriers.remove(courier)) {
+                    mediator.requeueOrder(readyOrders, order); // Another thread took the courier, keep the order for the next pass
+                    continue;
+                }
+                if (isAssignedOrder(order, courier)) {
+                    assignedOrderPairs++;
+                }
+                dispatchedPairs++;
+                batch.add(order, courier);
+            }
+        }
+        batch.flush();
+    }
+
+    /**
+     * Retrieves the number of pairs dispatched by this strategy.
+     *
+     * @return The number of dispatched pairs.
+     */
+    public synchronized long getDispatchedPairCount() {
+        return dispatchedPairs;
+    }
+
+    /**
+     * Retrieves the number of dispatched pairs in which the courier picked up the order it was dispatched for.
+     *
+     * @return The number of pairs matching the courier assignment.
+     */
+    public synchronized long getAssignedOrderPairCount() {
+        return assignedOrderPairs;
+    }
+
+    /**
+     * Copies the items at the head of a queue into a window.
+     *
+     * @param queue  The queue to read.
+     * @param window The window to fill.
+     * @return The number of items copied, at most the window size.
+     */
+    private <T> int fillWindow(Queue<T> queue, T[] window) {
+        int count = 0;
+        Iterator<T> iterator = queue.iterator();
+        while (count < window.length && iterator.hasNext()) {
+            window[count++] = iterator.next();
+        }
+        return count;
+    }
+
+    /**
+     * Fills the benefit matrix of the current windows, with the smaller side as rows, and solves the assignment.
+     *
+     * @param now          The current time in milliseconds.
+     * @param orderCount   The number of orders in the window.
+     * @param courierCount The number of couriers in the window.
+     */
+    private void assignWindow(long now, int orderCount, int courierCount) {
+        boolean courierRows = courierCount <= orderCount;
+        int rows = courierRows ? courierCount : orderCount;
+        int columns = courierRows ? orderCount : courierCount;
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                Order order = windowOrders[courierRows ? column : row];
+                Courier courier = windowCouriers[courierRows ? row : column];
+                benefits[row * columns + column] = getBenefit(now, order, courier);
+            }
+        }
+        auction.assign(benefits, rows, columns, assignment);
+    }
+
+    /**
+     * Computes the benefit of dispatching a pair now: the urgency of the order and of the courier,
+     * plus the assigned order bonus if the courier was dispatched for this order.
+     *
+     * @param now     The current time in milliseconds.
+     * @param order   The ready order.
+     * @param courier The waiting courier.
+     * @return The benefit of the pair.
+     */
+    private long getBenefit(long now, Order order, Courier courier) {
+        long benefit = getUrgency(now - order.getReadyTime()) + getUrgency(now - courier.getArrivalTime());
+        if (isAssignedOrder(order, courier)) {
+            benefit += assignedOrderBonusMillis;
+        }
+        return benefit;
+    }
+
+    /**
+     * Computes the urgency of picking up an item: its wait, raised above the wait of any item past the wait target
+     * while the item is within it.
+     *
+     * @param waitMillis The time the item has waited in milliseconds, negative if it is stamped in the future.
+     * @return The urgency of the item.
+     */
+    private long getUrgency(long waitMillis) {
+        long wait = Math.max(0, waitMillis);
+        return wait < waitTargetMillis ? WITHIN_TARGET_URGENCY + wait : wait;
+    }
+
+    /**
+     * Checks whether a courier was dispatched for an order.
+     *
+     * @param order   The ready order.
+     * @param courier The waiting courier.
+     * @return true if the courier was assigned this order, false if it was assigned another order or none.
+     */
+    private static boolean isAssignedOrder(Order order, Courier courier) {
+        return order.getId().equals(courier.getTargetOrderId());
+    }
+}
@@ -0,0 +1,49 @@
+package com.cloud.kitchen.strategy;
+
+import com.cloud.kitchen.models.CourierStore;
+import com.cloud.kitchen.models.OrderStore;
+import com.cloud.kitchen.util.IntRingQueue;
+
+/**
+ * Implements the FIFO dispatch strategy over order and courier handles:
+ * the first ready order goes to the first waiting courier, whatever order the courier was assigned.
+ */
+public class CompactFifoOrderDispatcherStrategy implements CompactOrderDispatcherStrategy {
+
+    private final IntRingQueue readyOrders = new IntRingQueue();
+    private final IntRingQueue waitingCouriers = new IntRingQueue();
+
+    /**
+     * Pairs a ready order with the longest waiting courier, or queues it.
+     *
+     * @param orders   The store of the order.
+     * @param couriers The store of the waiting couriers.
+     * @param order    The handle of the ready order.
+     * @param dispatch Receives the pairs made.
+     */
+    @Override
+    public void orderReady(OrderStore orders, CourierStore couriers, int order, PairConsumer dispatch) {
+        if (waitingCouriers.isEmpty()) {
+            readyOrders.add(order);
+            return;
+        }
+        dispatch.accept(order, waitingCouriers.poll());
+    }
+
+    /**
+     * Pairs an arrived courier with the longest waiting ready order, or queues it.
+     *
+     * @param orders   The store of the ready orders.
+     * @param couriers The store of the courier.
+     * @param courier  The handle of the arrived courier.
+     * @param dispatch Receives the pairs made.
+     */
+    @Override
+    public void courierArrived(OrderStore orders, CourierStore couriers, int courier, PairConsumer dispatch) {
+        if (readyOrders.isEmpty()) {
+            waitingCouriers.add(courier);
+            return;
+        }
+        dispatch.accept(readyOrders.poll(), courier);
+    }
+}
@@ -0,0 +1,76 @@
+package com.cloud.kitchen.strategy;
+
+import com.cloud.kitchen.models.CourierStore;
+import com.cloud.kitchen.models.OrderStore;
+import com.cloud.kitchen.util.IntRingQueue;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Implements the Matched dispatch strategy over order and courier handles, where each courier picks up the order
+ * it was assigned. Since the assigned order of a courier is an order handle, waiting couriers are indexed
+ * in an int array by order handle and ready orders in a bit set, instead of hash maps keyed by order id.
+ * Couriers without an assigned order pick up the ready order with the lowest handle.
+ */
+public class CompactMatchedOrderDispatcherStrategy implements CompactOrderDispatcherStrategy {
+
+    private final BitSet readyOrders = new BitSet();
+    private final IntRingQueue unassignedCouriers = new IntRingQueue();
+    private int[] waitingCourierByOrder = new int[0];
+
+    /**
+     * Pairs a ready order with its waiting courier, or with a courier without an assigned order, or indexes it.
+     *
+     * @param orders   The store of the order.
+     * @param couriers The store of the waiting couriers.
+     * @param order    The handle of the ready order.
+     * @param dispatch Receives the pairs made.
+     */
+    @Override
+    public void orderReady(OrderStore orders, CourierStore couriers, int order, PairConsumer dispatch) {
+        if (order < waitingCourierByOrder.length && waitingCourierByOrder[order] != OrderStore.NO_HANDLE) {
+            int courier = waitingCourierByOrder[order];
+            waitingCourierByOrder[order] = OrderStore.NO_HANDLE;
+            dispatch.accept(order, courier);
+        } else if (!unassignedCouriers.isEmpty()) {
+            dispatch.accept(order, unassignedCouriers.poll());
+        } else {
+            readyOrders.set(order);
+        }
+    }
+
+    /**
+     * Pairs an arrived courier with its ready order, or indexes it by the handle of its assigned order.
+     *
+     * @param orders   The store of the ready orders.
+     * @param couriers The store of the courier.
+     * @param courier  The handle of the arrived courier.
+     * @param dispatch Receives the pairs made.
+     */
+    @Override
+    public void courierArrived(OrderStore orders, CourierStore couriers, int courier, PairConsumer dispatch) {
+        int targetOrder = couriers.getTargetOrder(courier);
+        if (targetOrder == OrderStore.NO_HANDLE) {
+            int order = readyOrders.nextSetBit(0);
+            if (order < 0) {
+                unassignedCouriers.add(courier);
+                return;
+            }
+            readyOrders.clear(order);
+            dispatch.accept(order, courier);
+            return;
+        }
+        if (readyOrders.get(targetOrder)) {
+            readyOrders.clear(targetOrder);
+            dispatch.accept(targetOrder, courier);
+            return;
+        }
+        if (targetOrder >= waitingCourierByOrder.length) {
+            int length = waitingCourierByOrder.length;
+            waitingCourierByOrder = Arrays.copyOf(waitingCourierByOrder, Math.max(orders.getHandleCount(), targetOrder + 1));
+            Arrays.fill(waitingCourierByOrder, length, waitingCourierByOrder.length, OrderStore.NO_HANDLE);
+        }
+        waitingCourierByOrder[targetOrder] = courier;
+    }
+}
@@ -0,0 +1,47 @@
+package com.cloud.kitchen.strategy;
+
+import com.cloud.kitchen.models.CourierStore;
+import com.cloud.kitchen.models.OrderStore;
+
+/**
+ * The CompactOrderDispatcherStrategy interface defines the contract for dispatching orders to couriers
+ * held in an OrderStore and a CourierStore, addressing both by int handle so no object is allocated per order.
+ * The compact counterpart of {@link OrderDispatcherStrategy}, implementations are not thread-safe.
+ */
+public interface CompactOrderDispatcherStrategy {
+
+    /**
+     * The PairConsumer interface receives each order and courier paired by a strategy.
+     */
+    @FunctionalInterface
+    interface PairConsumer {
+
+        /**
+         * Accepts a dispatched pair.
+         *
+         * @param order   The handle of the order.
+         * @param courier The handle of the courier picking it up.
+         */
+        void accept(int order, int courier);
+    }
+
+    /**
+     * Handles an order that became ready, pairing it with a waiting courier or keeping it until one arrives.
+     *
+     * @param orders   The store of the order.
+     * @param couriers The store of the waiting couriers.
+     * @param order    The handle of the ready order.
+     * @param dispatch Receives the pairs made.
+     */
+    void orderReady(OrderStore orders, CourierStore couriers, int order, PairConsumer dispatch);
+
+    /**
+     * Handles a courier that arrived, pairing it with a ready order or keeping it until one is ready.
+     *
+     * @param orders   The store of the ready orders.
+     * @param couriers The store of the courier.
+     * @param courier  The handle of the arrived courier.
+     * @param dispatch Receives the pairs made.
+     */
+    void courierArrived(OrderStore orders, CourierStore couriers, int courier, PairConsumer dispatch);
+}
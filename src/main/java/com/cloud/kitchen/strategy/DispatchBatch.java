@@ -0,0 +1,67 @@
+package com.cloud.kitchen.strategy;
+
+import com.cloud.kitchen.mediator.KitchenMediator;
+import com.cloud.kitchen.models.Courier;
+import com.cloud.kitchen.models.Order;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The DispatchBatch class collects the order and courier pairs matched by a strategy during one dispatch pass
+ * and hands them to {@link KitchenMediator#dispatchOrders(List, List)} in batches of a fixed size,
+ * so wait times are recorded and observers notified once per batch instead of once per pair.
+ * A batch is used by a single dispatch pass and is not thread-safe.
+ */
+public class DispatchBatch {
+
+    private final KitchenMediator mediator;
+    private final int capacity;
+    private List<Order> orders;
+    private List<Courier> couriers;
+
+    /**
+     * Constructs an empty DispatchBatch.
+     *
+     * @param mediator The kitchen mediator the pairs are dispatched to.
+     * @param capacity The number of pairs after which the batch is dispatched.
+     */
+    public DispatchBatch(KitchenMediator mediator, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Batch capacity must be positive: " + capacity);
+        }
+        this.mediator = mediator;
+        this.capacity = capacity;
+        this.orders = new ArrayList<>(Math.min(capacity, 64));
+        this.couriers = new ArrayList<>(Math.min(capacity, 64));
+    }
+
+    /**
+     * Adds a matched pair, dispatching the batch once it is full.
+     *
+     * @param order   The order to be picked up.
+     * @param courier The courier picking up the order.
+     */
+    public void add(Order order, Courier courier) {
+        orders.add(order);
+        couriers.add(courier);
+        if (orders.size() >= capacity) {
+            flush();
+        }
+    }
+
+    /**
+     * Dispatches the pairs added since the previous flush, if any.
+     * The mediator and its observers receive lists that are not reused afterwards.
+     */
+    public void flush() {
+        if (orders.isEmpty()) {
+            return;
+        }
+        List<Order> dispatchedOrders = orders;
+        List<Courier> dispatchedCouriers = couriers;
+        orders = new ArrayList<>(Math.min(capacity, 64));
+        couriers = new ArrayList<>(Math.min(capacity, 64));
+        mediator.dispatchOrders(dispatchedOrders, dispatchedCouriers);
+    }
+}
@@ -0,0 +1,101 @@
+package com.cloud.kitchen.strategy;
+
+import com.cloud.kitchen.mediator.KitchenMediator;
+import com.cloud.kitchen.mediator.ReadyShelf;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * The DispatchStrategyType enum names the dispatch strategies and creates fresh instances of them,
+ * since the Matched, Auction and Freshness strategies keep per-mediator state and cannot be shared between runs.
+ */
+public enum DispatchStrategyType {
+
+    /**
+     * The first courier takes the first ready order.
+     */
+    FIFO(FifoOrderDispatcherStrategy::new, CompactFifoOrderDispatcherStrategy::new, false),
+
+    /**
+     * Each courier waits for the order it was dispatched for.
+     */
+    MATCHED(MatchedOrderDispatcherStrategy::new, CompactMatchedOrderDispatcherStrategy::new, false),
+
+    /**
+     * Orders and couriers are paired by assignment over windows of the queues.
+     */
+    AUCTION(AuctionOrderDispatcherStrategy::new, null, false),
+
+    /**
+     * The first courier takes the ready order closest to expiry, off a ready shelf.
+     */
+    FRESHNESS(FreshnessOrderDispatcherStrategy::new, null, true);
+
+    private final Supplier<OrderDispatcherStrategy> factory;
+    private final Supplier<CompactOrderDispatcherStrategy> compactFactory;
+    private final boolean needsReadyShelf;
+
+    DispatchStrategyType(Supplier<OrderDispatcherStrategy> factory, Supplier<CompactOrderDispatcherStrategy> compactFactory,
+                         boolean needsReadyShelf) {
+        this.factory = factory;
+        this.compactFactory = compactFactory;
+        this.needsReadyShelf = needsReadyShelf;
+    }
+
+    /**
+     * Creates a new instance of the strategy.
+     *
+     * @return A strategy instance with no state.
+     */
+    public OrderDispatcherStrategy create() {
+        return factory.get();
+    }
+
+    /**
+     * Checks whether the strategy dispatches from a ready shelf and fails on a plain ready queue.
+     *
+     * @return true if the mediator needs a {@link ReadyShelf} before the strategy runs.
+     */
+    public boolean needsReadyShelf() {
+        return needsReadyShelf;
+    }
+
+    /**
+     * Creates a new instance of the strategy and sets it as the dispatch strategy of a mediator.
+     * If the strategy needs a ready shelf and the mediator has none, ready orders go on an unbounded shelf
+     * without a default shelf life, where only orders with their own shelf life expire.
+     * Call it before any order is ready.
+     *
+     * @param kitchenMediator The mediator to dispatch with the strategy.
+     */
+    public void install(KitchenMediator kitchenMediator) {
+        if (needsReadyShelf && kitchenMediator.getReadyShelf() == null) {
+            kitchenMediator.setReadyShelf(new ReadyShelf(kitchenMediator.getClock(), ReadyShelf.UNBOUNDED,
+                    ReadyShelf.NO_EXPIRY, TimeUnit.SECONDS));
+        }
+        kitchenMediator.setDispatchCommand(create());
+    }
+
+    /**
+     * Checks whether the strategy has a compact counterpart working on order and courier handles.
+     *
+     * @return true if {@link #createCompact()} is supported.
+     */
+    public boolean hasCompact() {
+        return compactFactory != null;
+    }
+
+    /**
+     * Creates a new instance of the compact counterpart of the strategy.
+     *
+     * @return A compact strategy instance with no state.
+     * @throws UnsupportedOperationException if the strategy has no compact counterpart.
+     */
+    public CompactOrderDispatcherStrategy createCompact() {
+        if (compactFactory == null) {
+            throw new UnsupportedOperationException(name() + " has no compact strategy");
+        }
+        return compactFactory.get();
+    }
+}
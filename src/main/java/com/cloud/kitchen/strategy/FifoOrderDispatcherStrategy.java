@@ -24,16 +24,20 @@ public class FifoOrderDispatcherStrategy implements OrderDispatcherStrategy {
         This loop runs as long as there are couriers in the waitingCouriers queue.
         It polls (removes and returns) the next courier from the waitingCouriers queue.
         It then attempts to poll the next order from the readyOrders queue using mediator.getReadyOrders().poll().
-        If an order is available (order != null) and courier matches the order, it calls mediator.dispatchCourier(order, courier) to dispatch the courier to the order.
+        If an order is available (order != null), it calls mediator.dispatchCourier(order, courier) to dispatch the courier to the order.
+        FIFO ignores the order a courier was assigned to, the first courier takes the first ready order.
         If no order is available (order == null), it adds the courier back to the waitingCouriers queue and breaks out of the loop. This ensures that couriers that didn't get an order are put back in the waiting line.
          */
         while (!waitingCouriers.isEmpty()) {
             Courier courier = waitingCouriers.poll();
+            if (courier == null) {
+                break; // Another thread took the last courier
+            }
             Order order = mediator.getReadyOrders().poll();
-            if (order != null && courier.matchesOrder(order)) {
+            if (order != null) {
                 mediator.dispatchOrder(order, courier);
             } else {
-                mediator.getWaitingCouriers().add(courier);
+                mediator.requeueCourier(mediator.getWaitingCouriers(), courier);
                 break; // Exit the loop if no orders are available
             }
         }
@@ -48,7 +52,39 @@ public class FifoOrderDispatcherStrategy implements OrderDispatcherStrategy {
             Courier courier = waitingCouriers.poll();
             if(order != null && courier != null) {
                 mediator.dispatchOrder(order, courier);
+            } else if (order != null) {
+                mediator.requeueOrder(readyOrders, order); // Another thread took the last courier, keep the order for the next pass
+            } else if (courier != null) {
+                mediator.requeueCourier(waitingCouriers, courier);
+            }
+        }
+    }
+
+    /**
+     * Dispatches orders to available couriers based on the FIFO strategy, in batches of up to maxBatchSize pairs.
+     * Pairs are taken off the queues one at a time, so a courier or an order never has to be put back behind newer ones
+     * unless another thread empties the other queue concurrently.
+     *
+     * @param mediator The kitchen mediator managing orders and couriers.
+     * @param readyOrders The queue of orders ready for pickup.
+     * @param waitingCouriers The queue of couriers waiting to pick up orders.
+     * @param maxBatchSize The maximum number of pairs dispatched together.
+     */
+    @Override
+    public void dispatchOrders(KitchenMediator mediator, Queue<Order> readyOrders, Queue<Courier> waitingCouriers, int maxBatchSize) {
+        DispatchBatch batch = new DispatchBatch(mediator, maxBatchSize);
+        while (!readyOrders.isEmpty() && !waitingCouriers.isEmpty()) {
+            Courier courier = waitingCouriers.poll();
+            if (courier == null) {
+                break; // Another thread took the last courier
+            }
+            Order order = readyOrders.poll();
+            if (order == null) {
+                mediator.requeueCourier(waitingCouriers, courier);
+                break; // Another thread took the last order
             }
+            batch.add(order, courier);
         }
+        batch.flush();
     }
 }
@@ -0,0 +1,62 @@
+package com.cloud.kitchen.strategy;
+
+import com.cloud.kitchen.mediator.KitchenMediator;
+import com.cloud.kitchen.mediator.ReadyShelf;
+import com.cloud.kitchen.models.Courier;
+import com.cloud.kitchen.models.Order;
+
+import java.util.Queue;
+
+/**
+ * Implements the Freshness dispatch strategy, where the first courier takes the ready order closest to expiry,
+ * so the orders about to go stale leave the shelf first whatever the courier was dispatched for.
+ * <p>
+ * The strategy needs the ready orders on a {@link ReadyShelf}, which is ordered by expiry deadline and discards
+ * expired orders, so each pair polls its order in O(log n). Orders stay on the shelf until they are paired,
+ * where the queue depth gauge, other dispatch passes and courier stealing see them.
+ * {@link DispatchStrategyType#install} puts a mediator without a shelf on an unbounded one.
+ */
+public class FreshnessOrderDispatcherStrategy implements OrderDispatcherStrategy {
+
+    /**
+     * Dispatches the orders closest to expiry to the waiting couriers.
+     *
+     * @param mediator The kitchen mediator managing orders and couriers.
+     * @param readyOrders The queue of orders ready for pickup.
+     * @param waitingCouriers The queue of couriers waiting to pick up orders.
+     */
+    @Override
+    public void dispatchOrder(KitchenMediator mediator, Queue<Order> readyOrders, Queue<Courier> waitingCouriers) {
+        dispatchOrders(mediator, readyOrders, waitingCouriers, 1);
+    }
+
+    /**
+     * Dispatches the orders closest to expiry to the waiting couriers, in batches of up to maxBatchSize pairs.
+     *
+     * @param mediator The kitchen mediator managing orders and couriers.
+     * @param readyOrders The queue of orders ready for pickup.
+     * @param waitingCouriers The queue of couriers waiting to pick up orders.
+     * @param maxBatchSize The maximum number of pairs dispatched together.
+     * @throws IllegalStateException if the ready orders are not on a ready shelf.
+     */
+    @Override
+    public void dispatchOrders(KitchenMediator mediator, Queue<Order> readyOrders, Queue<Courier> waitingCouriers, int maxBatchSize) {
+        if (!(readyOrders instanceof ReadyShelf)) {
+            throw new IllegalStateException("The Freshness strategy dispatches from a ready shelf, set one on the mediator");
+        }
+        DispatchBatch batch = new DispatchBatch(mediator, maxBatchSize);
+        while (!waitingCouriers.isEmpty()) {
+            Courier courier = waitingCouriers.poll();
+            if (courier == null) {
+                break; // Another thread took the last courier
+            }
+            Order order = readyOrders.poll();
+            if (order == null) {
+                mediator.requeueCourier(waitingCouriers, courier);
+                break; // No order left, or another thread took the last one
+            }
+            batch.add(order, courier);
+        }
+        batch.flush();
+    }
+}
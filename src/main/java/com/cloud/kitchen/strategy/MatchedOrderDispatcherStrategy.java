@@ -3,14 +3,38 @@ package com.cloud.kitchen.strategy;
 import com.cloud.kitchen.models.Courier;
 import com.cloud.kitchen.models.Order;
 import com.cloud.kitchen.mediator.KitchenMediator;
+
+import java.util.Iterator;
+import java.util.Map;
 import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Implements the Matched dispatch strategy, where each courier is matched with a specific order.
+ * Ready orders are indexed by id and waiting couriers by the id of the order they were assigned,
+ * so pairing an order with its courier is a constant-time hash lookup whatever the number of items in flight.
+ * Couriers created without an assigned order pick up any indexed order. The id of an order they take is remembered
+ * until the courier assigned to it arrives, and that courier then joins the unassigned couriers instead of waiting
+ * for an order that is gone.
+ * <p>
+ * Orders and couriers leave the mediator queues for the indexes, the mediator counts them through
+ * {@link #getHeldOrderCount()} and {@link #getHeldCourierCount()}.
  */
 public class MatchedOrderDispatcherStrategy implements OrderDispatcherStrategy {
+
+    private final ConcurrentHashMap<String, Order> readyOrdersById = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Courier> waitingCouriersByOrderId = new ConcurrentHashMap<>();
+    private final Set<String> ordersTakenByUnassignedCouriers = ConcurrentHashMap.newKeySet();
+    private final Queue<Courier> unassignedCouriers = new ConcurrentLinkedQueue<>();
+    private final Object unassignedLock = new Object();
+    private volatile int unassignedCount;
+
     /**
-     * Dispatches orders to available couriers based on the FIFO strategy.
+     * Dispatches orders to the couriers assigned to them.
+     * Every order and courier is taken off the mediator queues exactly once and either paired
+     * immediately or kept in the indexes until its counterpart arrives.
      *
      * @param mediator The kitchen mediator managing orders and couriers.
      * @param readyOrders The queue of orders ready for pickup.
@@ -18,35 +42,157 @@ public class MatchedOrderDispatcherStrategy implements OrderDispatcherStrategy {
      */
     @Override
     public void dispatchOrder(KitchenMediator mediator, Queue<Order> readyOrders, Queue<Courier> waitingCouriers) {
-        /*
-        This loop runs as long as there are couriers in the waitingCouriers queue.
-        It polls (removes and returns) the next courier from the waitingCouriers queue.
-        It then attempts to poll the next order from the readyOrders queue using mediator.getReadyOrders().poll().
-        If an order is available (order != null) and courier matches the order, it calls mediator.dispatchCourier(order, courier) to dispatch the courier to the order.
-        If no order is available (order == null), it adds the courier back to the waitingCouriers queue and breaks out of the loop. This ensures that couriers that didn't get an order are put back in the waiting line.
-         */
-        while (!waitingCouriers.isEmpty()) {
-            Courier courier = waitingCouriers.poll();
-            Order order = mediator.getReadyOrders().poll();
-            if (order != null && courier.matchesOrder(order)) {
-                mediator.dispatchOrder(order, courier);
-            } else {
-                mediator.getWaitingCouriers().add(courier);
-                break; // Exit the loop if no orders are available
+        dispatchOrders(mediator, readyOrders, waitingCouriers, 1);
+    }
+
+    /**
+     * Dispatches orders to the couriers assigned to them, in batches of up to maxBatchSize pairs.
+     *
+     * @param mediator The kitchen mediator managing orders and couriers.
+     * @param readyOrders The queue of orders ready for pickup.
+     * @param waitingCouriers The queue of couriers waiting to pick up orders.
+     * @param maxBatchSize The maximum number of pairs dispatched together.
+     */
+    @Override
+    public void dispatchOrders(KitchenMediator mediator, Queue<Order> readyOrders, Queue<Courier> waitingCouriers, int maxBatchSize) {
+        DispatchBatch batch = new DispatchBatch(mediator, maxBatchSize);
+        Order order;
+        while ((order = readyOrders.poll()) != null) {
+            onOrderReady(batch, order);
+        }
+        Courier courier;
+        while ((courier = waitingCouriers.poll()) != null) {
+            onCourierArrival(batch, courier);
+        }
+        batch.flush();
+    }
+
+    /**
+     * Retrieves the number of ready orders waiting in the index for their courier.
+     *
+     * @return The number of indexed ready orders.
+     */
+    public int getIndexedOrderCount() {
+        return readyOrdersById.size();
+    }
+
+    /**
+     * Retrieves the number of couriers waiting in the index for their order.
+     *
+     * @return The number of indexed waiting couriers.
+     */
+    public int getIndexedCourierCount() {
+        return waitingCouriersByOrderId.size() + unassignedCount;
+    }
+
+    /**
+     * Retrieves the number of ready orders taken off the ready queue and waiting in the index.
+     *
+     * @return The number of indexed ready orders.
+     */
+    @Override
+    public int getHeldOrderCount() {
+        return getIndexedOrderCount();
+    }
+
+    /**
+     * Retrieves the number of couriers taken off the waiting queue and waiting in the index.
+     *
+     * @return The number of indexed waiting couriers.
+     */
+    @Override
+    public int getHeldCourierCount() {
+        return getIndexedCourierCount();
+    }
+
+    /**
+     * Pairs a ready order with its waiting courier, or indexes it by id.
+     *
+     * @param batch The batch collecting matched pairs.
+     * @param order The order that is ready for pickup.
+     */
+    private void onOrderReady(DispatchBatch batch, Order order) {
+        Courier[] matched = new Courier[1];
+        // compute locks the key, so a courier arriving concurrently for the same order either sees the order or is seen here
+        readyOrdersById.compute(order.getId(), (id, existing) -> {
+            matched[0] = waitingCouriersByOrderId.remove(id);
+            return matched[0] == null ? order : null;
+        });
+        if (matched[0] != null) {
+            batch.add(order, matched[0]);
+        } else if (unassignedCount > 0) {
+            pairUnassignedCouriers(batch);
+        }
+    }
+
+    /**
+     * Pairs an arrived courier with its ready order, or indexes it by the id of its assigned order.
+     *
+     * @param batch   The batch collecting matched pairs.
+     * @param courier The courier that has arrived.
+     */
+    private void onCourierArrival(DispatchBatch batch, Courier courier) {
+        String targetOrderId = courier.getTargetOrderId();
+        if (targetOrderId == null) {
+            addUnassignedCourier(batch, courier);
+            return;
+        }
+        Order[] matched = new Order[1];
+        boolean[] released = new boolean[1];
+        readyOrdersById.compute(targetOrderId, (id, existing) -> {
+            if (existing == null) {
+                // The order was taken by an unassigned courier, so this courier is free to take another one
+                released[0] = ordersTakenByUnassignedCouriers.remove(id);
+                if (!released[0]) {
+                    waitingCouriersByOrderId.put(id, courier);
+                }
             }
+            matched[0] = existing;
+            return null;
+        });
+        if (matched[0] != null) {
+            batch.add(matched[0], courier);
+        } else if (released[0]) {
+            addUnassignedCourier(batch, courier);
+        }
+    }
+
+    /**
+     * Adds a courier to the unassigned couriers and pairs them with any indexed order.
+     *
+     * @param batch   The batch collecting matched pairs.
+     * @param courier The courier free to take any order.
+     */
+    private void addUnassignedCourier(DispatchBatch batch, Courier courier) {
+        synchronized (unassignedLock) {
+            unassignedCouriers.add(courier);
+            unassignedCount++;
         }
+        pairUnassignedCouriers(batch);
+    }
 
-        /*
-        This loop runs as long as there are orders in the readyOrders queue and couriers in the waitingCouriers queue.
-        It polls the next order from the readyOrders queue.
-        It polls the next courier from the waitingCouriers queue.
-        If both an order and a courier are available (order != null && courier != null), it calls mediator.dispatchCourier(order, courier) to dispatch the courier to the order.
-         */
-        while (!readyOrders.isEmpty() && !waitingCouriers.isEmpty()) {
-            Order order = readyOrders.poll();
-            Courier courier = waitingCouriers.poll();
-            if(order != null && courier != null) {
-                mediator.dispatchOrder(order, courier);
+    /**
+     * Pairs couriers without an assigned order with any indexed ready order.
+     *
+     * @param batch The batch collecting matched pairs.
+     */
+    private void pairUnassignedCouriers(DispatchBatch batch) {
+        synchronized (unassignedLock) {
+            while (!unassignedCouriers.isEmpty() && !readyOrdersById.isEmpty()) {
+                Iterator<Map.Entry<String, Order>> iterator = readyOrdersById.entrySet().iterator();
+                if (!iterator.hasNext()) {
+                    return;
+                }
+                Map.Entry<String, Order> entry = iterator.next();
+                // Remembered before the removal, which a courier arriving for the order observes under the same key lock
+                ordersTakenByUnassignedCouriers.add(entry.getKey());
+                if (readyOrdersById.remove(entry.getKey(), entry.getValue())) {
+                    Courier courier = unassignedCouriers.poll();
+                    unassignedCount--;
+                    batch.add(entry.getValue(), courier);
+                } else {
+                    ordersTakenByUnassignedCouriers.remove(entry.getKey());
+                }
             }
         }
     }
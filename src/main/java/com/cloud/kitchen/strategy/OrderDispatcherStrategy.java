@@ -18,4 +18,36 @@ public interface OrderDispatcherStrategy {
      * @param waitingCouriers The queue of couriers waiting to pick up orders.
      */
     void dispatchOrder(KitchenMediator mediator,Queue<Order> readyOrders, Queue<Courier> waitingCouriers);
+
+    /**
+     * Dispatches orders to available couriers, handing the matched pairs to the mediator
+     * in batches of up to maxBatchSize through a {@link DispatchBatch}.
+     * The default implementation dispatches pair by pair with {@link #dispatchOrder}.
+     *
+     * @param mediator The kitchen mediator managing orders and couriers.
+     * @param readyOrders The queue of orders ready for pickup.
+     * @param waitingCouriers The queue of couriers waiting to pick up orders.
+     * @param maxBatchSize The maximum number of pairs dispatched together.
+     */
+    default void dispatchOrders(KitchenMediator mediator, Queue<Order> readyOrders, Queue<Courier> waitingCouriers, int maxBatchSize) {
+        dispatchOrder(mediator, readyOrders, waitingCouriers);
+    }
+
+    /**
+     * Retrieves the number of ready orders the strategy took off the ready queue and still holds in its own indexes.
+     *
+     * @return The number of held ready orders, 0 for strategies that leave unpaired orders on the queue.
+     */
+    default int getHeldOrderCount() {
+        return 0;
+    }
+
+    /**
+     * Retrieves the number of couriers the strategy took off the waiting queue and still holds in its own indexes.
+     *
+     * @return The number of held couriers, 0 for strategies that leave unpaired couriers on the queue.
+     */
+    default int getHeldCourierCount() {
+        return 0;
+    }
 }
\ No newline at end of file
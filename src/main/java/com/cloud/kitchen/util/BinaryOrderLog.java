@@ -0,0 +1,465 @@
+package com.cloud.kitchen.util;
+
+import com.cloud.kitchen.models.Order;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The BinaryOrderLog class reads and writes a compact, columnar binary format for Order records.
+ * Ids are stored as 128-bit UUIDs, names as indexes into a dictionary of distinct names,
+ * preparation times and shelf lives as unsigned varints, and placement times as zigzag varint deltas from the previous order,
+ * so orders generated at a steady rate cost a byte or two each. Each column is memory-mapped read-only when the log is opened,
+ * so orders are decoded straight from the page cache without copying the file onto the heap.
+ * A single mapping is limited to 2 GB, which bounds a log to about 134 million orders.
+ *
+ * <pre>
+ * int   magic ("CKOL")
+ * int   version
+ * long  order count
+ * int   name count
+ * long  name dictionary length, followed by the dictionary: per name, varint byte length and UTF-8 bytes
+ * long  id column length, followed by the ids: per order, most and least significant UUID bits
+ * long  name column length, followed by the name indexes: per order, varint
+ * long  preparation time column length, followed by the preparation times: per order, varint
+ * long  placement time column length, followed by the placement times: per order, zigzag varint delta (version 2)
+ * long  shelf life column length, followed by the shelf lives in seconds: per order, varint (version 3)
+ * </pre>
+ * Version 1 logs have no placement time column, their orders are all placed at the start of the workload.
+ * Version 1 and 2 logs have no shelf life column, their orders take the default shelf life of the shelf.
+ */
+public final class BinaryOrderLog implements Closeable {
+
+    /**
+     * Magic number identifying a binary order log, "CKOL" in ASCII.
+     */
+    public static final int MAGIC = 0x434B4F4C;
+
+    /**
+     * Version of the binary order log format written by this class.
+     */
+    public static final int VERSION = 3;
+
+    private static final int HEADER_LENGTH = Integer.BYTES * 3 + Long.BYTES * 2;
+
+    private final FileChannel channel;
+    private final long orderCount;
+    private final List<String> names;
+    private final MappedByteBuffer idColumn;
+    private final MappedByteBuffer nameColumn;
+    private final MappedByteBuffer prepTimeColumn;
+    private final MappedByteBuffer placedTimeColumn;
+    private final MappedByteBuffer shelfLifeColumn;
+
+    /**
+     * Constructs a BinaryOrderLog by mapping the columns of an open file.
+     *
+     * @param channel Channel over the log file, closed when the log is closed.
+     * @throws IOException if the file is not a binary order log.
+     */
+    private BinaryOrderLog(FileChannel channel) throws IOException {
+        this.channel = channel;
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_LENGTH);
+        if (header.getInt() != MAGIC) {
+            throw new IOException("Not a binary order log");
+        }
+        int version = header.getInt();
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unsupported binary order log version " + version);
+        }
+        this.orderCount = header.getLong();
+        int nameCount = header.getInt();
+        long dictionaryLength = header.getLong();
+
+        MappedByteBuffer dictionary = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_LENGTH, dictionaryLength);
+        List<String> dictionaryNames = new ArrayList<>(nameCount);
+        byte[] bytes = new byte[64];
+        for (int i = 0; i < nameCount; i++) {
+            int length = readVarInt(dictionary);
+            if (bytes.length < length) {
+                bytes = new byte[length];
+            }
+            dictionary.get(bytes, 0, length);
+            dictionaryNames.add(new String(bytes, 0, length, StandardCharsets.UTF_8));
+        }
+        this.names = Collections.unmodifiableList(dictionaryNames);
+
+        long position = HEADER_LENGTH + dictionaryLength;
+        this.idColumn = mapColumn(position);
+        position += Long.BYTES + idColumn.capacity();
+        this.nameColumn = mapColumn(position);
+        position += Long.BYTES + nameColumn.capacity();
+        this.prepTimeColumn = mapColumn(position);
+        position += Long.BYTES + prepTimeColumn.capacity();
+        this.placedTimeColumn = version >= 2 ? mapColumn(position) : null;
+        position += placedTimeColumn != null ? Long.BYTES + placedTimeColumn.capacity() : 0;
+        this.shelfLifeColumn = version >= 3 ? mapColumn(position) : null;
+    }
+
+    /**
+     * Opens a binary order log for reading.
+     *
+     * @param path Path of the log file.
+     * @return The opened log.
+     * @throws UncheckedIOException if the file cannot be read or is not a binary order log.
+     */
+    public static BinaryOrderLog open(Path path) {
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+            return new BinaryOrderLog(channel);
+        } catch (IOException exception) {
+            closeQuietly(channel);
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    /**
+     * Checks whether a file starts with the binary order log magic number.
+     *
+     * @param path Path of the file to check.
+     * @return true if the file is a binary order log.
+     */
+    public static boolean isOrderLog(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES);
+            return channel.read(magic, 0) == Integer.BYTES && magic.getInt(0) == MAGIC;
+        } catch (IOException exception) {
+            return false;
+        }
+    }
+
+    /**
+     * Writes orders to a binary order log. Columns are spooled to temporary files next to the target
+     * so that the input is consumed in a single pass whatever its size.
+     *
+     * @param orders Orders to write, each id must be a UUID.
+     * @param target Path of the log file to create or replace.
+     * @return The number of orders written.
+     * @throws UncheckedIOException if the log cannot be written.
+     * @throws IllegalArgumentException if an order id is not a UUID.
+     */
+    public static long write(Stream<Order> orders, Path target) {
+        Path directory = target.toAbsolutePath().getParent();
+        Path ids = null;
+        Path nameIndexes = null;
+        Path prepTimes = null;
+        Path placedTimes = null;
+        Path shelfLives = null;
+        try {
+            ids = Files.createTempFile(directory, "ids", ".col");
+            nameIndexes = Files.createTempFile(directory, "names", ".col");
+            prepTimes = Files.createTempFile(directory, "prepTimes", ".col");
+            placedTimes = Files.createTempFile(directory, "placedTimes", ".col");
+            shelfLives = Files.createTempFile(directory, "shelfLives", ".col");
+            Map<String, Integer> dictionary = new HashMap<>();
+            List<String> names = new ArrayList<>();
+            long count = 0;
+            try (DataOutputStream idOutput = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(ids)));
+                 OutputStream nameOutput = new BufferedOutputStream(Files.newOutputStream(nameIndexes));
+                 OutputStream prepTimeOutput = new BufferedOutputStream(Files.newOutputStream(prepTimes));
+                 OutputStream placedTimeOutput = new BufferedOutputStream(Files.newOutputStream(placedTimes));
+                 OutputStream shelfLifeOutput = new BufferedOutputStream(Files.newOutputStream(shelfLives))) {
+                Iterator<Order> iterator = orders.iterator();
+                long previousPlacedTime = 0;
+                while (iterator.hasNext()) {
+                    Order order = iterator.next();
+                    UUID id = UUID.fromString(order.getId());
+                    idOutput.writeLong(id.getMostSignificantBits());
+                    idOutput.writeLong(id.getLeastSignificantBits());
+                    Integer nameIndex = dictionary.get(order.getName());
+                    if (nameIndex == null) {
+                        nameIndex = names.size();
+                        dictionary.put(order.getName(), nameIndex);
+                        names.add(order.getName());
+                    }
+                    writeVarInt(nameOutput, nameIndex);
+                    writeVarInt(prepTimeOutput, order.getPrepTime());
+                    writeZigZagVarLong(placedTimeOutput, order.getPlacedTime() - previousPlacedTime);
+                    previousPlacedTime = order.getPlacedTime();
+                    writeVarInt(shelfLifeOutput, order.getShelfLife());
+                    count++;
+                }
+            }
+
+            ByteBuffer dictionaryBytes = encodeDictionary(names);
+            try (FileChannel output = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+                header.putInt(MAGIC).putInt(VERSION).putLong(count).putInt(names.size()).putLong(dictionaryBytes.remaining()).flip();
+                writeFully(output, header);
+                writeFully(output, dictionaryBytes);
+                appendColumn(output, ids);
+                appendColumn(output, nameIndexes);
+                appendColumn(output, prepTimes);
+                appendColumn(output, placedTimes);
+                appendColumn(output, shelfLives);
+            }
+            return count;
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        } finally {
+            deleteQuietly(ids);
+            deleteQuietly(nameIndexes);
+            deleteQuietly(prepTimes);
+            deleteQuietly(placedTimes);
+            deleteQuietly(shelfLives);
+        }
+    }
+
+    /**
+     * Retrieves the number of orders in the log.
+     *
+     * @return The order count.
+     */
+    public long size() {
+        return orderCount;
+    }
+
+    /**
+     * Retrieves the dictionary of distinct order names.
+     *
+     * @return The names, indexed by the values of the name column.
+     */
+    public List<String> getNames() {
+        return names;
+    }
+
+    /**
+     * Streams the orders of the log in the order they were written.
+     * Orders with the same name share the dictionary String instance.
+     *
+     * @return A sequential stream of orders.
+     */
+    public Stream<Order> stream() {
+        Iterator<Order> iterator = new Iterator<>() {
+            private final ByteBuffer ids = idColumn.duplicate();
+            private final ByteBuffer nameIndexes = nameColumn.duplicate();
+            private final ByteBuffer prepTimes = prepTimeColumn.duplicate();
+            private final ByteBuffer placedTimes = placedTimeColumn != null ? placedTimeColumn.duplicate() : null;
+            private final ByteBuffer shelfLives = shelfLifeColumn != null ? shelfLifeColumn.duplicate() : null;
+            private long remaining = orderCount;
+            private long placedTime;
+
+            @Override
+            public boolean hasNext() {
+                return remaining > 0;
+            }
+
+            @Override
+            public Order next() {
+                if (remaining == 0) {
+                    throw new NoSuchElementException();
+                }
+                remaining--;
+                String id = new UUID(ids.getLong(), ids.getLong()).toString();
+                if (placedTimes != null) {
+                    placedTime += readZigZagVarLong(placedTimes);
+                }
+                Order order = new Order(id, names.get(readVarInt(nameIndexes)), readVarInt(prepTimes), placedTime);
+                if (shelfLives != null) {
+                    order.setShelfLife(readVarInt(shelfLives));
+                }
+                return order;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliterator(iterator, orderCount,
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.SIZED), false);
+    }
+
+    /**
+     * Closes the file channel. Mapped columns stay valid until they are garbage collected.
+     *
+     * @throws IOException if the channel cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Maps a length-prefixed column.
+     *
+     * @param position File position of the column length.
+     * @return The mapped column, without its length prefix.
+     * @throws IOException if the column cannot be mapped.
+     */
+    private MappedByteBuffer mapColumn(long position) throws IOException {
+        ByteBuffer length = ByteBuffer.allocate(Long.BYTES);
+        if (channel.read(length, position) != Long.BYTES) {
+            throw new IOException("Truncated binary order log");
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, position + Long.BYTES, length.getLong(0));
+    }
+
+    /**
+     * Encodes the name dictionary.
+     *
+     * @param names Distinct names in index order.
+     * @return A buffer ready to be written.
+     * @throws IOException if a name cannot be encoded.
+     */
+    private static ByteBuffer encodeDictionary(List<String> names) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        for (String name : names) {
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(output, bytes.length);
+            output.write(bytes);
+        }
+        return ByteBuffer.wrap(output.toByteArray());
+    }
+
+    /**
+     * Appends a spooled column, prefixed with its length, using a zero-copy channel transfer.
+     *
+     * @param output Channel of the log file.
+     * @param column Path of the spooled column.
+     * @throws IOException if the column cannot be copied.
+     */
+    private static void appendColumn(FileChannel output, Path column) throws IOException {
+        try (FileChannel input = FileChannel.open(column, StandardOpenOption.READ)) {
+            long length = input.size();
+            writeFully(output, ByteBuffer.allocate(Long.BYTES).putLong(0, length));
+            long transferred = 0;
+            while (transferred < length) {
+                transferred += input.transferTo(transferred, length - transferred, output);
+            }
+        }
+    }
+
+    /**
+     * Writes the remaining bytes of a buffer.
+     *
+     * @param output Channel to write to.
+     * @param buffer Bytes to write.
+     * @throws IOException if the write fails.
+     */
+    private static void writeFully(FileChannel output, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            output.write(buffer);
+        }
+    }
+
+    /**
+     * Writes an unsigned LEB128 varint.
+     *
+     * @param output Stream to write to.
+     * @param value  Non-negative value to write.
+     * @throws IOException if the write fails.
+     */
+    private static void writeVarInt(OutputStream output, int value) throws IOException {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative value cannot be written as varint: " + value);
+        }
+        while ((value & ~0x7F) != 0) {
+            output.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.write(value);
+    }
+
+    /**
+     * Reads an unsigned LEB128 varint.
+     *
+     * @param buffer Buffer to read from.
+     * @return The decoded value.
+     */
+    private static int readVarInt(ByteBuffer buffer) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    /**
+     * Writes a signed value as a zigzag-encoded LEB128 varint, so small negative values stay short.
+     *
+     * @param output Stream to write to.
+     * @param value  Value to write.
+     * @throws IOException if the write fails.
+     */
+    private static void writeZigZagVarLong(OutputStream output, long value) throws IOException {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            output.write((int) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        output.write((int) zigzag);
+    }
+
+    /**
+     * Reads a zigzag-encoded LEB128 varint.
+     *
+     * @param buffer Buffer to read from.
+     * @return The decoded signed value.
+     */
+    private static long readZigZagVarLong(ByteBuffer buffer) {
+        long zigzag = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            zigzag |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    /**
+     * Closes a channel, ignoring failures.
+     *
+     * @param channel Channel to close, may be null.
+     */
+    private static void closeQuietly(FileChannel channel) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // Already failing, the original exception is reported
+            }
+        }
+    }
+
+    /**
+     * Deletes a file, ignoring failures.
+     *
+     * @param path Path to delete, may be null.
+     */
+    private static void deleteQuietly(Path path) {
+        if (path != null) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException ignored) {
+                // Temporary column, left for the operating system to clean up
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.cloud.kitchen.util;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * The IntRingQueue class is a FIFO queue of ints backed by a growable power-of-two ring buffer,
+ * for queues of order and courier handles that would otherwise box every element. It is not thread-safe.
+ */
+public final class IntRingQueue {
+
+    private int[] elements;
+    private int head;
+    private int size;
+
+    /**
+     * Constructs an empty IntRingQueue with room for 16 elements before growing.
+     */
+    public IntRingQueue() {
+        this(16);
+    }
+
+    /**
+     * Constructs an empty IntRingQueue.
+     *
+     * @param initialCapacity The number of elements the queue holds before growing, rounded up to a power of two.
+     */
+    public IntRingQueue(int initialCapacity) {
+        this.elements = new int[Integer.highestOneBit(Math.max(2, initialCapacity) - 1) << 1];
+    }
+
+    /**
+     * Adds an element at the tail of the queue.
+     *
+     * @param element The element to add.
+     */
+    public void add(int element) {
+        if (size == elements.length) {
+            grow();
+        }
+        elements[(head + size) & (elements.length - 1)] = element;
+        size++;
+    }
+
+    /**
+     * Removes the element at the head of the queue.
+     *
+     * @return The head element.
+     * @throws NoSuchElementException if the queue is empty.
+     */
+    public int poll() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        int element = elements[head];
+        head = (head + 1) & (elements.length - 1);
+        size--;
+        return element;
+    }
+
+    /**
+     * Retrieves the element at the head of the queue without removing it.
+     *
+     * @return The head element.
+     * @throws NoSuchElementException if the queue is empty.
+     */
+    public int peek() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return elements[head];
+    }
+
+    /**
+     * Checks whether the queue is empty.
+     *
+     * @return true if the queue holds no element.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Retrieves the number of elements in the queue.
+     *
+     * @return The queue size.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Doubles the ring, moving the elements so the head is at index 0.
+     */
+    private void grow() {
+        int[] grown = Arrays.copyOf(elements, elements.length * 2);
+        if (head > 0) {
+            System.arraycopy(elements, head, grown, 0, elements.length - head);
+            System.arraycopy(elements, 0, grown, elements.length - head, head);
+            head = 0;
+        }
+        elements = grown;
+    }
+}
@@ -2,35 +2,61 @@ package com.cloud.kitchen.util;
 
 import com.cloud.kitchen.models.Order;
 import com.fasterxml.jackson.annotation.JsonInclude;
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static com.cloud.kitchen.constants.StringConstants.ORDERS_FILE;
 
 /**
  * The JsonUtility class provides utility methods for working with JSON data,
  * specifically for deserializing orders from a JSON file.
+ * A single configured ObjectMapper and Order list reader are shared by every call.
  */
 public class JsonUtility {
 
     private final static Logger logger = LogManager.getLogger(JsonUtility.class);
 
+    private static final ObjectMapper OBJECT_MAPPER = createObjectMapper();
+
+    private static final ObjectReader ORDER_LIST_READER = OBJECT_MAPPER.readerForListOf(Order.class);
+
     /**
-     * Retrieves an ObjectMapper instance configured for JSON processing.
+     * Retrieves the shared ObjectMapper instance configured for JSON processing.
      *
      * @return Configured ObjectMapper instance.
      */
     public static ObjectMapper getObjectMapper() {
+        return OBJECT_MAPPER;
+    }
+
+    /**
+     * Creates an ObjectMapper instance configured for JSON processing.
+     *
+     * @return Configured ObjectMapper instance.
+     */
+    private static ObjectMapper createObjectMapper() {
         ObjectMapper objectMapper = new ObjectMapper();
         objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
         objectMapper.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
@@ -52,11 +78,145 @@ public class JsonUtility {
                 logger.error("File not found!");
                 return orders;
             }
-            orders = getObjectMapper().readValue(inputStream, new TypeReference<>() {
-            });
+            orders = ORDER_LIST_READER.readValue(inputStream);
         } catch (Exception exception) {
             logger.error("errorMessage={}. stackTrace={}", exception, ExceptionUtils.getMessage(exception));
         }
         return orders;
     }
+
+    /**
+     * Streams Order objects from the orders file on the classpath without loading the whole file.
+     *
+     * @return A lazy stream of orders, empty if the file is missing. The stream must be closed after use.
+     */
+    public static Stream<Order> streamOrders() {
+        InputStream inputStream = JsonUtility.class.getClassLoader().getResourceAsStream(ORDERS_FILE);
+        if (inputStream == null) {
+            logger.error("File not found!");
+            return Stream.empty();
+        }
+        return streamOrders(inputStream);
+    }
+
+    /**
+     * Streams Order objects from a JSON file on disk without loading the whole file.
+     *
+     * @param path Path of a file holding a JSON array of orders.
+     * @return A lazy stream of orders. The stream must be closed after use.
+     * @throws UncheckedIOException if the file cannot be opened.
+     */
+    public static Stream<Order> streamOrders(Path path) {
+        try {
+            return streamOrders(Files.newInputStream(path));
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    /**
+     * Streams Order objects from a JSON array, parsing one record at a time with a JsonParser.
+     * Heap use is bounded by a single order whatever the size of the input.
+     *
+     * @param inputStream Input holding a JSON array of orders, closed when the stream is closed.
+     * @return A lazy stream of orders. The stream must be closed after use.
+     * @throws UncheckedIOException if the input is not a JSON array.
+     */
+    public static Stream<Order> streamOrders(InputStream inputStream) {
+        OrderIterator iterator;
+        try {
+            iterator = new OrderIterator(OBJECT_MAPPER.getFactory().createParser(inputStream));
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(iterator::close);
+    }
+
+    /**
+     * The OrderIterator class reads orders one by one from a JSON array.
+     * Fields are read straight from the parser tokens instead of going through databind,
+     * so each record allocates only the Order and its strings.
+     */
+    private static final class OrderIterator implements Iterator<Order> {
+
+        private final JsonParser parser;
+        private Order next;
+
+        /**
+         * Constructs an OrderIterator positioned before the first element of the array.
+         *
+         * @param parser Parser over a JSON array of orders.
+         * @throws IOException if the input does not start with a JSON array.
+         */
+        private OrderIterator(JsonParser parser) throws IOException {
+            this.parser = parser;
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                parser.close();
+                throw new IOException("Expected a JSON array of orders");
+            }
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Order next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Order order = next;
+            try {
+                advance();
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+            return order;
+        }
+
+        /**
+         * Reads the next order of the array, or closes the parser at the end of the array.
+         *
+         * @throws IOException if the input is not valid JSON.
+         */
+        private void advance() throws IOException {
+            JsonToken token = parser.nextToken();
+            if (token != JsonToken.START_OBJECT) {
+                next = null;
+                close();
+                return;
+            }
+            Order order = new Order();
+            String field;
+            while ((field = parser.nextFieldName()) != null) {
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "id" -> order.setId(parser.getValueAsString());
+                    case "name" -> order.setName(parser.getValueAsString());
+                    case "prepTime" -> order.setPrepTime(parser.getValueAsInt());
+                    case "shelfLife" -> order.setShelfLife(parser.getValueAsInt());
+                    default -> {
+                        if (value.isStructStart()) {
+                            parser.skipChildren();
+                        }
+                    }
+                }
+            }
+            next = order;
+        }
+
+        /**
+         * Closes the underlying parser and input.
+         */
+        private void close() {
+            try {
+                parser.close();
+            } catch (IOException exception) {
+                logger.error("errorMessage={}. stackTrace={}", exception, ExceptionUtils.getMessage(exception));
+            }
+        }
+    }
 }
@@ -0,0 +1,44 @@
+package com.cloud.kitchen.util;
+
+import com.cloud.kitchen.models.Order;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+/**
+ * The OrderLogConverter class converts an orders file in the dispatch_orders.json schema
+ * into a BinaryOrderLog.
+ */
+public class OrderLogConverter {
+
+    private final static Logger logger = LogManager.getLogger(OrderLogConverter.class);
+
+    /**
+     * Converts a JSON orders file into a binary order log.
+     *
+     * @param source Path of the JSON orders file.
+     * @param target Path of the binary order log to create or replace.
+     * @return The number of orders converted.
+     */
+    public static long convert(Path source, Path target) {
+        try (Stream<Order> orders = JsonUtility.streamOrders(source)) {
+            return BinaryOrderLog.write(orders, target);
+        }
+    }
+
+    /**
+     * Entry point of the converter.
+     *
+     * @param args The JSON orders file and the binary order log to write.
+     */
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            logger.error("Usage: OrderLogConverter <orders.json> <orders.bin>");
+            System.exit(1);
+        }
+        long count = convert(Path.of(args[0]), Path.of(args[1]));
+        logger.info("Converted {} Orders to {}", count, args[1]);
+    }
+}
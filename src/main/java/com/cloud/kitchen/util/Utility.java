@@ -1,5 +1,7 @@
 package com.cloud.kitchen.util;
 
+import com.cloud.kitchen.clock.SystemClock;
+
 import java.text.DecimalFormat;
 import java.util.List;
 
@@ -11,6 +13,15 @@ import static com.cloud.kitchen.constants.StringConstants.DECIMAL_PRECISION;
  */
 public class Utility {
 
+    /**
+     * DecimalFormat is not thread-safe and costly to build, so each thread reuses its own instance.
+     */
+    private static final ThreadLocal<DecimalFormat> DECIMAL_FORMAT = ThreadLocal.withInitial(() -> {
+        DecimalFormat df = new DecimalFormat();
+        df.setMaximumFractionDigits(DECIMAL_PRECISION);
+        return df;
+    });
+
     /**
      * Converts milliseconds to minutes.
      *
@@ -21,6 +32,16 @@ public class Utility {
         return (double) value / 60000;
     }
 
+    /**
+     * Converts fractional milliseconds to minutes.
+     *
+     * @param value Milliseconds value to convert.
+     * @return Equivalent value in minutes.
+     */
+    public static double convertToMinutes(double value) {
+        return value / 60000;
+    }
+
     /**
      * Calculates the average of a list of Double values.
      *
@@ -51,17 +72,15 @@ public class Utility {
      * @return Formatted string with specified decimal precision.
      */
     public static String decimalPrecision(double value){
-        DecimalFormat df = new DecimalFormat();
-        df.setMaximumFractionDigits(DECIMAL_PRECISION);
-        return df.format(value);
+        return DECIMAL_FORMAT.get().format(value);
     }
 
     /**
-     * Retrieves the current timestamp in milliseconds.
+     * Retrieves the current timestamp in milliseconds from the monotonic SystemClock.
      *
      * @return Current timestamp in milliseconds.
      */
     public static long currentMilliSeconds() {
-        return System.currentTimeMillis();
+        return SystemClock.INSTANCE.currentMilliSeconds();
     }
 }
@@ -0,0 +1,65 @@
+package com.cloud.kitchen.workload;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * The ArrivalProcess interface draws the placement times of generated orders, one after the other.
+ * Times are fractional milliseconds so rates of thousands of orders per second keep their precision.
+ */
+public interface ArrivalProcess {
+
+    /**
+     * Draws the placement time of the next order.
+     *
+     * @param previousMillis The placement time of the previous order, 0 before the first order.
+     * @param random         The random generator to draw from.
+     * @return The placement time of the next order in milliseconds, never before the previous one.
+     */
+    double nextArrivalMillis(double previousMillis, RandomGenerator random);
+
+    /**
+     * Creates a process placing orders at a fixed interval.
+     *
+     * @param ordersPerSecond The arrival rate.
+     * @return A constant rate arrival process.
+     */
+    static ArrivalProcess constant(double ordersPerSecond) {
+        return new ConstantArrivalProcess(ordersPerSecond);
+    }
+
+    /**
+     * Creates a Poisson process, with exponentially distributed intervals between orders.
+     *
+     * @param ordersPerSecond The mean arrival rate.
+     * @return A Poisson arrival process.
+     */
+    static ArrivalProcess poisson(double ordersPerSecond) {
+        return new PoissonArrivalProcess(ordersPerSecond);
+    }
+
+    /**
+     * Creates a Poisson process whose rate follows a sine wave around its mean, peaking once per period.
+     *
+     * @param meanOrdersPerSecond The mean arrival rate.
+     * @param amplitude           The relative swing of the rate around its mean, between 0 and 1.
+     * @param periodMillis        The length of one cycle, a compressed day, in milliseconds.
+     * @return A diurnal arrival process.
+     */
+    static ArrivalProcess diurnal(double meanOrdersPerSecond, double amplitude, long periodMillis) {
+        return new DiurnalArrivalProcess(meanOrdersPerSecond, amplitude, periodMillis);
+    }
+
+    /**
+     * Creates a Poisson process at a base rate interrupted by bursts at a higher rate,
+     * each burst closing an interval.
+     *
+     * @param baseOrdersPerSecond  The arrival rate between bursts.
+     * @param burstOrdersPerSecond The arrival rate during bursts.
+     * @param intervalMillis       The time from the start of one burst to the start of the next, in milliseconds.
+     * @param burstMillis          The length of a burst in milliseconds, at most the interval.
+     * @return A flash crowd arrival process.
+     */
+    static ArrivalProcess flashCrowd(double baseOrdersPerSecond, double burstOrdersPerSecond, long intervalMillis, long burstMillis) {
+        return new FlashCrowdArrivalProcess(baseOrdersPerSecond, burstOrdersPerSecond, intervalMillis, burstMillis);
+    }
+}
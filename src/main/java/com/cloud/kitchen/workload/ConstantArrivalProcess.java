@@ -0,0 +1,47 @@
+package com.cloud.kitchen.workload;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * The ConstantArrivalProcess class places orders at a fixed interval, without randomness.
+ */
+public class ConstantArrivalProcess implements ArrivalProcess {
+
+    private final double ordersPerSecond;
+    private final double intervalMillis;
+
+    /**
+     * Constructs a ConstantArrivalProcess.
+     *
+     * @param ordersPerSecond The arrival rate, positive.
+     */
+    public ConstantArrivalProcess(double ordersPerSecond) {
+        if (!(ordersPerSecond > 0)) {
+            throw new IllegalArgumentException("Arrival rate must be positive: " + ordersPerSecond);
+        }
+        this.ordersPerSecond = ordersPerSecond;
+        this.intervalMillis = 1000 / ordersPerSecond;
+    }
+
+    /**
+     * Places the next order one interval after the previous one.
+     *
+     * @param previousMillis The placement time of the previous order.
+     * @param random         Unused.
+     * @return The placement time of the next order in milliseconds.
+     */
+    @Override
+    public double nextArrivalMillis(double previousMillis, RandomGenerator random) {
+        return previousMillis + intervalMillis;
+    }
+
+    /**
+     * Returns a string representation of the process.
+     *
+     * @return A string representation of the process.
+     */
+    @Override
+    public String toString() {
+        return "Constant[" + ordersPerSecond + "/s]";
+    }
+}
@@ -0,0 +1,51 @@
+package com.cloud.kitchen.workload;
+
+/**
+ * The DiurnalArrivalProcess class places orders at a rate following a sine wave around its mean,
+ * starting at the mean, peaking a quarter of the way through each period and bottoming out three quarters through,
+ * like a day of lunch and dinner rushes compressed into one period.
+ */
+public class DiurnalArrivalProcess extends ModulatedArrivalProcess {
+
+    private final double meanOrdersPerSecond;
+    private final double amplitude;
+    private final long periodMillis;
+
+    /**
+     * Constructs a DiurnalArrivalProcess.
+     *
+     * @param meanOrdersPerSecond The mean arrival rate, positive.
+     * @param amplitude           The relative swing of the rate around its mean, between 0 and 1.
+     * @param periodMillis        The length of one cycle in milliseconds, positive.
+     */
+    public DiurnalArrivalProcess(double meanOrdersPerSecond, double amplitude, long periodMillis) {
+        super(meanOrdersPerSecond * (1 + amplitude));
+        if (amplitude < 0 || amplitude > 1 || periodMillis <= 0) {
+            throw new IllegalArgumentException("Invalid amplitude " + amplitude + " or period " + periodMillis);
+        }
+        this.meanOrdersPerSecond = meanOrdersPerSecond;
+        this.amplitude = amplitude;
+        this.periodMillis = periodMillis;
+    }
+
+    /**
+     * Retrieves the rate of the sine wave at a point in time.
+     *
+     * @param timeMillis The time in milliseconds from the start of the workload.
+     * @return The rate in orders per second.
+     */
+    @Override
+    protected double ordersPerSecondAt(double timeMillis) {
+        return meanOrdersPerSecond * (1 + amplitude * Math.sin(2 * Math.PI * timeMillis / periodMillis));
+    }
+
+    /**
+     * Returns a string representation of the process.
+     *
+     * @return A string representation of the process.
+     */
+    @Override
+    public String toString() {
+        return "Diurnal[" + meanOrdersPerSecond + "/s +-" + amplitude * 100 + "% every " + periodMillis + "ms]";
+    }
+}
@@ -0,0 +1,46 @@
+package com.cloud.kitchen.workload;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * The EmpiricalPrepTimeDistribution class draws preparation times from observed samples,
+ * so a generated workload keeps the shape of a recorded one.
+ */
+public class EmpiricalPrepTimeDistribution implements PrepTimeDistribution {
+
+    private final int[] samples;
+
+    /**
+     * Constructs an EmpiricalPrepTimeDistribution.
+     *
+     * @param samples The observed preparation times in seconds, at least one.
+     */
+    public EmpiricalPrepTimeDistribution(int[] samples) {
+        if (samples.length == 0) {
+            throw new IllegalArgumentException("At least one preparation time sample is required");
+        }
+        this.samples = Arrays.copyOf(samples, samples.length);
+    }
+
+    /**
+     * Draws one of the samples uniformly.
+     *
+     * @param random The random generator to draw from.
+     * @return The preparation time in seconds.
+     */
+    @Override
+    public int nextPrepTime(RandomGenerator random) {
+        return Math.max(1, samples[random.nextInt(samples.length)]);
+    }
+
+    /**
+     * Returns a string representation of the distribution.
+     *
+     * @return A string representation of the distribution.
+     */
+    @Override
+    public String toString() {
+        return "Empirical[" + samples.length + " samples]";
+    }
+}
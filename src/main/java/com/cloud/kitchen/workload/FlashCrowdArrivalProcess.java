@@ -0,0 +1,55 @@
+package com.cloud.kitchen.workload;
+
+/**
+ * The FlashCrowdArrivalProcess class places orders at a base rate, with a burst at a higher rate
+ * closing every interval, as when a promotion goes out.
+ */
+public class FlashCrowdArrivalProcess extends ModulatedArrivalProcess {
+
+    private final double baseOrdersPerSecond;
+    private final double burstOrdersPerSecond;
+    private final long intervalMillis;
+    private final long burstMillis;
+
+    /**
+     * Constructs a FlashCrowdArrivalProcess.
+     *
+     * @param baseOrdersPerSecond  The arrival rate between bursts, not negative.
+     * @param burstOrdersPerSecond The arrival rate during bursts, positive.
+     * @param intervalMillis       The time from the start of one burst to the start of the next, in milliseconds.
+     * @param burstMillis          The length of a burst in milliseconds, between 1 and the interval.
+     */
+    public FlashCrowdArrivalProcess(double baseOrdersPerSecond, double burstOrdersPerSecond, long intervalMillis, long burstMillis) {
+        super(Math.max(baseOrdersPerSecond, burstOrdersPerSecond));
+        if (baseOrdersPerSecond < 0 || burstMillis <= 0 || burstMillis > intervalMillis) {
+            throw new IllegalArgumentException("Invalid base rate " + baseOrdersPerSecond + ", interval " + intervalMillis
+                    + " or burst " + burstMillis);
+        }
+        this.baseOrdersPerSecond = baseOrdersPerSecond;
+        this.burstOrdersPerSecond = burstOrdersPerSecond;
+        this.intervalMillis = intervalMillis;
+        this.burstMillis = burstMillis;
+    }
+
+    /**
+     * Retrieves the burst rate during the last burst milliseconds of each interval, the base rate otherwise.
+     *
+     * @param timeMillis The time in milliseconds from the start of the workload.
+     * @return The rate in orders per second.
+     */
+    @Override
+    protected double ordersPerSecondAt(double timeMillis) {
+        return timeMillis % intervalMillis >= intervalMillis - burstMillis ? burstOrdersPerSecond : baseOrdersPerSecond;
+    }
+
+    /**
+     * Returns a string representation of the process.
+     *
+     * @return A string representation of the process.
+     */
+    @Override
+    public String toString() {
+        return "FlashCrowd[" + baseOrdersPerSecond + "/s, " + burstOrdersPerSecond + "/s for " + burstMillis
+                + "ms every " + intervalMillis + "ms]";
+    }
+}
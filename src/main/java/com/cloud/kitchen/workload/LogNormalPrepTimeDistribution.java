@@ -0,0 +1,54 @@
+package com.cloud.kitchen.workload;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * The LogNormalPrepTimeDistribution class draws preparation times from a log-normal distribution,
+ * where most dishes are quick and a long tail of dishes takes many times the median, capped at a maximum.
+ */
+public class LogNormalPrepTimeDistribution implements PrepTimeDistribution {
+
+    private final double median;
+    private final double sigma;
+    private final int max;
+    private final double mu;
+
+    /**
+     * Constructs a LogNormalPrepTimeDistribution.
+     *
+     * @param median The median preparation time in seconds, positive.
+     * @param sigma  The standard deviation of the logarithm of the preparation time, not negative.
+     * @param max    The longest preparation time in seconds, at least 1.
+     */
+    public LogNormalPrepTimeDistribution(double median, double sigma, int max) {
+        if (!(median > 0) || sigma < 0 || max < 1) {
+            throw new IllegalArgumentException("Invalid median " + median + ", sigma " + sigma + " or max " + max);
+        }
+        this.median = median;
+        this.sigma = sigma;
+        this.max = max;
+        this.mu = Math.log(median);
+    }
+
+    /**
+     * Draws a preparation time, rounded to whole seconds and clamped between 1 and the maximum.
+     *
+     * @param random The random generator to draw from.
+     * @return The preparation time in seconds.
+     */
+    @Override
+    public int nextPrepTime(RandomGenerator random) {
+        long prepTime = Math.round(Math.exp(mu + sigma * random.nextGaussian()));
+        return (int) Math.max(1, Math.min(max, prepTime));
+    }
+
+    /**
+     * Returns a string representation of the distribution.
+     *
+     * @return A string representation of the distribution.
+     */
+    @Override
+    public String toString() {
+        return "LogNormal[median " + median + "s, sigma " + sigma + ", max " + max + "s]";
+    }
+}
@@ -0,0 +1,51 @@
+package com.cloud.kitchen.workload;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * The ModulatedArrivalProcess class is a Poisson process whose rate varies over time.
+ * Arrivals are drawn by thinning: candidates are drawn at the peak rate and each is kept
+ * with probability rate(t) / peak rate, which places orders exactly at the time-varying rate.
+ */
+public abstract class ModulatedArrivalProcess implements ArrivalProcess {
+
+    private final double peakIntervalMillis;
+    private final double peakOrdersPerSecond;
+
+    /**
+     * Constructs a ModulatedArrivalProcess.
+     *
+     * @param peakOrdersPerSecond The highest rate the process reaches, positive.
+     */
+    protected ModulatedArrivalProcess(double peakOrdersPerSecond) {
+        if (!(peakOrdersPerSecond > 0)) {
+            throw new IllegalArgumentException("Peak arrival rate must be positive: " + peakOrdersPerSecond);
+        }
+        this.peakOrdersPerSecond = peakOrdersPerSecond;
+        this.peakIntervalMillis = 1000 / peakOrdersPerSecond;
+    }
+
+    /**
+     * Retrieves the arrival rate at a point in time.
+     *
+     * @param timeMillis The time in milliseconds from the start of the workload.
+     * @return The rate in orders per second, between 0 and the peak rate.
+     */
+    protected abstract double ordersPerSecondAt(double timeMillis);
+
+    /**
+     * Draws candidates at the peak rate until one is kept.
+     *
+     * @param previousMillis The placement time of the previous order.
+     * @param random         The random generator to draw from.
+     * @return The placement time of the next order in milliseconds.
+     */
+    @Override
+    public double nextArrivalMillis(double previousMillis, RandomGenerator random) {
+        double candidateMillis = previousMillis;
+        do {
+            candidateMillis += random.nextExponential() * peakIntervalMillis;
+        } while (random.nextDouble() * peakOrdersPerSecond > ordersPerSecondAt(candidateMillis));
+        return candidateMillis;
+    }
+}
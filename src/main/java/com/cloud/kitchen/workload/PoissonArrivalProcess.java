@@ -0,0 +1,48 @@
+package com.cloud.kitchen.workload;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * The PoissonArrivalProcess class places orders independently at a constant mean rate,
+ * so intervals between orders are exponentially distributed.
+ */
+public class PoissonArrivalProcess implements ArrivalProcess {
+
+    private final double ordersPerSecond;
+    private final double meanIntervalMillis;
+
+    /**
+     * Constructs a PoissonArrivalProcess.
+     *
+     * @param ordersPerSecond The mean arrival rate, positive.
+     */
+    public PoissonArrivalProcess(double ordersPerSecond) {
+        if (!(ordersPerSecond > 0)) {
+            throw new IllegalArgumentException("Arrival rate must be positive: " + ordersPerSecond);
+        }
+        this.ordersPerSecond = ordersPerSecond;
+        this.meanIntervalMillis = 1000 / ordersPerSecond;
+    }
+
+    /**
+     * Places the next order an exponentially distributed interval after the previous one.
+     *
+     * @param previousMillis The placement time of the previous order.
+     * @param random         The random generator to draw from.
+     * @return The placement time of the next order in milliseconds.
+     */
+    @Override
+    public double nextArrivalMillis(double previousMillis, RandomGenerator random) {
+        return previousMillis + random.nextExponential() * meanIntervalMillis;
+    }
+
+    /**
+     * Returns a string representation of the process.
+     *
+     * @return A string representation of the process.
+     */
+    @Override
+    public String toString() {
+        return "Poisson[" + ordersPerSecond + "/s]";
+    }
+}
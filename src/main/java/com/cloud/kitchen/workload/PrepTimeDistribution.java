@@ -0,0 +1,17 @@
+package com.cloud.kitchen.workload;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * The PrepTimeDistribution interface draws the preparation times of generated orders.
+ */
+public interface PrepTimeDistribution {
+
+    /**
+     * Draws a preparation time.
+     *
+     * @param random The random generator to draw from.
+     * @return The preparation time in seconds, at least 1.
+     */
+    int nextPrepTime(RandomGenerator random);
+}
@@ -0,0 +1,47 @@
+package com.cloud.kitchen.workload;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * The UniformPrepTimeDistribution class draws preparation times uniformly from a closed range.
+ */
+public class UniformPrepTimeDistribution implements PrepTimeDistribution {
+
+    private final int min;
+    private final int max;
+
+    /**
+     * Constructs a UniformPrepTimeDistribution.
+     *
+     * @param min The shortest preparation time in seconds, at least 1.
+     * @param max The longest preparation time in seconds, at least min.
+     */
+    public UniformPrepTimeDistribution(int min, int max) {
+        if (min < 1 || max < min) {
+            throw new IllegalArgumentException("Invalid preparation time range [" + min + ", " + max + "]");
+        }
+        this.min = min;
+        this.max = max;
+    }
+
+    /**
+     * Draws a preparation time uniformly from the range.
+     *
+     * @param random The random generator to draw from.
+     * @return The preparation time in seconds.
+     */
+    @Override
+    public int nextPrepTime(RandomGenerator random) {
+        return random.nextInt(min, max + 1);
+    }
+
+    /**
+     * Returns a string representation of the distribution.
+     *
+     * @return A string representation of the distribution.
+     */
+    @Override
+    public String toString() {
+        return "Uniform[" + min + "s, " + max + "s]";
+    }
+}
@@ -0,0 +1,183 @@
+package com.cloud.kitchen.workload;
+
+import com.cloud.kitchen.models.Order;
+import com.cloud.kitchen.util.BinaryOrderLog;
+import com.cloud.kitchen.util.JsonUtility;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The WorkloadGenerator class generates synthetic orders with placement times drawn from an arrival process,
+ * preparation times drawn from a distribution and names picked from a menu.
+ * Orders are generated lazily, so workloads of millions of orders are streamed or written to a BinaryOrderLog
+ * without being held in memory, and the same seed always generates the same orders.
+ */
+public class WorkloadGenerator {
+
+    private final static Logger logger = LogManager.getLogger(WorkloadGenerator.class);
+
+    /**
+     * Relative swing of the rate of the diurnal process selected by name.
+     */
+    private static final double DIURNAL_AMPLITUDE = 0.8;
+
+    /**
+     * Length of a compressed day of the diurnal process selected by name, in milliseconds.
+     */
+    private static final long DIURNAL_PERIOD_MILLIS = 60_000;
+
+    /**
+     * Ratio of the burst rate to the base rate of the flash crowd process selected by name.
+     */
+    private static final double FLASH_CROWD_FACTOR = 10;
+
+    /**
+     * Time between the bursts of the flash crowd process selected by name, in milliseconds.
+     */
+    private static final long FLASH_CROWD_INTERVAL_MILLIS = 20_000;
+
+    /**
+     * Length of a burst of the flash crowd process selected by name, in milliseconds.
+     */
+    private static final long FLASH_CROWD_BURST_MILLIS = 2_000;
+
+    private final ArrivalProcess arrivalProcess;
+    private final PrepTimeDistribution prepTimeDistribution;
+    private final List<String> names;
+    private final long seed;
+
+    /**
+     * Constructs a WorkloadGenerator.
+     *
+     * @param arrivalProcess       The process drawing placement times.
+     * @param prepTimeDistribution The distribution drawing preparation times.
+     * @param names                The dish names to pick from, at least one.
+     * @param seed                 The seed of the generated workload.
+     */
+    public WorkloadGenerator(ArrivalProcess arrivalProcess, PrepTimeDistribution prepTimeDistribution,
+                             List<String> names, long seed) {
+        if (names.isEmpty()) {
+            throw new IllegalArgumentException("At least one dish name is required");
+        }
+        this.arrivalProcess = arrivalProcess;
+        this.prepTimeDistribution = prepTimeDistribution;
+        this.names = List.copyOf(names);
+        this.seed = seed;
+    }
+
+    /**
+     * Creates a generator drawing names and preparation times from a sample of recorded orders.
+     *
+     * @param arrivalProcess The process drawing placement times.
+     * @param sample         The recorded orders, at least one.
+     * @param seed           The seed of the generated workload.
+     * @return A generator keeping the menu and preparation time shape of the sample.
+     */
+    public static WorkloadGenerator fromSample(ArrivalProcess arrivalProcess, List<Order> sample, long seed) {
+        int[] prepTimes = sample.stream().mapToInt(Order::getPrepTime).toArray();
+        List<String> names = sample.stream().map(Order::getName).distinct().toList();
+        return new WorkloadGenerator(arrivalProcess, new EmpiricalPrepTimeDistribution(prepTimes), names, seed);
+    }
+
+    /**
+     * Creates an arrival process from its name: constant, poisson, diurnal or flash-crowd.
+     * The diurnal process swings 80% around the rate over a minute, and the flash crowd process
+     * bursts to ten times the rate for two seconds every twenty seconds.
+     *
+     * @param name            The name of the process.
+     * @param ordersPerSecond The mean or base arrival rate.
+     * @return The arrival process.
+     */
+    public static ArrivalProcess parseArrivalProcess(String name, double ordersPerSecond) {
+        return switch (name.toLowerCase(Locale.ROOT)) {
+            case "constant" -> ArrivalProcess.constant(ordersPerSecond);
+            case "poisson" -> ArrivalProcess.poisson(ordersPerSecond);
+            case "diurnal" -> ArrivalProcess.diurnal(ordersPerSecond, DIURNAL_AMPLITUDE, DIURNAL_PERIOD_MILLIS);
+            case "flash-crowd" -> ArrivalProcess.flashCrowd(ordersPerSecond, ordersPerSecond * FLASH_CROWD_FACTOR,
+                    FLASH_CROWD_INTERVAL_MILLIS, FLASH_CROWD_BURST_MILLIS);
+            default -> throw new IllegalArgumentException("Unknown arrival process: " + name);
+        };
+    }
+
+    /**
+     * Streams generated orders lazily, in placement order.
+     *
+     * @param count The number of orders to generate.
+     * @return A sized, ordered stream of the generated orders.
+     */
+    public Stream<Order> stream(long count) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Spliterator<Order> spliterator = new Spliterators.AbstractSpliterator<>(count,
+                Spliterator.ORDERED | Spliterator.SIZED | Spliterator.NONNULL) {
+            private long generated;
+            private double placedMillis;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super Order> action) {
+                if (generated == count) {
+                    return false;
+                }
+                generated++;
+                placedMillis = arrivalProcess.nextArrivalMillis(placedMillis, random);
+                action.accept(new Order(randomId(random), names.get(random.nextInt(names.size())),
+                        prepTimeDistribution.nextPrepTime(random), Math.round(placedMillis)));
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    /**
+     * Writes generated orders to a binary order log.
+     *
+     * @param count  The number of orders to generate.
+     * @param target Path of the binary order log to create or replace.
+     * @return The number of orders written.
+     */
+    public long write(long count, Path target) {
+        try (Stream<Order> orders = stream(count)) {
+            return BinaryOrderLog.write(orders, target);
+        }
+    }
+
+    /**
+     * Draws a random version 4 UUID from the seeded generator, so ids are reproducible as well.
+     *
+     * @param random The random generator to draw from.
+     * @return The UUID in its string form.
+     */
+    private static String randomId(SplittableRandom random) {
+        long mostSignificantBits = random.nextLong() & ~0xF000L | 0x4000L;
+        long leastSignificantBits = random.nextLong() & ~(0xC000L << 48) | 0x8000L << 48;
+        return new UUID(mostSignificantBits, leastSignificantBits).toString();
+    }
+
+    /**
+     * Entry point of the generator, writing a binary order log with the menu and preparation times
+     * of the orders file on the classpath.
+     *
+     * @param args The arrival process, the rate in orders per second, the number of orders,
+     *             the binary order log to write and optionally the seed.
+     */
+    public static void main(String[] args) {
+        if (args.length != 4 && args.length != 5) {
+            logger.error("Usage: WorkloadGenerator <constant|poisson|diurnal|flash-crowd> <orders per second> <count> <orders.bin> [seed]");
+            System.exit(1);
+        }
+        ArrivalProcess arrivalProcess = parseArrivalProcess(args[0], Double.parseDouble(args[1]));
+        long seed = args.length == 5 ? Long.parseLong(args[4]) : 0L;
+        long count = fromSample(arrivalProcess, JsonUtility.readOrders(), seed).write(Long.parseLong(args[2]), Path.of(args[3]));
+        logger.info("Generated {} Orders with {} to {}", count, arrivalProcess, args[3]);
+    }
+}
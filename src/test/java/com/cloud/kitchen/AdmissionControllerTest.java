@@ -0,0 +1,141 @@
+package com.cloud.kitchen;
+
+import com.cloud.kitchen.clock.VirtualClock;
+import com.cloud.kitchen.mediator.AdmissionController;
+import com.cloud.kitchen.mediator.KitchenMediator;
+import com.cloud.kitchen.mediator.OverflowPolicy;
+import com.cloud.kitchen.models.Courier;
+import com.cloud.kitchen.models.Order;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The AdmissionControllerTest class contains unit tests for admission control on the KitchenMediator.
+ * Preparation tasks are collected instead of run, so each test completes preparations when it chooses.
+ */
+class AdmissionControllerTest {
+
+    private final VirtualClock clock = new VirtualClock();
+    private final List<Runnable> preparations = new CopyOnWriteArrayList<>();
+    private final List<Order> rejectedOrders = new CopyOnWriteArrayList<>();
+
+    /**
+     * Creates a mediator whose preparation tasks are collected, with the given admission controller.
+     *
+     * @param admissionController The admission controller.
+     * @return The mediator.
+     */
+    private KitchenMediator mediator(AdmissionController admissionController) {
+        KitchenMediator kitchenMediator = new KitchenMediator(clock, preparations::add);
+        kitchenMediator.setAdmissionController(admissionController);
+        kitchenMediator.registerOrderRejectedObserver(rejectedOrders::add);
+        return kitchenMediator;
+    }
+
+    /**
+     * Tests that once the kitchen and the backlog are full new orders are rejected,
+     * and that a completed preparation starts the backlog order.
+     */
+    @Test
+    void testRejectsOrdersWhenBacklogIsFull() {
+        AdmissionController admission = new AdmissionController(1, 1, AdmissionController.UNBOUNDED, OverflowPolicy.REJECT);
+        KitchenMediator kitchenMediator = mediator(admission);
+        Order rejected = new Order("3", "Soup", 5);
+
+        assertTrue(kitchenMediator.addOrder(new Order("1", "Burger", 5)));
+        assertTrue(kitchenMediator.addOrder(new Order("2", "Salad", 5)));
+        assertFalse(kitchenMediator.addOrder(rejected));
+        assertEquals(1, preparations.size());
+        assertEquals(List.of(rejected), rejectedOrders);
+        assertEquals(1, admission.getRejectedCount());
+        assertEquals(1, admission.getDelayedCount());
+        assertEquals(2, kitchenMediator.getOrders().size());
+
+        preparations.get(0).run();
+        assertEquals(2, preparations.size());
+        assertEquals(0, admission.getBacklogSize());
+        assertEquals(1, kitchenMediator.getReadyOrders().size());
+    }
+
+    /**
+     * Tests that SHED_OLDEST drops the oldest backlog order for the new one and reports it as rejected.
+     */
+    @Test
+    void testShedsOldestBacklogOrder() {
+        AdmissionController admission = new AdmissionController(1, 1, AdmissionController.UNBOUNDED, OverflowPolicy.SHED_OLDEST);
+        KitchenMediator kitchenMediator = mediator(admission);
+        Order shed = new Order("2", "Salad", 5);
+
+        assertTrue(kitchenMediator.addOrder(new Order("1", "Burger", 5)));
+        assertTrue(kitchenMediator.addOrder(shed));
+        assertTrue(kitchenMediator.addOrder(new Order("3", "Soup", 5)));
+        assertEquals(List.of(shed), rejectedOrders);
+        assertEquals(1, admission.getShedCount());
+        assertEquals(1, admission.getBacklogSize());
+
+        preparations.get(0).run();
+        preparations.get(1).run();
+        assertEquals(List.of("1", "3"), kitchenMediator.getReadyOrders().stream().map(Order::getId).toList());
+    }
+
+    /**
+     * Tests that an order prepared while the shelf is full keeps its kitchen slot at the pass,
+     * and that a pickup moves it onto the shelf and lets the backlog into the kitchen.
+     */
+    @Test
+    void testHoldsPreparedOrdersUntilShelfHasRoom() {
+        AdmissionController admission = new AdmissionController(1, 1, 1, OverflowPolicy.REJECT);
+        KitchenMediator kitchenMediator = mediator(admission);
+        kitchenMediator.addOrder(new Order("1", "Burger", 5));
+        kitchenMediator.addOrder(new Order("2", "Salad", 5));
+        preparations.get(0).run();
+        preparations.get(1).run();
+
+        assertEquals(1, admission.getHeldOrderCount());
+        assertEquals(1, admission.getHeldCount());
+        assertEquals(1, admission.getKitchenOrderCount());
+        assertEquals(List.of("1"), kitchenMediator.getReadyOrders().stream().map(Order::getId).toList());
+        assertTrue(kitchenMediator.addOrder(new Order("3", "Soup", 5)));
+        assertFalse(kitchenMediator.addOrder(new Order("4", "Pasta", 5)));
+        assertEquals(2, preparations.size());
+
+        clock.advanceTo(2000);
+        kitchenMediator.addCourier(new Courier(1, clock.currentMilliSeconds(), "1"));
+        assertEquals(0, admission.getHeldOrderCount());
+        assertEquals(1, admission.getShelfOrderCount());
+        assertEquals(List.of("2"), kitchenMediator.getReadyOrders().stream().map(Order::getId).toList());
+        assertEquals(3, preparations.size());
+        assertEquals(1, kitchenMediator.getFoodWaitStats().getCount());
+    }
+
+    /**
+     * Tests that BLOCK holds the caller of addOrder until a preparation completes, then admits its order.
+     */
+    @Test
+    void testBlocksProducerUntilKitchenHasRoom() throws InterruptedException {
+        AdmissionController admission = new AdmissionController(1, 0, AdmissionController.UNBOUNDED, OverflowPolicy.BLOCK);
+        KitchenMediator kitchenMediator = mediator(admission);
+        kitchenMediator.addOrder(new Order("1", "Burger", 5));
+        List<Boolean> admitted = new ArrayList<>();
+        Thread producer = new Thread(() -> admitted.add(kitchenMediator.addOrder(new Order("2", "Salad", 5))));
+        producer.start();
+        while (producer.getState() != Thread.State.WAITING) {
+            assertTrue(producer.isAlive());
+            Thread.sleep(1);
+        }
+        assertEquals(1, preparations.size());
+
+        preparations.get(0).run();
+        producer.join(5000);
+        assertFalse(producer.isAlive());
+        assertEquals(List.of(true), admitted);
+        assertEquals(2, preparations.size());
+        assertEquals(1, admission.getDelayedCount());
+        assertTrue(rejectedOrders.isEmpty());
+    }
+}
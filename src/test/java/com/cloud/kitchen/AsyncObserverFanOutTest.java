@@ -0,0 +1,157 @@
+package com.cloud.kitchen;
+
+import com.cloud.kitchen.clock.SystemClock;
+import com.cloud.kitchen.mediator.KitchenMediator;
+import com.cloud.kitchen.metrics.DefaultMetricsRegistry;
+import com.cloud.kitchen.metrics.MetricsRegistry;
+import com.cloud.kitchen.models.Courier;
+import com.cloud.kitchen.models.Order;
+import com.cloud.kitchen.observer.AsyncObserverFanOut;
+import com.cloud.kitchen.observer.MailboxPolicy;
+import com.cloud.kitchen.observer.ObserverMailbox;
+import com.cloud.kitchen.observer.OrderReadyObserver;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The AsyncObserverFanOutTest class contains unit tests for observer mailboxes and the asynchronous fan-out.
+ */
+class AsyncObserverFanOutTest {
+
+    /**
+     * Tests that a wrapped observer receives the same ready and pickup notifications, in the same order,
+     * as an observer notified on the dispatching thread.
+     */
+    @Test
+    void testDeliversNotificationsInPostingOrder() {
+        List<String> direct = new ArrayList<>();
+        List<String> async = new CopyOnWriteArrayList<>();
+        AsyncObserverFanOut observerFanOut = new AsyncObserverFanOut(Executors.newSingleThreadExecutor(), 16, 4, MailboxPolicy.BLOCK);
+        KitchenMediator kitchenMediator = new KitchenMediator(SystemClock.INSTANCE, Runnable::run);
+        kitchenMediator.registerOrderReadyObserver(recorder(direct));
+        kitchenMediator.registerOrderReadyObserver(observerFanOut.orderReadyObserver("ready", recorder(async)));
+        List<Courier> arrivals = new CopyOnWriteArrayList<>();
+        kitchenMediator.registerCourierArrivalObserver(observerFanOut.courierArrivalObserver("arrival", arrivals::add));
+
+        for (int i = 0; i < 50; i++) {
+            Order order = new Order(Integer.toString(i), "Burger", 0);
+            kitchenMediator.addOrder(order);
+            kitchenMediator.addCourier(new Courier(i, 0L, order.getId()));
+        }
+        observerFanOut.close();
+
+        assertEquals(direct, async);
+        assertEquals(100, direct.size());
+        assertEquals(50, arrivals.size());
+        assertEquals(100, observerFanOut.getMailboxes().get(0).getDeliveredCount());
+        assertEquals(100, observerFanOut.getMailboxes().get(0).getLagStats().getCount());
+    }
+
+    /**
+     * Tests that a DROP mailbox keeps accepting posts while its observer is stuck,
+     * dropping and counting what does not fit, and delivers the rest once the observer resumes.
+     */
+    @Test
+    void testDropsNotificationsWhileObserverIsStuck() throws InterruptedException {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> delivered = new CopyOnWriteArrayList<>();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        ObserverMailbox<Integer> mailbox = new ObserverMailbox<>("stuck", message -> {
+            entered.countDown();
+            awaitQuietly(release);
+            delivered.add(message);
+        }, executor, 2, 1, MailboxPolicy.DROP);
+        MetricsRegistry registry = new DefaultMetricsRegistry();
+        mailbox.registerMetrics(registry, "observer=\"stuck\"");
+
+        assertTrue(mailbox.post(1));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        assertTrue(mailbox.post(2));
+        assertTrue(mailbox.post(3));
+        assertFalse(mailbox.post(4));
+        assertEquals(2, mailbox.size());
+
+        release.countDown();
+        assertTrue(mailbox.awaitDrained(5, TimeUnit.SECONDS));
+        assertEquals(List.of(1, 2, 3), delivered);
+        assertEquals(1, registry.counter("kitchen_observer_dropped_total{observer=\"stuck\"}", "").get());
+        assertEquals(3, mailbox.getDeliveredCount());
+        executor.shutdownNow();
+    }
+
+    /**
+     * Tests that a BLOCK mailbox holds the posting thread while it is full and lets it through once the observer catches up.
+     */
+    @Test
+    void testBlocksPosterWhileMailboxIsFull() throws InterruptedException {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> delivered = new CopyOnWriteArrayList<>();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        ObserverMailbox<Integer> mailbox = new ObserverMailbox<>("slow", message -> {
+            entered.countDown();
+            awaitQuietly(release);
+            delivered.add(message);
+        }, executor, 1, 1, MailboxPolicy.BLOCK);
+        mailbox.post(1);
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        mailbox.post(2);
+
+        Thread poster = new Thread(() -> mailbox.post(3));
+        poster.start();
+        while (poster.getState() != Thread.State.WAITING) {
+            assertTrue(poster.isAlive());
+            Thread.sleep(1);
+        }
+        release.countDown();
+        poster.join(5000);
+        assertFalse(poster.isAlive());
+        assertTrue(mailbox.awaitDrained(5, TimeUnit.SECONDS));
+        assertEquals(List.of(1, 2, 3), delivered);
+        assertEquals(0, mailbox.getDroppedCount());
+        executor.shutdownNow();
+    }
+
+    /**
+     * Creates an order ready observer recording each notification as a string.
+     *
+     * @param calls The list receiving "ready id" for single orders and "batch ids" for pickup batches.
+     * @return The observer.
+     */
+    private static OrderReadyObserver recorder(List<String> calls) {
+        return new OrderReadyObserver() {
+            @Override
+            public void onOrderReady(Order order) {
+                calls.add("ready " + order.getId());
+            }
+
+            @Override
+            public void onOrdersReady(List<Order> orders) {
+                calls.add("batch " + orders.stream().map(Order::getId).toList());
+            }
+        };
+    }
+
+    /**
+     * Waits for a latch, giving up after five seconds.
+     *
+     * @param latch The latch.
+     */
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.cloud.kitchen;
+
+import com.cloud.kitchen.clock.VirtualClock;
+import com.cloud.kitchen.mediator.KitchenMediator;
+import com.cloud.kitchen.models.Courier;
+import com.cloud.kitchen.models.Order;
+import com.cloud.kitchen.simulation.CourierArrivalDistribution;
+import com.cloud.kitchen.simulation.DiscreteEventSimulation;
+import com.cloud.kitchen.stats.LatencyStats;
+import com.cloud.kitchen.strategy.AuctionAssignment;
+import com.cloud.kitchen.strategy.AuctionOrderDispatcherStrategy;
+import com.cloud.kitchen.strategy.FifoOrderDispatcherStrategy;
+import com.cloud.kitchen.strategy.OrderDispatcherStrategy;
+import com.cloud.kitchen.util.JsonUtility;
+import com.cloud.kitchen.workload.ArrivalProcess;
+import com.cloud.kitchen.workload.WorkloadGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The AuctionOrderDispatcherStrategyTest class contains unit tests for the auction assignment solver
+ * and the Auction dispatch strategy.
+ */
+class AuctionOrderDispatcherStrategyTest {
+
+    /**
+     * The RacedQueue class is a queue from which another thread takes a given item just before the strategy removes it.
+     *
+     * @param <E> The type of the elements.
+     */
+    private static final class RacedQueue<E> extends ConcurrentLinkedQueue<E> {
+
+        private final E takenItem;
+
+        /**
+         * Constructs a RacedQueue.
+         *
+         * @param takenItem The item taken by another thread.
+         */
+        private RacedQueue(E takenItem) {
+            this.takenItem = takenItem;
+        }
+
+        /**
+         * Removes an item, failing for the taken item as another thread removed it first.
+         *
+         * @param item The item to remove.
+         * @return true if the item was removed by this call.
+         */
+        @Override
+        public boolean remove(Object item) {
+            boolean removed = super.remove(item);
+            return removed && item != takenItem;
+        }
+    }
+
+    /**
+     * Tests that the auction finds an assignment as good as the best one found by enumerating every assignment.
+     */
+    @Test
+    void testAuctionAssignmentIsOptimal() {
+        SplittableRandom random = new SplittableRandom(7);
+        AuctionAssignment auction = new AuctionAssignment(6);
+        for (int trial = 0; trial < 500; trial++) {
+            int columns = random.nextInt(1, 7);
+            int rows = random.nextInt(1, columns + 1);
+            long[] benefits = new long[rows * columns];
+            for (int i = 0; i < benefits.length; i++) {
+                benefits[i] = random.nextLong(-50_000, 50_000);
+            }
+            int[] assignment = new int[rows];
+            auction.assign(benefits, rows, columns, assignment);
+
+            long total = 0;
+            boolean[] taken = new boolean[columns];
+            for (int row = 0; row < rows; row++) {
+                assertFalse(taken[assignment[row]], "Column assigned twice");
+                taken[assignment[row]] = true;
+                total += benefits[row * columns + assignment[row]];
+            }
+            assertEquals(bestTotal(benefits, rows, columns, 0, new boolean[columns]), total);
+        }
+    }
+
+    /**
+     * Tests that a courier picks up the order it was dispatched for over an order ready for less than
+     * the assigned order bonus longer, while FIFO would hand it the oldest order.
+     */
+    @Test
+    void testCourierTakesAssignedOrderWithinBonus() {
+        VirtualClock clock = new VirtualClock();
+        KitchenMediator kitchenMediator = new KitchenMediator(clock, Runnable::run);
+        AuctionOrderDispatcherStrategy strategy = new AuctionOrderDispatcherStrategy();
+        kitchenMediator.setDispatchCommand(strategy);
+        Order first = new Order("order-1", "Burger", 1);
+        Order second = new Order("order-2", "Burger", 1);
+
+        kitchenMediator.addOrder(first);
+        clock.advanceTo(1000);
+        kitchenMediator.addOrder(second);
+        clock.advanceTo(1500);
+        kitchenMediator.addCourier(new Courier(2, 1500L, "order-2"));
+
+        assertEquals(List.of(first), List.copyOf(kitchenMediator.getReadyOrders()));
+        assertEquals(1, strategy.getAssignedOrderPairCount());
+
+        clock.advanceTo(5000);
+        kitchenMediator.addCourier(new Courier(3, 5000L, "order-3"));
+
+        assertTrue(kitchenMediator.getReadyOrders().isEmpty());
+        assertEquals(2, strategy.getDispatchedPairCount());
+        assertEquals(1, strategy.getAssignedOrderPairCount());
+    }
+
+    /**
+     * Tests that an assigned pair is dispatched only if both its items are still queued: the courier of an order
+     * another thread took stays queued, and the order of a courier another thread took goes back on the ready queue.
+     */
+    @Test
+    void testPairWithItemTakenConcurrentlyIsNotDispatched() {
+        KitchenMediator kitchenMediator = new KitchenMediator(new VirtualClock(), Runnable::run);
+        AuctionOrderDispatcherStrategy strategy = new AuctionOrderDispatcherStrategy();
+        Order order = new Order("order-1", "Burger", 1);
+        Courier courier = new Courier(1, 0L, "order-1");
+
+        Queue<Order> readyOrders = new RacedQueue<>(order);
+        Queue<Courier> waitingCouriers = new ConcurrentLinkedQueue<>();
+        readyOrders.add(order);
+        waitingCouriers.add(courier);
+        strategy.dispatchOrder(kitchenMediator, readyOrders, waitingCouriers);
+
+        assertTrue(readyOrders.isEmpty());
+        assertEquals(List.of(courier), List.copyOf(waitingCouriers));
+        assertEquals(0, strategy.getDispatchedPairCount());
+
+        readyOrders = new ConcurrentLinkedQueue<>();
+        waitingCouriers = new RacedQueue<>(courier);
+        readyOrders.add(order);
+        waitingCouriers.add(courier);
+        strategy.dispatchOrder(kitchenMediator, readyOrders, waitingCouriers);
+
+        assertEquals(List.of(order), List.copyOf(readyOrders));
+        assertTrue(waitingCouriers.isEmpty());
+        assertEquals(0, strategy.getDispatchedPairCount());
+        assertEquals(0, kitchenMediator.getFoodWaitStats().getCount());
+    }
+
+    /**
+     * Tests the Auction strategy without a wait target against FIFO on the same replay of the orders file.
+     * Both dispatch every pair as soon as it can be made and the oldest items first, so wait times are the same,
+     * but more couriers pick up the order they were dispatched for than when the oldest items are paired first.
+     */
+    @Test
+    void testReplayAgainstFifo() {
+        KitchenMediator fifo = replay(new FifoOrderDispatcherStrategy());
+        AuctionOrderDispatcherStrategy oldestFirst = new AuctionOrderDispatcherStrategy(AuctionOrderDispatcherStrategy.DEFAULT_WINDOW_SIZE, 0);
+        replay(oldestFirst);
+        AuctionOrderDispatcherStrategy strategy = new AuctionOrderDispatcherStrategy();
+        KitchenMediator auction = replay(strategy);
+
+        assertEquals(fifo.getFoodWaitStats(), auction.getFoodWaitStats());
+        assertEquals(fifo.getCourierWaitStats(), auction.getCourierWaitStats());
+        assertEquals(auction.getFoodWaitStats().getCount(), strategy.getDispatchedPairCount());
+        assertTrue(strategy.getAssignedOrderPairCount() > oldestFirst.getAssignedOrderPairCount());
+    }
+
+    /**
+     * Tests the Auction strategy with a wait target against FIFO on the same replay of a generated workload with
+     * one courier per order. Every pairing gives the same mean wait, the target lowers the p99 food wait below FIFO's
+     * by picking up the orders past it last, which is why the longest waits grow.
+     */
+    @Test
+    void testWaitTargetLowersP99AgainstFifo() {
+        List<Order> orders = WorkloadGenerator.fromSample(ArrivalProcess.poisson(2), JsonUtility.readOrders(), 1).stream(1000).toList();
+        LatencyStats fifo = replay(orders, new FifoOrderDispatcherStrategy()).getFoodWaitStats();
+        LatencyStats auction = replay(orders, new AuctionOrderDispatcherStrategy(AuctionOrderDispatcherStrategy.DEFAULT_WINDOW_SIZE,
+                AuctionOrderDispatcherStrategy.DEFAULT_ASSIGNED_ORDER_BONUS_MILLIS, 10000)).getFoodWaitStats();
+
+        assertEquals(fifo.getCount(), auction.getCount());
+        assertEquals(fifo.getMean(), auction.getMean(), 1e-6);
+        assertTrue(auction.getP99() < fifo.getP99(), auction + " against " + fifo);
+        assertTrue(auction.getMax() > fifo.getMax());
+    }
+
+    /**
+     * Replays the orders file to completion with the given strategy.
+     *
+     * @param strategy The dispatch strategy.
+     * @return The mediator driven by the simulation.
+     */
+    private static KitchenMediator replay(OrderDispatcherStrategy strategy) {
+        DiscreteEventSimulation simulation = new DiscreteEventSimulation(JsonUtility.readOrders(), 1000, Long.MAX_VALUE);
+        simulation.getKitchenMediator().setDispatchCommand(strategy);
+        simulation.processOrders();
+        return simulation.getKitchenMediator();
+    }
+
+    /**
+     * Replays orders to completion with the given strategy, each order sending a courier
+     * that arrives 3 to 15 seconds after it.
+     *
+     * @param orders   The orders to replay, copied so that replays do not share ready times.
+     * @param strategy The dispatch strategy.
+     * @return The mediator driven by the simulation.
+     */
+    private static KitchenMediator replay(List<Order> orders, OrderDispatcherStrategy strategy) {
+        List<Order> copies = orders.stream()
+                .map(order -> new Order(order.getId(), order.getName(), order.getPrepTime(), order.getPlacedTime()))
+                .toList();
+        DiscreteEventSimulation simulation = new DiscreteEventSimulation(copies, Long.MAX_VALUE,
+                CourierArrivalDistribution.uniform(3000, 15000), 1);
+        simulation.getKitchenMediator().setDispatchCommand(strategy);
+        simulation.processOrders();
+        return simulation.getKitchenMediator();
+    }
+
+    /**
+     * Finds the best total benefit by enumerating every assignment of the remaining rows.
+     *
+     * @param benefits The benefit matrix.
+     * @param rows     The number of rows.
+     * @param columns  The number of columns.
+     * @param row      The next row to assign.
+     * @param taken    The columns assigned to previous rows.
+     * @return The best total benefit of the remaining rows.
+     */
+    private static long bestTotal(long[] benefits, int rows, int columns, int row, boolean[] taken) {
+        if (row == rows) {
+            return 0;
+        }
+        long best = Long.MIN_VALUE;
+        for (int column = 0; column < columns; column++) {
+            if (!taken[column]) {
+                taken[column] = true;
+                best = Math.max(best, benefits[row * columns + column] + bestTotal(benefits, rows, columns, row + 1, taken));
+                taken[column] = false;
+            }
+        }
+        return best;
+    }
+}
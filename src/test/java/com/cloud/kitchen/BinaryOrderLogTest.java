@@ -0,0 +1,95 @@
+package com.cloud.kitchen;
+
+import com.cloud.kitchen.models.Order;
+import com.cloud.kitchen.simulation.Simulation;
+import com.cloud.kitchen.util.BinaryOrderLog;
+import com.cloud.kitchen.util.JsonUtility;
+import com.cloud.kitchen.util.OrderLogConverter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The BinaryOrderLogTest class contains unit tests for the BinaryOrderLog format and its JSON converter.
+ */
+class BinaryOrderLogTest {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Tests that converting the orders file to a binary log and reading it back yields the same orders.
+     *
+     * @throws IOException if the temporary files cannot be written.
+     */
+    @Test
+    void testRoundTripFromJson() throws IOException {
+        List<Order> expected = JsonUtility.readOrders();
+        Path json = directory.resolve("orders.json");
+        JsonUtility.getObjectMapper().writeValue(json.toFile(), expected);
+        Path log = directory.resolve("orders.bin");
+
+        assertEquals(expected.size(), OrderLogConverter.convert(json, log));
+        assertTrue(BinaryOrderLog.isOrderLog(log));
+        assertFalse(BinaryOrderLog.isOrderLog(json));
+
+        try (BinaryOrderLog orderLog = BinaryOrderLog.open(log)) {
+            assertEquals(expected.size(), orderLog.size());
+            assertEquals(expected, orderLog.stream().toList());
+            assertTrue(orderLog.getNames().size() <= expected.size());
+        }
+        assertTrue(Files.size(log) < Files.size(json));
+    }
+
+    /**
+     * Tests that the placement times and shelf lives of orders survive a round trip through a binary log.
+     *
+     * @throws IOException if the log cannot be closed.
+     */
+    @Test
+    void testRoundTripsPlacedTimeAndShelfLife() throws IOException {
+        List<Order> expected = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Order order = new Order(UUID.randomUUID().toString(), "Burger", 5, 1000L * (3 - i));
+            order.setShelfLife(i * 200);
+            expected.add(order);
+        }
+        Path log = directory.resolve("orders.bin");
+
+        BinaryOrderLog.write(expected.stream(), log);
+
+        try (BinaryOrderLog orderLog = BinaryOrderLog.open(log); Stream<Order> orders = orderLog.stream()) {
+            List<Order> actual = orders.toList();
+            assertEquals(expected, actual);
+            assertEquals(expected.stream().map(Order::getPlacedTime).toList(), actual.stream().map(Order::getPlacedTime).toList());
+            assertEquals(expected.stream().map(Order::getShelfLife).toList(), actual.stream().map(Order::getShelfLife).toList());
+        }
+    }
+
+    /**
+     * Tests that Simulation reads orders from either format.
+     *
+     * @throws IOException if the temporary files cannot be written.
+     */
+    @Test
+    void testSimulationDetectsFormat() throws IOException {
+        List<Order> expected = JsonUtility.readOrders();
+        Path json = directory.resolve("orders.json");
+        JsonUtility.getObjectMapper().writeValue(json.toFile(), expected);
+        Path log = directory.resolve("orders.bin");
+        OrderLogConverter.convert(json, log);
+
+        try (Stream<Order> fromJson = Simulation.streamOrders(json); Stream<Order> fromLog = Simulation.streamOrders(log)) {
+            assertEquals(fromJson.toList(), fromLog.toList());
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.cloud.kitchen;
+
+import com.cloud.kitchen.clock.CachedClock;
+import com.cloud.kitchen.clock.Clock;
+import com.cloud.kitchen.clock.SystemClock;
+import com.cloud.kitchen.mediator.KitchenMediator;
+import com.cloud.kitchen.models.Order;
+import com.cloud.kitchen.stats.LatencyStats;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The ClockTest class contains unit tests for the monotonic SystemClock, the CachedClock
+ * and nanosecond wait time measurement in KitchenMediator.
+ */
+class ClockTest {
+
+    /**
+     * Tests that the system clock never moves backwards, stays near the wall clock
+     * and reports milliseconds and nanoseconds on the same timeline.
+     */
+    @Test
+    void testSystemClockIsMonotonic() {
+        Clock clock = SystemClock.INSTANCE;
+        long previous = clock.currentNanoTime();
+        for (int i = 0; i < 100_000; i++) {
+            long now = clock.currentNanoTime();
+            assertTrue(now >= previous);
+            previous = now;
+        }
+        long millis = clock.currentMilliSeconds();
+        assertTrue(millis <= TimeUnit.NANOSECONDS.toMillis(clock.currentNanoTime()));
+        assertEquals(System.currentTimeMillis(), millis, 1000);
+    }
+
+    /**
+     * Tests that a cached clock follows its source at its resolution and keeps its last time once closed.
+     *
+     * @throws InterruptedException if interrupted while waiting for the clock to tick.
+     */
+    @Test
+    void testCachedClockFollowsSource() throws InterruptedException {
+        AtomicLong sourceNanos = new AtomicLong(TimeUnit.SECONDS.toNanos(5));
+        Clock source = new NanoClock(sourceNanos);
+        try (CachedClock clock = new CachedClock(source, 1, TimeUnit.MILLISECONDS)) {
+            assertEquals(5000, clock.currentMilliSeconds());
+            sourceNanos.set(TimeUnit.SECONDS.toNanos(7));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (clock.currentNanoTime() != sourceNanos.get() && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertEquals(7000, clock.currentMilliSeconds());
+            clock.close();
+            Thread.sleep(20);
+            sourceNanos.set(TimeUnit.SECONDS.toNanos(9));
+            Thread.sleep(20);
+            assertEquals(7000, clock.currentMilliSeconds());
+        }
+    }
+
+    /**
+     * Tests that a pickup a quarter of a millisecond after the order was ready counts toward the mean food wait time.
+     */
+    @Test
+    void testSubMillisecondWaitIsMeasured() {
+        AtomicLong nanos = new AtomicLong(TimeUnit.SECONDS.toNanos(1));
+        Clock clock = new NanoClock(nanos);
+        KitchenMediator kitchenMediator = new KitchenMediator(clock, Runnable::run);
+        Order order = new Order(UUID.randomUUID().toString(), "Burger", 1);
+        kitchenMediator.addOrder(order);
+        assertEquals(TimeUnit.SECONDS.toNanos(1), order.getReadyNanoTime());
+        assertEquals(1000, order.getReadyTime());
+
+        nanos.addAndGet(250_000);
+        kitchenMediator.addCourier(kitchenMediator.getCourierFactory().createCourier(clock));
+
+        LatencyStats foodWaitStats = kitchenMediator.getFoodWaitStats();
+        assertEquals(1, foodWaitStats.getCount());
+        assertEquals(0.25, foodWaitStats.getMean(), 1e-9);
+        assertEquals(0, kitchenMediator.getCourierWaitStats().getMean());
+    }
+
+    /**
+     * Tests that converting a snapshot keeps the fraction of the mean and truncates the percentiles.
+     */
+    @Test
+    void testLatencyStatsConversion() {
+        LatencyStats nanos = new LatencyStats(2, 1_500_000.5, 999_999, 1_000_000, 2_500_000, 2_500_000, 3_000_000);
+        LatencyStats millis = nanos.convert(TimeUnit.NANOSECONDS, TimeUnit.MILLISECONDS);
+
+        assertEquals(new LatencyStats(2, 1.5000005, 0, 1, 2, 2, 3), millis);
+        assertSame(LatencyStats.EMPTY, LatencyStats.EMPTY.convert(TimeUnit.NANOSECONDS, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * The NanoClock class is a clock whose nanosecond time is set by the test.
+     *
+     * @param nanos The current time in nanoseconds.
+     */
+    private record NanoClock(AtomicLong nanos) implements Clock {
+
+        @Override
+        public long currentMilliSeconds() {
+            return TimeUnit.NANOSECONDS.toMillis(nanos.get());
+        }
+
+        @Override
+        public long currentNanoTime() {
+            return nanos.get();
+        }
+    }
+}
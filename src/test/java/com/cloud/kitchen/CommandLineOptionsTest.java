@@ -0,0 +1,114 @@
+package com.cloud.kitchen;
+
+import com.cloud.kitchen.factory.QueueFactory;
+import com.cloud.kitchen.mediator.AdmissionController;
+import com.cloud.kitchen.mediator.ExecutorMode;
+import com.cloud.kitchen.mediator.OverflowPolicy;
+import com.cloud.kitchen.mediator.QueueMode;
+import com.cloud.kitchen.observer.MailboxPolicy;
+import com.cloud.kitchen.simulation.TraceReplaySimulation;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The CommandLineOptionsTest class contains unit tests for parsing and checking the command-line flags.
+ */
+class CommandLineOptionsTest {
+
+    /**
+     * Tests that no flag selects the defaults.
+     */
+    @Test
+    void testDefaults() {
+        CommandLineOptions options = CommandLineOptions.parse();
+
+        assertEquals(ExecutorMode.CACHED_THREAD_POOL, options.getExecutorMode());
+        assertEquals(QueueMode.HEAP, options.getQueueMode());
+        assertEquals(QueueFactory.DEFAULT_OFF_HEAP_QUEUE_CAPACITY, options.getQueueCapacity());
+        assertEquals(0, options.getSeed());
+        assertNull(options.getCourierDistribution());
+        assertFalse(options.hasAdmissionControl());
+        assertNull(options.getShelfLifeSeconds());
+        assertNull(options.getMetricsPort());
+        assertEquals(TraceReplaySimulation.AS_FAST_AS_POSSIBLE, options.getReplaySpeedUp());
+    }
+
+    /**
+     * Tests that valid flags are parsed into typed values.
+     */
+    @Test
+    void testParsesFlags() {
+        CommandLineOptions options = CommandLineOptions.parse("--timing-wheel", "--off-heap-queues", "--queue-capacity=4096",
+                "--uniform-couriers", "--seed=-7", "--kitchen-capacity=20", "--backlog-capacity=50", "--overflow=shed-oldest",
+                "--shelf-life=30", "--async-observers=drop", "--metrics-port=9400", "--wal=kitchen-wal",
+                "--workload=poisson:50:10000", "--replay-speed=max");
+
+        assertEquals(ExecutorMode.TIMING_WHEEL, options.getExecutorMode());
+        assertEquals(QueueMode.OFF_HEAP, options.getQueueMode());
+        assertEquals(4096, options.getQueueCapacity());
+        assertNotNull(options.getCourierDistribution());
+        assertEquals(-7, options.getSeed());
+        assertTrue(options.hasAdmissionControl());
+        assertEquals(20, options.getKitchenCapacity());
+        assertEquals(50, options.getBacklogCapacity());
+        assertEquals(AdmissionController.UNBOUNDED, options.getShelfCapacity());
+        assertEquals(OverflowPolicy.SHED_OLDEST, options.getOverflowPolicy());
+        assertEquals(30L, options.getShelfLifeSeconds());
+        assertEquals(MailboxPolicy.DROP, options.getAsyncObservers());
+        assertEquals(9400, options.getMetricsPort());
+        assertEquals(Path.of("kitchen-wal"), options.getWalDirectory());
+        assertNotNull(options.getWorkloadProcess());
+        assertEquals(10000, options.getWorkloadCount());
+        assertEquals(TraceReplaySimulation.AS_FAST_AS_POSSIBLE, options.getReplaySpeedUp());
+    }
+
+    /**
+     * Tests that malformed and out-of-range values are rejected with a message naming the flag.
+     */
+    @Test
+    void testRejectsInvalidValues() {
+        assertRejected("--queue-capacity=", "--queue-capacity=abc");
+        assertRejected("--queue-capacity=", "--queue-capacity=1000");
+        assertRejected("--metrics-port=", "--metrics-port=70000");
+        assertRejected("--metrics-port=", "--metrics-port=0");
+        assertRejected("--kitchen-capacity=", "--kitchen-capacity=0");
+        assertRejected("--backlog-capacity=", "--backlog-capacity=-1");
+        assertRejected("--shelf-capacity=", "--shelf-capacity=99999999999");
+        assertRejected("--shelf-life=", "--shelf-life=0");
+        assertRejected("--seed=", "--seed=1.5");
+        assertRejected("--overflow=", "--overflow=drop");
+        assertRejected("--async-observers=", "--async-observers=");
+        assertRejected("--workload=", "--workload=poisson:fast:10");
+        assertRejected("--workload=", "--workload=poisson:-1:10");
+        assertRejected("--workload=", "--workload=poisson:50:0");
+        assertRejected("--replay-speed=", "--replay-speed=0");
+        assertRejected("--wal=", "--wal=");
+    }
+
+    /**
+     * Tests that unknown flags and flags that contradict each other are rejected.
+     */
+    @Test
+    void testRejectsUnknownAndConflictingFlags() {
+        assertRejected("--seeds=1", "--seeds=1");
+        assertRejected("--seed", "--seed");
+        assertRejected("--virtual-threads", "--virtual-threads", "--timing-wheel");
+        assertRejected("--uniform-couriers", "--uniform-couriers", "--exponential-couriers");
+        assertRejected("--orders=", "--orders=orders.bin", "--workload=poisson:50:100");
+        assertRejected("shed-oldest", "--overflow=shed-oldest");
+    }
+
+    /**
+     * Asserts that parsing the arguments fails with a message mentioning the given text.
+     *
+     * @param expected Text the error message must contain.
+     * @param args     The command-line arguments.
+     */
+    private static void assertRejected(String expected, String... args) {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> CommandLineOptions.parse(args));
+        assertTrue(exception.getMessage().contains(expected), exception.getMessage());
+    }
+}
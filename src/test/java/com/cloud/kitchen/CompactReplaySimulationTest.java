@@ -0,0 +1,93 @@
+package com.cloud.kitchen;
+
+import com.cloud.kitchen.mediator.KitchenMediator;
+import com.cloud.kitchen.models.Order;
+import com.cloud.kitchen.models.OrderStore;
+import com.cloud.kitchen.simulation.CompactReplaySimulation;
+import com.cloud.kitchen.simulation.DiscreteEventSimulation;
+import com.cloud.kitchen.strategy.DispatchStrategyType;
+import com.cloud.kitchen.util.JsonUtility;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The CompactReplaySimulationTest class contains unit tests for the struct-of-arrays order store
+ * and the compact replay built on it.
+ */
+class CompactReplaySimulationTest {
+
+    /**
+     * Tests that the store round-trips orders, interns names and reuses released handles.
+     */
+    @Test
+    void testOrderStoreRoundTripsOrders() {
+        OrderStore store = new OrderStore(1);
+        Order burger = new Order(UUID.randomUUID().toString(), "Burger", 5);
+        burger.setReadyTime(1234);
+        int first = store.add(burger);
+        int second = store.add(new Order(UUID.randomUUID().toString(), "Burger", 7));
+        int third = store.add(new Order(UUID.randomUUID().toString(), "Salad", 3));
+
+        assertEquals(burger, store.toOrder(first));
+        assertEquals(store.getNameId(first), store.getNameId(second));
+        assertEquals(List.of("Burger", "Salad"), store.getNames());
+        assertEquals(3, store.getPrepTime(third));
+
+        store.release(second);
+        int reused = store.add(new Order(UUID.randomUUID().toString(), "Soup", 9));
+        assertEquals(second, reused);
+        assertEquals("Soup", store.getName(reused));
+        assertEquals(0, store.getReadyTime(reused));
+        assertEquals(3, store.size());
+    }
+
+    /**
+     * Tests that the compact FIFO and Matched replays of the orders file record the same wait times
+     * as the discrete-event simulation, within the default duration and to completion.
+     */
+    @Test
+    void testReplayMatchesDiscreteEventSimulation() {
+        for (DispatchStrategyType type : List.of(DispatchStrategyType.FIFO, DispatchStrategyType.MATCHED)) {
+            for (long duration : new long[]{DiscreteEventSimulation.DEFAULT_DURATION_MILLIS, Long.MAX_VALUE}) {
+                DiscreteEventSimulation simulation = new DiscreteEventSimulation(JsonUtility.readOrders(),
+                        DiscreteEventSimulation.DEFAULT_COURIER_INTERVAL_MILLIS, duration);
+                KitchenMediator kitchenMediator = simulation.getKitchenMediator();
+                kitchenMediator.setDispatchCommand(type.create());
+                simulation.processOrders();
+
+                CompactReplaySimulation replay = new CompactReplaySimulation(
+                        CompactReplaySimulation.loadOrders(JsonUtility.streamOrders()), type.createCompact(),
+                        DiscreteEventSimulation.DEFAULT_COURIER_INTERVAL_MILLIS, duration);
+                replay.processOrders();
+
+                assertTrue(replay.getFoodWaitStats().getCount() > 0);
+                assertEquals(kitchenMediator.getFoodWaitStats(), replay.getFoodWaitStats(), type + " food wait");
+                assertEquals(kitchenMediator.getCourierWaitStats(), replay.getCourierWaitStats(), type + " courier wait");
+            }
+        }
+    }
+
+    /**
+     * Tests that a replay to completion dispatches every order and releases every courier,
+     * so the courier store stays as small as the number of couriers waiting at once.
+     */
+    @Test
+    void testReplayReleasesCouriers() {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            orders.add(new Order(UUID.randomUUID().toString(), "Burger", 1 + i % 15));
+        }
+        CompactReplaySimulation replay = new CompactReplaySimulation(CompactReplaySimulation.loadOrders(orders.stream()),
+                DispatchStrategyType.MATCHED.createCompact(), 1000, Long.MAX_VALUE);
+        replay.processOrders();
+
+        assertEquals(orders.size(), replay.getFoodWaitStats().getCount());
+        assertEquals(0, replay.getCouriers().size());
+        assertTrue(replay.getCouriers().getHandleCount() < 100);
+    }
+}
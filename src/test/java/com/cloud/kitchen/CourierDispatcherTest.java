@@ -0,0 +1,119 @@
+package com.cloud.kitchen;
+
+import com.cloud.kitchen.clock.VirtualClock;
+import com.cloud.kitchen.mediator.KitchenMediator;
+import com.cloud.kitchen.models.Courier;
+import com.cloud.kitchen.models.Order;
+import com.cloud.kitchen.simulation.CourierArrivalDistribution;
+import com.cloud.kitchen.simulation.CourierDispatcher;
+import com.cloud.kitchen.strategy.MatchedOrderDispatcherStrategy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The CourierDispatcherTest class contains unit tests for per-order courier dispatch.
+ * Timers are recorded instead of scheduled and run by the test.
+ */
+class CourierDispatcherTest {
+
+    private VirtualClock clock;
+    private KitchenMediator kitchenMediator;
+    private List<Runnable> timerTasks;
+    private List<Long> timerDelays;
+
+    /**
+     * Sets up a mediator on a virtual clock that prepares orders on the calling thread.
+     */
+    @BeforeEach
+    void setUp() {
+        clock = new VirtualClock();
+        kitchenMediator = new KitchenMediator(clock, Runnable::run);
+        timerTasks = new ArrayList<>();
+        timerDelays = new ArrayList<>();
+    }
+
+    /**
+     * Creates a dispatcher recording its timers.
+     *
+     * @param distribution The distribution of arrival delays.
+     * @param seed         The seed of the arrival delays.
+     * @return A new dispatcher.
+     */
+    private CourierDispatcher createDispatcher(CourierArrivalDistribution distribution, long seed) {
+        return new CourierDispatcher(kitchenMediator, distribution, seed, (task, delay, unit) -> {
+            timerTasks.add(task);
+            timerDelays.add(unit.toMillis(delay));
+        });
+    }
+
+    /**
+     * Tests that arrival delays stay within the distribution bounds and only depend on the seed and the order id.
+     */
+    @Test
+    void testArrivalDelaysAreReproducible() {
+        CourierDispatcher dispatcher = createDispatcher(CourierArrivalDistribution.uniform(3000, 15000), 7);
+        CourierDispatcher sameSeed = createDispatcher(CourierArrivalDistribution.uniform(3000, 15000), 7);
+        CourierDispatcher otherSeed = createDispatcher(CourierArrivalDistribution.uniform(3000, 15000), 8);
+
+        int differences = 0;
+        for (int i = 0; i < 100; i++) {
+            Order order = new Order("order-" + i, "Burger", 1);
+            long delay = dispatcher.getArrivalDelay(order);
+            assertTrue(delay >= 3000 && delay <= 15000);
+            assertEquals(delay, sameSeed.getArrivalDelay(order));
+            if (delay != otherSeed.getArrivalDelay(order)) {
+                differences++;
+            }
+        }
+        assertTrue(differences > 90);
+    }
+
+    /**
+     * Tests that the exponential distribution respects its minimum and approaches its mean.
+     */
+    @Test
+    void testExponentialDelaysHaveExpectedMean() {
+        CourierDispatcher dispatcher = createDispatcher(CourierArrivalDistribution.exponential(3000, 9000), 1);
+        long total = 0;
+        for (int i = 0; i < 10_000; i++) {
+            long delay = dispatcher.getArrivalDelay(new Order("order-" + i, "Burger", 1));
+            assertTrue(delay >= 3000);
+            total += delay;
+        }
+        assertEquals(9000, total / 10_000.0, 300);
+    }
+
+    /**
+     * Tests that many orders share a bounded number of window timers and every order is picked up by its courier.
+     */
+    @Test
+    void testCouriersAreBatchedPerWindow() {
+        kitchenMediator.setDispatchCommand(new MatchedOrderDispatcherStrategy());
+        CourierDispatcher dispatcher = createDispatcher(CourierArrivalDistribution.uniform(3000, 15000), 3);
+        kitchenMediator.registerOrderReceivedObserver(dispatcher);
+        List<Courier> arrivals = new ArrayList<>();
+        kitchenMediator.registerCourierArrivalObserver(arrivals::add);
+
+        for (int i = 0; i < 5000; i++) {
+            kitchenMediator.addOrder(new Order("order-" + i, "Burger", 1));
+        }
+
+        long windows = (15000 - 3000) / CourierDispatcher.BATCH_WINDOW_MILLIS + 1;
+        assertTrue(timerTasks.size() <= windows, "One timer per window expected, got " + timerTasks.size());
+        assertEquals(timerTasks.size(), dispatcher.getPendingWindowCount());
+        timerDelays.forEach(delay -> assertTrue(delay >= 3000 && delay <= 15000 + CourierDispatcher.BATCH_WINDOW_MILLIS));
+
+        timerTasks.forEach(Runnable::run);
+
+        assertEquals(5000, arrivals.size());
+        assertEquals(0, dispatcher.getPendingWindowCount());
+        assertEquals(5000, kitchenMediator.getFoodWaitStats().getCount());
+        assertTrue(kitchenMediator.getReadyOrders().isEmpty());
+        assertTrue(kitchenMediator.getWaitingCouriers().isEmpty());
+    }
+}
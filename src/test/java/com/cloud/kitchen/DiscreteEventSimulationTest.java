@@ -0,0 +1,75 @@
+package com.cloud.kitchen;
+
+import com.cloud.kitchen.mediator.KitchenMediator;
+import com.cloud.kitchen.models.Order;
+import com.cloud.kitchen.simulation.DiscreteEventSimulation;
+import com.cloud.kitchen.util.JsonUtility;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The DiscreteEventSimulationTest class contains unit tests for the virtual-clock DiscreteEventSimulation.
+ * It tests that runs are deterministic, complete without wall-clock delays and respect the simulated duration.
+ */
+class DiscreteEventSimulationTest {
+
+    /**
+     * Tests that replaying the orders file twice produces identical wait times.
+     */
+    @Test
+    void testReplayIsDeterministic() {
+        KitchenMediator first = runToCompletion(JsonUtility.readOrders());
+        KitchenMediator second = runToCompletion(JsonUtility.readOrders());
+
+        assertTrue(first.getFoodWaitStats().getCount() > 0);
+        assertEquals(first.getFoodWaitStats(), second.getFoodWaitStats());
+        assertEquals(first.getCourierWaitStats(), second.getCourierWaitStats());
+    }
+
+    /**
+     * Tests that a run without a duration limit dispatches every order and leaves no courier waiting.
+     */
+    @Test
+    void testRunToCompletionDispatchesEveryOrder() {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            orders.add(new Order(UUID.randomUUID().toString(), "Burger", 1 + i % 15));
+        }
+
+        KitchenMediator kitchenMediator = runToCompletion(orders);
+
+        assertEquals(orders.size(), kitchenMediator.getFoodWaitStats().getCount());
+        assertTrue(kitchenMediator.getReadyOrders().isEmpty());
+    }
+
+    /**
+     * Tests that events after the simulated duration are not processed.
+     */
+    @Test
+    void testDurationLimitsVirtualTime() {
+        DiscreteEventSimulation simulation = new DiscreteEventSimulation(JsonUtility.readOrders(),
+                DiscreteEventSimulation.DEFAULT_COURIER_INTERVAL_MILLIS, DiscreteEventSimulation.DEFAULT_DURATION_MILLIS);
+        simulation.processOrders();
+
+        assertTrue(simulation.getClock().currentMilliSeconds() <= DiscreteEventSimulation.DEFAULT_DURATION_MILLIS);
+        // One courier every four seconds, starting at zero, for sixty seconds
+        assertTrue(simulation.getKitchenMediator().getCourierWaitStats().getCount() <= 16);
+    }
+
+    /**
+     * Runs a discrete-event simulation until every order has been picked up.
+     *
+     * @param orders The orders to replay.
+     * @return The mediator driven by the simulation.
+     */
+    private KitchenMediator runToCompletion(List<Order> orders) {
+        DiscreteEventSimulation simulation = new DiscreteEventSimulation(orders, 1000, Long.MAX_VALUE);
+        simulation.processOrders();
+        return simulation.getKitchenMediator();
+    }
+}
@@ -0,0 +1,119 @@
+package com.cloud.kitchen;
+
+import com.cloud.kitchen.clock.VirtualClock;
+import com.cloud.kitchen.journal.BinaryJournalSink;
+import com.cloud.kitchen.journal.EventJournal;
+import com.cloud.kitchen.journal.JournalEvent;
+import com.cloud.kitchen.journal.JournalEventType;
+import com.cloud.kitchen.journal.JournalSink;
+import com.cloud.kitchen.mediator.KitchenMediator;
+import com.cloud.kitchen.models.Courier;
+import com.cloud.kitchen.models.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The EventJournalTest class contains unit tests for the EventJournal ring buffer and its sinks.
+ */
+class EventJournalTest {
+
+    /**
+     * The CollectingSink class keeps a string copy of every record, since the event instance is reused.
+     */
+    private static class CollectingSink implements JournalSink {
+
+        private final List<String> events = new ArrayList<>();
+
+        @Override
+        public void onEvent(JournalEvent event) {
+            events.add(event.getType() + " " + event.getOrderId() + " " + event.getCourierId() + " "
+                    + event.getTimestamp() + " " + event.getFoodWaitTime() + " " + event.getCourierWaitTime());
+        }
+    }
+
+    /**
+     * Tests that events published concurrently through a small ring buffer all reach the sink,
+     * in publication order for each producer.
+     */
+    @Test
+    void testConcurrentProducersLoseNoEvent() {
+        CollectingSink sink = new CollectingSink();
+        EventJournal journal = new EventJournal(64, sink);
+        CompletableFuture<?>[] producers = IntStream.range(0, 4)
+                .mapToObj(producer -> CompletableFuture.runAsync(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        journal.orderReceived("p" + producer, i);
+                    }
+                }))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(producers).join();
+        journal.close();
+
+        assertEquals(40_000, journal.getPublishedCount());
+        assertEquals(40_000, sink.events.size());
+        for (int producer = 0; producer < 4; producer++) {
+            String prefix = "ORDER_RECEIVED p" + producer + " ";
+            List<Long> timestamps = sink.events.stream()
+                    .filter(event -> event.startsWith(prefix))
+                    .map(event -> Long.parseLong(event.split(" ")[3]))
+                    .toList();
+            assertEquals(LongStream.range(0, 10_000).boxed().toList(), timestamps);
+        }
+    }
+
+    /**
+     * Tests that records written by the binary sink read back unchanged, for UUID, text and missing order ids.
+     */
+    @Test
+    void testBinarySinkRoundTrip(@TempDir Path directory) {
+        Path file = directory.resolve("journal.bin");
+        String uuid = UUID.randomUUID().toString();
+        EventJournal journal = new EventJournal(16, new BinaryJournalSink(file));
+        journal.orderReceived(uuid, 1);
+        journal.courierArrived(7, null, 2);
+        for (int i = 0; i < 2000; i++) {
+            journal.orderPickedUp("order-" + i, i, 3 + i, 40, 50);
+        }
+        journal.close();
+
+        CollectingSink sink = new CollectingSink();
+        assertEquals(2002, BinaryJournalSink.read(file, sink));
+        assertEquals("ORDER_RECEIVED " + uuid + " -1 1 0 0", sink.events.get(0));
+        assertEquals("COURIER_ARRIVED null 7 2 0 0", sink.events.get(1));
+        assertEquals("ORDER_PICKED_UP order-1999 1999 2002 40 50", sink.events.get(2001));
+    }
+
+    /**
+     * Tests that a mediator with a journal records its order, courier and pickup events.
+     */
+    @Test
+    void testMediatorWritesEventsToJournal() {
+        VirtualClock clock = new VirtualClock();
+        KitchenMediator kitchenMediator = new KitchenMediator(clock, Runnable::run);
+        CollectingSink sink = new CollectingSink();
+        EventJournal journal = new EventJournal(sink);
+        kitchenMediator.setEventJournal(journal);
+
+        kitchenMediator.addOrder(new Order("order-1", "Burger", 1));
+        clock.advanceTo(1000);
+        kitchenMediator.addCourier(new Courier(5, 1000L, "order-1"));
+        journal.close();
+
+        assertEquals(List.of(
+                "ORDER_RECEIVED order-1 -1 0 0 0",
+                "ORDER_READY order-1 -1 0 0 0",
+                "COURIER_ARRIVED order-1 5 1000 0 0",
+                "ORDER_PICKED_UP order-1 5 1000 1000 0"), sink.events);
+        assertEquals(JournalEventType.ORDER_PICKED_UP, JournalEventType.of(4));
+    }
+}
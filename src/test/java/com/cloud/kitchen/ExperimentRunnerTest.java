@@ -0,0 +1,67 @@
+package com.cloud.kitchen;
+
+import com.cloud.kitchen.experiment.ArrivalModel;
+import com.cloud.kitchen.experiment.Experiment;
+import com.cloud.kitchen.experiment.ExperimentReport;
+import com.cloud.kitchen.experiment.ExperimentResult;
+import com.cloud.kitchen.experiment.ExperimentRunner;
+import com.cloud.kitchen.factory.CourierFactory;
+import com.cloud.kitchen.strategy.DispatchStrategyType;
+import com.cloud.kitchen.util.JsonUtility;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The ExperimentRunnerTest class contains unit tests for the parallel ExperimentRunner and its comparison table.
+ */
+class ExperimentRunnerTest {
+
+    private static final List<Experiment> EXPERIMENTS = ExperimentRunner.matrix(
+            List.of(DispatchStrategyType.values()),
+            List.of(ArrivalModel.FIXED_INTERVAL, ArrivalModel.EXPONENTIAL),
+            Arrays.asList((Path) null),
+            List.of(1L, 2L));
+
+    /**
+     * Tests that experiments run in parallel produce the same results as when run one at a time,
+     * so runs share no state.
+     */
+    @Test
+    void testParallelRunsAreIsolated() {
+        List<ExperimentResult> parallel = new ExperimentRunner(4, Long.MAX_VALUE).runAll(EXPERIMENTS);
+        List<ExperimentResult> sequential = new ExperimentRunner(1, Long.MAX_VALUE).runAll(EXPERIMENTS);
+
+        assertEquals(EXPERIMENTS.size(), parallel.size());
+        for (int i = 0; i < EXPERIMENTS.size(); i++) {
+            assertEquals(EXPERIMENTS.get(i), parallel.get(i).experiment());
+            assertTrue(parallel.get(i).foodWaitStats().getCount() > 0);
+            assertEquals(sequential.get(i).foodWaitStats(), parallel.get(i).foodWaitStats());
+            assertEquals(sequential.get(i).courierWaitStats(), parallel.get(i).courierWaitStats());
+        }
+        assertEquals(1, new CourierFactory().createCourier().getCourierId());
+    }
+
+    /**
+     * Tests that the comparison table has one CSV line and one JSON row per result, with the same columns.
+     */
+    @Test
+    void testReportHasOneRowPerExperiment() throws Exception {
+        List<ExperimentResult> results = new ExperimentRunner().runAll(EXPERIMENTS);
+
+        String[] lines = ExperimentReport.toCsv(results).split("\n");
+        JsonNode rows = JsonUtility.getObjectMapper().readTree(ExperimentReport.toJson(results));
+
+        assertEquals(EXPERIMENTS.size() + 1, lines.length);
+        assertTrue(lines[0].startsWith("strategy,arrival_model,orders,seed,food_wait_count,food_wait_mean_ms"));
+        assertEquals(EXPERIMENTS.size(), rows.size());
+        assertEquals("FRESHNESS", rows.get(rows.size() - 1).get("strategy").asText());
+        assertEquals(lines[0].split(",").length, rows.get(0).size());
+        assertEquals(results.get(0).courierWaitStats().getP99(), rows.get(0).get("courier_wait_p99_ms").asLong());
+    }
+}
@@ -0,0 +1,98 @@
+package com.cloud.kitchen;
+
+import com.cloud.kitchen.clock.VirtualClock;
+import com.cloud.kitchen.mediator.KitchenMediator;
+import com.cloud.kitchen.models.Courier;
+import com.cloud.kitchen.models.Order;
+import com.cloud.kitchen.strategy.FifoOrderDispatcherStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The FifoOrderDispatcherStrategyTest class contains unit tests for the FIFO dispatch strategy
+ * when another thread empties a queue between the strategy checking it and polling it.
+ */
+class FifoOrderDispatcherStrategyTest {
+
+    private final KitchenMediator mediator = new KitchenMediator(new VirtualClock(), Runnable::run);
+    private final FifoOrderDispatcherStrategy strategy = new FifoOrderDispatcherStrategy();
+
+    /**
+     * The RacedQueue class is a queue reporting itself non-empty on its first isEmpty checks whatever it holds,
+     * as if another thread took the last element between the check and the poll.
+     *
+     * @param <E> The type of the elements.
+     */
+    private static final class RacedQueue<E> extends ConcurrentLinkedQueue<E> {
+
+        private final Deque<Boolean> emptyAnswers;
+
+        /**
+         * Constructs a RacedQueue answering the first isEmpty checks with the given answers.
+         *
+         * @param emptyAnswers The answers to the first isEmpty checks.
+         */
+        private RacedQueue(Boolean... emptyAnswers) {
+            this.emptyAnswers = new ArrayDeque<>(List.of(emptyAnswers));
+        }
+
+        /**
+         * Answers the next scripted isEmpty check, or whether the queue is empty once the script is over.
+         *
+         * @return Whether the queue looks empty.
+         */
+        @Override
+        public boolean isEmpty() {
+            Boolean answer = emptyAnswers.poll();
+            return answer != null ? answer : super.isEmpty();
+        }
+    }
+
+    /**
+     * Tests that a courier taken by another thread after the strategy saw it leaves the ready order queued,
+     * rather than dispatching the order to no courier.
+     */
+    @Test
+    void testCourierTakenConcurrentlyKeepsOrderQueued() {
+        Order order = new Order("1", "Burger", 0);
+        mediator.getReadyOrders().add(order);
+
+        strategy.dispatchOrder(mediator, mediator.getReadyOrders(), new RacedQueue<>(false));
+
+        assertSame(order, mediator.getReadyOrders().peek());
+        assertEquals(0, mediator.getFoodWaitStats().getCount());
+    }
+
+    /**
+     * Tests that an order polled while pairing, whose courier another thread took, goes back on the ready queue.
+     */
+    @Test
+    void testOrderWithoutCourierIsRequeued() {
+        Order order = new Order("1", "Burger", 0);
+        mediator.getReadyOrders().add(order);
+
+        strategy.dispatchOrder(mediator, mediator.getReadyOrders(), new RacedQueue<>(true, false));
+
+        assertEquals(List.of(order), List.copyOf(mediator.getReadyOrders()));
+    }
+
+    /**
+     * Tests that a courier polled while pairing, whose order another thread took, goes back on the waiting queue.
+     */
+    @Test
+    void testCourierWithoutOrderIsRequeued() {
+        Courier courier = new Courier(1, 0);
+        RacedQueue<Courier> waitingCouriers = new RacedQueue<>(true);
+        waitingCouriers.add(courier);
+
+        strategy.dispatchOrder(mediator, new RacedQueue<>(false), waitingCouriers);
+
+        assertEquals(List.of(courier), List.copyOf(waitingCouriers));
+    }
+}
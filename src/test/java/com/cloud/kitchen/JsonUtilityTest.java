@@ -0,0 +1,113 @@
+package com.cloud.kitchen;
+
+import com.cloud.kitchen.models.Order;
+import com.cloud.kitchen.util.JsonUtility;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The JsonUtilityTest class contains unit tests for streaming orders out of a JSON array.
+ */
+class JsonUtilityTest {
+
+    /**
+     * The ClosableInput class is an in-memory input that records whether it was closed.
+     */
+    private static final class ClosableInput extends ByteArrayInputStream {
+
+        private boolean closed;
+
+        /**
+         * Constructs a ClosableInput over a string.
+         *
+         * @param json The JSON text.
+         */
+        private ClosableInput(String json) {
+            super(json.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /**
+         * Records that the input was closed.
+         */
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    /**
+     * Streams the orders of a JSON text to a list.
+     *
+     * @param json The JSON text.
+     * @return The orders.
+     */
+    private static List<Order> streamOrders(String json) {
+        try (Stream<Order> orders = JsonUtility.streamOrders(new ClosableInput(json))) {
+            return orders.toList();
+        }
+    }
+
+    /**
+     * Tests that every field of an order is read, unknown fields and nested values are skipped,
+     * and the input is closed once the array is exhausted.
+     */
+    @Test
+    void testStreamsOrdersSkippingUnknownFields() {
+        ClosableInput input = new ClosableInput("""
+                [{"id": "a", "name": "Burger", "prepTime": 3, "shelfLife": 30, "tags": {"spicy": [1, 2]}},
+                 {"unknown": null, "id": "b", "prepTime": 5}]""");
+        List<Order> orders = JsonUtility.streamOrders(input).toList();
+
+        assertEquals(2, orders.size());
+        assertEquals("a", orders.get(0).getId());
+        assertEquals("Burger", orders.get(0).getName());
+        assertEquals(3, orders.get(0).getPrepTime());
+        assertEquals(30, orders.get(0).getShelfLife());
+        assertEquals("b", orders.get(1).getId());
+        assertNull(orders.get(1).getName());
+        assertEquals(5, orders.get(1).getPrepTime());
+        assertTrue(input.closed);
+    }
+
+    /**
+     * Tests that an empty array streams no order.
+     */
+    @Test
+    void testEmptyArray() {
+        assertTrue(streamOrders("[]").isEmpty());
+        assertTrue(streamOrders("  [ ]  ").isEmpty());
+    }
+
+    /**
+     * Tests that input that is not a JSON array, or ends in the middle of an order, fails with an UncheckedIOException.
+     */
+    @Test
+    void testMalformedAndTruncatedInput() {
+        assertThrows(UncheckedIOException.class, () -> streamOrders("{\"id\": \"a\"}"));
+        assertThrows(UncheckedIOException.class, () -> streamOrders(""));
+        assertThrows(UncheckedIOException.class, () -> streamOrders("[{\"id\": \"a\", \"prepTime\": 3}, {\"id\": \"b\", \"prep"));
+        assertThrows(UncheckedIOException.class, () -> streamOrders("[{\"id\": \"a\"} {\"id\": \"b\"}]"));
+    }
+
+    /**
+     * Tests that closing the stream before the end of the array closes the input.
+     */
+    @Test
+    void testClosingEarlyClosesInput() {
+        ClosableInput input = new ClosableInput("[{\"id\": \"a\"}, {\"id\": \"b\"}, {\"id\": \"c\"}]");
+        try (Stream<Order> orders = JsonUtility.streamOrders(input)) {
+            Iterator<Order> iterator = orders.iterator();
+            assertEquals("a", iterator.next().getId());
+            assertFalse(input.closed);
+        }
+        assertTrue(input.closed);
+    }
+}
@@ -0,0 +1,211 @@
+package com.cloud.kitchen;
+
+import com.cloud.kitchen.clock.SystemClock;
+import com.cloud.kitchen.mediator.KitchenCluster;
+import com.cloud.kitchen.mediator.KitchenMediator;
+import com.cloud.kitchen.models.Courier;
+import com.cloud.kitchen.models.Order;
+import com.cloud.kitchen.strategy.FifoOrderDispatcherStrategy;
+import com.cloud.kitchen.strategy.MatchedOrderDispatcherStrategy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The KitchenClusterTest class contains unit tests for sharded dispatch, courier stealing and merged statistics.
+ * Shards prepare orders on the calling thread.
+ */
+class KitchenClusterTest {
+
+    private KitchenCluster cluster;
+
+    /**
+     * The ThreadRecordingStrategy class is a FIFO strategy recording the threads that run its dispatch passes
+     * and the threads that ask it for held orders, as a mediator does before handing over surplus couriers.
+     */
+    private static final class ThreadRecordingStrategy extends FifoOrderDispatcherStrategy {
+
+        private final Set<Thread> dispatchingThreads = ConcurrentHashMap.newKeySet();
+        private final Set<Thread> checkingThreads = ConcurrentHashMap.newKeySet();
+
+        /**
+         * Records the dispatching thread and runs a FIFO dispatch pass.
+         *
+         * @param mediator        The kitchen mediator managing orders and couriers.
+         * @param readyOrders     The queue of orders ready for pickup.
+         * @param waitingCouriers The queue of couriers waiting to pick up orders.
+         * @param maxBatchSize    The maximum number of pairs dispatched together.
+         */
+        @Override
+        public void dispatchOrders(KitchenMediator mediator, Queue<Order> readyOrders, Queue<Courier> waitingCouriers, int maxBatchSize) {
+            dispatchingThreads.add(Thread.currentThread());
+            super.dispatchOrders(mediator, readyOrders, waitingCouriers, maxBatchSize);
+        }
+
+        /**
+         * Records the checking thread.
+         *
+         * @return 0, FIFO holds no order.
+         */
+        @Override
+        public int getHeldOrderCount() {
+            checkingThreads.add(Thread.currentThread());
+            return 0;
+        }
+    }
+
+    /**
+     * The PassCountingStrategy class is a Matched strategy counting the dispatch passes it runs.
+     */
+    private static final class PassCountingStrategy extends MatchedOrderDispatcherStrategy {
+
+        private final AtomicInteger passes = new AtomicInteger();
+
+        /**
+         * Counts the pass and runs a Matched dispatch pass.
+         *
+         * @param mediator        The kitchen mediator managing orders and couriers.
+         * @param readyOrders     The queue of orders ready for pickup.
+         * @param waitingCouriers The queue of couriers waiting to pick up orders.
+         * @param maxBatchSize    The maximum number of pairs dispatched together.
+         */
+        @Override
+        public void dispatchOrders(KitchenMediator mediator, Queue<Order> readyOrders, Queue<Courier> waitingCouriers, int maxBatchSize) {
+            passes.incrementAndGet();
+            super.dispatchOrders(mediator, readyOrders, waitingCouriers, maxBatchSize);
+        }
+    }
+
+    /**
+     * Stops the dispatcher threads of the cluster.
+     */
+    @AfterEach
+    void tearDown() {
+        cluster.shutdown();
+    }
+
+    /**
+     * Waits until a condition holds, failing after five seconds.
+     *
+     * @param condition The condition to wait for.
+     */
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Condition not met in time");
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * Tests that orders and their couriers are routed to the same shard and that statistics merge across shards.
+     */
+    @Test
+    void testOrdersAndCouriersAreShardedAndStatsMerged() throws InterruptedException {
+        cluster = new KitchenCluster(4, () -> new KitchenMediator(SystemClock.INSTANCE, Runnable::run));
+        for (int i = 0; i < 1000; i++) {
+            String orderId = "order-" + i;
+            cluster.addOrder(new Order(orderId, "Burger", 1));
+            cluster.addCourier(new Courier(i, 0L, orderId));
+        }
+
+        awaitCondition(() -> cluster.getFoodWaitStats().getCount() == 1000);
+        assertEquals(1000, cluster.getCourierWaitStats().getCount());
+        long shardTotal = 0;
+        for (int i = 0; i < cluster.getShardCount(); i++) {
+            long shardCount = cluster.getShard(i).getFoodWaitStats().getCount();
+            assertTrue(shardCount > 0, "Shard " + i + " received no order");
+            shardTotal += shardCount;
+        }
+        assertEquals(1000, shardTotal);
+    }
+
+    /**
+     * Tests that a shard with a ready order steals a waiting courier from a shard without orders.
+     */
+    @Test
+    void testIdleShardStealsSurplusCourier() throws InterruptedException {
+        cluster = new KitchenCluster(2, () -> new KitchenMediator(SystemClock.INSTANCE, Runnable::run));
+        String busyKitchen = kitchenOfShard(0);
+        String quietKitchen = kitchenOfShard(1);
+
+        cluster.addCourier(quietKitchen, new Courier(1, System.currentTimeMillis()));
+        awaitCondition(() -> !cluster.shardFor(quietKitchen).getWaitingCouriers().isEmpty());
+        cluster.addOrder(busyKitchen, new Order("order-1", "Burger", 1));
+
+        awaitCondition(() -> cluster.getFoodWaitStats().getCount() == 1);
+        assertEquals(1, cluster.getStolenCourierCount());
+        assertEquals(1, cluster.shardFor(busyKitchen).getCourierWaitStats().getCount());
+        assertTrue(cluster.shardFor(quietKitchen).getWaitingCouriers().isEmpty());
+    }
+
+    /**
+     * Tests that the victim decides which couriers are surplus and takes them off its waiting queue
+     * on its own dispatcher thread, never on the dispatcher thread of the thief.
+     */
+    @Test
+    void testVictimHandsOverCouriersOnItsOwnThread() throws InterruptedException {
+        cluster = new KitchenCluster(2, () -> new KitchenMediator(SystemClock.INSTANCE, Runnable::run));
+        String busyKitchen = kitchenOfShard(0);
+        String quietKitchen = kitchenOfShard(1);
+        ThreadRecordingStrategy victimStrategy = new ThreadRecordingStrategy();
+        cluster.shardFor(quietKitchen).setDispatchCommand(victimStrategy);
+
+        for (int i = 0; i < 3; i++) {
+            cluster.addCourier(quietKitchen, new Courier(i, System.currentTimeMillis()));
+        }
+        awaitCondition(() -> cluster.shardFor(quietKitchen).getWaitingCouriers().size() == 3);
+        for (int i = 0; i < 3; i++) {
+            cluster.addOrder(busyKitchen, new Order("order-" + i, "Burger", 1));
+        }
+
+        awaitCondition(() -> cluster.getFoodWaitStats().getCount() == 3);
+        assertEquals(3, cluster.getStolenCourierCount());
+        assertEquals(1, victimStrategy.dispatchingThreads.size());
+        assertEquals(victimStrategy.dispatchingThreads, victimStrategy.checkingThreads);
+    }
+
+    /**
+     * Tests that a Matched shard holding an order for a courier still on its way sends no steal request,
+     * so an idle neighbour is not woken into dispatch passes.
+     */
+    @Test
+    void testMatchedShardHoldingOrdersDoesNotSteal() throws InterruptedException {
+        cluster = new KitchenCluster(2, () -> new KitchenMediator(SystemClock.INSTANCE, Runnable::run));
+        String busyKitchen = kitchenOfShard(0);
+        String quietKitchen = kitchenOfShard(1);
+        cluster.shardFor(busyKitchen).setDispatchCommand(new MatchedOrderDispatcherStrategy());
+        PassCountingStrategy victimStrategy = new PassCountingStrategy();
+        cluster.shardFor(quietKitchen).setDispatchCommand(victimStrategy);
+
+        cluster.addOrder(busyKitchen, new Order("order-1", "Burger", 0));
+        awaitCondition(() -> cluster.shardFor(busyKitchen).getReadyOrderCount() == 1);
+        Thread.sleep(100);
+
+        assertEquals(0, victimStrategy.passes.get());
+        assertEquals(0, cluster.getStolenCourierCount());
+    }
+
+    /**
+     * Finds a kitchen id routed to a shard.
+     *
+     * @param shard The shard index.
+     * @return A kitchen id owned by the shard.
+     */
+    private String kitchenOfShard(int shard) {
+        for (int i = 0; ; i++) {
+            String kitchenId = "kitchen-" + i;
+            if (cluster.shardFor(kitchenId) == cluster.getShard(shard)) {
+                return kitchenId;
+            }
+        }
+    }
+}
@@ -1,13 +1,20 @@
 package com.cloud.kitchen;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import com.cloud.kitchen.clock.SystemClock;
+import com.cloud.kitchen.clock.VirtualClock;
 import com.cloud.kitchen.models.Courier;
 import com.cloud.kitchen.models.Order;
 import com.cloud.kitchen.observer.CourierArrivalObserver;
 import com.cloud.kitchen.observer.OrderReadyObserver;
+import com.cloud.kitchen.stats.LatencyStats;
 import com.cloud.kitchen.strategy.OrderDispatcherStrategy;
 import com.cloud.kitchen.strategy.MatchedOrderDispatcherStrategy;
 import com.cloud.kitchen.strategy.FifoOrderDispatcherStrategy;
@@ -21,6 +28,8 @@ import java.util.concurrent.TimeUnit;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import com.cloud.kitchen.mediator.DispatchMode;
+import com.cloud.kitchen.mediator.ExecutorMode;
 import com.cloud.kitchen.mediator.KitchenMediator;
 
 /**
@@ -166,8 +175,9 @@ class KitchenMediatorTest {
         // Wait for some time to ensure the food wait time is calculated
         TimeUnit.SECONDS.sleep(2);
 
-        double foodWaitTime = kitchenMediator.getFoodWaitTimes().getFirst();
-        assertTrue(foodWaitTime >= 0, "Food wait time should be greater than 0");
+        LatencyStats foodWaitStats = kitchenMediator.getFoodWaitStats();
+        assertEquals(1, foodWaitStats.getCount());
+        assertTrue(foodWaitStats.getMax() >= 0, "Food wait time should be greater than 0");
     }
 
 
@@ -201,13 +211,16 @@ class KitchenMediatorTest {
         // Wait for the order to be prepared or timeout after 10 seconds
         assertTrue(orderReadyLatch.await(10, TimeUnit.SECONDS), "Order preparation timeout");
 
-        // Wait until the courier has picked up the order or timeout after 10 seconds
-        while (!kitchenMediator.getReadyOrders().isEmpty()) {
+        // Wait until the courier has picked up the order, the batch records wait times after taking the pair off the queues
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (kitchenMediator.getCourierWaitStats().getCount() == 0 && System.currentTimeMillis() < deadline) {
             TimeUnit.MILLISECONDS.sleep(100); // Check every 100 milliseconds
         }
+        assertTrue(kitchenMediator.getReadyOrders().isEmpty());
 
-        double courierWaitTime = kitchenMediator.getCourierWaitTimes().getFirst();
-        assertTrue(courierWaitTime >= 0);
+        LatencyStats courierWaitStats = kitchenMediator.getCourierWaitStats();
+        assertEquals(1, courierWaitStats.getCount());
+        assertTrue(courierWaitStats.getMax() >= 0);
     }
 
     /**
@@ -229,7 +242,202 @@ class KitchenMediatorTest {
 
         kitchenMediator.printAverages();
 
-        assertNotNull(kitchenMediator.getFoodWaitTimes());
-        assertNotNull(kitchenMediator.getCourierWaitTimes());
+        assertNotNull(kitchenMediator.getFoodWaitStats());
+        assertNotNull(kitchenMediator.getCourierWaitStats());
+    }
+
+    /**
+     * Tests that the single-writer dispatch mode matches every order with a courier
+     * when orders and couriers are added concurrently from many threads.
+     *
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     */
+    @Test
+    void testSingleWriterDispatchMatchesEveryPair() throws InterruptedException {
+        kitchenMediator.setDispatchCommand(fifoStrategy);
+        kitchenMediator.setDispatchMode(DispatchMode.SINGLE_WRITER);
+        int pairs = 400;
+        ExecutorService producers = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < pairs; i++) {
+            int courierId = i;
+            producers.execute(() -> kitchenMediator.addOrder(new Order(UUID.randomUUID().toString(), "Burger", 1)));
+            producers.execute(() -> kitchenMediator.addCourier(new Courier(courierId)));
+        }
+        producers.shutdown();
+        assertTrue(producers.awaitTermination(10, TimeUnit.SECONDS));
+
+        long deadline = System.currentTimeMillis() + 10000;
+        while (kitchenMediator.getFoodWaitStats().getCount() < pairs && System.currentTimeMillis() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(50);
+        }
+        kitchenMediator.shutdown();
+
+        assertEquals(DispatchMode.INLINE, kitchenMediator.getDispatchMode());
+        assertEquals(pairs, kitchenMediator.getFoodWaitStats().getCount());
+        assertTrue(kitchenMediator.getReadyOrders().isEmpty());
+        assertTrue(kitchenMediator.getWaitingCouriers().isEmpty());
+    }
+
+    /**
+     * Tests that no order or courier is lost when the dispatch mode switches back and forth while producers publish,
+     * including events published while the dispatcher thread stops.
+     *
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     */
+    @Test
+    void testSwitchingDispatchModeLosesNoEvent() throws InterruptedException {
+        kitchenMediator.setDispatchCommand(fifoStrategy);
+        int pairs = 2000;
+        ExecutorService producers = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < pairs; i++) {
+            int courierId = i;
+            producers.execute(() -> kitchenMediator.addOrder(new Order(UUID.randomUUID().toString(), "Burger", 0)));
+            producers.execute(() -> kitchenMediator.addCourier(new Courier(courierId)));
+        }
+        producers.shutdown();
+        while (!producers.isTerminated()) {
+            kitchenMediator.setDispatchMode(DispatchMode.SINGLE_WRITER);
+            kitchenMediator.setDispatchMode(DispatchMode.INLINE);
+        }
+
+        long deadline = System.currentTimeMillis() + 10000;
+        while (kitchenMediator.getFoodWaitStats().getCount() < pairs && System.currentTimeMillis() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(50);
+        }
+        assertEquals(pairs, kitchenMediator.getFoodWaitStats().getCount());
+        assertTrue(kitchenMediator.getReadyOrders().isEmpty());
+        assertTrue(kitchenMediator.getWaitingCouriers().isEmpty());
+    }
+
+    /**
+     * Tests that the Matched Order Dispatcher Strategy only pairs a courier with the order it was assigned.
+     *
+     * @throws InterruptedException if the thread is interrupted during sleep.
+     */
+    @Test
+    void testMatchedStrategyPairsAssignedOrderOnly() throws InterruptedException {
+        MatchedOrderDispatcherStrategy strategy = new MatchedOrderDispatcherStrategy();
+        kitchenMediator.setDispatchCommand(strategy);
+
+        Order burger = new Order(UUID.randomUUID().toString(), "Burger", 3);
+        Order waffles = new Order(UUID.randomUUID().toString(), "Waffles", 1);
+        kitchenMediator.addOrder(burger);
+        kitchenMediator.addOrder(waffles);
+        kitchenMediator.addCourier(new Courier(1, System.currentTimeMillis(), waffles.getId()));
+
+        TimeUnit.SECONDS.sleep(1); // Wait for the orders to be prepared
+
+        assertEquals(1, kitchenMediator.getFoodWaitStats().getCount());
+        assertEquals(1, strategy.getIndexedOrderCount());
+        assertEquals(0, strategy.getIndexedCourierCount());
+
+        kitchenMediator.addCourier(new Courier(2, System.currentTimeMillis(), burger.getId()));
+
+        assertEquals(2, kitchenMediator.getFoodWaitStats().getCount());
+        assertEquals(0, strategy.getIndexedOrderCount());
+    }
+
+    /**
+     * Tests that a courier whose order was taken by a courier without an assigned order takes the next ready order
+     * instead of waiting forever, and that orders and couriers held by the strategy are still counted.
+     */
+    @Test
+    void testMatchedStrategyReleasesCourierWhoseOrderWasTaken() {
+        KitchenMediator inlineMediator = new KitchenMediator(new VirtualClock(), Runnable::run);
+        MatchedOrderDispatcherStrategy strategy = new MatchedOrderDispatcherStrategy();
+        inlineMediator.setDispatchCommand(strategy);
+
+        Order burger = new Order("burger", "Burger", 0);
+        inlineMediator.addOrder(burger);
+        assertTrue(inlineMediator.getReadyOrders().isEmpty());
+        assertEquals(1, inlineMediator.getReadyOrderCount());
+
+        inlineMediator.addCourier(new Courier(1));
+        assertEquals(1, inlineMediator.getFoodWaitStats().getCount());
+
+        inlineMediator.addCourier(new Courier(2, 0, burger.getId()));
+        assertEquals(1, strategy.getIndexedCourierCount());
+        assertEquals(1, inlineMediator.getWaitingCourierCount());
+
+        inlineMediator.addOrder(new Order("waffles", "Waffles", 0));
+        assertEquals(2, inlineMediator.getFoodWaitStats().getCount());
+        assertEquals(0, strategy.getIndexedCourierCount());
+        assertEquals(0, strategy.getIndexedOrderCount());
+        assertEquals(0, inlineMediator.getReadyOrderCount());
+        assertEquals(0, inlineMediator.getWaitingCourierCount());
+    }
+
+    /**
+     * Tests that in virtual-thread mode an order becomes ready only after its preparation time.
+     *
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     */
+    @Test
+    void testVirtualThreadPreparationBlocksForPrepTime() throws InterruptedException {
+        KitchenMediator virtualThreadMediator = new KitchenMediator(ExecutorMode.VIRTUAL_THREADS);
+        CountDownLatch orderReadyLatch = new CountDownLatch(1);
+        virtualThreadMediator.registerOrderReadyObserver(o -> orderReadyLatch.countDown());
+
+        Order order = new Order(UUID.randomUUID().toString(), "Burger", 1);
+        long submitted = System.currentTimeMillis();
+        virtualThreadMediator.addOrder(order);
+
+        assertTrue(virtualThreadMediator.getReadyOrders().isEmpty());
+        assertTrue(orderReadyLatch.await(5, TimeUnit.SECONDS), "Order preparation timeout");
+        assertTrue(order.getReadyTime() - submitted >= 1000);
+        assertTrue(virtualThreadMediator.getReadyOrders().contains(order));
+    }
+
+    /**
+     * Tests that in TIMING_WHEEL mode the preparation timer completes an order after its preparation time.
+     */
+    @Test
+    void testTimingWheelPreparationCompletesAfterPrepTime() throws InterruptedException {
+        KitchenMediator timingWheelMediator = new KitchenMediator(ExecutorMode.TIMING_WHEEL);
+        CountDownLatch orderReadyLatch = new CountDownLatch(1);
+        timingWheelMediator.registerOrderReadyObserver(o -> orderReadyLatch.countDown());
+
+        Order order = new Order(UUID.randomUUID().toString(), "Burger", 1);
+        long submitted = System.currentTimeMillis();
+        timingWheelMediator.addOrder(order);
+
+        assertTrue(timingWheelMediator.getReadyOrders().isEmpty());
+        assertTrue(orderReadyLatch.await(5, TimeUnit.SECONDS), "Order preparation timeout");
+        assertTrue(order.getReadyTime() - submitted >= 1000);
+        assertTrue(timingWheelMediator.getReadyOrders().contains(order));
+        timingWheelMediator.shutdown();
+    }
+
+    /**
+     * Tests that one dispatch pass over a burst of pairs records every wait time
+     * and notifies observers once per batch.
+     */
+    @Test
+    void testBatchDispatchNotifiesObserversPerBatch() {
+        KitchenMediator batchMediator = new KitchenMediator(SystemClock.INSTANCE, Runnable::run);
+        List<Integer> batchSizes = new ArrayList<>();
+        batchMediator.registerOrderReadyObserver(new OrderReadyObserver() {
+            @Override
+            public void onOrderReady(Order order) {
+            }
+
+            @Override
+            public void onOrdersReady(List<Order> orders) {
+                batchSizes.add(orders.size());
+            }
+        });
+        int pairs = KitchenMediator.DISPATCH_BATCH_SIZE + 10;
+        for (int i = 0; i < pairs; i++) {
+            batchMediator.getReadyOrders().add(new Order(UUID.randomUUID().toString(), "Burger", 1));
+            batchMediator.getWaitingCouriers().add(new Courier(i, 0L));
+        }
+
+        batchMediator.dispatchOrder();
+
+        assertEquals(List.of(KitchenMediator.DISPATCH_BATCH_SIZE, 10), batchSizes);
+        assertEquals(pairs, batchMediator.getFoodWaitStats().getCount());
+        assertEquals(pairs, batchMediator.getCourierWaitStats().getCount());
+        assertTrue(batchMediator.getReadyOrders().isEmpty());
+        assertTrue(batchMediator.getWaitingCouriers().isEmpty());
     }
 }
@@ -0,0 +1,90 @@
+package com.cloud.kitchen;
+
+import com.cloud.kitchen.stats.LatencyHistogram;
+import com.cloud.kitchen.stats.LatencyStats;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The LatencyHistogramTest class contains unit tests for the LatencyHistogram recorder and its snapshots.
+ */
+class LatencyHistogramTest {
+
+    /**
+     * Tests that small values are counted exactly.
+     */
+    @Test
+    void testSmallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100; value++) {
+            histogram.record(value);
+        }
+
+        LatencyStats stats = histogram.snapshot();
+        assertEquals(100, stats.getCount());
+        assertEquals(50.5, stats.getMean(), 1e-9);
+        assertEquals(50, stats.getP50());
+        assertEquals(90, stats.getP90());
+        assertEquals(99, stats.getP99());
+        assertEquals(100, stats.getMax());
+    }
+
+    /**
+     * Tests that percentiles of large values stay within the bucket precision.
+     */
+    @Test
+    void testLargeValuesWithinRelativeError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 1_000_000; value++) {
+            histogram.record(value * 1000);
+        }
+
+        LatencyStats stats = histogram.snapshot();
+        assertEquals(500_000_000, stats.getP50(), 500_000_000 * 0.008);
+        assertEquals(990_000_000, stats.getP99(), 990_000_000 * 0.008);
+        assertEquals(999_000_000, stats.getP999(), 999_000_000 * 0.008);
+        assertEquals(1_000_000_000, stats.getMax());
+        assertEquals(Long.MAX_VALUE, histogramOf(Long.MAX_VALUE).snapshot().getP50());
+    }
+
+    /**
+     * Tests that an empty histogram and negative samples are reported as zero.
+     */
+    @Test
+    void testEmptyAndNegativeSamples() {
+        assertEquals(LatencyStats.EMPTY, new LatencyHistogram().snapshot());
+        LatencyStats stats = histogramOf(-5).snapshot();
+        assertEquals(1, stats.getCount());
+        assertEquals(0, stats.getMax());
+    }
+
+    /**
+     * Tests that recording a batch gives the same statistics as recording its values one by one.
+     */
+    @Test
+    void testRecordAllMatchesRecord() {
+        long[] values = {-3, 0, 7, 250, 4096, 70_000, 1_000_000, 5};
+        LatencyHistogram single = new LatencyHistogram();
+        for (long value : values) {
+            single.record(value);
+        }
+        LatencyHistogram batch = new LatencyHistogram();
+        batch.recordAll(values, values.length - 1);
+        batch.recordAll(new long[]{5}, 1);
+
+        assertEquals(single.snapshot(), batch.snapshot());
+    }
+
+    /**
+     * Creates a histogram holding a single value.
+     *
+     * @param value The value to record.
+     * @return The histogram.
+     */
+    private LatencyHistogram histogramOf(long value) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(value);
+        return histogram;
+    }
+}
@@ -0,0 +1,102 @@
+package com.cloud.kitchen;
+
+import com.cloud.kitchen.clock.VirtualClock;
+import com.cloud.kitchen.mediator.KitchenMediator;
+import com.cloud.kitchen.metrics.DefaultMetricsRegistry;
+import com.cloud.kitchen.metrics.JmxMetricsExporter;
+import com.cloud.kitchen.metrics.MetricsRegistry;
+import com.cloud.kitchen.metrics.PrometheusExporter;
+import com.cloud.kitchen.models.Courier;
+import com.cloud.kitchen.models.Order;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The MetricsTest class contains unit tests for the mediator metrics and their JMX and Prometheus exporters.
+ */
+class MetricsTest {
+
+    /**
+     * Creates a mediator bound to the registry that received and dispatched one order.
+     *
+     * @param registry The registry to bind the mediator metrics to.
+     * @param labels   The labels of the mediator metrics.
+     */
+    private static void dispatchOneOrder(MetricsRegistry registry, String labels) {
+        VirtualClock clock = new VirtualClock();
+        KitchenMediator kitchenMediator = new KitchenMediator(clock, Runnable::run);
+        kitchenMediator.registerMetrics(registry, labels);
+        kitchenMediator.addOrder(new Order("order-1", "Burger", 1));
+        clock.advanceTo(1000);
+        kitchenMediator.addCourier(new Courier(1, 1000L, "order-1"));
+    }
+
+    /**
+     * Tests that the Prometheus text holds the mediator counters and gauges, grouping labelled series
+     * under one HELP and TYPE line, and exports the dispatch pass histogram as a summary.
+     */
+    @Test
+    void testPrometheusScrapeGroupsLabelledSeries() {
+        MetricsRegistry registry = new DefaultMetricsRegistry();
+        dispatchOneOrder(registry, "shard=\"0\"");
+        dispatchOneOrder(registry, "shard=\"1\"");
+
+        String text = new PrometheusExporter(registry).scrape();
+
+        assertEquals(1, text.split("# TYPE kitchen_orders_dispatched_total counter", -1).length - 1);
+        assertTrue(text.contains("kitchen_orders_received_total{shard=\"0\"} 1\n"));
+        assertTrue(text.contains("kitchen_orders_dispatched_total{shard=\"1\"} 1\n"));
+        assertTrue(text.contains("kitchen_ready_orders{shard=\"0\"} 0\n"));
+        assertTrue(text.contains("# TYPE kitchen_dispatch_pass_nanoseconds summary"));
+        assertTrue(text.contains("kitchen_dispatch_pass_nanoseconds_count{shard=\"0\"} 2\n"));
+        assertTrue(text.contains("kitchen_dispatch_pass_nanoseconds{shard=\"1\",quantile=\"0.99\"} "));
+    }
+
+    /**
+     * Tests that the HTTP exporter serves the scrape on /metrics.
+     */
+    @Test
+    void testPrometheusHttpEndpoint() throws Exception {
+        MetricsRegistry registry = new DefaultMetricsRegistry();
+        dispatchOneOrder(registry, "");
+        try (PrometheusExporter exporter = new PrometheusExporter(registry)) {
+            exporter.start(0);
+            HttpResponse<String> response = HttpClient.newHttpClient().send(
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + exporter.getPort() + "/metrics")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+
+            assertEquals(200, response.statusCode());
+            assertEquals(PrometheusExporter.CONTENT_TYPE, response.headers().firstValue("Content-Type").orElseThrow());
+            assertTrue(response.body().contains("kitchen_couriers_arrived_total 1\n"));
+        }
+    }
+
+    /**
+     * Tests that the MBean exposes counters, their rates and histogram percentiles as attributes.
+     */
+    @Test
+    void testJmxAttributes() throws Exception {
+        MetricsRegistry registry = new DefaultMetricsRegistry();
+        dispatchOneOrder(registry, "");
+        MBeanServer server = MBeanServerFactory.newMBeanServer();
+        ObjectName objectName = new ObjectName(JmxMetricsExporter.DEFAULT_OBJECT_NAME);
+        try (JmxMetricsExporter exporter = new JmxMetricsExporter(registry)) {
+            exporter.register(server, objectName);
+
+            assertEquals(1L, server.getAttribute(objectName, "kitchen_orders_prepared_total"));
+            assertTrue((Double) server.getAttribute(objectName, "kitchen_orders_prepared_total_per_second") > 0);
+            assertEquals(2L, server.getAttribute(objectName, "kitchen_dispatch_pass_nanoseconds_count"));
+            assertEquals(0L, server.getAttribute(objectName, "kitchen_waiting_couriers"));
+        }
+        assertFalse(server.isRegistered(objectName));
+    }
+}
@@ -0,0 +1,191 @@
+package com.cloud.kitchen;
+
+import com.cloud.kitchen.clock.VirtualClock;
+import com.cloud.kitchen.concurrent.OffHeapCourierQueue;
+import com.cloud.kitchen.concurrent.OffHeapOrderQueue;
+import com.cloud.kitchen.mediator.KitchenMediator;
+import com.cloud.kitchen.mediator.QueueMode;
+import com.cloud.kitchen.metrics.DefaultMetricsRegistry;
+import com.cloud.kitchen.metrics.MetricsRegistry;
+import com.cloud.kitchen.metrics.PrometheusExporter;
+import com.cloud.kitchen.models.Courier;
+import com.cloud.kitchen.models.Order;
+import com.cloud.kitchen.strategy.DispatchStrategyType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The OffHeapRingQueueTest class contains unit tests for the off-heap order and courier queues
+ * and for a mediator backed by them.
+ */
+class OffHeapRingQueueTest {
+
+    /**
+     * Creates an order with a random UUID.
+     *
+     * @param name     The order name.
+     * @param prepTime The preparation time in seconds.
+     * @return The order.
+     */
+    private static Order order(String name, int prepTime) {
+        return new Order(UUID.randomUUID().toString(), name, prepTime);
+    }
+
+    /**
+     * Tests that orders and couriers come out equal and in order, with the placement times and shelf lives
+     * of the orders, and that a full queue refuses offers.
+     */
+    @Test
+    void testRoundTripsRecordsInOrder() {
+        OffHeapOrderQueue orders = new OffHeapOrderQueue(4);
+        List<Order> added = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Order order = order(i % 2 == 0 ? "Burger" : "Salad", i + 1);
+            order.setReadyTime(1000L * i);
+            order.setPlacedTime(250L * i);
+            order.setShelfLife(30 + i);
+            added.add(order);
+            assertTrue(orders.offer(order));
+        }
+        assertFalse(orders.offer(order("Soup", 5)));
+        assertThrows(IllegalStateException.class, () -> orders.add(order("Soup", 5)));
+        assertEquals(added, new ArrayList<>(orders));
+        Order polled = orders.poll();
+        assertEquals(added.get(0), polled);
+        assertEquals(0, polled.getPlacedTime());
+        assertEquals(30, polled.getShelfLife());
+        Order next = orders.peek();
+        assertEquals(250, next.getPlacedTime());
+        assertEquals(31, next.getShelfLife());
+        assertTrue(orders.offer(order("Soup", 5)));
+        assertEquals(4, orders.size());
+
+        OffHeapCourierQueue couriers = new OffHeapCourierQueue(2);
+        Courier assigned = new Courier(1, 1500L, added.get(1).getId());
+        Courier unassigned = new Courier(2, 2500L, null);
+        couriers.add(assigned);
+        couriers.add(unassigned);
+        Courier first = couriers.poll();
+        assertEquals(assigned, first);
+        assertEquals(added.get(1).getId(), first.getTargetOrderId());
+        assertNull(couriers.poll().getTargetOrderId());
+        assertNull(couriers.poll());
+    }
+
+    /**
+     * Tests that removing from the middle hides the record from iteration and size,
+     * and that the head skips it once it reaches it.
+     */
+    @Test
+    void testRemoveSkipsRemovedRecords() {
+        OffHeapOrderQueue orders = new OffHeapOrderQueue(8);
+        List<Order> added = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            added.add(order("Burger", i + 1));
+            orders.add(added.get(i));
+        }
+
+        assertTrue(orders.remove(added.get(2)));
+        assertFalse(orders.remove(added.get(2)));
+        Iterator<Order> iterator = orders.iterator();
+        assertEquals(added.get(0), iterator.next());
+        assertEquals(added.get(1), iterator.next());
+        iterator.remove();
+        assertEquals(added.get(3), iterator.next());
+        assertEquals(3, orders.size());
+
+        assertEquals(added.get(0), orders.poll());
+        assertEquals(added.get(3), orders.poll());
+        assertEquals(added.get(4), orders.poll());
+        assertTrue(orders.isEmpty());
+    }
+
+    /**
+     * Tests that FIFO and Auction mediators record the same wait times with off-heap queues as with heap queues.
+     */
+    @Test
+    void testOffHeapMediatorMatchesHeapMediator() {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            orders.add(order("Meal " + i % 7, 1 + i % 11));
+        }
+        for (DispatchStrategyType type : List.of(DispatchStrategyType.FIFO, DispatchStrategyType.AUCTION)) {
+            KitchenMediator heap = replay(orders, type, QueueMode.HEAP);
+            KitchenMediator offHeap = replay(orders, type, QueueMode.OFF_HEAP);
+
+            assertEquals(orders.size(), offHeap.getFoodWaitStats().getCount());
+            assertEquals(heap.getFoodWaitStats(), offHeap.getFoodWaitStats(), type + " food wait");
+            assertEquals(heap.getCourierWaitStats(), offHeap.getCourierWaitStats(), type + " courier wait");
+            assertTrue(offHeap.getReadyOrders().isEmpty());
+        }
+    }
+
+    /**
+     * Tests that a mediator on full off-heap queues drops the ready order or turns the courier away,
+     * counting and reporting it, and that a strategy putting back an item into a full queue does the same.
+     */
+    @Test
+    void testFullQueuesDropAndCountItems() {
+        VirtualClock clock = new VirtualClock();
+        MetricsRegistry registry = new DefaultMetricsRegistry();
+        KitchenMediator kitchenMediator = new KitchenMediator(clock, Runnable::run, QueueMode.OFF_HEAP, 2);
+        kitchenMediator.registerMetrics(registry, "");
+        List<Order> rejectedOrders = new ArrayList<>();
+        kitchenMediator.registerOrderRejectedObserver(rejectedOrders::add);
+        Order dropped = order("Soup", 0);
+        kitchenMediator.addOrder(order("Burger", 0));
+        kitchenMediator.addOrder(order("Salad", 0));
+        kitchenMediator.addOrder(dropped);
+
+        assertEquals(List.of(dropped), rejectedOrders);
+        assertEquals(2, kitchenMediator.getReadyOrders().size());
+        kitchenMediator.requeueOrder(kitchenMediator.getReadyOrders(), order("Pizza", 0));
+        assertEquals(2, rejectedOrders.size());
+
+        KitchenMediator couriers = new KitchenMediator(clock, Runnable::run, QueueMode.OFF_HEAP, 2);
+        couriers.registerMetrics(registry, "shard=\"1\"");
+        for (int i = 0; i < 3; i++) {
+            couriers.addCourier(new Courier(i, 0L, null));
+        }
+        assertEquals(2, couriers.getWaitingCouriers().size());
+
+        String text = new PrometheusExporter(registry).scrape();
+        assertTrue(text.contains("kitchen_orders_dropped_total 2\n"));
+        assertTrue(text.contains("kitchen_couriers_dropped_total{shard=\"1\"} 1\n"));
+    }
+
+    /**
+     * Replays orders on a virtual clock with preparation completing inline: every 100 ms an order is ready
+     * and, every third step from the third on, three couriers assigned to the earliest orders arrive.
+     *
+     * @param orders    The orders to replay.
+     * @param type      The dispatch strategy.
+     * @param queueMode The backing of the mediator queues.
+     * @return The mediator after every order was picked up.
+     */
+    private static KitchenMediator replay(List<Order> orders, DispatchStrategyType type, QueueMode queueMode) {
+        VirtualClock clock = new VirtualClock();
+        KitchenMediator kitchenMediator = new KitchenMediator(clock, Runnable::run, queueMode);
+        kitchenMediator.setDispatchCommand(type.create());
+        int courier = 0;
+        for (int i = 0; i < orders.size() + 3; i++) {
+            clock.advanceTo(100L * i);
+            if (i < orders.size()) {
+                Order order = orders.get(i);
+                kitchenMediator.addOrder(new Order(order.getId(), order.getName(), order.getPrepTime()));
+            }
+            if (i >= 3 && i % 3 == 0) {
+                for (int arrival = 0; arrival < 3 && courier < orders.size(); arrival++, courier++) {
+                    kitchenMediator.addCourier(new Courier(courier, clock.currentMilliSeconds(), orders.get(courier).getId()));
+                }
+            }
+        }
+        return kitchenMediator;
+    }
+}
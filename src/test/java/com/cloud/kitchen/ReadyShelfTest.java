@@ -0,0 +1,200 @@
+package com.cloud.kitchen;
+
+import com.cloud.kitchen.clock.VirtualClock;
+import com.cloud.kitchen.mediator.AdmissionController;
+import com.cloud.kitchen.mediator.KitchenMediator;
+import com.cloud.kitchen.mediator.OverflowPolicy;
+import com.cloud.kitchen.mediator.ReadyShelf;
+import com.cloud.kitchen.models.Courier;
+import com.cloud.kitchen.models.Order;
+import com.cloud.kitchen.strategy.DispatchStrategyType;
+import com.cloud.kitchen.strategy.FreshnessOrderDispatcherStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The ReadyShelfTest class contains unit tests for the ready shelf and the Freshness dispatch strategy.
+ * Mediators run preparations inline on a virtual clock, so each order is ready at the time it is added.
+ */
+class ReadyShelfTest {
+
+    private final VirtualClock clock = new VirtualClock();
+    private final List<Order> rejectedOrders = new CopyOnWriteArrayList<>();
+
+    /**
+     * Creates a mediator preparing orders inline, with ready orders on the given shelf.
+     *
+     * @param readyShelf The ready shelf.
+     * @return The mediator.
+     */
+    private KitchenMediator mediator(ReadyShelf readyShelf) {
+        KitchenMediator kitchenMediator = new KitchenMediator(clock, Runnable::run);
+        kitchenMediator.setReadyShelf(readyShelf);
+        kitchenMediator.registerOrderRejectedObserver(rejectedOrders::add);
+        return kitchenMediator;
+    }
+
+    /**
+     * Creates an order with no preparation time and the given shelf life.
+     *
+     * @param id        The order id.
+     * @param shelfLife The shelf life in seconds, or 0 for the default of the shelf.
+     * @return The order.
+     */
+    private static Order order(String id, int shelfLife) {
+        Order order = new Order(id, "Burger", 0);
+        order.setShelfLife(shelfLife);
+        return order;
+    }
+
+    /**
+     * Tests that the shelf hands out orders closest to expiry first, an order's own shelf life overriding the default,
+     * and orders expiring together in the order they were shelved.
+     */
+    @Test
+    void testPollsOrdersClosestToExpiryFirst() {
+        ReadyShelf shelf = new ReadyShelf(clock, ReadyShelf.UNBOUNDED, 60, TimeUnit.SECONDS);
+        Order first = order("1", 0);
+        Order second = order("2", 0);
+        Order urgent = order("3", 10);
+        for (Order order : List.of(first, second, urgent)) {
+            order.setReadyTime(clock.currentMilliSeconds());
+            shelf.add(order);
+        }
+
+        assertEquals(TimeUnit.SECONDS.toNanos(10), shelf.getExpiryNanoTime(urgent));
+        assertEquals(3, shelf.size());
+        assertSame(urgent, shelf.peek());
+        List<Order> polled = new ArrayList<>();
+        Order order;
+        while ((order = shelf.poll()) != null) {
+            polled.add(order);
+        }
+        assertEquals(List.of(urgent, first, second), polled);
+        assertTrue(shelf.isEmpty());
+        assertEquals(0, shelf.size());
+    }
+
+    /**
+     * Tests that an order is found and taken off the shelf wherever it sits, once,
+     * and that the rest of the shelf keeps its order.
+     */
+    @Test
+    void testRemovesArbitraryOrder() {
+        ReadyShelf shelf = new ReadyShelf(clock, ReadyShelf.UNBOUNDED, 60, TimeUnit.SECONDS);
+        List<Order> shelved = List.of(order("1", 10), order("2", 20), order("3", 30));
+        shelved.forEach(shelf::add);
+
+        assertTrue(shelf.contains(shelved.get(1)));
+        assertTrue(shelf.remove(shelved.get(1)));
+        assertFalse(shelf.remove(shelved.get(1)));
+        assertFalse(shelf.contains(shelved.get(1)));
+        assertFalse(shelf.remove(order("4", 10)));
+        assertEquals(2, shelf.size());
+        assertSame(shelved.get(0), shelf.poll());
+        assertFalse(shelf.contains(shelved.get(0)));
+        assertSame(shelved.get(2), shelf.poll());
+        assertTrue(shelf.isEmpty());
+    }
+
+    /**
+     * Tests that a dispatch pass discards the orders past their shelf life, counts and reports them,
+     * and hands the fresh order to the waiting courier.
+     */
+    @Test
+    void testDiscardsExpiredOrders() {
+        KitchenMediator kitchenMediator = mediator(new ReadyShelf(clock, ReadyShelf.UNBOUNDED, 30, TimeUnit.SECONDS));
+        Order expired = order("1", 5);
+        Order fresh = order("2", 0);
+        kitchenMediator.addOrder(expired);
+        kitchenMediator.addOrder(fresh);
+        assertEquals(2, kitchenMediator.getReadyOrders().size());
+
+        clock.advanceTo(TimeUnit.SECONDS.toMillis(5));
+        kitchenMediator.addCourier(new Courier(1, clock.currentMilliSeconds()));
+
+        assertEquals(List.of(expired), rejectedOrders);
+        assertTrue(kitchenMediator.getReadyOrders().isEmpty());
+        assertTrue(kitchenMediator.getWaitingCouriers().isEmpty());
+        assertEquals(1, kitchenMediator.getFoodWaitStats().getCount());
+        assertEquals(5000, kitchenMediator.getFoodWaitStats().getMax());
+    }
+
+    /**
+     * Tests that a full shelf evicts the order closest to expiry for a fresher one,
+     * and frees the admission shelf slot of expired orders so orders held at the pass move onto the shelf.
+     */
+    @Test
+    void testEvictsOrderClosestToExpiryWhenFull() {
+        ReadyShelf shelf = new ReadyShelf(clock, 2, 30, TimeUnit.SECONDS);
+        KitchenMediator kitchenMediator = mediator(shelf);
+        Order urgent = order("1", 10);
+        kitchenMediator.addOrder(urgent);
+        kitchenMediator.addOrder(order("2", 0));
+        kitchenMediator.addOrder(order("3", 0));
+
+        assertEquals(List.of(urgent), rejectedOrders);
+        assertEquals(2, shelf.size());
+        assertEquals(2, shelf.getCapacity());
+
+        AdmissionController admission = new AdmissionController(AdmissionController.UNBOUNDED, 0, 1, OverflowPolicy.BLOCK);
+        KitchenMediator admitted = new KitchenMediator(clock, Runnable::run);
+        admitted.setAdmissionController(admission);
+        admitted.setReadyShelf(new ReadyShelf(clock, 1, 10, TimeUnit.SECONDS));
+        Order held = order("5", 20);
+        admitted.addOrder(order("4", 0));
+        admitted.addOrder(held);
+        assertEquals(1, admission.getHeldOrderCount());
+
+        clock.advanceTo(clock.currentMilliSeconds() + TimeUnit.SECONDS.toMillis(10));
+        admitted.dispatchOrder();
+        assertEquals(0, admission.getHeldOrderCount());
+        assertEquals(1, admission.getShelfOrderCount());
+        assertSame(held, admitted.getReadyOrders().peek());
+    }
+
+    /**
+     * Tests that the Freshness strategy fails fast on a plain ready queue instead of scanning it for each courier.
+     */
+    @Test
+    void testFreshnessStrategyRequiresShelf() {
+        KitchenMediator kitchenMediator = new KitchenMediator(clock, Runnable::run);
+        kitchenMediator.setDispatchCommand(new FreshnessOrderDispatcherStrategy());
+
+        assertThrows(IllegalStateException.class, () -> kitchenMediator.addOrder(order("1", 20)));
+    }
+
+    /**
+     * Tests that installing the Freshness strategy type on a mediator without a shelf puts its ready orders
+     * on an unbounded shelf, so couriers get the order closest to expiry by its own shelf life and orders
+     * without one never expire.
+     */
+    @Test
+    void testFreshnessTypeInstallsShelf() {
+        KitchenMediator kitchenMediator = new KitchenMediator(clock, Runnable::run);
+        DispatchStrategyType.FRESHNESS.install(kitchenMediator);
+        assertNotNull(kitchenMediator.getReadyShelf());
+        List<Order> pickedUp = new ArrayList<>();
+        Order first = order("1", 0);
+        Order second = order("2", 60);
+        kitchenMediator.addOrder(first);
+        kitchenMediator.addOrder(second);
+        clock.advanceTo(1000);
+        Order urgent = order("3", 20);
+        kitchenMediator.addOrder(urgent);
+        assertEquals(3, kitchenMediator.getReadyOrderCount());
+
+        kitchenMediator.registerOrderReadyObserver(pickedUp::add);
+        kitchenMediator.addCourier(new Courier(1, clock.currentMilliSeconds()));
+
+        assertEquals(List.of(urgent), pickedUp);
+        assertEquals(List.of(second, first), List.copyOf(kitchenMediator.getReadyOrders()));
+        assertEquals(2, kitchenMediator.getReadyOrderCount());
+    }
+}
@@ -0,0 +1,67 @@
+package com.cloud.kitchen;
+
+import com.cloud.kitchen.mediator.KitchenMediator;
+import com.cloud.kitchen.models.Order;
+import com.cloud.kitchen.simulation.CourierArrivalDistribution;
+import com.cloud.kitchen.simulation.Simulation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The SimulationTest class contains unit tests for waiting on a wall-clock simulation to complete.
+ */
+class SimulationTest {
+
+    private KitchenMediator kitchenMediator;
+    private Simulation simulation;
+
+    /**
+     * Sets up a mediator on the system clock.
+     */
+    @BeforeEach
+    void setUp() {
+        kitchenMediator = new KitchenMediator();
+    }
+
+    /**
+     * Shuts down the simulation and the mediator.
+     */
+    @AfterEach
+    void tearDown() {
+        simulation.shutdown();
+        kitchenMediator.shutdown();
+    }
+
+    /**
+     * Tests that awaiting completion returns once every order is picked up, well before the timeout.
+     */
+    @Test
+    void testAwaitCompletionReturnsOncePickedUp() throws InterruptedException {
+        simulation = new Simulation(kitchenMediator, Stream.of(new Order("1", "Burger", 0), new Order("2", "Pizza", 0),
+                new Order("3", "Salad", 0)), CourierArrivalDistribution.uniform(1, 10), 1);
+
+        simulation.processOrders();
+
+        assertTrue(simulation.awaitCompletion(10, TimeUnit.SECONDS));
+        assertEquals(3, kitchenMediator.getFoodWaitStats().getCount());
+    }
+
+    /**
+     * Tests that awaiting completion gives up at the timeout while orders wait for couriers arriving every four seconds.
+     */
+    @Test
+    void testAwaitCompletionTimesOutWithOrdersInFlight() throws InterruptedException {
+        simulation = new Simulation(kitchenMediator, Stream.of(new Order("1", "Burger", 0), new Order("2", "Pizza", 0)));
+
+        simulation.processOrders();
+
+        assertFalse(simulation.awaitCompletion(200, TimeUnit.MILLISECONDS));
+        assertTrue(kitchenMediator.getFoodWaitStats().getCount() < 2);
+    }
+}
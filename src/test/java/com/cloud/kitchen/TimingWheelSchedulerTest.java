@@ -0,0 +1,81 @@
+package com.cloud.kitchen;
+
+import com.cloud.kitchen.concurrent.TimingWheelScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The TimingWheelSchedulerTest class contains unit tests for the TimingWheelScheduler timer.
+ */
+class TimingWheelSchedulerTest {
+
+    private TimingWheelScheduler scheduler;
+
+    /**
+     * Sets up a small wheel of 8 buckets of 5 milliseconds, so a 100 millisecond timer spans several rounds.
+     */
+    @BeforeEach
+    void setUp() {
+        scheduler = new TimingWheelScheduler(5, TimeUnit.MILLISECONDS, 8, Runnable::run);
+    }
+
+    /**
+     * Stops the worker thread.
+     */
+    @AfterEach
+    void tearDown() {
+        scheduler.close();
+    }
+
+    /**
+     * Tests that a timer beyond one revolution of the wheel fires after its delay and not before.
+     */
+    @Test
+    void testTimerFiresAfterDelay() throws InterruptedException {
+        CountDownLatch fired = new CountDownLatch(1);
+        long scheduled = System.nanoTime();
+        TimingWheelScheduler.Timeout timeout = scheduler.schedule(fired::countDown, 100, TimeUnit.MILLISECONDS);
+
+        assertTrue(fired.await(5, TimeUnit.SECONDS), "Timer did not fire");
+        assertTrue(System.nanoTime() - scheduled >= TimeUnit.MILLISECONDS.toNanos(100));
+        assertTrue(timeout.isExpired());
+        assertEquals(0, scheduler.pendingTimeouts());
+    }
+
+    /**
+     * Tests that a cancelled timer never fires.
+     */
+    @Test
+    void testCancelledTimerDoesNotFire() throws InterruptedException {
+        CountDownLatch cancelledFired = new CountDownLatch(1);
+        CountDownLatch laterFired = new CountDownLatch(1);
+        TimingWheelScheduler.Timeout timeout = scheduler.schedule(cancelledFired::countDown, 20, TimeUnit.MILLISECONDS);
+        scheduler.schedule(laterFired::countDown, 60, TimeUnit.MILLISECONDS);
+
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel());
+        assertTrue(laterFired.await(5, TimeUnit.SECONDS), "Timer did not fire");
+        assertEquals(1, cancelledFired.getCount());
+        assertTrue(timeout.isCancelled());
+    }
+
+    /**
+     * Tests that timers scheduled in reverse order of their delays all fire.
+     */
+    @Test
+    void testManyTimersFire() throws InterruptedException {
+        CountDownLatch fired = new CountDownLatch(1000);
+        for (int i = 1000; i > 0; i--) {
+            scheduler.schedule(fired::countDown, i % 50, TimeUnit.MILLISECONDS);
+        }
+
+        assertTrue(fired.await(5, TimeUnit.SECONDS), "Timers did not fire");
+        assertEquals(0, scheduler.pendingTimeouts());
+    }
+}
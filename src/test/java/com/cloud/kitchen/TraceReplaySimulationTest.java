@@ -0,0 +1,108 @@
+package com.cloud.kitchen;
+
+import com.cloud.kitchen.journal.BinaryJournalSink;
+import com.cloud.kitchen.journal.EventJournal;
+import com.cloud.kitchen.mediator.KitchenMediator;
+import com.cloud.kitchen.simulation.DiscreteEventSimulation;
+import com.cloud.kitchen.simulation.TraceReplaySimulation;
+import com.cloud.kitchen.strategy.FifoOrderDispatcherStrategy;
+import com.cloud.kitchen.strategy.MatchedOrderDispatcherStrategy;
+import com.cloud.kitchen.util.JsonUtility;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The TraceReplaySimulationTest class contains unit tests for replaying recorded traces with TraceReplaySimulation.
+ * It tests that a replay reproduces the recorded run, compresses time by its speed-up and restores the order of late records.
+ */
+class TraceReplaySimulationTest {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Tests that replaying the trace of a run with the same strategy reproduces its wait times.
+     */
+    @Test
+    void testReplayReproducesRecordedRun() {
+        Path trace = directory.resolve("fifo.trace");
+        KitchenMediator recorded = recordRun(trace);
+
+        TraceReplaySimulation replay = new TraceReplaySimulation(trace, TraceReplaySimulation.AS_FAST_AS_POSSIBLE);
+        replay.getKitchenMediator().setDispatchCommand(new FifoOrderDispatcherStrategy());
+        replay.processOrders();
+
+        assertTrue(recorded.getFoodWaitStats().getCount() > 0);
+        assertEquals(recorded.getFoodWaitStats(), replay.getKitchenMediator().getFoodWaitStats());
+        assertEquals(recorded.getCourierWaitStats(), replay.getKitchenMediator().getCourierWaitStats());
+    }
+
+    /**
+     * Tests that a trace replayed with another strategy dispatches every order, each courier picking up its own order.
+     */
+    @Test
+    void testReplayWithAnotherStrategy() {
+        Path trace = directory.resolve("fifo.trace");
+        KitchenMediator recorded = recordRun(trace);
+
+        TraceReplaySimulation replay = new TraceReplaySimulation(trace, TraceReplaySimulation.AS_FAST_AS_POSSIBLE);
+        replay.getKitchenMediator().setDispatchCommand(new MatchedOrderDispatcherStrategy());
+        replay.processOrders();
+
+        assertEquals(recorded.getFoodWaitStats().getCount(), replay.getKitchenMediator().getFoodWaitStats().getCount());
+        assertTrue(replay.getKitchenMediator().getReadyOrders().isEmpty());
+    }
+
+    /**
+     * Tests that a trace spanning two seconds takes about two hundred milliseconds at ten times the recorded speed,
+     * and that records journaled out of order within the reorder window fire in time order.
+     */
+    @Test
+    void testSpeedUpCompressesTraceTime() {
+        Path trace = directory.resolve("paced.trace");
+        String late = UUID.randomUUID().toString();
+        String onTime = UUID.randomUUID().toString();
+        EventJournal journal = new EventJournal(new BinaryJournalSink(trace));
+        journal.orderReady(onTime, 10_000);
+        journal.courierArrived(1, onTime, 10_500);
+        // Journaled after a later record, as a slow producer thread would
+        journal.orderReady(late, 10_400);
+        journal.courierArrived(2, late, 12_000);
+        journal.close();
+
+        TraceReplaySimulation replay = new TraceReplaySimulation(trace, 10);
+        replay.getKitchenMediator().setDispatchCommand(new MatchedOrderDispatcherStrategy());
+        long startNanos = System.nanoTime();
+        replay.processOrders();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+
+        assertTrue(elapsedMillis >= 190, "Elapsed " + elapsedMillis + " ms");
+        assertEquals(4, replay.getProcessedEvents());
+        assertEquals(12_000, replay.getClock().currentMilliSeconds());
+        assertEquals(2, replay.getKitchenMediator().getFoodWaitStats().getCount());
+        // The late order was ready at 10 400 and picked up at 12 000
+        assertEquals(1600, replay.getKitchenMediator().getFoodWaitStats().getMax());
+    }
+
+    /**
+     * Runs a discrete-event simulation of the orders file to completion with FIFO, recording its trace.
+     *
+     * @param trace The trace file to write.
+     * @return The mediator driven by the simulation.
+     */
+    private static KitchenMediator recordRun(Path trace) {
+        DiscreteEventSimulation simulation = new DiscreteEventSimulation(JsonUtility.readOrders(), 1000, Long.MAX_VALUE);
+        KitchenMediator kitchenMediator = simulation.getKitchenMediator();
+        kitchenMediator.setDispatchCommand(new FifoOrderDispatcherStrategy());
+        kitchenMediator.setEventJournal(new EventJournal(new BinaryJournalSink(trace)));
+        simulation.processOrders();
+        kitchenMediator.getEventJournal().close();
+        return kitchenMediator;
+    }
+}
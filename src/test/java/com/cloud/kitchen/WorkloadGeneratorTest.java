@@ -0,0 +1,110 @@
+package com.cloud.kitchen;
+
+import com.cloud.kitchen.models.Order;
+import com.cloud.kitchen.simulation.DiscreteEventSimulation;
+import com.cloud.kitchen.util.BinaryOrderLog;
+import com.cloud.kitchen.util.JsonUtility;
+import com.cloud.kitchen.workload.ArrivalProcess;
+import com.cloud.kitchen.workload.LogNormalPrepTimeDistribution;
+import com.cloud.kitchen.workload.WorkloadGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The WorkloadGeneratorTest class contains unit tests for the synthetic WorkloadGenerator and its arrival processes.
+ * It tests that workloads are reproducible, follow their arrival rate and keep their placement times on disk and in simulation.
+ */
+class WorkloadGeneratorTest {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Tests that the same seed generates the same orders and placement times, and another seed different ones.
+     */
+    @Test
+    void testSameSeedGeneratesSameWorkload() {
+        List<Order> first = generate(ArrivalProcess.poisson(100), 1000, 7);
+        List<Order> second = generate(ArrivalProcess.poisson(100), 1000, 7);
+        List<Order> other = generate(ArrivalProcess.poisson(100), 1000, 8);
+
+        assertEquals(first, second);
+        assertEquals(first.stream().map(Order::getPlacedTime).toList(), second.stream().map(Order::getPlacedTime).toList());
+        assertNotEquals(first, other);
+        assertEquals(4, UUID.fromString(first.get(0).getId()).version());
+    }
+
+    /**
+     * Tests that every arrival process places orders in order at about its mean rate,
+     * and that the flash crowd process places more orders during bursts than between them.
+     */
+    @Test
+    void testArrivalProcessesFollowTheirRate() {
+        for (String name : List.of("constant", "poisson", "diurnal")) {
+            List<Order> orders = generate(WorkloadGenerator.parseArrivalProcess(name, 1000), 120_000, 1);
+            for (int i = 1; i < orders.size(); i++) {
+                assertTrue(orders.get(i).getPlacedTime() >= orders.get(i - 1).getPlacedTime());
+            }
+            double ordersPerSecond = orders.size() * 1000.0 / orders.get(orders.size() - 1).getPlacedTime();
+            assertEquals(1000, ordersPerSecond, 50, name);
+        }
+
+        List<Order> flashCrowd = generate(ArrivalProcess.flashCrowd(100, 1000, 1000, 100), 20_000, 1);
+        long inBursts = flashCrowd.stream().filter(order -> order.getPlacedTime() % 1000 >= 900).count();
+        // Bursts last a tenth of the time at ten times the rate, so they hold about half of the orders
+        assertEquals(0.5, (double) inBursts / flashCrowd.size(), 0.05);
+    }
+
+    /**
+     * Tests that a generated workload written to a binary order log reads back with its placement times.
+     */
+    @Test
+    void testWorkloadRoundTripsThroughOrderLog() throws Exception {
+        WorkloadGenerator generator = new WorkloadGenerator(ArrivalProcess.diurnal(500, 0.8, 10_000),
+                new LogNormalPrepTimeDistribution(8, 0.5, 60), List.of("Burger", "Pizza", "Salad"), 3);
+        List<Order> expected = generator.stream(10_000).toList();
+        Path log = directory.resolve("workload.bin");
+
+        assertEquals(expected.size(), generator.write(expected.size(), log));
+        try (BinaryOrderLog orderLog = BinaryOrderLog.open(log)) {
+            List<Order> actual = orderLog.stream().toList();
+            assertEquals(expected, actual);
+            assertEquals(expected.stream().map(Order::getPlacedTime).toList(), actual.stream().map(Order::getPlacedTime).toList());
+        }
+        assertTrue(expected.stream().allMatch(order -> order.getPrepTime() >= 1 && order.getPrepTime() <= 60));
+    }
+
+    /**
+     * Tests that the discrete-event simulation receives each order at its placement time rather than all at once.
+     */
+    @Test
+    void testSimulationHonorsPlacementTimes() {
+        List<Order> orders = generate(ArrivalProcess.constant(1), 10, 1);
+        DiscreteEventSimulation simulation = new DiscreteEventSimulation(orders,
+                DiscreteEventSimulation.DEFAULT_COURIER_INTERVAL_MILLIS, 5_000);
+        simulation.processOrders();
+
+        // One order per second, each prepared in at least a second, so at most four are ready within five seconds
+        long readyOrders = simulation.getKitchenMediator().getFoodWaitStats().getCount()
+                + simulation.getKitchenMediator().getReadyOrders().size();
+        assertTrue(readyOrders <= 4, "Ready orders: " + readyOrders);
+    }
+
+    /**
+     * Generates a workload with the menu and preparation times of the orders file on the classpath.
+     *
+     * @param arrivalProcess The process drawing placement times.
+     * @param count          The number of orders to generate.
+     * @param seed           The seed of the workload.
+     * @return The generated orders.
+     */
+    private static List<Order> generate(ArrivalProcess arrivalProcess, long count, long seed) {
+        return WorkloadGenerator.fromSample(arrivalProcess, JsonUtility.readOrders(), seed).stream(count).toList();
+    }
+}
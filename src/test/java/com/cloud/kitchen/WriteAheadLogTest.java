@@ -0,0 +1,271 @@
+package com.cloud.kitchen;
+
+import com.cloud.kitchen.clock.VirtualClock;
+import com.cloud.kitchen.journal.MediatorState;
+import com.cloud.kitchen.journal.WriteAheadLog;
+import com.cloud.kitchen.mediator.KitchenMediator;
+import com.cloud.kitchen.mediator.ReadyShelf;
+import com.cloud.kitchen.models.Courier;
+import com.cloud.kitchen.models.Order;
+import com.cloud.kitchen.strategy.MatchedOrderDispatcherStrategy;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The WriteAheadLogTest class contains unit tests for the write-ahead log and mediator crash recovery.
+ */
+class WriteAheadLogTest {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * The RacingShelf class is a ready shelf on which a dispatch pass runs as soon as an order is shelved,
+     * as a pass on another thread would between the mediator queuing the order and returning.
+     */
+    private static final class RacingShelf extends ReadyShelf {
+
+        private KitchenMediator kitchenMediator;
+
+        /**
+         * Constructs an unbounded RacingShelf where nothing expires.
+         *
+         * @param clock The clock of the mediator.
+         */
+        private RacingShelf(VirtualClock clock) {
+            super(clock, ReadyShelf.UNBOUNDED, ReadyShelf.NO_EXPIRY, TimeUnit.SECONDS);
+        }
+
+        /**
+         * Shelves an order, then runs a dispatch pass of the mediator.
+         *
+         * @param order The ready order.
+         * @return true, the shelf is unbounded.
+         */
+        @Override
+        public boolean offer(Order order) {
+            boolean shelved = super.offer(order);
+            kitchenMediator.dispatchOrder();
+            return shelved;
+        }
+    }
+
+    /**
+     * Copies the files of a live log, as a crash would leave them.
+     *
+     * @param source The directory of the live log.
+     * @param target The directory to copy to.
+     * @throws IOException if a file cannot be copied.
+     */
+    private static void copyCrashImage(Path source, Path target) throws IOException {
+        Files.createDirectories(target);
+        try (Stream<Path> files = Files.list(source)) {
+            for (Path file : files.toList()) {
+                Files.copy(file, target.resolve(file.getFileName()));
+            }
+        }
+    }
+
+    /**
+     * Runs a Matched mediator logging to the directory until order-1 is picked up, order-2 is ready,
+     * order-3 is in preparation and the courier of order-3 waits, then waits for the log to be durable.
+     * Order-2 and order-3 carry placement times and shelf lives.
+     *
+     * @param writeAheadLog The log of the mediator.
+     */
+    private static void runUntilCrash(WriteAheadLog writeAheadLog) {
+        VirtualClock clock = new VirtualClock();
+        List<Runnable> preparations = new ArrayList<>();
+        KitchenMediator kitchenMediator = new KitchenMediator(clock, preparations::add);
+        kitchenMediator.setDispatchCommand(new MatchedOrderDispatcherStrategy());
+        kitchenMediator.setWriteAheadLog(writeAheadLog);
+        kitchenMediator.addOrder(new Order("order-1", "Burger", 2));
+        Order salad = new Order("order-2", "Salad", 3, 250);
+        salad.setShelfLife(30);
+        kitchenMediator.addOrder(salad);
+        Order soup = new Order("order-3", "Soup", 9, 500);
+        soup.setShelfLife(45);
+        kitchenMediator.addOrder(soup);
+        clock.advanceTo(2000);
+        preparations.get(0).run();
+        clock.advanceTo(3000);
+        preparations.get(1).run();
+        kitchenMediator.addCourier(new Courier(1, 4000L, "order-1"));
+        kitchenMediator.addCourier(new Courier(3, 5000L, "order-3"));
+        writeAheadLog.awaitDurable(writeAheadLog.getAppendedCount());
+    }
+
+    /**
+     * Asserts that a recovered state holds the queues left by {@link #runUntilCrash(WriteAheadLog)}.
+     *
+     * @param state The recovered state.
+     */
+    private static void assertCrashState(MediatorState state) {
+        assertEquals(List.of("order-3"), state.getOrdersInPreparation().stream().map(Order::getId).toList());
+        assertEquals(9, state.getOrdersInPreparation().get(0).getPrepTime());
+        assertEquals(500, state.getOrdersInPreparation().get(0).getPlacedTime());
+        assertEquals(45, state.getOrdersInPreparation().get(0).getShelfLife());
+        assertEquals(List.of("order-2"), state.getReadyOrders().stream().map(Order::getId).toList());
+        assertEquals(3000, state.getReadyOrders().get(0).getReadyTime());
+        assertEquals(250, state.getReadyOrders().get(0).getPlacedTime());
+        assertEquals(30, state.getReadyOrders().get(0).getShelfLife());
+        assertEquals(1, state.getWaitingCouriers().size());
+        Courier courier = state.getWaitingCouriers().get(0);
+        assertEquals(3, courier.getCourierId());
+        assertEquals(5000, courier.getArrivalTime());
+        assertEquals("order-3", courier.getTargetOrderId());
+    }
+
+    /**
+     * Tests that a copy of a live log recovers the queues, and that a mediator restored from it
+     * prepares the order again and hands it to its waiting courier.
+     */
+    @Test
+    void testRecoversQueuesFromCrashImage() throws IOException {
+        Path live = directory.resolve("live");
+        Path crashed = directory.resolve("crashed");
+        try (WriteAheadLog writeAheadLog = new WriteAheadLog(live)) {
+            runUntilCrash(writeAheadLog);
+            copyCrashImage(live, crashed);
+        }
+
+        try (WriteAheadLog recovered = new WriteAheadLog(crashed)) {
+            assertCrashState(recovered.getRecoveredState());
+
+            VirtualClock clock = new VirtualClock();
+            clock.advanceTo(20000);
+            KitchenMediator kitchenMediator = new KitchenMediator(clock, Runnable::run);
+            kitchenMediator.setDispatchCommand(new MatchedOrderDispatcherStrategy());
+            kitchenMediator.setWriteAheadLog(recovered);
+            kitchenMediator.restore(recovered.getRecoveredState());
+
+            assertEquals(1, kitchenMediator.getCourierWaitStats().getCount());
+            assertEquals(15000, kitchenMediator.getCourierWaitStats().getMax());
+            recovered.awaitDurable(recovered.getAppendedCount());
+        }
+
+        try (WriteAheadLog reopened = new WriteAheadLog(crashed)) {
+            MediatorState state = reopened.getRecoveredState();
+            assertTrue(state.getOrdersInPreparation().isEmpty());
+            assertEquals(List.of("order-2"), state.getReadyOrders().stream().map(Order::getId).toList());
+            assertEquals(250, state.getReadyOrders().get(0).getPlacedTime());
+            assertEquals(30, state.getReadyOrders().get(0).getShelfLife());
+            assertTrue(state.getWaitingCouriers().isEmpty());
+        }
+    }
+
+    /**
+     * Tests that an order picked up by a dispatch pass running as soon as the order is queued
+     * is logged ready before it is logged picked up, so recovery does not bring it back to the ready queue.
+     */
+    @Test
+    void testPickupRacingShelvingIsLoggedAfterReadyOrder() {
+        VirtualClock clock = new VirtualClock();
+        KitchenMediator kitchenMediator = new KitchenMediator(clock, Runnable::run);
+        RacingShelf shelf = new RacingShelf(clock);
+        shelf.kitchenMediator = kitchenMediator;
+        kitchenMediator.setReadyShelf(shelf);
+        try (WriteAheadLog writeAheadLog = new WriteAheadLog(directory)) {
+            kitchenMediator.setWriteAheadLog(writeAheadLog);
+            kitchenMediator.addCourier(new Courier(1, 0L, "order-1"));
+            kitchenMediator.addOrder(new Order("order-1", "Burger", 0));
+            assertEquals(1, kitchenMediator.getFoodWaitStats().getCount());
+            writeAheadLog.awaitDurable(writeAheadLog.getAppendedCount());
+        }
+
+        try (WriteAheadLog recovered = new WriteAheadLog(directory)) {
+            MediatorState state = recovered.getRecoveredState();
+            assertTrue(state.getOrdersInPreparation().isEmpty());
+            assertTrue(state.getReadyOrders().isEmpty());
+            assertTrue(state.getWaitingCouriers().isEmpty());
+        }
+    }
+
+    /**
+     * Tests that replay stops at a torn record after the last complete one.
+     */
+    @Test
+    void testIgnoresTornTail() throws IOException {
+        Path live = directory.resolve("live");
+        Path crashed = directory.resolve("crashed");
+        try (WriteAheadLog writeAheadLog = new WriteAheadLog(live, 1 << 16)) {
+            runUntilCrash(writeAheadLog);
+            copyCrashImage(live, crashed);
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(crashed)) {
+            segment = files.filter(file -> file.getFileName().toString().startsWith("wal-")).max(Path::compareTo).orElseThrow();
+        }
+        byte[] bytes = Files.readAllBytes(segment);
+        int end = bytes.length;
+        while (end > 0 && bytes[end - 1] == 0) {
+            end--;
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            // A frame header promising more bytes than were written, followed by part of a payload
+            channel.write(ByteBuffer.allocate(12).putInt(40).putInt(0x12345678).putInt(7).flip(), end);
+        }
+
+        try (WriteAheadLog recovered = new WriteAheadLog(crashed)) {
+            assertCrashState(recovered.getRecoveredState());
+        }
+    }
+
+    /**
+     * Tests that small segments roll over with snapshots, leave a single segment behind,
+     * and still recover the queues with the placement times and shelf lives of their orders.
+     */
+    @Test
+    void testRollsSegmentsAndRecoversFromSnapshot() throws IOException {
+        try (WriteAheadLog writeAheadLog = new WriteAheadLog(directory, 256)) {
+            for (int i = 0; i < 200; i++) {
+                Order order = new Order("order-" + i, "Meal", 5, 10L * i);
+                order.setShelfLife(i % 60);
+                writeAheadLog.orderReceived(order, i);
+                if (i % 2 == 0) {
+                    order.setReadyTime(i + 1);
+                    writeAheadLog.orderReady(order);
+                }
+                if (i % 4 == 0) {
+                    writeAheadLog.orderPickedUp(order, new Courier(i, i), i + 2);
+                }
+            }
+            Courier courier = new Courier(1000, 1000L, null);
+            writeAheadLog.courierArrived(courier);
+            writeAheadLog.courierLeft(courier, 1001);
+            writeAheadLog.courierArrived(new Courier(1001, 1002L, "order-199"));
+            writeAheadLog.awaitDurable(writeAheadLog.getAppendedCount());
+            assertEquals(writeAheadLog.getAppendedCount(), writeAheadLog.getDurableCount());
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.filter(file -> file.getFileName().toString().startsWith("wal-")).count());
+        }
+
+        try (WriteAheadLog recovered = new WriteAheadLog(directory, 256)) {
+            MediatorState state = recovered.getRecoveredState();
+            assertEquals(100, state.getOrdersInPreparation().size());
+            assertEquals(50, state.getReadyOrders().size());
+            assertEquals("order-2", state.getReadyOrders().get(0).getId());
+            assertEquals(20, state.getReadyOrders().get(0).getPlacedTime());
+            assertEquals(2, state.getReadyOrders().get(0).getShelfLife());
+            Order last = state.getOrdersInPreparation().get(99);
+            assertEquals("order-199", last.getId());
+            assertEquals(1990, last.getPlacedTime());
+            assertEquals(19, last.getShelfLife());
+            assertEquals(List.of(1001), state.getWaitingCouriers().stream().map(Courier::getCourierId).toList());
+        }
+    }
+}